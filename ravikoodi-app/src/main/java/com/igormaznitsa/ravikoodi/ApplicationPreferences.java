@@ -206,6 +206,30 @@ public class ApplicationPreferences {
         }
     }
 
+    public int getKeepAliveFps() {
+        synchronized (this.preferences) {
+            return Math.min(Math.max(1, this.preferences.getInt(Option.SCREENCAST_KEEPALIVE_FPS.getPropertyName(), 2)), 50);
+        }
+    }
+
+    public void setKeepAliveFps(final int value) {
+        synchronized (this.preferences) {
+            this.preferences.putInt(Option.SCREENCAST_KEEPALIVE_FPS.getPropertyName(), Math.min(Math.max(1, value), 50));
+        }
+    }
+
+    public boolean isScreencastHls() {
+        synchronized (this.preferences) {
+            return this.preferences.getBoolean(Option.SCREENCAST_HLS.getPropertyName(), false);
+        }
+    }
+
+    public void setScreencastHls(final boolean value) {
+        synchronized (this.preferences) {
+            this.preferences.putBoolean(Option.SCREENCAST_HLS.getPropertyName(), value);
+        }
+    }
+
     @NonNull
     public Duration getJsonRequestTimeout() {
         synchronized (this.preferences) {
@@ -283,6 +307,40 @@ public class ApplicationPreferences {
         }
     }
 
+    /**
+     * Get TCP port of Kodi JSON-RPC notifications.
+     *
+     * @return port, 0 if notifications are not used
+     */
+    public int getKodiNotificationPort() {
+        synchronized (this.preferences) {
+            return this.preferences.getInt(Option.KODI_NOTIFICATION_PORT.getPropertyName(), 9090);
+        }
+    }
+
+    public void setKodiNotificationPort(final int port) {
+        synchronized (this.preferences) {
+            this.preferences.putInt(Option.KODI_NOTIFICATION_PORT.getPropertyName(), port < 0 || port > 65535 ? 9090 : port);
+        }
+    }
+
+    /**
+     * Get memory budget of server block cache for file ranges.
+     *
+     * @return size of cache in megabytes, 0 if cache is not used
+     */
+    public int getServerBlockCacheSize() {
+        synchronized (this.preferences) {
+            return this.preferences.getInt(Option.SERVER_BLOCK_CACHE_SIZE.getPropertyName(), 64);
+        }
+    }
+
+    public void setServerBlockCacheSize(final int megabytes) {
+        synchronized (this.preferences) {
+            this.preferences.putInt(Option.SERVER_BLOCK_CACHE_SIZE.getPropertyName(), Math.max(0, Math.min(4096, megabytes)));
+        }
+    }
+
 
     public int getScaleUi() {
         return getScaleUi(this.preferences);
@@ -385,6 +443,19 @@ public class ApplicationPreferences {
         }
     }
 
+    @NonNull
+    public ServerEngineType getServerEngine() {
+        synchronized (this.preferences) {
+            return ServerEngineType.findForName(this.preferences.get(Option.SERVER_ENGINE.getPropertyName(), ServerEngineType.JDK.name()));
+        }
+    }
+
+    public void setServerEngine(@NonNull final ServerEngineType engineType) {
+        synchronized (this.preferences) {
+            this.preferences.put(Option.SERVER_ENGINE.getPropertyName(), engineType.name());
+        }
+    }
+
     public YtMode getYoutubeOpenUrlMode() {
         synchronized (this.preferences) {
             try {
@@ -543,6 +614,18 @@ public class ApplicationPreferences {
                     .orElse(AUTO);
         }
     }
+    public enum ServerEngineType {
+        JDK,
+        NIO;
+
+        @NonNull
+        public static ServerEngineType findForName(@Nullable final String name) {
+            return Stream.of(ServerEngineType.values())
+                    .filter(x -> x.name().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElse(JDK);
+        }
+    }
     public enum Quality {
         MODE144P("144p", "-2:144", 144),
         MODE240P("240p", "-2:240", 240),
@@ -593,17 +676,22 @@ public class ApplicationPreferences {
         SCREENCAST_BANDWIDTH("screencast.bandwidth"),
         SCREENCAST_SOUNDOFFSET("screencast.sndoffset"),
         SCREENCAST_CRF("screencast.crf"),
+        SCREENCAST_KEEPALIVE_FPS("screencast.keepalive.fps"),
+        SCREENCAST_HLS("screencast.hls"),
         SCREENCAST_SPEED_PROFILE("screencast.speed.profile"),
         SCREENCAST_GRABBER_TYPE("screencast.grabber.type"),
         SERVER_PORT("server.port"),
         SERVER_INTERFACE("server.interface"),
         SERVER_SSL("server.ssl"),
+        SERVER_ENGINE("server.engine"),
+        SERVER_BLOCK_CACHE_SIZE("server.block.cache.size"),
         FILE_ROOT("file.root"),
         LANDF("lookandfeel.class"),
         TIMERS("timers.list"),
         STATIC_RESOURCES("static.resources.list"),
         KODI_ADDRESS("kodi.address"),
         KODI_PORT("kodi.port"),
+        KODI_NOTIFICATION_PORT("kodi.notification.port"),
         KODI_NAME("kodi.name"),
         KODI_SSL("kodi.ssl"),
         KODI_PASSWORD("kodi.password"),
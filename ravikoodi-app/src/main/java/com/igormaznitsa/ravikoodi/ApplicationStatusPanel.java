@@ -1,13 +1,12 @@
 package com.igormaznitsa.ravikoodi;
 
 import com.igormaznitsa.ravikoodi.kodijsonapi.ApplicationProperties;
+import com.igormaznitsa.ravikoodi.kodijsonapi.BatchRequest;
 import com.igormaznitsa.ravikoodi.kodijsonapi.ExecuteAction;
 import com.igormaznitsa.ravikoodi.kodijsonapi.KodiService;
 import java.awt.Component;
 import java.awt.event.KeyEvent;
 import java.util.Hashtable;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -24,13 +23,14 @@ import javax.swing.plaf.basic.BasicSliderUI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
-public class ApplicationStatusPanel extends javax.swing.JPanel {
+public class ApplicationStatusPanel extends javax.swing.JPanel implements KodiStatusPoller.Participant {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationStatusPanel.class);
 
-  private final ScheduledExecutorService scheduledExecutor;
   private final ApplicationPreferences preferences;
+  private final KodiComm kodiComm;
 
   private final Icon APP_ICON_NOTCONNECTED = new ImageIcon(Utils.loadImage("64_app_icon_red.png"));
   private final Icon APP_ICON_CONNECTED = new ImageIcon(Utils.loadImage("64_app_icon_green.png"));
@@ -42,10 +42,10 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
 
   public ApplicationStatusPanel(
           @NonNull final MainFrame parent,
-          @NonNull final ScheduledExecutorService executors,
-          @NonNull final ApplicationPreferences preferences) {
+          @NonNull final ApplicationPreferences preferences,
+          @NonNull final KodiComm kodiComm) {
     this.parent = parent;
-    this.scheduledExecutor = executors;
+    this.kodiComm = kodiComm;
     this.preferences = preferences;
 
     initComponents();
@@ -61,8 +61,6 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
 
     setEnableComponents(false);
 
-    this.scheduledExecutor.scheduleWithFixedDelay(this::refresh, 1L, 3L, TimeUnit.SECONDS);
-
     final ApplicationStatusPanel thePanel = this;
 
     final ChangeListener sliderListener = new ChangeListener() {
@@ -79,7 +77,7 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
               thePanel.sliderVolume.removeChangeListener(this);
               try {
                 updateStatusCounter.incrementAndGet();
-                final long agreedValue = new KodiService(thePanel.makeKodiAddress(), preferences.getJsonRequestTimeout()).setApplicationVolume(volume);
+                final long agreedValue = thePanel.makeKodiService().setApplicationVolume(volume);
                 LOGGER.info("Player agreed volume {}%", agreedValue);
                 thePanel.sliderVolume.setValue((int) agreedValue);
               } catch (Throwable thr) {
@@ -101,7 +99,7 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
       if (this.allowListenersProcessing) {
         final boolean muted = this.buttonMute.isSelected();
         try {
-          new KodiService(makeKodiAddress(), this.preferences.getJsonRequestTimeout()).setApplicationMute(muted);
+          makeKodiService().setApplicationMute(muted);
         } catch (Throwable thr) {
           LOGGER.error("Can't mute : " + thr.getMessage());
         }
@@ -111,7 +109,7 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
     this.buttonReboot.addActionListener(x -> {
       if (JOptionPane.showConfirmDialog(this.parent, "Do you really want reboot?", "Reboot", JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION) {
         try {
-          new KodiService(makeKodiAddress(), this.preferences.getJsonRequestTimeout()).doSystemReboot();
+          makeKodiService().doSystemReboot();
         } catch (Throwable thr) {
           LOGGER.error("Can't reboot : " + thr.getMessage());
         }
@@ -121,7 +119,7 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
     this.buttonShutdown.addActionListener(x -> {
       if (JOptionPane.showConfirmDialog(this.parent, "Do you really want shutdown?", "Shutdown", JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION) {
         try {
-          new KodiService(makeKodiAddress(), this.preferences.getJsonRequestTimeout()).doSystemShutdown();
+          makeKodiService().doSystemShutdown();
         } catch (Throwable thr) {
           LOGGER.error("Can't shutdown : " + thr.getMessage());
         }
@@ -140,67 +138,82 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
     this.registerKeyboardAction(e -> this.buttonSelect.doClick(), KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, KeyEvent.ALT_DOWN_MASK), JComponent.WHEN_IN_FOCUSED_WINDOW);
   }
   
-  private KodiAddress makeKodiAddress() {
-    return new KodiAddress(
-            this.preferences.getKodiAddress(),
-            this.preferences.getKodiPort(),
-            this.preferences.getKodiName(),
-            this.preferences.getKodiPassword(),
-            this.preferences.isKodiSsl()
-    );
+  @NonNull
+  private KodiService makeKodiService() {
+    return this.kodiComm.makeKodiService().orElseThrow(() -> new IllegalStateException("Can't get kodi service"));
   }
 
-  public void refresh() {
+  /**
+   * Show volume state notified by Kodi.
+   *
+   * @param volume volume value in percents
+   * @param muted true if muted
+   */
+  public void onVolumeChanged(final long volume, final boolean muted) {
+    // make in-flight status requests outdated
+    this.updateStatusCounter.incrementAndGet();
+    SwingUtilities.invokeLater(() -> {
+      if (this.ignoreRefresh || this.sliderVolume.getValueIsAdjusting()) {
+        return;
+      }
+      this.allowListenersProcessing = false;
+      try {
+        this.sliderVolume.setValue((int) volume);
+        this.buttonMute.setSelected(muted);
+      } finally {
+        this.allowListenersProcessing = true;
+      }
+    });
+  }
+
+  @Override
+  @Nullable
+  public Runnable prepareStatusRequest(@NonNull final BatchRequest batch) {
     if (this.ignoreRefresh) {
-      return;
+      return null;
     }
     final long counterValue = this.updateStatusCounter.get();
 
-    final KodiAddress kodiAddress = makeKodiAddress();
-
-    this.scheduledExecutor.submit(() -> {
-      if (this.updateStatusCounter.get() == counterValue) {
-        final KodiService kodiService;
-        try {
-          kodiService = new KodiService(kodiAddress, this.preferences.getJsonRequestTimeout());
-        } catch (Exception ex) {
-          SwingUtilities.invokeLater(() -> {
-            SwingUtilities.invokeLater(() -> {
-              labelApplicationName.setText("Wrong address");
-              ApplicationStatusPanel.this.setEnabled(false);
-            });
-          });
-          return;
-        }
+    if (this.kodiComm.makeKodiService().isEmpty()) {
+      SwingUtilities.invokeLater(() -> {
+        labelApplicationName.setText("Wrong address");
+        ApplicationStatusPanel.this.setEnabled(false);
+      });
+      return null;
+    }
 
-        try {
-          final ApplicationProperties properties = kodiService.getAllApplicationProperties();
-          SwingUtilities.invokeLater(() -> {
-            if (this.updateStatusCounter.getAndIncrement() == counterValue) {
-              this.allowListenersProcessing = false;
-              try {
-                if (!sliderVolume.getValueIsAdjusting()) {
-                  labelApplicationName.setIcon(APP_ICON_CONNECTED);
-                  labelApplicationName.setToolTipText("KODI is connected");
-                  setEnableComponents(true);
-                  sliderVolume.setValue((int) properties.getVolume());
-                }
-                buttonMute.setSelected(properties.isMuted());
-              } finally {
-                this.allowListenersProcessing = true;
+    final BatchRequest.Response<ApplicationProperties> response = batch.getApplicationProperties(ApplicationProperties.ALL_NAMES);
+    return () -> {
+      if (this.updateStatusCounter.get() != counterValue) {
+        return;
+      }
+      try {
+        final ApplicationProperties properties = response.get();
+        SwingUtilities.invokeLater(() -> {
+          if (this.updateStatusCounter.getAndIncrement() == counterValue) {
+            this.allowListenersProcessing = false;
+            try {
+              if (!sliderVolume.getValueIsAdjusting()) {
+                labelApplicationName.setIcon(APP_ICON_CONNECTED);
+                labelApplicationName.setToolTipText("KODI is connected");
+                setEnableComponents(true);
+                sliderVolume.setValue((int) properties.getVolume());
               }
+              buttonMute.setSelected(properties.isMuted());
+            } finally {
+              this.allowListenersProcessing = true;
             }
-          });
-        } catch (Throwable thr) {
-          LOGGER.warn("Can't get application properties: {}", thr.getMessage());
-          SwingUtilities.invokeLater(() -> {
-            labelApplicationName.setIcon(APP_ICON_NOTCONNECTED);
-            labelApplicationName.setToolTipText("KODI is not connected");
-            setEnableComponents(false);
-          });
-        }
+          }
+        });
+      } catch (Throwable thr) {
+        LOGGER.warn("Can't get application properties: {}", thr.getMessage());
+        SwingUtilities.invokeLater(() -> {
+          labelApplicationName.setIcon(APP_ICON_NOTCONNECTED);
+          labelApplicationName.setToolTipText("KODI is not connected");
+          setEnableComponents(false);
+        });
       }
-    });
+    };
   }
 
   private void setEnableComponents(final boolean enable) {
@@ -224,7 +237,7 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
 
   private void sendInputExecuteAction(final ExecuteAction action) {
     try {
-      new KodiService(makeKodiAddress(), this.preferences.getJsonRequestTimeout()).sendInputExecuteAction(action);
+      makeKodiService().sendInputExecuteAction(action);
     } catch (Throwable thr) {
       LOGGER.error("Can't send input execute action '" + action + "' : " + thr.getMessage());
     }
@@ -232,7 +245,7 @@ public class ApplicationStatusPanel extends javax.swing.JPanel {
 
   private void sendControlEvent(final KodiService.Control event, final Object... args) {
     try {
-      new KodiService(makeKodiAddress(), this.preferences.getJsonRequestTimeout()).sendControlEvent(event, args);
+      makeKodiService().sendControlEvent(event, args);
     } catch (Throwable thr) {
       LOGGER.error("Can't send control event '" + event + "' : " + thr.getMessage());
     }
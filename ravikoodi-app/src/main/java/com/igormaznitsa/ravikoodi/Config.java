@@ -1,21 +1,68 @@
 package com.igormaznitsa.ravikoodi;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
 
 @Configuration
 public class Config {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(Config.class);
+
+  /**
+   * Name of executor service bean for blocking tasks (KODI JSON-RPC calls,
+   * Youtube lookups etc), scheduled executor service must be used only for
+   * short timer actions.
+   */
+  public static final String TASK_EXECUTOR = "taskExecutorService";
+
+  /**
+   * Check that virtual threads are turned on by startup switch
+   * {@code spring.threads.virtual.enabled=true} and supported by current JVM.
+   *
+   * @param environment application environment, must not be null
+   * @return true if virtual threads should be used
+   */
+  public static boolean isVirtualThreadsActive(@NonNull final Environment environment) {
+    return Threading.VIRTUAL.isActive(environment) && VirtualThreads.isSupported();
+  }
+
   @Bean
   public ScheduledExecutorService createScheduledExecutorService() {
     return new ScheduledThreadPoolExecutor(
-            5,
+            2,
             (Runnable r) -> {
       final Thread result = new Thread(r,"scheduled-executor-service-"+System.nanoTime());
       result.setDaemon(true);
       return result;
     });
   }
+
+  @Bean(name = TASK_EXECUTOR)
+  public ExecutorService createTaskExecutorService(@NonNull final Environment environment) {
+    if (isVirtualThreadsActive(environment)) {
+      final Optional<ExecutorService> virtualExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor("task-executor-service-");
+      if (virtualExecutor.isPresent()) {
+        LOGGER.info("Virtual threads are used for task executor");
+        return virtualExecutor.get();
+      }
+    } else if (Threading.VIRTUAL.isActive(environment)) {
+      LOGGER.warn("Virtual threads requested but not supported by current JVM");
+    }
+    return Executors.newCachedThreadPool(
+            (Runnable r) -> {
+      final Thread result = new Thread(r,"task-executor-service-"+System.nanoTime());
+      result.setDaemon(true);
+      return result;
+    });
+  }
 }
@@ -15,46 +15,103 @@
  */
 package com.igormaznitsa.ravikoodi;
 
-import com.igormaznitsa.ravikoodi.ContentFile;
-import com.igormaznitsa.ravikoodi.ContentTreeItem;
-import com.igormaznitsa.ravikoodi.MimeTypes;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
+/**
+ * Folder node of content tree. Content of the folder is not read during
+ * creation, it is loaded by {@link ContentTreeScanner} when the folder is
+ * expanded. List of children must be changed and read only in Swing thread.
+ */
 public final class ContentFolder implements ContentTreeItem {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(ContentFolder.class);
-    
+    public enum State {
+        NOT_LOADED,
+        LOADING,
+        LOADED
+    }
+
+    private final ContentFolder parent;
     private final Path filePath;
     private final String fileName;
     private final List<ContentTreeItem> files = new ArrayList<>();
+    private final AtomicReference<State> state = new AtomicReference<>(State.NOT_LOADED);
 
-    public ContentFolder(@NonNull final Path filePath) throws IOException {
+    public ContentFolder(@NonNull final Path filePath) {
+        this(null, filePath);
+    }
+
+    public ContentFolder(@Nullable final ContentFolder parent, @NonNull final Path filePath) {
+        this.parent = parent;
         this.filePath = filePath;
-        this.fileName = this.filePath.getFileName().toString();
-
-        Files.list(filePath).filter(f -> {
-            return Files.isReadable(f) && (Files.isDirectory(f) || MimeTypes.ContentType.findType(f) != MimeTypes.ContentType.UNKNOWN);
-        }).peek(f -> {
-            if (Files.isDirectory(f)) {
-                try {
-                    this.files.add(new ContentFolder(f));
-                } catch (IOException ex) {
-                    LOGGER.error("Can't read folder {}", f, ex);
-                }
-            } else {
-                this.files.add(new ContentFile(f, MimeTypes.ContentType.findType(f)));
+        final Path name = this.filePath.getFileName();
+        this.fileName = name == null ? this.filePath.toString() : name.toString();
+    }
+
+    @Nullable
+    public ContentFolder getParent() {
+        return this.parent;
+    }
+
+    @NonNull
+    public State getState() {
+        return this.state.get();
+    }
+
+    public boolean isLoaded() {
+        return this.state.get() == State.LOADED;
+    }
+
+    boolean startLoading() {
+        return this.state.compareAndSet(State.NOT_LOADED, State.LOADING);
+    }
+
+    void endLoading() {
+        this.state.set(State.LOADED);
+    }
+
+    /**
+     * Add item into list of children with keeping of order.
+     *
+     * @param item item to be added
+     * @return index of added item
+     */
+    int addSorted(@NonNull final ContentTreeItem item) {
+        int index = Collections.binarySearch(this.files, item, CONTENT_ITEM_COMPARATOR);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        this.files.add(index, item);
+        return index;
+    }
+
+    /**
+     * Find index of child with name.
+     *
+     * @param name name of child
+     * @return index of child or -1 if not found
+     */
+    int findChild(@NonNull final String name) {
+        for (int i = 0; i < this.files.size(); i++) {
+            if (this.files.get(i).getFileNameAsString().equals(name)) {
+                return i;
             }
-        }).count();
+        }
+        return -1;
+    }
+
+    @NonNull
+    ContentTreeItem removeChild(final int index) {
+        return this.files.remove(index);
+    }
 
-        Collections.sort(this.files, CONTENT_ITEM_COMPARATOR);
+    void clearFiles() {
+        this.files.clear();
     }
 
     @Override
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background loader of content tree folders. Every folder is read in its own
+ * task of a small thread pool so that several expanded folders are read in
+ * parallel, found items are provided to Swing thread by chunks so that the
+ * tree is filled while the folder is still being read. Content of not changed
+ * folders is taken from {@link MediaIndex}, changes reported by the index are
+ * provided for already loaded folders. All read folders are also placed into
+ * {@link FileNameSearchIndex}, folders which are not expanded by user are
+ * indexed by background crawl of whole tree. All folders of a tree are loaded
+ * within a {@link Session} which is cancelled when the tree root is changed,
+ * not started tasks of cancelled session are skipped and their results are
+ * dropped.
+ */
+@Component
+public class ContentTreeScanner implements MediaIndex.Listener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentTreeScanner.class);
+
+    public static final int CHUNK_SIZE = 64;
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    public interface Sink {
+
+        /**
+         * Called in Swing thread for every chunk of found folder items.
+         *
+         * @param folder folder which items have been found
+         * @param items sorted list of found items
+         */
+        void onFolderItems(@NonNull ContentFolder folder, @NonNull List<ContentTreeItem> items);
+
+        /**
+         * Called in Swing thread when whole folder has been read.
+         *
+         * @param folder loaded folder
+         */
+        default void onFolderLoaded(@NonNull ContentFolder folder) {
+        }
+
+        /**
+         * Called in Swing thread when item of loaded folder has been changed on
+         * disk.
+         *
+         * @param folder loaded folder
+         * @param name name of changed item
+         * @param item new item, null if it has been removed
+         */
+        default void onFolderItemChanged(@NonNull ContentFolder folder, @NonNull String name, @Nullable ContentTreeItem item) {
+        }
+
+        /**
+         * Called in Swing thread when background indexing of whole tree has
+         * been completed.
+         *
+         * @param root root folder of the tree
+         */
+        default void onTreeIndexed(@NonNull ContentFolder root) {
+        }
+    }
+
+    public static final class Session {
+
+        private final ContentFolder root;
+        private final Sink sink;
+        private final Map<Path, ContentFolder> folders = new ConcurrentHashMap<>();
+        private volatile boolean cancelled;
+        private volatile boolean indexing;
+
+        private Session(@NonNull final ContentFolder root, @NonNull final Sink sink) {
+            this.root = root;
+            this.sink = sink;
+        }
+
+        @NonNull
+        public ContentFolder getRoot() {
+            return this.root;
+        }
+
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Check that background indexing of the tree is in progress.
+         *
+         * @return true if not all folders of the tree are in search index yet
+         */
+        public boolean isIndexing() {
+            return this.indexing;
+        }
+
+        public void cancel() {
+            if (!this.cancelled) {
+                this.cancelled = true;
+                this.folders.clear();
+                LOGGER.info("Cancelled content scan of {}", this.root.getFilePath());
+            }
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Executor uiExecutor;
+    private final MediaIndex index;
+    private final FileNameSearchIndex searchIndex;
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public ContentTreeScanner(@NonNull final MediaIndex index, @NonNull final FileNameSearchIndex searchIndex) {
+        this(Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable r) {
+                final Thread result = new Thread(r, "content-scanner-" + this.counter.incrementAndGet());
+                result.setDaemon(true);
+                return result;
+            }
+        }), SwingUtilities::invokeLater, index, searchIndex);
+    }
+
+    ContentTreeScanner(
+            @NonNull final ExecutorService executor,
+            @NonNull final Executor uiExecutor,
+            @NonNull final MediaIndex index,
+            @NonNull final FileNameSearchIndex searchIndex
+    ) {
+        this.executor = executor;
+        this.uiExecutor = uiExecutor;
+        this.index = index;
+        this.searchIndex = searchIndex;
+        this.index.addListener(this);
+    }
+
+    @NonNull
+    public Session startSession(@NonNull final Path root, @NonNull final Sink sink) {
+        this.sessions.removeIf(Session::isCancelled);
+        final Session result = new Session(new ContentFolder(root.toAbsolutePath().normalize()), sink);
+        this.sessions.add(result);
+        return result;
+    }
+
+    /**
+     * Start loading of folder content in background if it has not been
+     * started yet.
+     *
+     * @param session session of the folder tree
+     * @param folder folder to be loaded
+     * @return true if loading has been started, false if the folder is already
+     * loaded or being loaded or the session is cancelled
+     */
+    public boolean load(@NonNull final Session session, @NonNull final ContentFolder folder) {
+        if (session.isCancelled() || !folder.startLoading()) {
+            return false;
+        }
+        try {
+            this.executor.execute(() -> this.readFolder(session, folder));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warn("Can't start loading of folder {}: {}", folder.getFilePath(), ex.getMessage());
+            folder.endLoading();
+            return false;
+        }
+    }
+
+    /**
+     * Start background crawl of whole session tree which places all folders
+     * into media index and search index, so that files of not expanded
+     * folders can be found. Folders which are symbolic links are not crawled
+     * to avoid loops. The crawl is stopped when the session is cancelled.
+     *
+     * @param session session of the folder tree
+     * @return true if indexing has been started
+     */
+    public boolean startIndexing(@NonNull final Session session) {
+        if (session.isCancelled() || session.indexing) {
+            return false;
+        }
+        session.indexing = true;
+        try {
+            this.executor.execute(() -> this.indexTree(session));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warn("Can't start indexing of {}: {}", session.getRoot().getFilePath(), ex.getMessage());
+            session.indexing = false;
+            return false;
+        }
+    }
+
+    private void indexTree(@NonNull final Session session) {
+        final long start = System.currentTimeMillis();
+        final Path root = session.getRoot().getFilePath();
+        int folders = 0;
+        try {
+            this.openRoot(root);
+            final Deque<Path> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty() && !session.isCancelled()) {
+                final Path folderPath = queue.poll();
+                final MediaIndex.Folder indexed = this.index.findFolder(folderPath);
+                final List<MediaIndex.Entry> entries;
+                if (indexed == null) {
+                    final long lastModified = MediaIndex.getLastModified(folderPath);
+                    entries = new ArrayList<>();
+                    try (DirectoryStream<Path> stream = Files.newDirectoryStream(folderPath)) {
+                        for (final Path path : stream) {
+                            if (session.isCancelled()) {
+                                return;
+                            }
+                            final MediaIndex.Entry entry = makeEntry(path);
+                            if (entry != null) {
+                                entries.add(entry);
+                            }
+                        }
+                    } catch (IOException | DirectoryIteratorException ex) {
+                        LOGGER.debug("Can't index folder {}: {}", folderPath, ex.getMessage());
+                        continue;
+                    }
+                    this.index.putFolder(folderPath, lastModified, entries);
+                    this.searchIndex.putFolder(folderPath, entries);
+                } else {
+                    entries = new ArrayList<>(indexed.getEntries());
+                    if (!this.searchIndex.hasFolder(folderPath)) {
+                        this.searchIndex.putFolder(folderPath, entries);
+                    }
+                }
+                folders++;
+                for (final MediaIndex.Entry entry : entries) {
+                    final Path path = folderPath.resolve(entry.getName());
+                    if (entry.isDirectory() && !Files.isSymbolicLink(path)) {
+                        queue.add(path);
+                    }
+                }
+            }
+        } finally {
+            session.indexing = false;
+            if (!session.isCancelled()) {
+                LOGGER.info("Tree {} has been indexed for {} ms, {} folders, {} files", root, System.currentTimeMillis() - start, folders, this.searchIndex.size());
+                this.uiExecutor.execute(() -> {
+                    if (!session.isCancelled()) {
+                        session.sink.onTreeIndexed(session.getRoot());
+                    }
+                });
+            }
+        }
+    }
+
+    private void readFolder(@NonNull final Session session, @NonNull final ContentFolder folder) {
+        if (session.isCancelled()) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final Path folderPath = folder.getFilePath();
+        int found = 0;
+        boolean fromIndex = false;
+        try {
+            this.openRoot(session.getRoot().getFilePath());
+            final List<ContentTreeItem> chunk = new ArrayList<>(CHUNK_SIZE);
+            final MediaIndex.Folder indexed = this.index.findFolder(folderPath);
+            if (indexed == null) {
+                final long lastModified = MediaIndex.getLastModified(folderPath);
+                final List<MediaIndex.Entry> entries = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(folderPath)) {
+                    for (final Path path : stream) {
+                        if (session.isCancelled()) {
+                            return;
+                        }
+                        final MediaIndex.Entry entry = makeEntry(path);
+                        if (entry != null) {
+                            entries.add(entry);
+                            found++;
+                            this.addToChunk(session, folder, chunk, makeItem(folder, entry));
+                        }
+                    }
+                }
+                this.index.putFolder(folderPath, lastModified, entries);
+                this.searchIndex.putFolder(folderPath, entries);
+            } else {
+                fromIndex = true;
+                if (!this.searchIndex.hasFolder(folderPath)) {
+                    this.searchIndex.putFolder(folderPath, indexed.getEntries());
+                }
+                for (final MediaIndex.Entry entry : indexed.getEntries()) {
+                    if (session.isCancelled()) {
+                        return;
+                    }
+                    found++;
+                    this.addToChunk(session, folder, chunk, makeItem(folder, entry));
+                }
+            }
+            if (!chunk.isEmpty()) {
+                this.publish(session, folder, new ArrayList<>(chunk));
+            }
+        } catch (IOException | DirectoryIteratorException ex) {
+            LOGGER.error("Can't read folder {}", folderPath, ex);
+        } finally {
+            if (!session.isCancelled()) {
+                session.folders.put(folderPath, folder);
+                LOGGER.debug("Folder {} has been read for {} ms, found {} items, from index {}", folderPath, System.currentTimeMillis() - start, found, fromIndex);
+                this.uiExecutor.execute(() -> {
+                    folder.endLoading();
+                    if (!session.isCancelled()) {
+                        session.sink.onFolderLoaded(folder);
+                    }
+                });
+            }
+        }
+    }
+
+    private synchronized void openRoot(@NonNull final Path root) {
+        this.index.open(root);
+        if (!root.equals(this.searchIndex.getRoot())) {
+            this.searchIndex.reset(root);
+            this.index.forEachFolder(this.searchIndex::putFolder);
+            LOGGER.info("Search index has been filled from media index, {} files", this.searchIndex.size());
+        }
+    }
+
+    @Nullable
+    private static MediaIndex.Entry makeEntry(@NonNull final Path path) {
+        try {
+            return MediaIndex.makeEntry(path);
+        } catch (IOException ex) {
+            LOGGER.debug("Can't read attributes of {}: {}", path, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void addToChunk(
+            @NonNull final Session session,
+            @NonNull final ContentFolder folder,
+            @NonNull final List<ContentTreeItem> chunk,
+            @NonNull final ContentTreeItem item
+    ) {
+        chunk.add(item);
+        if (chunk.size() >= CHUNK_SIZE) {
+            this.publish(session, folder, new ArrayList<>(chunk));
+            chunk.clear();
+        }
+    }
+
+    private void publish(
+            @NonNull final Session session,
+            @NonNull final ContentFolder folder,
+            @NonNull final List<ContentTreeItem> chunk
+    ) {
+        chunk.sort(ContentTreeItem.CONTENT_ITEM_COMPARATOR);
+        this.uiExecutor.execute(() -> {
+            if (!session.isCancelled()) {
+                session.sink.onFolderItems(folder, chunk);
+            }
+        });
+    }
+
+    /**
+     * Make tree item for index entry.
+     *
+     * @param parent parent folder
+     * @param entry index entry of a parent folder item
+     * @return created item
+     */
+    @NonNull
+    static ContentTreeItem makeItem(@NonNull final ContentFolder parent, @NonNull final MediaIndex.Entry entry) {
+        final Path path = parent.getFilePath().resolve(entry.getName());
+        return entry.isDirectory() ? new ContentFolder(parent, path) : new ContentFile(path, entry.getContentType());
+    }
+
+    @Override
+    public void onMediaIndexChange(@NonNull final Path folderPath, @NonNull final String name, @Nullable final MediaIndex.Entry entry) {
+        this.searchIndex.putEntry(folderPath, name, entry);
+        for (final Session session : this.sessions) {
+            final ContentFolder folder = session.isCancelled() ? null : session.folders.get(folderPath);
+            if (folder != null) {
+                final ContentTreeItem item = entry == null ? null : makeItem(folder, entry);
+                this.uiExecutor.execute(() -> {
+                    if (!session.isCancelled() && folder.isLoaded()) {
+                        session.sink.onFolderItemChanged(folder, name, item);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.index.removeListener(this);
+        this.executor.shutdownNow();
+    }
+}
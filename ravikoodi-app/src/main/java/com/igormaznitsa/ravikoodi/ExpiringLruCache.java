@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Size and age bounded map with least recently used eviction. Expired
+ * entries are removed when they are requested and from the least recently
+ * used side during adding of new entries, so the cache never holds more than
+ * max size entries. The cache counts hits, misses, evictions and expirations.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class ExpiringLruCache<K, V> {
+
+    private static final class Item<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private Item(@NonNull final V value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxSize;
+    private final long timeToLiveMilliseconds;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Item<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public ExpiringLruCache(final int maxSize, final long timeToLiveMilliseconds) {
+        this(maxSize, timeToLiveMilliseconds, System::currentTimeMillis);
+    }
+
+    ExpiringLruCache(final int maxSize, final long timeToLiveMilliseconds, @NonNull final LongSupplier clock) {
+        if (maxSize <= 0 || timeToLiveMilliseconds <= 0L) {
+            throw new IllegalArgumentException("Max size and time to live must be positive");
+        }
+        this.maxSize = maxSize;
+        this.timeToLiveMilliseconds = timeToLiveMilliseconds;
+        this.clock = clock;
+    }
+
+    public synchronized void put(@NonNull final K key, @NonNull final V value) {
+        final long now = this.clock.getAsLong();
+        this.purgeExpired(now);
+        this.map.put(key, new Item<>(value, now + this.timeToLiveMilliseconds));
+        final Iterator<Map.Entry<K, Item<V>>> iterator = this.map.entrySet().iterator();
+        while (this.map.size() > this.maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictions++;
+        }
+    }
+
+    @Nullable
+    public synchronized V get(@NonNull final K key) {
+        return this.find(key, false);
+    }
+
+    @Nullable
+    public synchronized V remove(@NonNull final K key) {
+        return this.find(key, true);
+    }
+
+    @Nullable
+    private V find(@NonNull final K key, final boolean remove) {
+        final Item<V> item = remove ? this.map.remove(key) : this.map.get(key);
+        if (item == null) {
+            this.misses++;
+            return null;
+        }
+        if (item.expiresAt <= this.clock.getAsLong()) {
+            if (!remove) {
+                this.map.remove(key);
+            }
+            this.expirations++;
+            this.misses++;
+            return null;
+        }
+        this.hits++;
+        return item.value;
+    }
+
+    /**
+     * Remove expired entries from the least recently used side of the cache.
+     */
+    public synchronized void purgeExpired() {
+        this.purgeExpired(this.clock.getAsLong());
+    }
+
+    private void purgeExpired(final long now) {
+        final Iterator<Item<V>> iterator = this.map.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt > now) {
+                break;
+            }
+            iterator.remove();
+            this.expirations++;
+        }
+    }
+
+    public synchronized void clear() {
+        this.map.clear();
+    }
+
+    public synchronized int size() {
+        return this.map.size();
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public long getTimeToLiveMilliseconds() {
+        return this.timeToLiveMilliseconds;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return this.expirations;
+    }
+
+    @Override
+    @NonNull
+    public synchronized String toString() {
+        return "ExpiringLruCache{" + "size=" + this.map.size() + ", maxSize=" + this.maxSize + ", hits=" + this.hits + ", misses=" + this.misses + ", evictions=" + this.evictions + ", expirations=" + this.expirations + '}';
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Off-heap cache of file blocks for small range requests. KODI probes media
+ * files by many short range requests to their head and tail (headers, moov
+ * atoms, indexes) before playing, such ranges are served from direct buffers
+ * without disk access. Blocks are keyed by file path, file modification time
+ * and block index so that changed files are not served from stale blocks,
+ * the least recently used blocks are evicted when the memory budget is
+ * reached. Long streaming ranges in the middle of a file are not cached, they
+ * are sent by the caller through its usual path.
+ */
+@Component
+public class FileBlockCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileBlockCache.class);
+
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    public static final int HEAD_TAIL_BLOCKS = 4;
+    public static final long MAX_CACHED_RANGE_LENGTH = 1024L * 1024L;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final class BlockKey {
+
+        private final Path file;
+        private final long lastModified;
+        private final long index;
+
+        private BlockKey(@NonNull final Path file, final long lastModified, final long index) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof BlockKey) {
+                final BlockKey other = (BlockKey) that;
+                return this.index == other.index && this.lastModified == other.lastModified && this.file.equals(other.file);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.file, this.lastModified, this.index);
+        }
+    }
+
+    private static final class Block {
+
+        private final ByteBuffer buffer;
+        private int pins;
+        private boolean evicted;
+
+        private Block(@NonNull final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private final int blockSize;
+    private final LinkedHashMap<BlockKey, Block> blocks = new LinkedHashMap<>(64, 0.75f, true);
+    private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+
+    private int maxBlocks;
+    private int allocatedBlocks;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long bytesServed;
+
+    public FileBlockCache() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    FileBlockCache(final int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Set memory budget of the cache, extra blocks are evicted immediately.
+     *
+     * @param bytes max number of bytes in cached blocks, 0 turns off the cache
+     */
+    public void setBudget(final long bytes) {
+        synchronized (this.blocks) {
+            this.maxBlocks = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, bytes) / this.blockSize);
+            this.trim();
+            LOGGER.info("Block cache budget is {} blocks of {} bytes", this.maxBlocks, this.blockSize);
+        }
+    }
+
+    private void trim() {
+        this.allocatedBlocks -= this.freeBuffers.size();
+        this.freeBuffers.clear();
+        final Iterator<Block> iterator = this.blocks.values().iterator();
+        while (this.allocatedBlocks > this.maxBlocks && iterator.hasNext()) {
+            final Block block = iterator.next();
+            iterator.remove();
+            block.evicted = true;
+            this.evictions++;
+            if (block.pins == 0) {
+                this.allocatedBlocks--;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        synchronized (this.blocks) {
+            return this.maxBlocks > 0;
+        }
+    }
+
+    /**
+     * Check that range should be served from the cache.
+     *
+     * @param fileSize full size of file
+     * @param range requested range
+     * @return true if the range is short or lies in head or tail of file
+     */
+    public boolean isCacheable(final long fileSize, @NonNull final HttpRange range) {
+        if (range.getLength() <= 0L || range.getEnd() >= fileSize) {
+            return false;
+        }
+        final long edge = (long) HEAD_TAIL_BLOCKS * this.blockSize;
+        return range.getLength() <= MAX_CACHED_RANGE_LENGTH
+                || range.getEnd() < edge
+                || range.getStart() >= fileSize - edge;
+    }
+
+    /**
+     * Send file range from cached blocks, missing blocks are read from the
+     * file and placed into the cache.
+     *
+     * @param file path to the file
+     * @param fileSize size of the file
+     * @param lastModified last modification time of the file
+     * @param range requested range
+     * @param out stream to write data
+     * @return true if range has been sent, false if the cache is turned off or
+     * the range is not cacheable, nothing is written in the case
+     * @throws IOException if error during read or write
+     */
+    public boolean send(
+            @NonNull final Path file,
+            final long fileSize,
+            final long lastModified,
+            @NonNull final HttpRange range,
+            @NonNull final OutputStream out
+    ) throws IOException {
+        if (!this.isEnabled() || !this.isCacheable(fileSize, range)) {
+            return false;
+        }
+        final WritableByteChannel channel = out instanceof WritableByteChannel ? (WritableByteChannel) out : null;
+        final byte[] copyBuffer = channel == null ? new byte[(int) Math.min(COPY_BUFFER_SIZE, range.getLength())] : null;
+        FileChannel fileChannel = null;
+        try {
+            long pos = range.getStart();
+            while (pos <= range.getEnd() && !Thread.currentThread().isInterrupted()) {
+                final long index = pos / this.blockSize;
+                final BlockKey key = new BlockKey(file, lastModified, index);
+                Block block = this.pin(key);
+                ByteBuffer data = block == null ? null : block.buffer;
+                try {
+                    if (data == null) {
+                        if (fileChannel == null) {
+                            fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+                        }
+                        block = this.load(key, fileChannel);
+                        data = block == null ? readBlock(fileChannel, index * this.blockSize, ByteBuffer.allocate(this.blockSize)) : block.buffer;
+                    }
+                    final int offset = (int) (pos - index * this.blockSize);
+                    if (offset >= data.limit()) {
+                        LOGGER.warn("File {} is shorter than expected, {} bytes not sent", file, range.getEnd() - pos + 1);
+                        break;
+                    }
+                    final int length = (int) Math.min(data.limit() - offset, range.getEnd() - pos + 1);
+                    final ByteBuffer slice = data.duplicate();
+                    slice.position(offset).limit(offset + length);
+                    write(slice, channel, copyBuffer, out);
+                    pos += length;
+                    synchronized (this.blocks) {
+                        this.bytesServed += length;
+                    }
+                } finally {
+                    if (block != null) {
+                        this.unpin(block);
+                    }
+                }
+            }
+        } finally {
+            if (fileChannel != null) {
+                fileChannel.close();
+            }
+        }
+        out.flush();
+        return true;
+    }
+
+    private static void write(
+            @NonNull final ByteBuffer data,
+            @Nullable final WritableByteChannel channel,
+            @Nullable final byte[] copyBuffer,
+            @NonNull final OutputStream out
+    ) throws IOException {
+        if (channel != null) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } else {
+            while (data.hasRemaining()) {
+                final int length = Math.min(data.remaining(), copyBuffer.length);
+                data.get(copyBuffer, 0, length);
+                out.write(copyBuffer, 0, length);
+            }
+        }
+    }
+
+    @NonNull
+    private static ByteBuffer readBlock(@NonNull final FileChannel channel, final long position, @NonNull final ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Nullable
+    private Block pin(@NonNull final BlockKey key) {
+        synchronized (this.blocks) {
+            final Block result = this.blocks.get(key);
+            if (result == null) {
+                this.misses++;
+            } else {
+                this.hits++;
+                result.pins++;
+            }
+            return result;
+        }
+    }
+
+    private void unpin(@NonNull final Block block) {
+        synchronized (this.blocks) {
+            block.pins--;
+            if (block.pins == 0 && block.evicted) {
+                this.release(block.buffer);
+            }
+        }
+    }
+
+    /**
+     * Read block from file into a free cache buffer and place it into the
+     * cache.
+     *
+     * @return pinned block or null if there is no free memory in the cache
+     */
+    @Nullable
+    private Block load(@NonNull final BlockKey key, @NonNull final FileChannel channel) throws IOException {
+        final ByteBuffer buffer;
+        synchronized (this.blocks) {
+            buffer = this.takeBuffer();
+        }
+        if (buffer == null) {
+            return null;
+        }
+        try {
+            readBlock(channel, key.index * this.blockSize, buffer);
+        } catch (IOException | RuntimeException ex) {
+            synchronized (this.blocks) {
+                this.release(buffer);
+            }
+            throw ex;
+        }
+        synchronized (this.blocks) {
+            final Block existing = this.blocks.get(key);
+            if (existing != null) {
+                // loaded by another thread in parallel
+                this.release(buffer);
+                existing.pins++;
+                return existing;
+            }
+            final Block result = new Block(buffer);
+            result.pins = 1;
+            this.blocks.put(key, result);
+            return result;
+        }
+    }
+
+    @Nullable
+    private ByteBuffer takeBuffer() {
+        while (true) {
+            final ByteBuffer free = this.freeBuffers.poll();
+            if (free != null) {
+                return free;
+            }
+            if (this.allocatedBlocks < this.maxBlocks) {
+                this.allocatedBlocks++;
+                return ByteBuffer.allocateDirect(this.blockSize);
+            }
+            final Iterator<Block> iterator = this.blocks.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            final Block eldest = iterator.next();
+            iterator.remove();
+            eldest.evicted = true;
+            this.evictions++;
+            if (eldest.pins == 0) {
+                this.release(eldest.buffer);
+            }
+        }
+    }
+
+    private void release(@NonNull final ByteBuffer buffer) {
+        if (this.allocatedBlocks > this.maxBlocks) {
+            this.allocatedBlocks--;
+        } else {
+            this.freeBuffers.push(buffer);
+        }
+    }
+
+    public int size() {
+        synchronized (this.blocks) {
+            return this.blocks.size();
+        }
+    }
+
+    public long getHits() {
+        synchronized (this.blocks) {
+            return this.hits;
+        }
+    }
+
+    public long getMisses() {
+        synchronized (this.blocks) {
+            return this.misses;
+        }
+    }
+
+    public long getEvictions() {
+        synchronized (this.blocks) {
+            return this.evictions;
+        }
+    }
+
+    public long getBytesServed() {
+        synchronized (this.blocks) {
+            return this.bytesServed;
+        }
+    }
+
+    @PreDestroy
+    public void clear() {
+        synchronized (this.blocks) {
+            final int budget = this.maxBlocks;
+            this.maxBlocks = 0;
+            this.trim();
+            this.maxBlocks = budget;
+        }
+    }
+}
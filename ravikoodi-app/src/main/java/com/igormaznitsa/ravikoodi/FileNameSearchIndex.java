@@ -0,0 +1,321 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of media file names of scanned folders. Every file name is
+ * split into trigrams, search by substring takes posting list of the rarest
+ * trigram of the query and checks only files from the list. Content of
+ * folders is replaced in the index when folders are read or changed, removed
+ * entries are compacted when their number becomes big.
+ */
+@Component
+public class FileNameSearchIndex {
+
+    private static final int NGRAM = 3;
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    private static final class IntList {
+
+        private int[] data = new int[4];
+        private int size;
+
+        void add(final int value) {
+            if (this.size > 0 && this.data[this.size - 1] == value) {
+                return;
+            }
+            if (this.size == this.data.length) {
+                this.data = Arrays.copyOf(this.data, this.size * 2);
+            }
+            this.data[this.size++] = value;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ContentFile[] files = new ContentFile[MIN_COMPACT_SIZE];
+    private String[] names = new String[MIN_COMPACT_SIZE];
+    private int size;
+    private int removed;
+    private final Map<Path, Integer> idByPath = new HashMap<>();
+    private final Map<Path, IntList> idsByFolder = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private Path root;
+
+    @Nullable
+    public Path getRoot() {
+        this.lock.readLock().lock();
+        try {
+            return this.root;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed files.
+     *
+     * @return number of files in the index
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.idByPath.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public boolean hasFolder(@NonNull final Path folder) {
+        this.lock.readLock().lock();
+        try {
+            return this.idsByFolder.containsKey(folder);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all indexed files and set new root.
+     *
+     * @param root new root folder, can be null
+     */
+    public void reset(@Nullable final Path root) {
+        this.lock.writeLock().lock();
+        try {
+            this.root = root;
+            this.files = new ContentFile[MIN_COMPACT_SIZE];
+            this.names = new String[MIN_COMPACT_SIZE];
+            this.size = 0;
+            this.removed = 0;
+            this.idByPath.clear();
+            this.idsByFolder.clear();
+            this.postings.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace indexed content of folder. Indexed sub-folders which are not
+     * presented in new content are removed from the index.
+     *
+     * @param folder folder path
+     * @param entries all media entries of the folder
+     */
+    public void putFolder(@NonNull final Path folder, @NonNull final Collection<MediaIndex.Entry> entries) {
+        this.lock.writeLock().lock();
+        try {
+            this.removeFolderFiles(folder);
+            final Set<String> subFolders = new HashSet<>();
+            for (final MediaIndex.Entry e : entries) {
+                if (e.isDirectory()) {
+                    subFolders.add(e.getName());
+                } else {
+                    this.add(folder, new ContentFile(folder.resolve(e.getName()), e.getContentType()));
+                }
+            }
+            this.idsByFolder.computeIfAbsent(folder, x -> new IntList());
+            final List<Path> lostFolders = new ArrayList<>();
+            for (final Path p : this.idsByFolder.keySet()) {
+                if (folder.equals(p.getParent()) && !subFolders.contains(p.getFileName().toString())) {
+                    lostFolders.add(p);
+                }
+            }
+            lostFolders.forEach(this::removeTree);
+            this.compactIfNeeded();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update single entry of indexed folder, ignored if the folder is not
+     * indexed.
+     *
+     * @param folder folder path
+     * @param name name of entry
+     * @param entry new state of entry, null if removed
+     */
+    public void putEntry(@NonNull final Path folder, @NonNull final String name, @Nullable final MediaIndex.Entry entry) {
+        this.lock.writeLock().lock();
+        try {
+            if (!this.idsByFolder.containsKey(folder)) {
+                return;
+            }
+            final Path path = folder.resolve(name);
+            final Integer id = this.idByPath.get(path);
+            if (id != null) {
+                this.remove(id);
+            }
+            if (entry == null) {
+                this.removeTree(path);
+            } else if (!entry.isDirectory()) {
+                this.add(folder, new ContentFile(path, entry.getContentType()));
+            }
+            this.compactIfNeeded();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find files which names contain text, case insensitive.
+     *
+     * @param text text to be found
+     * @param type content type of files, null for any type
+     * @param limit max number of results
+     * @return sorted list of found files
+     */
+    @NonNull
+    public List<ContentFile> search(@NonNull final String text, @Nullable final MimeTypes.ContentType type, final int limit) {
+        final String query = text.trim().toLowerCase(Locale.ROOT);
+        final List<ContentFile> result = new ArrayList<>();
+        if (query.isEmpty() || limit <= 0) {
+            return result;
+        }
+        this.lock.readLock().lock();
+        try {
+            if (query.length() < NGRAM) {
+                for (int i = 0; i < this.size && result.size() < limit; i++) {
+                    this.check(i, query, type, result);
+                }
+            } else {
+                IntList smallest = null;
+                for (int i = 0; i <= query.length() - NGRAM; i++) {
+                    final IntList list = this.postings.get(makeKey(query, i));
+                    if (list == null) {
+                        return result;
+                    }
+                    if (smallest == null || list.size < smallest.size) {
+                        smallest = list;
+                    }
+                }
+                for (int i = 0; i < smallest.size && result.size() < limit; i++) {
+                    this.check(smallest.data[i], query, type, result);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        result.sort(ContentTreeItem.CONTENT_ITEM_COMPARATOR);
+        return result;
+    }
+
+    private void check(final int id, @NonNull final String query, @Nullable final MimeTypes.ContentType type, @NonNull final List<ContentFile> result) {
+        final ContentFile file = this.files[id];
+        if (file != null && (type == null || file.getContentType() == type) && this.names[id].contains(query)) {
+            result.add(file);
+        }
+    }
+
+    private static long makeKey(@NonNull final String text, final int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private void add(@NonNull final Path folder, @NonNull final ContentFile file) {
+        final Integer existing = this.idByPath.get(file.getFilePath());
+        if (existing != null) {
+            this.remove(existing);
+        }
+        if (this.size == this.files.length) {
+            this.files = Arrays.copyOf(this.files, this.size * 2);
+            this.names = Arrays.copyOf(this.names, this.size * 2);
+        }
+        final int id = this.size++;
+        final String name = file.getFileNameAsString().toLowerCase(Locale.ROOT);
+        this.files[id] = file;
+        this.names[id] = name;
+        this.idByPath.put(file.getFilePath(), id);
+        this.idsByFolder.computeIfAbsent(folder, x -> new IntList()).add(id);
+        for (int i = 0; i <= name.length() - NGRAM; i++) {
+            this.postings.computeIfAbsent(makeKey(name, i), x -> new IntList()).add(id);
+        }
+    }
+
+    private void remove(final int id) {
+        final ContentFile file = this.files[id];
+        if (file != null) {
+            this.idByPath.remove(file.getFilePath());
+            this.files[id] = null;
+            this.names[id] = null;
+            this.removed++;
+        }
+    }
+
+    private void removeFolderFiles(@NonNull final Path folder) {
+        final IntList ids = this.idsByFolder.remove(folder);
+        if (ids != null) {
+            for (int i = 0; i < ids.size; i++) {
+                this.remove(ids.data[i]);
+            }
+        }
+    }
+
+    private void removeTree(@NonNull final Path folder) {
+        final List<Path> folders = new ArrayList<>();
+        for (final Path p : this.idsByFolder.keySet()) {
+            if (p.startsWith(folder)) {
+                folders.add(p);
+            }
+        }
+        folders.forEach(this::removeFolderFiles);
+    }
+
+    private void compactIfNeeded() {
+        if (this.removed < MIN_COMPACT_SIZE || this.removed * 2 < this.size) {
+            return;
+        }
+        final ContentFile[] oldFiles = this.files;
+        final int oldSize = this.size;
+        final Map<Path, IntList> oldFolders = new HashMap<>(this.idsByFolder);
+
+        this.files = new ContentFile[Math.max(MIN_COMPACT_SIZE, oldSize - this.removed)];
+        this.names = new String[this.files.length];
+        this.size = 0;
+        this.removed = 0;
+        this.idByPath.clear();
+        this.idsByFolder.clear();
+        this.postings.clear();
+
+        for (final Map.Entry<Path, IntList> f : oldFolders.entrySet()) {
+            this.idsByFolder.put(f.getKey(), new IntList());
+            final IntList ids = f.getValue();
+            for (int i = 0; i < ids.size; i++) {
+                final ContentFile file = oldFiles[ids.data[i]];
+                if (file != null) {
+                    this.add(f.getKey(), file);
+                }
+            }
+        }
+    }
+}
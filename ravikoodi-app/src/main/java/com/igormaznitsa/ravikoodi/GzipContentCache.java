@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of gzip compressed variants of text files. Every file is compressed
+ * once for its size and modification time, requests which come during
+ * compression wait for its result. Least recently used variants are removed
+ * when total size of cached variants exceeds the budget.
+ */
+@Component
+public class GzipContentCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GzipContentCache.class);
+
+    public static final long MAX_SOURCE_SIZE = 16L * 1024L * 1024L;
+    public static final long DEFAULT_BUDGET = 32L * 1024L * 1024L;
+
+    private static final byte[] NOT_COMPRESSIBLE = new byte[0];
+
+    private static final class Key {
+
+        private final Path file;
+        private final long size;
+        private final long lastModified;
+
+        private Key(@NonNull final Path file, final long size, final long lastModified) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof Key) {
+                final Key other = (Key) that;
+                return this.size == other.size && this.lastModified == other.lastModified && this.file.equals(other.file);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.file, this.size, this.lastModified);
+        }
+    }
+
+    private final long budget;
+    private final LinkedHashMap<Key, CompletableFuture<byte[]>> variants = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long compressions;
+
+    public GzipContentCache() {
+        this(DEFAULT_BUDGET);
+    }
+
+    GzipContentCache(final long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Check that Accept-Encoding allows gzip.
+     *
+     * @param acceptEncoding value of Accept-Encoding header, can be null
+     * @return true if gzip content coding is acceptable
+     */
+    public static boolean isGzipAccepted(@Nullable final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean any = false;
+        for (final String item : acceptEncoding.split(",")) {
+            final String[] parts = item.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                final String parameter = parts[i].trim().toLowerCase(Locale.ENGLISH);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2).trim()) > 0.0d;
+                    } catch (NumberFormatException ex) {
+                        accepted = false;
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = accepted;
+            } else if ("*".equals(coding)) {
+                any = accepted;
+            }
+        }
+        return gzip == null ? any : gzip;
+    }
+
+    /**
+     * Find gzip compressed variant of file, compress it if not found.
+     *
+     * @param file file to be compressed
+     * @param size size of the file
+     * @param lastModified modification time of the file
+     * @return compressed content, null if file is too big or compression
+     * doesn't make it smaller
+     * @throws IOException if the file can't be read
+     */
+    @Nullable
+    public byte[] find(@NonNull final Path file, final long size, final long lastModified) throws IOException {
+        if (size <= 0L || size > MAX_SOURCE_SIZE) {
+            return null;
+        }
+        final Key key = new Key(file, size, lastModified);
+        final CompletableFuture<byte[]> future;
+        final boolean owner;
+        synchronized (this.variants) {
+            final CompletableFuture<byte[]> existing = this.variants.get(key);
+            if (existing == null) {
+                future = new CompletableFuture<>();
+                this.variants.put(key, future);
+                owner = true;
+            } else {
+                future = existing;
+                owner = false;
+                this.hits++;
+            }
+        }
+
+        if (owner) {
+            try {
+                final byte[] compressed = compress(Files.readAllBytes(file));
+                final byte[] result = compressed.length < size ? compressed : NOT_COMPRESSIBLE;
+                LOGGER.info("Compressed {} from {} to {} bytes", file, size, compressed.length);
+                synchronized (this.variants) {
+                    this.compressions++;
+                    if (this.variants.get(key) == future) {
+                        this.cachedBytes += result.length;
+                        this.trim();
+                    }
+                }
+                future.complete(result);
+            } catch (IOException | RuntimeException ex) {
+                synchronized (this.variants) {
+                    this.variants.remove(key, future);
+                }
+                future.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        final byte[] result;
+        try {
+            result = future.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex.getCause());
+        }
+        return result == NOT_COMPRESSIBLE ? null : result;
+    }
+
+    private void trim() {
+        final Iterator<Map.Entry<Key, CompletableFuture<byte[]>>> iterator = this.variants.entrySet().iterator();
+        while (this.cachedBytes > this.budget && iterator.hasNext()) {
+            final CompletableFuture<byte[]> next = iterator.next().getValue();
+            if (next.isDone() && !next.isCompletedExceptionally()) {
+                this.cachedBytes -= next.join().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    @NonNull
+    static byte[] compress(@NonNull final byte[] data) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 3));
+        try (OutputStream out = new GZIPOutputStream(buffer, 8192) {
+            {
+                this.def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    public long getCachedBytes() {
+        synchronized (this.variants) {
+            return this.cachedBytes;
+        }
+    }
+
+    public long getHits() {
+        synchronized (this.variants) {
+            return this.hits;
+        }
+    }
+
+    public long getCompressions() {
+        synchronized (this.variants) {
+            return this.compressions;
+        }
+    }
+
+    public void clear() {
+        synchronized (this.variants) {
+            this.variants.clear();
+            this.cachedBytes = 0L;
+        }
+    }
+}
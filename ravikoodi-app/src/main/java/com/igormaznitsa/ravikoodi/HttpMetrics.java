@@ -0,0 +1,517 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Light in-process registry of HTTP server metrics. It keeps global counters,
+ * time to first byte histogram, screencast stall time, statistics of every
+ * served stream and gauges registered by other components. Metrics are
+ * rendered in Prometheus text format for the local metrics endpoint.
+ */
+@Component
+public class HttpMetrics {
+
+    public static final int MAX_STREAMS = 256;
+
+    static final long[] LATENCY_BUCKETS_MILLISECONDS = {1L, 5L, 10L, 25L, 50L, 100L, 250L, 500L, 1000L, 2500L, 5000L};
+
+    /**
+     * Histogram with fixed bucket upper bounds.
+     */
+    public static final class Histogram {
+
+        private final long[] bounds;
+        private final AtomicLongArray counts;
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public Histogram(@NonNull final long[] bounds) {
+            this.bounds = bounds.clone();
+            this.counts = new AtomicLongArray(bounds.length + 1);
+        }
+
+        public void record(final long value) {
+            int index = 0;
+            while (index < this.bounds.length && value > this.bounds[index]) {
+                index++;
+            }
+            this.counts.incrementAndGet(index);
+            this.sum.add(value);
+            this.max.accumulateAndGet(value, Math::max);
+        }
+
+        public long getCount() {
+            long result = 0L;
+            for (int i = 0; i < this.counts.length(); i++) {
+                result += this.counts.get(i);
+            }
+            return result;
+        }
+
+        public long getSum() {
+            return this.sum.sum();
+        }
+
+        public long getMax() {
+            return this.max.get();
+        }
+
+        /**
+         * Estimate quantile as upper bound of bucket which contains it.
+         *
+         * @param quantile quantile in 0..1
+         * @return upper bound of the bucket, max recorded value for the last
+         * bucket, 0 if there are no values
+         */
+        public long getQuantile(final double quantile) {
+            final long total = this.getCount();
+            if (total == 0L) {
+                return 0L;
+            }
+            final long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+            long accumulated = 0L;
+            for (int i = 0; i < this.bounds.length; i++) {
+                accumulated += this.counts.get(i);
+                if (accumulated >= rank) {
+                    return Math.min(this.bounds[i], this.getMax());
+                }
+            }
+            return this.getMax();
+        }
+
+        private void render(@NonNull final StringBuilder buffer, @NonNull final String name, @NonNull final String labels) {
+            long accumulated = 0L;
+            for (int i = 0; i < this.bounds.length; i++) {
+                accumulated += this.counts.get(i);
+                buffer.append(name).append("_bucket{").append(labels).append(labels.isEmpty() ? "" : ",")
+                        .append("le=\"").append(this.bounds[i]).append("\"} ").append(accumulated).append('\n');
+            }
+            accumulated += this.counts.get(this.bounds.length);
+            buffer.append(name).append("_bucket{").append(labels).append(labels.isEmpty() ? "" : ",")
+                    .append("le=\"+Inf\"} ").append(accumulated).append('\n');
+            final String suffix = labels.isEmpty() ? " " : '{' + labels + "} ";
+            buffer.append(name).append("_sum").append(suffix).append(this.getSum()).append('\n');
+            buffer.append(name).append("_count").append(suffix).append(accumulated).append('\n');
+        }
+    }
+
+    /**
+     * Statistics of a served file record.
+     */
+    public static final class StreamStats {
+
+        private final String id;
+        private final String name;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder rangeRequests = new LongAdder();
+        private final LongAdder notSatisfiable = new LongAdder();
+        private final LongAdder aborted = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Histogram timeToFirstByte = new Histogram(LATENCY_BUCKETS_MILLISECONDS);
+        private volatile long lastThroughput;
+        private volatile long lastAccess;
+
+        private StreamStats(@NonNull final String id, @NonNull final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @NonNull
+        public String getId() {
+            return this.id;
+        }
+
+        @NonNull
+        public String getName() {
+            return this.name;
+        }
+
+        public long getRequests() {
+            return this.requests.sum();
+        }
+
+        public long getRangeRequests() {
+            return this.rangeRequests.sum();
+        }
+
+        public long getNotSatisfiable() {
+            return this.notSatisfiable.sum();
+        }
+
+        public long getAborted() {
+            return this.aborted.sum();
+        }
+
+        public long getBytesSent() {
+            return this.bytesSent.sum();
+        }
+
+        public int getActive() {
+            return this.active.get();
+        }
+
+        /**
+         * Throughput of the last completed transfer.
+         *
+         * @return bytes per second
+         */
+        public long getLastThroughput() {
+            return this.lastThroughput;
+        }
+
+        public long getLastAccess() {
+            return this.lastAccess;
+        }
+
+        @NonNull
+        public Histogram getTimeToFirstByte() {
+            return this.timeToFirstByte;
+        }
+    }
+
+    /**
+     * Single GET request of a file record, it should be ended by one of
+     * {@link #completed(long)}, {@link #aborted()}, {@link #notSatisfiable()},
+     * {@link #notModified()} or {@link #end()}, only the first call has
+     * effect.
+     */
+    public final class Transfer {
+
+        private final StreamStats stream;
+        private final long startNanos;
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private volatile long firstByteNanos;
+
+        private Transfer(@NonNull final StreamStats stream) {
+            this.stream = stream;
+            this.startNanos = System.nanoTime();
+            stream.requests.increment();
+            stream.active.incrementAndGet();
+            stream.lastAccess = System.currentTimeMillis();
+            HttpMetrics.this.transfers.increment();
+        }
+
+        public void rangeRequested() {
+            this.stream.rangeRequests.increment();
+            HttpMetrics.this.rangeRequests.increment();
+        }
+
+        public void headersSent() {
+            if (this.firstByteNanos == 0L) {
+                this.firstByteNanos = System.nanoTime();
+                final long millis = (this.firstByteNanos - this.startNanos) / 1000000L;
+                this.stream.timeToFirstByte.record(millis);
+                HttpMetrics.this.timeToFirstByte.record(millis);
+            }
+        }
+
+        public void notModified() {
+            if (this.ended.compareAndSet(false, true)) {
+                HttpMetrics.this.notModified.increment();
+                this.stream.active.decrementAndGet();
+            }
+        }
+
+        public void notSatisfiable() {
+            if (this.ended.compareAndSet(false, true)) {
+                this.stream.notSatisfiable.increment();
+                HttpMetrics.this.notSatisfiable.increment();
+                this.stream.active.decrementAndGet();
+            }
+        }
+
+        public void completed(final long bytes) {
+            if (this.ended.compareAndSet(false, true)) {
+                final long nanos = Math.max(1L, System.nanoTime() - (this.firstByteNanos == 0L ? this.startNanos : this.firstByteNanos));
+                this.stream.bytesSent.add(bytes);
+                this.stream.lastThroughput = (long) (bytes * 1.0e9d / nanos);
+                HttpMetrics.this.bytesSent.add(bytes);
+                this.stream.active.decrementAndGet();
+            }
+        }
+
+        public void aborted() {
+            if (this.ended.compareAndSet(false, true)) {
+                this.stream.aborted.increment();
+                HttpMetrics.this.aborted.increment();
+                this.stream.active.decrementAndGet();
+            }
+        }
+
+        public void end() {
+            if (this.ended.compareAndSet(false, true)) {
+                this.stream.active.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Gauge {
+
+        private final String name;
+        private final String help;
+        private final LongSupplier supplier;
+
+        private Gauge(@NonNull final String name, @NonNull final String help, @NonNull final LongSupplier supplier) {
+            this.name = name;
+            this.help = help;
+            this.supplier = supplier;
+        }
+    }
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder rangeRequests = new LongAdder();
+    private final LongAdder notSatisfiable = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder screencastStalls = new LongAdder();
+    private final LongAdder screencastStallMilliseconds = new LongAdder();
+    private final Histogram timeToFirstByte = new Histogram(LATENCY_BUCKETS_MILLISECONDS);
+    private final Map<String, StreamStats> streams = new ConcurrentHashMap<>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+
+    public void onRequest() {
+        this.requests.increment();
+    }
+
+    public void onNotFound() {
+        this.notFound.increment();
+    }
+
+    public void onScreencastStall(final long milliseconds) {
+        this.screencastStalls.increment();
+        this.screencastStallMilliseconds.add(milliseconds);
+    }
+
+    @NonNull
+    public Transfer startTransfer(@NonNull final UploadFileRecord record) {
+        StreamStats stream = this.streams.get(record.getId());
+        if (stream == null) {
+            if (this.streams.size() >= MAX_STREAMS) {
+                this.streams.values().stream()
+                        .filter(x -> x.getActive() == 0)
+                        .min(Comparator.comparingLong(StreamStats::getLastAccess))
+                        .ifPresent(x -> this.streams.remove(x.getId(), x));
+            }
+            stream = this.streams.computeIfAbsent(record.getId(), id -> new StreamStats(id, String.valueOf(record.getFile().getFileName())));
+        }
+        return new Transfer(stream);
+    }
+
+    /**
+     * Register gauge which value is read during rendering.
+     *
+     * @param name metric name
+     * @param help metric description
+     * @param supplier supplier of current value
+     */
+    public void registerGauge(@NonNull final String name, @NonNull final String help, @NonNull final LongSupplier supplier) {
+        this.gauges.removeIf(x -> x.name.equals(name));
+        this.gauges.add(new Gauge(name, help, supplier));
+    }
+
+    public long getRequests() {
+        return this.requests.sum();
+    }
+
+    public long getTransfers() {
+        return this.transfers.sum();
+    }
+
+    public long getRangeRequests() {
+        return this.rangeRequests.sum();
+    }
+
+    public long getNotSatisfiable() {
+        return this.notSatisfiable.sum();
+    }
+
+    public long getNotFound() {
+        return this.notFound.sum();
+    }
+
+    public long getNotModified() {
+        return this.notModified.sum();
+    }
+
+    public long getAborted() {
+        return this.aborted.sum();
+    }
+
+    public long getBytesSent() {
+        return this.bytesSent.sum();
+    }
+
+    public long getScreencastStalls() {
+        return this.screencastStalls.sum();
+    }
+
+    public long getScreencastStallMilliseconds() {
+        return this.screencastStallMilliseconds.sum();
+    }
+
+    @NonNull
+    public Histogram getTimeToFirstByte() {
+        return this.timeToFirstByte;
+    }
+
+    @Nullable
+    public StreamStats findStream(@NonNull final String id) {
+        return this.streams.get(id);
+    }
+
+    /**
+     * Get statistics of streams, the most recently accessed first.
+     *
+     * @return list of stream statistics
+     */
+    @NonNull
+    public List<StreamStats> getStreams() {
+        final List<StreamStats> result = new ArrayList<>(this.streams.values());
+        result.sort(Comparator.comparingLong(StreamStats::getLastAccess).reversed());
+        return result;
+    }
+
+    /**
+     * Render all metrics in Prometheus text exposition format.
+     *
+     * @return rendered metrics
+     */
+    @NonNull
+    public String render() {
+        final StringBuilder buffer = new StringBuilder(4096);
+        renderValue(buffer, "ravikoodi_http_requests_total", "counter", "Received HTTP requests", this.getRequests());
+        renderValue(buffer, "ravikoodi_http_transfers_total", "counter", "GET requests of published files", this.getTransfers());
+        renderValue(buffer, "ravikoodi_http_range_requests_total", "counter", "Requests of partial content", this.getRangeRequests());
+        renderValue(buffer, "ravikoodi_http_not_satisfiable_total", "counter", "Responses with status 416", this.getNotSatisfiable());
+        renderValue(buffer, "ravikoodi_http_not_found_total", "counter", "Requests of not registered files", this.getNotFound());
+        renderValue(buffer, "ravikoodi_http_not_modified_total", "counter", "Responses with status 304", this.getNotModified());
+        renderValue(buffer, "ravikoodi_http_aborted_total", "counter", "Transfers broken by error or closed connection", this.getAborted());
+        renderValue(buffer, "ravikoodi_http_sent_bytes_total", "counter", "Bytes of sent file content", this.getBytesSent());
+        renderValue(buffer, "ravikoodi_screencast_stalls_total", "counter", "Screencast waits for data longer than a second", this.getScreencastStalls());
+        renderValue(buffer, "ravikoodi_screencast_stall_milliseconds_total", "counter", "Screencast time without data", this.getScreencastStallMilliseconds());
+
+        buffer.append("# HELP ravikoodi_http_ttfb_milliseconds Time to first byte of file responses\n");
+        buffer.append("# TYPE ravikoodi_http_ttfb_milliseconds histogram\n");
+        this.timeToFirstByte.render(buffer, "ravikoodi_http_ttfb_milliseconds", "");
+
+        for (final Gauge gauge : this.gauges) {
+            renderValue(buffer, gauge.name, "gauge", gauge.help, gauge.supplier.getAsLong());
+        }
+
+        final List<StreamStats> streamList = this.getStreams();
+        if (!streamList.isEmpty()) {
+            buffer.append("# TYPE ravikoodi_stream_requests_total counter\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_requests_total", x, x.getRequests()));
+            buffer.append("# TYPE ravikoodi_stream_range_requests_total counter\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_range_requests_total", x, x.getRangeRequests()));
+            buffer.append("# TYPE ravikoodi_stream_not_satisfiable_total counter\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_not_satisfiable_total", x, x.getNotSatisfiable()));
+            buffer.append("# TYPE ravikoodi_stream_aborted_total counter\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_aborted_total", x, x.getAborted()));
+            buffer.append("# TYPE ravikoodi_stream_sent_bytes_total counter\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_sent_bytes_total", x, x.getBytesSent()));
+            buffer.append("# TYPE ravikoodi_stream_active gauge\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_active", x, x.getActive()));
+            buffer.append("# TYPE ravikoodi_stream_throughput_bytes_per_second gauge\n");
+            streamList.forEach(x -> renderStream(buffer, "ravikoodi_stream_throughput_bytes_per_second", x, x.getLastThroughput()));
+            buffer.append("# TYPE ravikoodi_stream_ttfb_milliseconds histogram\n");
+            streamList.forEach(x -> x.getTimeToFirstByte().render(buffer, "ravikoodi_stream_ttfb_milliseconds", makeLabels(x)));
+        }
+        return buffer.toString();
+    }
+
+    private static void renderValue(
+            @NonNull final StringBuilder buffer,
+            @NonNull final String name,
+            @NonNull final String type,
+            @NonNull final String help,
+            final long value
+    ) {
+        buffer.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        buffer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        buffer.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void renderStream(
+            @NonNull final StringBuilder buffer,
+            @NonNull final String name,
+            @NonNull final StreamStats stream,
+            final long value
+    ) {
+        buffer.append(name).append('{').append(makeLabels(stream)).append("} ").append(value).append('\n');
+    }
+
+    @NonNull
+    private static String makeLabels(@NonNull final StreamStats stream) {
+        return "id=\"" + escapeLabel(stream.getId()) + "\",file=\"" + escapeLabel(stream.getName()) + '\"';
+    }
+
+    @NonNull
+    static String escapeLabel(@NonNull final String text) {
+        final StringBuilder result = new StringBuilder(text.length());
+        for (final char c : text.toCharArray()) {
+            switch (c) {
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\"':
+                    result.append("\\\"");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                default:
+                    result.append(c);
+                    break;
+            }
+        }
+        return result.toString();
+    }
+
+    @NonNull
+    static String formatBytes(final long bytes) {
+        if (bytes < 1024L) {
+            return bytes + " B";
+        } else if (bytes < 1024L * 1024L) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0d);
+        } else if (bytes < 1024L * 1024L * 1024L) {
+            return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0d * 1024.0d));
+        } else {
+            return String.format(Locale.ROOT, "%.2f GB", bytes / (1024.0d * 1024.0d * 1024.0d));
+        }
+    }
+}
@@ -1,58 +1,164 @@
 package com.igormaznitsa.ravikoodi;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
+/**
+ * Byte range of content. Contains parser of Range header in RFC 7233 form,
+ * it supports suffix ranges, open ranges and lists of ranges which are sorted
+ * and coalesced.
+ */
 public class HttpRange {
 
+  public static final String UNIT_BYTES = "bytes";
+
+  /**
+   * Max number of ranges after coalescing, the Range header with more ranges
+   * is ignored and whole content is sent.
+   */
+  public static final int MAX_RANGES = 32;
+
+  /**
+   * Ranges separated by gap less than the value are merged because the gap
+   * is smaller than headers of a multipart part.
+   */
+  public static final long COALESCE_GAP = 80L;
+
   private final String unit;
   private final long start;
   private final long end;
   private final long contentSize;
 
-  public HttpRange(@Nullable String header, final long fullContentSize) {
-    
-    if (header == null) {
-      header = "bytes=0-"+(fullContentSize-1);
-    }
-    
-    final String[] unitcontent = header.split("\\=");
-
+  /**
+   * Make range for the first range of Range header.
+   *
+   * @param header Range header, null for whole content
+   * @param fullContentSize size of content
+   */
+  public HttpRange(@Nullable final String header, final long fullContentSize) {
+    final List<HttpRange> ranges = parseRanges(header, fullContentSize);
+    final HttpRange first = ranges == null || ranges.isEmpty() ? null : ranges.get(0);
+    this.unit = UNIT_BYTES;
     this.contentSize = fullContentSize;
-    
-    final long maxPos = fullContentSize - 1;
-
-    if (unitcontent.length != 2) {
-      this.unit = "bytes";
+    if (first == null) {
       this.start = 0L;
-      this.end = maxPos;
+      this.end = fullContentSize - 1;
     } else {
-      this.unit = unitcontent[0].trim();
-      header = unitcontent[1].trim();
-      if (header == null) {
-        this.start = 0L;
-        this.end = maxPos;
+      this.start = first.start;
+      this.end = first.end;
+    }
+  }
+
+  public HttpRange(@NonNull final String unit, final long start, final long end, final long contentSize) {
+    this.unit = unit;
+    this.start = start;
+    this.end = end;
+    this.contentSize = contentSize;
+  }
+
+  /**
+   * Parse Range header.
+   *
+   * @param header value of Range header, can be null
+   * @param contentSize full size of content
+   * @return null if header is absent, has wrong syntax, unsupported unit or
+   * too many ranges so that it should be ignored, empty list if there is no
+   * any satisfiable range, otherwise sorted list of coalesced ranges
+   */
+  @Nullable
+  public static List<HttpRange> parseRanges(@Nullable final String header, final long contentSize) {
+    if (header == null) {
+      return null;
+    }
+    final int equalPos = header.indexOf('=');
+    if (equalPos < 0 || !UNIT_BYTES.equalsIgnoreCase(header.substring(0, equalPos).trim())) {
+      return null;
+    }
+
+    final List<HttpRange> found = new ArrayList<>();
+    boolean hasSpec = false;
+    for (final String part : header.substring(equalPos + 1).split(",")) {
+      final String spec = part.trim();
+      if (spec.isEmpty()) {
+        continue;
+      }
+      hasSpec = true;
+      final int dashPos = spec.indexOf('-');
+      if (dashPos < 0) {
+        return null;
+      }
+      final String first = spec.substring(0, dashPos).trim();
+      final String last = spec.substring(dashPos + 1).trim();
+      if (first.isEmpty()) {
+        final long suffixLength = parseNumber(last);
+        if (suffixLength < 0L) {
+          return null;
+        }
+        if (suffixLength > 0L && contentSize > 0L) {
+          found.add(new HttpRange(UNIT_BYTES, Math.max(0L, contentSize - suffixLength), contentSize - 1L, contentSize));
+        }
       } else {
-        final String[] parse = header.split("\\-");
-        switch (parse.length) {
-          case 0: {
-            this.start = 0L;
-            this.end = maxPos;
-          }
-          break;
-          case 1: {
-            this.start = parseNumber(parse[0], 0L);
-            this.end = maxPos;
-          }
-          break;
-          default: {
-            this.start = parseNumber(parse[0], 0L);
-            this.end = parseNumber(parse[1], maxPos);
-          }
-          break;
+        final long firstPos = parseNumber(first);
+        final long lastPos = last.isEmpty() ? Long.MAX_VALUE : parseNumber(last);
+        if (firstPos < 0L || lastPos < 0L || lastPos < firstPos) {
+          return null;
         }
+        if (firstPos < contentSize) {
+          found.add(new HttpRange(UNIT_BYTES, firstPos, Math.min(lastPos, contentSize - 1L), contentSize));
+        }
+      }
+    }
+    if (!hasSpec) {
+      return null;
+    }
+
+    final List<HttpRange> result = coalesce(found);
+    return result.size() > MAX_RANGES ? null : result;
+  }
+
+  @NonNull
+  private static List<HttpRange> coalesce(@NonNull final List<HttpRange> ranges) {
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+    ranges.sort(Comparator.comparingLong(HttpRange::getStart));
+    final List<HttpRange> result = new ArrayList<>();
+    HttpRange current = ranges.get(0);
+    for (int i = 1; i < ranges.size(); i++) {
+      final HttpRange next = ranges.get(i);
+      if (next.start <= current.end + COALESCE_GAP) {
+        current = new HttpRange(current.unit, current.start, Math.max(current.end, next.end), current.contentSize);
+      } else {
+        result.add(current);
+        current = next;
       }
     }
+    result.add(current);
+    return result;
+  }
+
+  /**
+   * Check If-Range condition. Weak entity tags never match.
+   *
+   * @param ifRange value of If-Range header, can be null
+   * @param entityTag current entity tag of content, can be null
+   * @param lastModified last modification time of content in milliseconds
+   * @return true if Range header should be processed, false if whole content
+   * should be sent
+   */
+  public static boolean isIfRangeMatched(@Nullable final String ifRange, @Nullable final String entityTag, final long lastModified) {
+    if (ifRange == null) {
+      return true;
+    }
+    final String value = ifRange.trim();
+    if (value.startsWith("\"") || value.startsWith("W/")) {
+      return entityTag != null && !entityTag.startsWith("W/") && value.equals(entityTag);
+    }
+    final long time = HttpValidators.parseDate(value);
+    return time >= 0L && lastModified > 0L && time / 1000L == lastModified / 1000L;
   }
 
   public String getUnit() {
@@ -67,18 +173,30 @@ public class HttpRange {
     return this.end;
   }
 
+  public long getContentSize() {
+    return this.contentSize;
+  }
+
   @Override
   @NonNull
   public String toString() {
     return String.format("HttpRange(unit=%s,start=%d,end=%d)", this.unit, this.start, this.end);
   }
 
-  private long parseNumber(@NonNull final String number, final long dflt) {
+  private static long parseNumber(@NonNull final String number) {
+    if (number.isEmpty()) {
+      return -1L;
+    }
+    for (int i = 0; i < number.length(); i++) {
+      final char c = number.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1L;
+      }
+    }
     try {
-      final long result = Long.parseLong(number.trim());
-      return result < 0L ? dflt : result;
+      return Long.parseLong(number);
     } catch (NumberFormatException ex) {
-      return dflt;
+      return Long.MAX_VALUE;
     }
   }
 
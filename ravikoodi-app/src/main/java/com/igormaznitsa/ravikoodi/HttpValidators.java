@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Cache validators of HTTP responses and check of conditional requests in
+ * RFC 7232 form.
+ */
+public final class HttpValidators {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private HttpValidators() {
+    }
+
+    /**
+     * Make strong entity tag from size and modification time of a file.
+     *
+     * @param size size of file
+     * @param lastModified last modification time of file in milliseconds
+     * @return quoted entity tag
+     */
+    @NonNull
+    public static String makeEntityTag(final long size, final long lastModified) {
+        return '\"' + Long.toHexString(size) + '-' + Long.toHexString(lastModified) + '\"';
+    }
+
+    /**
+     * Make strong entity tag from hash of content.
+     *
+     * @param data content
+     * @return quoted entity tag
+     */
+    @NonNull
+    public static String makeEntityTag(@NonNull final byte[] data) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            final StringBuilder result = new StringBuilder(34).append('\"');
+            for (int i = 0; i < 16; i++) {
+                result.append(HEX[(digest[i] >> 4) & 0xF]).append(HEX[digest[i] & 0xF]);
+            }
+            return result.append('\"').toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new Error("SHA-256 must be supported", ex);
+        }
+    }
+
+    /**
+     * Make entity tag of encoded variant of content, every variant must have
+     * its own strong tag.
+     *
+     * @param entityTag quoted entity tag of content
+     * @param coding name of content coding
+     * @return quoted entity tag of the variant
+     */
+    @NonNull
+    public static String makeVariantEntityTag(@NonNull final String entityTag, @NonNull final String coding) {
+        return entityTag.substring(0, entityTag.length() - 1) + '-' + coding + '"';
+    }
+
+    @NonNull
+    public static String formatDate(final long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+    }
+
+    /**
+     * Parse HTTP date.
+     *
+     * @param text date text, can be null
+     * @return time in milliseconds or -1 if the text is null or not a date
+     */
+    public static long parseDate(@Nullable final String text) {
+        if (text == null) {
+            return -1L;
+        }
+        try {
+            return ZonedDateTime.parse(text.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Check conditional GET or HEAD request. If-None-Match is compared with
+     * weak comparison and If-Modified-Since is ignored if If-None-Match is
+     * presented.
+     *
+     * @param ifNoneMatch value of If-None-Match header, can be null
+     * @param ifModifiedSince value of If-Modified-Since header, can be null
+     * @param entityTag current entity tag of content
+     * @param lastModified last modification time of content in milliseconds, 0
+     * if unknown
+     * @return true if response 304 should be sent
+     */
+    public static boolean isNotModified(
+            @Nullable final String ifNoneMatch,
+            @Nullable final String ifModifiedSince,
+            @NonNull final String entityTag,
+            final long lastModified
+    ) {
+        if (ifNoneMatch != null) {
+            final String opaqueTag = removeWeakPrefix(entityTag);
+            for (final String tag : ifNoneMatch.split(",")) {
+                final String trimmed = tag.trim();
+                if ("*".equals(trimmed) || removeWeakPrefix(trimmed).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final long since = parseDate(ifModifiedSince);
+        return since >= 0L && lastModified > 0L && lastModified / 1000L <= since / 1000L;
+    }
+
+    @NonNull
+    private static String removeWeakPrefix(@NonNull final String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
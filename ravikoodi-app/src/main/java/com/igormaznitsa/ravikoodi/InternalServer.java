@@ -1,28 +1,42 @@
 package com.igormaznitsa.ravikoodi;
 
-import com.igormaznitsa.ravikoodi.screencast.PreemptiveBuffer;
+import com.igormaznitsa.ravikoodi.prefs.StaticResource;
+import com.igormaznitsa.ravikoodi.screencast.HlsSegmenter;
+import com.igormaznitsa.ravikoodi.screencast.TsBroadcastHub;
+import com.igormaznitsa.ravikoodi.server.FileRegionSink;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpHandler;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -30,27 +44,78 @@ public class InternalServer {
 
   public static final String PATH_RESOURCES = "res";
   public static final String PATH_VFILES = "vfile";
+  public static final String PATH_METRICS = "metrics";
+  private static final String MULTIPART_BOUNDARY_PREFIX = "RAVIKOODI_BOUNDARY_";
+  public static final String SCREENCAST_STREAM = "screen-cast.ts";
+  public static final String SCREENCAST_PLAYLIST = "screen-cast.m3u8";
+  public static final String SCREENCAST_SEGMENT_PREFIX = "screen-cast-";
+  private static final int HLS_START_SEGMENTS = 2;
+  private static final long HLS_CLIENT_TIMEOUT_MS = 15000L;
+  private static final int MAX_EMPTY_TRANSFERS = 50;
+  private static final long EMPTY_TRANSFER_PAUSE_MS = 20L;
+  public static final int REMOVED_RECORDS_MAX_SIZE = 1024;
+  public static final long REMOVED_RECORDS_TIME_TO_LIVE_MILLISECONDS = 6L * 60L * 60L * 1000L;
   private static final Logger LOGGER = LoggerFactory.getLogger(InternalServer.class);
   private final AtomicReference<JavaServer> serverRef = new AtomicReference<>();
   private final UploadingFileRegistry fileRegistry;
   private final StaticFileRegistry staticFileRegistry;
-  private final Map<String, UploadFileRecord> removedFileRecords = new ConcurrentHashMap<>();
+  private final FileBlockCache blockCache;
+  private final HttpMetrics metrics;
+  private final GzipContentCache gzipCache;
+  private final ExpiringLruCache<String, UploadFileRecord> removedFileRecords = new ExpiringLruCache<>(REMOVED_RECORDS_MAX_SIZE, REMOVED_RECORDS_TIME_TO_LIVE_MILLISECONDS);
   private final ApplicationPreferences options;
-  private final PreemptiveBuffer screencastBuffer = new PreemptiveBuffer(4);
+  private final TsBroadcastHub screencastHub = new TsBroadcastHub(8192, 32L * 1024L * 1024L);
+  private final HlsSegmenter screencastSegmenter;
+  private final ScheduledExecutorService scheduler;
+  private final AtomicLong lastHlsRequest = new AtomicLong();
+  private final AtomicReference<ScheduledFuture<?>> hlsSessionWatchdog = new AtomicReference<>();
   private final List<InternalServerListener> listeners = new CopyOnWriteArrayList<>();
-  private final AtomicBoolean screencastActive = new AtomicBoolean();
+  private final AtomicInteger screencastClients = new AtomicInteger();
   private final AtomicReference<Throwable> lastStartServerError = new AtomicReference<>();
+  private final boolean virtualThreads;
   
   @Autowired
   public InternalServer(
           final UploadingFileRegistry fileRegistry,
           final StaticFileRegistry staticFileRegistry,
-          final ApplicationPreferences options
+          final FileBlockCache blockCache,
+          final HttpMetrics metrics,
+          final GzipContentCache gzipCache,
+          final ApplicationPreferences options,
+          final ScheduledExecutorService scheduler,
+          final Environment environment
   ) {
+    this.virtualThreads = Config.isVirtualThreadsActive(environment);
     this.staticFileRegistry = staticFileRegistry;
     this.fileRegistry = fileRegistry;
+    this.blockCache = blockCache;
+    this.metrics = metrics;
+    this.gzipCache = gzipCache;
     this.options = options;
+    this.scheduler = scheduler;
     this.fileRegistry.setRemovedRecordsStore(this.removedFileRecords);
+    this.screencastSegmenter = new HlsSegmenter(
+            HlsSegmenter.DEFAULT_TARGET_DURATION_MS,
+            HlsSegmenter.DEFAULT_PLAYLIST_SEGMENTS,
+            HlsSegmenter.DEFAULT_MAX_SEGMENTS,
+            HlsSegmenter.DEFAULT_MAX_BYTES,
+            options::isScreencastHls);
+    this.screencastHub.setUnitListener(this.screencastSegmenter);
+
+    this.metrics.registerGauge("ravikoodi_screencast_clients", "Connected screencast clients", this.screencastClients::get);
+    this.metrics.registerGauge("ravikoodi_registry_records", "Published files in registry", this.fileRegistry::size);
+    this.metrics.registerGauge("ravikoodi_removed_records", "Timed out published files kept for restoring", this.removedFileRecords::size);
+    this.metrics.registerGauge("ravikoodi_block_cache_blocks", "Blocks in file block cache", this.blockCache::size);
+    this.metrics.registerGauge("ravikoodi_block_cache_hits", "Hits of file block cache", this.blockCache::getHits);
+    this.metrics.registerGauge("ravikoodi_block_cache_misses", "Misses of file block cache", this.blockCache::getMisses);
+    this.metrics.registerGauge("ravikoodi_block_cache_evictions", "Evictions from file block cache", this.blockCache::getEvictions);
+    this.metrics.registerGauge("ravikoodi_block_cache_sent_bytes", "Bytes sent from file block cache", this.blockCache::getBytesServed);
+    this.metrics.registerGauge("ravikoodi_gzip_cache_bytes", "Bytes of cached gzip variants", this.gzipCache::getCachedBytes);
+    this.metrics.registerGauge("ravikoodi_gzip_cache_hits", "Requests served by cached gzip variants", this.gzipCache::getHits);
+    this.metrics.registerGauge("ravikoodi_gzip_compressions", "Compressed text files", this.gzipCache::getCompressions);
+    this.metrics.registerGauge("ravikoodi_hls_segments", "Screencast HLS segments in memory", this.screencastSegmenter::getSegmentCount);
+    this.metrics.registerGauge("ravikoodi_hls_bytes", "Bytes of screencast HLS segments in memory", this.screencastSegmenter::getBytes);
+    this.metrics.registerGauge("ravikoodi_hls_evicted_segments", "Evicted screencast HLS segments", this.screencastSegmenter::getEvictedSegments);
   }
 
   private static void stopServer(final JavaServer server) {
@@ -64,6 +129,32 @@ public class InternalServer {
     }
   }
 
+  /**
+   * Store of records removed from file registry by timeout, they are restored
+   * if Kodi requests them later.
+   *
+   * @return store of removed records, it provides statistics of the store
+   */
+  @NonNull
+  public ExpiringLruCache<String, UploadFileRecord> getRemovedFileRecords() {
+    return this.removedFileRecords;
+  }
+
+  /**
+   * Cache of file blocks used for short range requests.
+   *
+   * @return block cache, it provides statistics of the cache
+   */
+  @NonNull
+  public FileBlockCache getBlockCache() {
+    return this.blockCache;
+  }
+
+  @NonNull
+  public HttpMetrics getMetrics() {
+    return this.metrics;
+  }
+
   public void addListener(@NonNull final InternalServerListener listener) {
     this.listeners.add(listener);
   }
@@ -72,8 +163,9 @@ public class InternalServer {
     this.listeners.remove(listener);
   }
 
-  public PreemptiveBuffer getScreencastDataBuffer() {
-    return this.screencastBuffer;
+  @NonNull
+  public TsBroadcastHub getScreencastHub() {
+    return this.screencastHub;
   }
 
   public boolean isStarted() {
@@ -81,11 +173,20 @@ public class InternalServer {
     return theServer != null;
   }
 
+  @NonNull
+  public HlsSegmenter getScreencastSegmenter() {
+    return this.screencastSegmenter;
+  }
+
+  /**
+   * URL of screencast, it is HLS playlist if segmenting of the current stream
+   * is active else endless MPEG-TS stream.
+   *
+   * @return URL of screencast
+   */
   @NonNull
   public String getScreenCastUrl() {
-    return String.format((this.options.isServerSsl() ? "https://" : "http://")
-            + "%s:%d/screen-cast.ts", this.getHost(),
-            this.getPort());
+    return this.makeUrlPrefix(this.screencastSegmenter.isActive() ? SCREENCAST_PLAYLIST : SCREENCAST_STREAM);
   }
 
   @NonNull
@@ -111,13 +212,26 @@ public class InternalServer {
     }
   }
 
-  private void addStandardHeaders(final Headers headers, final UploadFileRecord record, final boolean head) {
+  private void addStandardHeaders(
+          final Headers headers,
+          final UploadFileRecord record,
+          final boolean head,
+          final StaticResource.CachePolicy cachePolicy,
+          final String entityTag,
+          final long lastModified
+  ) {
     headers.set("Content-Type", record.getMimeType());
     headers.set("Content-Length", Long.toString(record.getFile().toFile().length()));
-    headers.set("Cache-Control", "no-cache, no-store, must-revalidate");
-    headers.set("Pragma", "no-cache");
+    headers.set("Cache-Control", cachePolicy.getCacheControl());
+    if (cachePolicy == StaticResource.CachePolicy.NO_STORE) {
+      headers.set("Pragma", "no-cache");
+      headers.set("Expires", "0");
+    }
     headers.set("Content-Transfer-Encoding", "binary");
-    headers.set("Expires", "0");
+    headers.set("ETag", entityTag);
+    if (lastModified > 0L) {
+      headers.set("Last-Modified", HttpValidators.formatDate(lastModified));
+    }
     if (!head) {
       headers.set("Connection", "Keep-Alive");
       headers.set("Keep-Alive", "max");
@@ -140,12 +254,252 @@ public class InternalServer {
   }
 
   public boolean isScreencastFlowActive() {
-    return this.screencastActive.get();
+    return this.screencastClients.get() > 0;
+  }
+
+  /**
+   * HLS player doesn't keep connection, so requests of playlist and segments
+   * are counted as one screencast client which is removed if there are no
+   * requests during timeout.
+   */
+  private void onHlsRequest() {
+    this.lastHlsRequest.set(System.currentTimeMillis());
+    if (this.hlsSessionWatchdog.get() == null) {
+      synchronized (this.hlsSessionWatchdog) {
+        if (this.hlsSessionWatchdog.get() == null) {
+          final int clients = this.screencastClients.incrementAndGet();
+          LOGGER.info("Started HLS screencast session, active clients {}", clients);
+          if (clients == 1) {
+            this.listeners.forEach(x -> x.onScreencastStarted(InternalServer.this));
+          }
+          this.hlsSessionWatchdog.set(this.scheduler.scheduleWithFixedDelay(this::checkHlsSession, 1L, 1L, TimeUnit.SECONDS));
+        }
+      }
+    }
+  }
+
+  private void checkHlsSession() {
+    if (System.currentTimeMillis() - this.lastHlsRequest.get() > HLS_CLIENT_TIMEOUT_MS) {
+      synchronized (this.hlsSessionWatchdog) {
+        final ScheduledFuture<?> watchdog = this.hlsSessionWatchdog.getAndSet(null);
+        if (watchdog != null) {
+          watchdog.cancel(false);
+          final int remaining = this.screencastClients.decrementAndGet();
+          LOGGER.info("HLS screencast session ended, no requests longer than {} sec, active clients {}", HLS_CLIENT_TIMEOUT_MS / 1000L, remaining);
+          if (remaining == 0) {
+            this.listeners.forEach(x -> x.onScreencastEnded(InternalServer.this));
+          }
+        }
+      }
+    }
+  }
+
+  private boolean isFileChannelTransferAllowed(@NonNull final UploadFileRecord record) {
+    return record.getPredefinedData().isEmpty() && !this.options.isServerSsl();
+  }
+
+  /**
+   * Send file range through file channel.
+   *
+   * @return true if sending is completed, false if the region has been passed
+   * to the server engine which sends it asynchronously, in the case the
+   * listener is called after end of sending with number of sent bytes, the
+   * region is never passed if the listener is null
+   */
+  private static boolean sendThroughFileChannel(
+          @NonNull final UploadFileRecord record,
+          @NonNull final HttpRange range,
+          @NonNull final OutputStream out,
+          @Nullable final LongConsumer onQueuedRegionSent
+  ) throws IOException {
+    if (onQueuedRegionSent != null && out instanceof FileRegionSink) {
+      final FileChannel channel = record.getAsFileChannel();
+      record.incUploadsCounter();
+      try {
+        ((FileRegionSink) out).sendFileRegion(channel, range.getStart(), range.getLength(), sent -> {
+          record.decUploadsCounter();
+          onQueuedRegionSent.accept(sent);
+          if (sent == range.getLength()) {
+            LOGGER.info("Complete sending file region of {} in range {}", record.getFile(), range);
+          } else {
+            LOGGER.info("Sending file region of {} in range {} has been broken after {} bytes", record.getFile(), range, sent);
+          }
+        });
+      } catch (IOException | RuntimeException ex) {
+        channel.close();
+        record.decUploadsCounter();
+        throw ex;
+      }
+      return false;
+    }
+
+    final WritableByteChannel target = out instanceof WritableByteChannel ? (WritableByteChannel) out : Channels.newChannel(out);
+    try (final FileChannel channel = record.getAsFileChannel()) {
+      long pos = range.getStart();
+      long remaining = range.getLength();
+      int emptyTransfers = 0;
+      while (remaining > 0L && !Thread.currentThread().isInterrupted()) {
+        final long sent = channel.transferTo(pos, remaining, target);
+        if (sent <= 0L) {
+          if (pos >= channel.size()) {
+            throw new IOException("File " + record.getFile() + " is shorter than expected, " + remaining + " bytes not sent");
+          }
+          if (++emptyTransfers > MAX_EMPTY_TRANSFERS) {
+            throw new IOException("Transfer of " + record.getFile() + " is stalled at position " + pos);
+          }
+          try {
+            Thread.sleep(EMPTY_TRANSFER_PAUSE_MS);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted transfer of " + record.getFile());
+          }
+        } else {
+          emptyTransfers = 0;
+          pos += sent;
+          remaining -= sent;
+        }
+      }
+    }
+    out.flush();
+    return true;
+  }
+
+  /**
+   * Send range of memory mapped file as a slice of its buffer.
+   */
+  private static void sendMappedData(
+          @NonNull final ByteBuffer data,
+          @NonNull final HttpRange range,
+          @NonNull final OutputStream out
+  ) throws IOException {
+    final ByteBuffer slice = data.duplicate();
+    slice.position((int) range.getStart()).limit((int) Math.min(range.getEnd() + 1, slice.capacity()));
+    if (out instanceof WritableByteChannel) {
+      final WritableByteChannel channel = (WritableByteChannel) out;
+      while (slice.hasRemaining() && !Thread.currentThread().isInterrupted()) {
+        channel.write(slice);
+      }
+    } else {
+      final byte[] buffer = new byte[(int) Math.min(64 * 1024, range.getLength())];
+      while (slice.hasRemaining() && !Thread.currentThread().isInterrupted()) {
+        final int length = Math.min(buffer.length, slice.remaining());
+        slice.get(buffer, 0, length);
+        out.write(buffer, 0, length);
+      }
+    }
+    out.flush();
+  }
+
+  private static boolean isNotModified(@NonNull final Headers requestHeaders, @NonNull final String entityTag, final long lastModified) {
+    return HttpValidators.isNotModified(requestHeaders.getFirst("If-None-Match"), requestHeaders.getFirst("If-Modified-Since"), entityTag, lastModified);
+  }
+
+  /**
+   * Negotiate gzip variant of a compressible resource, the same negotiation is
+   * used for GET and HEAD so that both return the same validators.
+   *
+   * @param record record of the resource, must be compressible
+   * @param requestHeaders request headers
+   * @param fileSize size of the file
+   * @param lastModified last modification time of the file
+   * @return compressed content if client accepts gzip and it is available,
+   * null if identity content must be used
+   * @throws IOException if the file can't be read
+   */
+  @Nullable
+  private byte[] findGzipVariant(
+          @NonNull final UploadFileRecord record,
+          @NonNull final Headers requestHeaders,
+          final long fileSize,
+          final long lastModified
+  ) throws IOException {
+    return requestHeaders.getFirst("Range") == null
+            && GzipContentCache.isGzipAccepted(requestHeaders.getFirst("Accept-Encoding"))
+            ? this.gzipCache.find(record.getFile(), fileSize, lastModified) : null;
+  }
+
+  @NonNull
+  private static byte[] makeMultipartHeader(@NonNull final String boundary, @NonNull final String mimeType, @NonNull final HttpRange range) {
+    return ("\r\n--" + boundary + "\r\nContent-Type: " + mimeType + "\r\nContent-Range: " + range.toStringForHeader() + "\r\n\r\n")
+            .getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  @NonNull
+  private static byte[] makeMultipartClosing(@NonNull final String boundary) {
+    return ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Send range of file record content.
+   *
+   * @param onQueuedRegionSent listener of end of sending if file region can
+   * be queued for asynchronous sending, it gets number of sent bytes, null if
+   * sending must be synchronous
+   * @return true if sending is completed, false if file region has been
+   * queued
+   */
+  private boolean sendRange(
+          @NonNull final UploadFileRecord record,
+          @NonNull final String uid,
+          @Nullable final ByteBuffer mappedData,
+          final long fileSize,
+          final long lastModified,
+          @NonNull final HttpRange range,
+          @NonNull final OutputStream out,
+          @Nullable final LongConsumer onQueuedRegionSent
+  ) throws IOException {
+    if (mappedData != null) {
+      sendMappedData(mappedData, range, out);
+      LOGGER.info("Range {} of '{}' has been sent from memory mapped file", range, uid);
+    } else if (record.getPredefinedData().isEmpty()
+            && this.blockCache.send(record.getFile(), fileSize, lastModified, range, out)) {
+      LOGGER.info("Range {} of '{}' has been sent from block cache", range, uid);
+    } else if (isFileChannelTransferAllowed(record)) {
+      LOGGER.info("Start sending data for {} ({}) to device through file channel, requested range = {}, expected length = {} bytes", uid, record.getFile(), range, range.getLength());
+      if (!sendThroughFileChannel(record, range, out, onQueuedRegionSent)) {
+        LOGGER.info("File region of '{}' in range {} queued for sending", uid, range);
+        return false;
+      }
+    } else {
+      final byte[] buffer = new byte[64 * 1024];
+
+      try (final InputStream in = record.getAsInputStream()) {
+        long pos = range.getStart();
+
+        if (pos != in.skip(pos)) {
+          throw new IOException("Can't skip " + pos + " bytes in file");
+        }
+
+        LOGGER.info("Start sending data for {} ({}) to device, requested range = {}, expected length = {} bytes", uid, record.getFile(), range, range.getLength());
+
+        while (pos <= range.getEnd() && !Thread.currentThread().isInterrupted()) {
+          final long rangeEndPos = range.getEnd() - pos + 1;
+          final int read = in.read(buffer, 0, Math.min(rangeEndPos > (long)Integer.MAX_VALUE ? buffer.length : (int) rangeEndPos, buffer.length));
+          if (read < 0) {
+            break;
+          }
+          out.write(buffer, 0, read);
+          out.flush();
+          pos += read;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Nullable
+  private HlsSegmenter.Segment findScreencastSegment(@NonNull final String name) {
+    try {
+      return this.screencastSegmenter.findSegment(Long.parseLong(name.substring(SCREENCAST_SEGMENT_PREFIX.length(), name.length() - 3)));
+    } catch (NumberFormatException ex) {
+      return null;
+    }
   }
 
   private HttpHandler makeHandler() {
     return exchange -> {
         LOGGER.info("Incoming request {} {}", exchange.getRequestMethod(), exchange.getRequestURI().toString());
+        metrics.onRequest();
 
         String preparedTarget = exchange.getRequestURI().toString();
         if (preparedTarget.contains("?")) {
@@ -157,33 +511,107 @@ public class InternalServer {
         final String pathPreLast = path.size() > 1 ? path.get(path.size()-2) : null;
         final String pathPrePreLast = path.size() > 2 ? path.get(path.size()-3) : null;
 
-        if ("screen-cast.ts".equals(pathLast)) {
+        if (PATH_METRICS.equals(pathLast) && path.size() == 2) {
+          if (!exchange.getRemoteAddress().getAddress().isLoopbackAddress()) {
+            LOGGER.warn("Metrics request from non-local address {}", exchange.getRemoteAddress());
+            exchange.sendResponseHeaders(403, -1);
+          } else if ("get".equalsIgnoreCase(exchange.getRequestMethod())) {
+            final byte[] body = metrics.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, body.length);
+            final OutputStream out = exchange.getResponseBody();
+            out.write(body);
+            out.flush();
+          } else {
+            exchange.sendResponseHeaders(405, -1);
+          }
+        } else if (SCREENCAST_PLAYLIST.equals(pathLast) && path.size() == 2) {
+          if ("head".equalsIgnoreCase(exchange.getRequestMethod()) || "get".equalsIgnoreCase(exchange.getRequestMethod())) {
+            final boolean head = "head".equalsIgnoreCase(exchange.getRequestMethod());
+            boolean ready = false;
+            try {
+              ready = screencastSegmenter.isActive() && screencastSegmenter.awaitSegments(HLS_START_SEGMENTS, HLS_CLIENT_TIMEOUT_MS);
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+            }
+            if (ready) {
+              onHlsRequest();
+              final byte[] body = screencastSegmenter.makePlaylist(SCREENCAST_SEGMENT_PREFIX).getBytes(StandardCharsets.UTF_8);
+              exchange.getResponseHeaders().set("Content-Type", "application/vnd.apple.mpegurl");
+              exchange.getResponseHeaders().set("Cache-Control", "no-cache, no-store");
+              if (head) {
+                exchange.getResponseHeaders().set("Content-Length", Integer.toString(body.length));
+                exchange.sendResponseHeaders(200, -1);
+              } else {
+                exchange.sendResponseHeaders(200, body.length);
+                final OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.flush();
+              }
+            } else {
+              LOGGER.warn("There are no screencast HLS segments for {}", exchange.getRemoteAddress());
+              exchange.sendResponseHeaders(503, -1);
+            }
+          } else {
+            exchange.sendResponseHeaders(405, -1);
+          }
+        } else if (pathLast != null && path.size() == 2 && pathLast.startsWith(SCREENCAST_SEGMENT_PREFIX) && pathLast.endsWith(".ts")) {
+          final HlsSegmenter.Segment segment = findScreencastSegment(pathLast);
+          if (segment == null) {
+            LOGGER.warn("Requested unknown screencast segment {}", pathLast);
+            exchange.sendResponseHeaders(404, -1);
+          } else if ("head".equalsIgnoreCase(exchange.getRequestMethod()) || "get".equalsIgnoreCase(exchange.getRequestMethod())) {
+            onHlsRequest();
+            exchange.getResponseHeaders().set("Content-Type", "video/MP2T");
+            exchange.getResponseHeaders().set("Cache-Control", "private, max-age=60");
+            if ("head".equalsIgnoreCase(exchange.getRequestMethod())) {
+              exchange.getResponseHeaders().set("Content-Length", Integer.toString(segment.getData().length));
+              exchange.sendResponseHeaders(200, -1);
+            } else {
+              exchange.sendResponseHeaders(200, segment.getData().length);
+              final OutputStream out = exchange.getResponseBody();
+              out.write(segment.getData());
+              out.flush();
+            }
+          } else {
+            exchange.sendResponseHeaders(405, -1);
+          }
+        } else if (SCREENCAST_STREAM.equals(pathLast)) {
           if ("head".equalsIgnoreCase(exchange.getRequestMethod())) {
             addScreenCastHeaders(exchange.getResponseHeaders(), true);
             exchange.sendResponseHeaders(200, -1);
           } else if ("get".equalsIgnoreCase(exchange.getRequestMethod())) {
             addScreenCastHeaders(exchange.getResponseHeaders(), false);
-            LOGGER.info("Starting screen cast retranslation");
-            exchange.sendResponseHeaders(200, -1);
+            exchange.sendResponseHeaders(200, 0);
             final OutputStream out = exchange.getResponseBody();
             boolean waitDataEndDetected = false;
-            try {
-              screencastActive.set(true);
-              screencastBuffer.clear();
-              screencastBuffer.start();
-              final long MAX_WAIT_DATA_MS = 15000;
-              long waitDataEnd = System.currentTimeMillis() + MAX_WAIT_DATA_MS;
-              while (!Thread.currentThread().isInterrupted()) {
-                final byte[] next = screencastBuffer.next();
-                if (next == null) {
-                  if (waitDataEnd < System.currentTimeMillis()) {
-                    LOGGER.warn("There is no screen cast data longer than " + (MAX_WAIT_DATA_MS / 1000L) + " sec, stopping");
-                    waitDataEndDetected = true;
-                    break;
-                  }
-                } else {
-                  screencastActive.set(true);
-                  if (next.length > 0) {
+            try (final TsBroadcastHub.Subscription subscription = screencastHub.subscribe()) {
+              final int clients = screencastClients.incrementAndGet();
+              LOGGER.info("Starting screen cast retranslation for {}, active clients {}", exchange.getRemoteAddress(), clients);
+              if (clients == 1) {
+                listeners.forEach(x -> x.onScreencastStarted(InternalServer.this));
+              }
+              long stallStart = 0L;
+              try {
+                final long MAX_WAIT_DATA_MS = 15000;
+                long waitDataEnd = System.currentTimeMillis() + MAX_WAIT_DATA_MS;
+                while (!Thread.currentThread().isInterrupted()) {
+                  final byte[] next = subscription.take(1000L);
+                  if (next == null) {
+                    if (stallStart == 0L) {
+                      stallStart = System.currentTimeMillis() - 1000L;
+                    }
+                    if (waitDataEnd < System.currentTimeMillis()) {
+                      LOGGER.warn("There is no screen cast data longer than " + (MAX_WAIT_DATA_MS / 1000L) + " sec, stopping");
+                      waitDataEndDetected = true;
+                      break;
+                    }
+                  } else {
+                    if (stallStart != 0L) {
+                      metrics.onScreencastStall(System.currentTimeMillis() - stallStart);
+                      stallStart = 0L;
+                    }
                     try {
                       out.write(next);
                       out.flush();
@@ -194,11 +622,19 @@ public class InternalServer {
                     }
                   }
                 }
+              } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+              } finally {
+                if (stallStart != 0L) {
+                  metrics.onScreencastStall(System.currentTimeMillis() - stallStart);
+                }
+                final int remaining = screencastClients.decrementAndGet();
+                LOGGER.info("Screen cast retranslation ended for {}, waitDataEnd={}, thread interrupted = {}, dropped units = {}, active clients {}",
+                        exchange.getRemoteAddress(), waitDataEndDetected, Thread.currentThread().isInterrupted(), subscription.getDropped(), remaining);
+                if (remaining == 0) {
+                  listeners.forEach(x -> x.onScreencastEnded(InternalServer.this));
+                }
               }
-            } finally {
-              screencastActive.set(false);
-              LOGGER.info("Screen cast retranslation ended, waitDataEnd={}, thread interrupted = {}", waitDataEndDetected, Thread.currentThread().isInterrupted());
-              listeners.forEach(x -> x.onScreencastEnded(InternalServer.this));
             }
           }
         } else if (PATH_VFILES.equals(pathPrePreLast) || PATH_RESOURCES.equals(pathPreLast)) {
@@ -225,57 +661,158 @@ public class InternalServer {
 
           if (record == null) {
             LOGGER.warn("Request for non-registered file {}", uid);
+            metrics.onNotFound();
             exchange.sendResponseHeaders(404, -1);
           } else {
             record.incUploadsCounter();
             try {
+              final StaticResource.CachePolicy cachePolicy = staticResource ? staticFileRegistry.findCachePolicy(uid) : StaticResource.CachePolicy.NO_STORE;
               if ("head".equalsIgnoreCase(exchange.getRequestMethod())) {
-                addStandardHeaders(exchange.getResponseHeaders(), record, true);
-                exchange.sendResponseHeaders(200, -1);
-              } else if ("get".equalsIgnoreCase(exchange.getRequestMethod())) {
-
                 final long fileSize = record.getPredefinedData().isPresent() ? record.getPredefinedData().get().length : Files.size(record.getFile());
-                final HttpRange range = new HttpRange(exchange.getRequestHeaders().getFirst("Range"), fileSize);
-
-                addStandardHeaders(exchange.getResponseHeaders(), record, false);
-
-                if (range.getStart() > fileSize || range.getStart() > range.getEnd() || range.getEnd() > fileSize) {
-                  exchange.sendResponseHeaders(416,  -1);
-                  return;
-                } else if (range.getStart() > 0 || range.getEnd() < (fileSize - 1)) {
-                  LOGGER.info("Request for {}, range {}", uid, range);
-                  exchange.getResponseHeaders().set("Content-Range", range.toStringForHeader());
-                  exchange.sendResponseHeaders(206,range.getLength());
+                final long lastModified = record.getPredefinedData().isPresent() ? 0L : Files.getLastModifiedTime(record.getFile()).toMillis();
+                final String entityTag = record.getEntityTag(fileSize, lastModified);
+                final Headers requestHeaders = exchange.getRequestHeaders();
+
+                final boolean compressible = record.getPredefinedData().isEmpty() && MimeTypes.isCompressible(record.getMimeType());
+                final byte[] compressed = compressible ? findGzipVariant(record, requestHeaders, fileSize, lastModified) : null;
+                final String variantTag = compressed == null ? entityTag : HttpValidators.makeVariantEntityTag(entityTag, "gzip");
+
+                final Headers responseHeaders = exchange.getResponseHeaders();
+                addStandardHeaders(responseHeaders, record, true, cachePolicy, variantTag, lastModified);
+                if (compressible) {
+                  responseHeaders.set("Vary", "Accept-Encoding");
+                }
+                if (isNotModified(requestHeaders, variantTag, lastModified)) {
+                  responseHeaders.remove("Content-Length");
+                  exchange.sendResponseHeaders(304, -1);
                 } else {
-                  exchange.sendResponseHeaders(200, fileSize);
+                  if (compressed != null) {
+                    responseHeaders.set("Content-Encoding", "gzip");
+                    responseHeaders.set("Content-Length", Integer.toString(compressed.length));
+                  }
+                  exchange.sendResponseHeaders(200, -1);
                 }
+              } else if ("get".equalsIgnoreCase(exchange.getRequestMethod())) {
 
-                final OutputStream out = exchange.getResponseBody();
-                final byte[] buffer = new byte[64 * 1024];
+                final HttpMetrics.Transfer transfer = metrics.startTransfer(record);
+                boolean queued = false;
+                try {
+                  final ByteBuffer mappedData = staticResource ? staticFileRegistry.findMappedData(uid).orElse(null) : null;
+                  final long fileSize;
+                  if (mappedData != null) {
+                    fileSize = mappedData.capacity();
+                  } else {
+                    fileSize = record.getPredefinedData().isPresent() ? record.getPredefinedData().get().length : Files.size(record.getFile());
+                  }
+                  final long lastModified = record.getPredefinedData().isPresent() ? 0L : Files.getLastModifiedTime(record.getFile()).toMillis();
+                  final String entityTag = record.getEntityTag(fileSize, lastModified);
+                  final Headers requestHeaders = exchange.getRequestHeaders();
+
+                  final boolean compressible = record.getPredefinedData().isEmpty() && MimeTypes.isCompressible(record.getMimeType());
+                  final byte[] compressed = compressible ? findGzipVariant(record, requestHeaders, fileSize, lastModified) : null;
+                  final String variantTag = compressed == null ? entityTag : HttpValidators.makeVariantEntityTag(entityTag, "gzip");
 
-                try (final InputStream in = record.getAsInputStream()) {
-                  long pos = range.getStart();
+                  addStandardHeaders(exchange.getResponseHeaders(), record, false, cachePolicy, variantTag, lastModified);
+                  if (compressible) {
+                    exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+                  }
+
+                  if (isNotModified(requestHeaders, variantTag, lastModified)) {
+                    LOGGER.info("Resource {} is not modified", uid);
+                    transfer.notModified();
+                    exchange.getResponseHeaders().remove("Content-Length");
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                  }
 
-                  if (pos != in.skip(pos)) {
-                    exchange.sendResponseHeaders(500, -1);
-                    LOGGER.error("Can't skip {} bytes in file", pos);
+                  if (compressed != null) {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(200, compressed.length);
+                    transfer.headersSent();
+                    final OutputStream out = exchange.getResponseBody();
+                    out.write(compressed);
+                    out.flush();
+                    transfer.completed(compressed.length);
+                    LOGGER.info("Complete '{}' writing of gzip content, {} bytes instead of {}", uid, compressed.length, fileSize);
                     return;
                   }
 
-                  LOGGER.info("Start sending data for {} ({}) to device, requested range = {}, expected length = {} bytes", uid, record.getFile(), range, range.getLength());
+                  final List<HttpRange> ranges;
+                  if (HttpRange.isIfRangeMatched(requestHeaders.getFirst("If-Range"), entityTag, lastModified)) {
+                    ranges = HttpRange.parseRanges(requestHeaders.getFirst("Range"), fileSize);
+                  } else {
+                    LOGGER.info("If-Range of {} doesn't match, whole content will be sent", uid);
+                    ranges = null;
+                  }
 
-                  while (pos <= range.getEnd() && !Thread.currentThread().isInterrupted()) {
-                    final long rangeEndPos = range.getEnd() - pos + 1;
-                    final int read = in.read(buffer, 0, Math.min(rangeEndPos > (long)Integer.MAX_VALUE ? buffer.length : (int) rangeEndPos, buffer.length));
-                    if (read < 0) {
-                      break;
+                  if (ranges != null && ranges.isEmpty()) {
+                    LOGGER.warn("Not satisfiable range request for {}: {}", uid, requestHeaders.getFirst("Range"));
+                    transfer.notSatisfiable();
+                    exchange.getResponseHeaders().set("Content-Range", HttpRange.UNIT_BYTES + " */" + fileSize);
+                    exchange.sendResponseHeaders(416,  -1);
+                    return;
+                  } else if (ranges != null && ranges.size() > 1) {
+                    LOGGER.info("Request for {}, ranges {}", uid, ranges);
+                    transfer.rangeRequested();
+                    final String boundary = MULTIPART_BOUNDARY_PREFIX + Long.toHexString(System.nanoTime());
+                    final List<byte[]> partHeaders = ranges.stream()
+                            .map(r -> makeMultipartHeader(boundary, record.getMimeType(), r))
+                            .collect(Collectors.toList());
+                    final byte[] closing = makeMultipartClosing(boundary);
+                    long length = closing.length;
+                    for (int i = 0; i < ranges.size(); i++) {
+                      length += partHeaders.get(i).length + ranges.get(i).getLength();
                     }
-                    out.write(buffer, 0, read);
+                    exchange.getResponseHeaders().set("Content-Type", "multipart/byteranges; boundary=" + boundary);
+                    exchange.sendResponseHeaders(206, length);
+                    transfer.headersSent();
+
+                    final OutputStream out = exchange.getResponseBody();
+                    for (int i = 0; i < ranges.size(); i++) {
+                      out.write(partHeaders.get(i));
+                      sendRange(record, uid, mappedData, fileSize, lastModified, ranges.get(i), out, null);
+                    }
+                    out.write(closing);
                     out.flush();
-                    pos += read;
+                    transfer.completed(length);
+                    LOGGER.info("Complete '{}' writing in ranges {}", uid, ranges);
+                  } else {
+                    final HttpRange range;
+                    if (ranges == null) {
+                      range = new HttpRange(HttpRange.UNIT_BYTES, 0L, fileSize - 1L, fileSize);
+                      exchange.sendResponseHeaders(200, fileSize == 0L ? -1L : fileSize);
+                    } else {
+                      range = ranges.get(0);
+                      LOGGER.info("Request for {}, range {}", uid, range);
+                      transfer.rangeRequested();
+                      exchange.getResponseHeaders().set("Content-Range", range.toStringForHeader());
+                      exchange.sendResponseHeaders(206, range.getLength());
+                    }
+                    transfer.headersSent();
+
+                    if (range.getLength() > 0L) {
+                      if (!sendRange(record, uid, mappedData, fileSize, lastModified, range, exchange.getResponseBody(), sent -> {
+                        if (sent == range.getLength()) {
+                          transfer.completed(sent);
+                        } else {
+                          transfer.aborted();
+                        }
+                      })) {
+                        queued = true;
+                        return;
+                      }
+                    }
+                    transfer.completed(range.getLength());
+                    LOGGER.info("Complete '{}' writing in range {}", uid, range);
+                  }
+                } catch (IOException | RuntimeException ex) {
+                  transfer.aborted();
+                  throw ex;
+                } finally {
+                  if (!queued) {
+                    transfer.end();
                   }
                 }
-                LOGGER.info("Complete '{}' writing in range {}", uid, range);
               } else {
                 LOGGER.warn("Bad request : {}", exchange.getRequestURI());
                 exchange.sendResponseHeaders(400, -1);
@@ -316,6 +853,7 @@ public class InternalServer {
     stopServer(theServer);
 
     this.fileRegistry.clear();
+    this.blockCache.setBudget(this.options.getServerBlockCacheSize() * 1024L * 1024L);
 
     final String host = this.options.getServerHost();
     final int port = this.options.getServerPort();
@@ -323,7 +861,7 @@ public class InternalServer {
     LOGGER.info("Starting server on {}:{}", host, port);
 
     try {
-      theServer = new JavaServer(this.options.getServerHost(), this.options.getServerPort(), this.options.isServerSsl(), makeHandler());
+      theServer = new JavaServer(this.options.getServerHost(), this.options.getServerPort(), this.options.isServerSsl(), this.options.getServerEngine(), this.virtualThreads, makeHandler());
       this.lastStartServerError.set(null);
       if (this.serverRef.compareAndSet(null, theServer)) {
         theServer.start();
@@ -3,14 +3,15 @@ package com.igormaznitsa.ravikoodi;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 
+import com.igormaznitsa.ravikoodi.server.JdkServerEngine;
+import com.igormaznitsa.ravikoodi.server.NioServerEngine;
+import com.igormaznitsa.ravikoodi.server.ServerEngine;
 import com.sun.net.httpserver.HttpHandler;
-import com.sun.net.httpserver.HttpServer;
-import com.sun.net.httpserver.HttpsConfigurator;
-import com.sun.net.httpserver.HttpsServer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.security.KeyStore;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -22,29 +23,50 @@ public final class JavaServer {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(JavaServer.class);
 
-  private final HttpServer server;
-  private final ExecutorService executor = newCachedThreadPool(r -> {
-    final Thread thread = new Thread(r, JavaServer.class.getSimpleName() + "-" + System.nanoTime());
-    thread.setDaemon(true);
-    return thread;
-  });
+  private static final int BACKLOG = 64;
+
+  private final ServerEngine engine;
 
   public JavaServer(
       final String host,
       final int port,
       final boolean httpsMode,
+      final ApplicationPreferences.ServerEngineType engineType,
+      final boolean virtualThreads,
       final HttpHandler rootHandler) throws IOException {
+    final InetSocketAddress address = new InetSocketAddress(host, port);
     if (httpsMode) {
       LOGGER.info("Init int HTTPS mode {}:{}", host, port);
-      final HttpsServer sslServer = HttpsServer.create(new InetSocketAddress(host, port), 64);
-      sslServer.setHttpsConfigurator(new HttpsConfigurator(createSslContext()));
-      this.server = sslServer;
+      if (engineType != ApplicationPreferences.ServerEngineType.JDK) {
+        LOGGER.warn("Server engine {} doesn't support HTTPS, JDK engine will be used", engineType);
+      }
+      this.engine = new JdkServerEngine(address, BACKLOG, createSslContext(), makeRequestExecutor(virtualThreads), rootHandler);
     } else {
-      LOGGER.info("Init int HTTP mode {}:{}", host, port);
-      this.server = HttpServer.create(new InetSocketAddress(host, port), 64);
+      LOGGER.info("Init int HTTP mode {}:{}, engine {}", host, port, engineType);
+      switch (engineType) {
+        case NIO:
+          this.engine = new NioServerEngine(address, BACKLOG, Math.max(4, Runtime.getRuntime().availableProcessors() * 2), rootHandler);
+          break;
+        default:
+          this.engine = new JdkServerEngine(address, BACKLOG, null, makeRequestExecutor(virtualThreads), rootHandler);
+          break;
+      }
+    }
+  }
+  private static ExecutorService makeRequestExecutor(final boolean virtualThreads) {
+    if (virtualThreads) {
+      final Optional<ExecutorService> virtualExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor(JavaServer.class.getSimpleName() + "-virtual-");
+      if (virtualExecutor.isPresent()) {
+        LOGGER.info("Virtual thread per request mode");
+        return virtualExecutor.get();
+      }
+      LOGGER.warn("Virtual threads are not supported, cached thread pool will be used");
     }
-    this.server.setExecutor(this.executor);
-    this.server.createContext("/", rootHandler);
+    return newCachedThreadPool(r -> {
+      final Thread thread = new Thread(r, JavaServer.class.getSimpleName() + "-" + System.nanoTime());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   private static SSLContext createSslContext() throws IOException {
@@ -74,28 +96,22 @@ public final class JavaServer {
   }
 
   public void start() {
-    LOGGER.info("Java server started on {}", this.server.getAddress());
-    this.server.start();
+    this.engine.start();
   }
 
   public void stop() {
-    try {
-      this.server.stop(1);
-    } catch (Exception ex) {
-      LOGGER.error("Error during server close", ex);
-    }
+    this.engine.stop();
   }
 
   public void close() {
-    this.stop();
-    this.executor.shutdownNow();
+    this.engine.close();
   }
 
   public String getHost() {
-    return this.server.getAddress().getHostString();
+    return this.engine.getHost();
   }
 
   public int getPort() {
-    return this.server.getAddress().getPort();
+    return this.engine.getPort();
   }
 }
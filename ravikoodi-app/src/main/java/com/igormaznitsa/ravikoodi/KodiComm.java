@@ -29,6 +29,7 @@ import com.igormaznitsa.ravikoodi.kodijsonapi.Subtitle;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -56,6 +57,7 @@ public class KodiComm {
     private final InternalServer internalServer;
     private final UploadingFileRegistry fileRegstry;
     private final MimeTypes mimeTypes;
+    private final AtomicReference<KodiService> cachedKodiService = new AtomicReference<>();
     
     @Autowired
     public KodiComm(
@@ -80,17 +82,36 @@ public class KodiComm {
         }
     }
 
+    /**
+     * Get Kodi service for current preferences. Service instance is cached and
+     * reused while address, credentials and request timeout are not changed,
+     * so its JSON-RPC client keeps alive connections to Kodi.
+     *
+     * @return service or empty if it can't be created
+     */
     @NonNull
     public Optional<KodiService> makeKodiService() {
+        final KodiAddress address = new KodiAddress(
+            this.preferences.getKodiAddress(),
+            this.preferences.getKodiPort(),
+            this.preferences.getKodiName(),
+            this.preferences.getKodiPassword(),
+            this.preferences.isKodiSsl()
+        );
+        final Duration requestTimeout = this.preferences.getJsonRequestTimeout();
+
+        final KodiService cached = this.cachedKodiService.get();
+        if (cached != null && cached.getAddress().equals(address) && cached.getRequestTimeout().equals(requestTimeout)) {
+            return Optional.of(cached);
+        }
+
         Optional<KodiService> result;
         try {
-            result = Optional.of(new KodiService(new KodiAddress(
-                this.preferences.getKodiAddress(),
-                this.preferences.getKodiPort(),
-                this.preferences.getKodiName(),
-                this.preferences.getKodiPassword(),
-                this.preferences.isKodiSsl()
-            ), this.preferences.getJsonRequestTimeout()));
+            final KodiService newService = new KodiService(address, requestTimeout);
+            if (this.cachedKodiService.compareAndSet(cached, newService)) {
+                LOGGER.info("Created kodi service for {}:{}, ssl={}, timeout={}", address.getHost(), address.getPort(), address.isUseSsl(), requestTimeout);
+            }
+            result = Optional.of(newService);
         } catch (MalformedURLException ex) {
             LOGGER.error("Can't create kodi service : {}", ex.getMessage());
             result = Optional.empty();
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.igormaznitsa.ravikoodi.kodijsonapi.KodiNotificationClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps connection to Kodi notification port and provides received
+ * notifications to registered listeners. Lost connection is restored with
+ * growing delay, if the connection is not active then state of Kodi should be
+ * polled.
+ */
+@Component
+public class KodiNotifications {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KodiNotifications.class);
+
+    private static final long MIN_RECONNECT_DELAY_MILLISECONDS = 2000L;
+    private static final long MAX_RECONNECT_DELAY_MILLISECONDS = 60000L;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    public interface Listener {
+
+        /**
+         * Called for received notification from notification thread, must not
+         * be blocked for long time.
+         *
+         * @param method notification method, like Player.OnPlay
+         * @param params notification parameters
+         */
+        void onKodiNotification(@NonNull String method, @NonNull JsonNode params);
+
+        default void onKodiNotificationsConnection(final boolean connected) {
+        }
+    }
+
+    private final ApplicationPreferences preferences;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<KodiNotificationClient> client = new AtomicReference<>();
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final AtomicBoolean reconnectRequested = new AtomicBoolean();
+    private final Object waitLock = new Object();
+    private volatile boolean stopped;
+    private volatile Thread thread;
+
+    @Autowired
+    public KodiNotifications(@NonNull final ApplicationPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        final Thread newThread = new Thread(this::doWork, "kodi-notifications");
+        newThread.setDaemon(true);
+        this.thread = newThread;
+        newThread.start();
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        this.stopped = true;
+        this.reconnect();
+        final Thread current = this.thread;
+        if (current != null) {
+            try {
+                current.join(CONNECT_TIMEOUT.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void addListener(@NonNull final Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull final Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Check that notification channel is active.
+     *
+     * @return true if notifications are received from Kodi, false if Kodi state
+     * must be polled
+     */
+    public boolean isConnected() {
+        return this.connected.get();
+    }
+
+    /**
+     * Close current connection and connect again without delay, must be called
+     * after change of Kodi address in preferences.
+     */
+    public void reconnect() {
+        final KodiNotificationClient current;
+        synchronized (this.waitLock) {
+            this.reconnectRequested.set(true);
+            current = this.client.get();
+            this.waitLock.notifyAll();
+        }
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void setConnected(final boolean flag) {
+        if (this.connected.compareAndSet(!flag, flag)) {
+            LOGGER.info("Kodi notifications {}", flag ? "connected" : "disconnected");
+            this.listeners.forEach(x -> {
+                try {
+                    x.onKodiNotificationsConnection(flag);
+                } catch (Exception ex) {
+                    LOGGER.error("Error in notification connection listener", ex);
+                }
+            });
+        }
+    }
+
+    private void dispatch(@NonNull final String method, @NonNull final JsonNode params) {
+        LOGGER.debug("Kodi notification {}: {}", method, params);
+        this.listeners.forEach(x -> x.onKodiNotification(method, params));
+    }
+
+    private void waitFor(final long milliseconds) throws InterruptedException {
+        synchronized (this.waitLock) {
+            if (!this.stopped && !this.reconnectRequested.get()) {
+                this.waitLock.wait(milliseconds);
+            }
+        }
+    }
+
+    private void doWork() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MILLISECONDS;
+        try {
+            while (!this.stopped) {
+                synchronized (this.waitLock) {
+                    this.reconnectRequested.set(false);
+                }
+                final String host = this.preferences.getKodiAddress();
+                final int port = this.preferences.getKodiNotificationPort();
+                if (port <= 0) {
+                    this.waitFor(MAX_RECONNECT_DELAY_MILLISECONDS);
+                    continue;
+                }
+
+                final AtomicBoolean wasConnected = new AtomicBoolean();
+                final KodiNotificationClient newClient = new KodiNotificationClient(host, port, CONNECT_TIMEOUT, new KodiNotificationClient.Listener() {
+                    @Override
+                    public void onNotification(final String method, final JsonNode params) {
+                        dispatch(method, params);
+                    }
+
+                    @Override
+                    public void onConnected() {
+                        wasConnected.set(true);
+                        setConnected(true);
+                    }
+                });
+                synchronized (this.waitLock) {
+                    if (this.reconnectRequested.get()) {
+                        // preferences have been changed after they were read
+                        continue;
+                    }
+                    this.client.set(newClient);
+                }
+                try {
+                    newClient.run();
+                    LOGGER.info("Kodi notification connection closed");
+                } catch (Exception ex) {
+                    LOGGER.debug("Kodi notification connection error {}:{} : {}", host, port, ex.getMessage());
+                } finally {
+                    this.client.compareAndSet(newClient, null);
+                    setConnected(false);
+                }
+
+                if (wasConnected.get() || this.reconnectRequested.get()) {
+                    reconnectDelay = MIN_RECONNECT_DELAY_MILLISECONDS;
+                } else {
+                    reconnectDelay = Math.min(MAX_RECONNECT_DELAY_MILLISECONDS, reconnectDelay * 2);
+                }
+                this.waitFor(reconnectDelay);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            LOGGER.info("Kodi notification thread stopped");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import com.igormaznitsa.ravikoodi.kodijsonapi.BatchRequest;
+import com.igormaznitsa.ravikoodi.kodijsonapi.KodiService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Poller which coalesces status requests of all participants (active players
+ * list, player panels, application status) into single JSON-RPC batch, so
+ * that every poll tick makes only one HTTP round trip to Kodi.
+ */
+@Component
+public class KodiStatusPoller {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KodiStatusPoller.class);
+
+    /**
+     * Participant of status polling.
+     */
+    @FunctionalInterface
+    public interface Participant {
+
+        /**
+         * Add needed requests into the batch.
+         *
+         * @param batch batch to be filled by requests, must not be null
+         * @return handler to be called after batch execution, it should read
+         * responses registered in the batch, null if nothing requested
+         */
+        @Nullable
+        Runnable prepareStatusRequest(@NonNull BatchRequest batch);
+    }
+
+    private final KodiComm kodiComm;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+
+    @Autowired
+    public KodiStatusPoller(@NonNull final KodiComm kodiComm) {
+        this.kodiComm = kodiComm;
+    }
+
+    /**
+     * Collect requests from all participants, execute them as single batch and
+     * notify participants.
+     *
+     * @param participants participants of the poll, must not be null
+     * @return true if batch has been executed successfully, false otherwise
+     */
+    public boolean poll(@NonNull final Collection<? extends Participant> participants) {
+        final BatchRequest batch = new BatchRequest();
+        final List<Runnable> handlers = new ArrayList<>(participants.size());
+        for (final Participant p : participants) {
+            final Runnable handler = p.prepareStatusRequest(batch);
+            if (handler != null) {
+                handlers.add(handler);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            handlers.forEach(this::callHandler);
+            return true;
+        }
+
+        boolean result = false;
+        final Optional<KodiService> service = this.kodiComm.makeKodiService();
+        if (service.isPresent()) {
+            try {
+                service.get().execute(batch);
+                result = true;
+            } catch (Throwable ex) {
+                LOGGER.warn("Can't execute status batch : {}", ex.getMessage());
+                batch.fail(ex);
+            }
+        } else {
+            batch.fail(new IllegalStateException("Can't get kodi service"));
+        }
+
+        this.polls.incrementAndGet();
+        this.requests.addAndGet(batch.size());
+        if (!result) {
+            this.failedPolls.incrementAndGet();
+        }
+        LOGGER.debug("Status poll: {} requests in batch, total polls {}, total requests {}", batch.size(), this.polls.get(), this.requests.get());
+
+        handlers.forEach(this::callHandler);
+        return result;
+    }
+
+    private void callHandler(@NonNull final Runnable handler) {
+        try {
+            handler.run();
+        } catch (Throwable ex) {
+            LOGGER.error("Error in status poll handler", ex);
+        }
+    }
+
+    public long getPolls() {
+        return this.polls.get();
+    }
+
+    public long getRequests() {
+        return this.requests.get();
+    }
+
+    public long getFailedPolls() {
+        return this.failedPolls.get();
+    }
+}
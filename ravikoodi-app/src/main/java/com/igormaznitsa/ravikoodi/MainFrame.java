@@ -1,15 +1,16 @@
 package com.igormaznitsa.ravikoodi;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.kiulian.downloader.downloader.YoutubeCallback;
 import com.github.kiulian.downloader.downloader.client.ClientType;
 import com.github.kiulian.downloader.downloader.request.RequestVideoInfo;
 import com.github.kiulian.downloader.model.videos.VideoInfo;
 import com.github.kiulian.downloader.model.videos.formats.AudioFormat;
 import com.github.kiulian.downloader.model.videos.formats.VideoFormat;
-import static com.igormaznitsa.ravikoodi.ContentTreeItem.CONTENT_ITEM_COMPARATOR;
 import com.igormaznitsa.ravikoodi.MimeTypes.ContentType;
 import static com.igormaznitsa.ravikoodi.Utils.isBlank;
 import com.igormaznitsa.ravikoodi.kodijsonapi.ActivePlayerInfo;
+import com.igormaznitsa.ravikoodi.kodijsonapi.BatchRequest;
 import com.igormaznitsa.ravikoodi.kodijsonapi.KodiService;
 import com.igormaznitsa.ravikoodi.prefs.StaticResource;
 import com.igormaznitsa.ravikoodi.prefs.TimerResource;
@@ -39,6 +40,8 @@ import java.awt.dnd.DropTarget;
 import java.awt.dnd.DropTargetAdapter;
 import java.awt.dnd.DropTargetDropEvent;
 import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
@@ -51,16 +54,17 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -70,23 +74,29 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
 import javax.swing.ButtonGroup;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JEditorPane;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.JTree;
+import javax.swing.ListSelectionModel;
 import javax.swing.LookAndFeel;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
+import javax.swing.event.TreeExpansionEvent;
 import javax.swing.event.TreeSelectionEvent;
+import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.DefaultTreeCellRenderer;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
@@ -96,6 +106,7 @@ import org.apache.commons.lang3.SystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.ApplicationContext;
@@ -108,16 +119,35 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
     private static final Logger LOGGER = LoggerFactory.getLogger(MainFrame.class);
 
     private static final int STR_CUT_LEN = 48;
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final long PLAYING_POLL_INTERVAL_MILLISECONDS = 1500L;
+    private static final long IDLE_POLL_INTERVAL_MILLISECONDS = 4000L;
+    private static final long PUSH_MODE_IDLE_POLL_INTERVAL_MILLISECONDS = 10000L;
+    private static final long MINIMIZED_POLL_INTERVAL_MILLISECONDS = 10000L;
+    private static final long APPLICATION_POLL_INTERVAL_MILLISECONDS = 3000L;
+    private static final long PUSH_MODE_APPLICATION_POLL_INTERVAL_MILLISECONDS = 30000L;
 
     private Path currentRootFolder;
+    private ContentTreeScanner.Session contentScanSession;
+    private final DefaultListModel<ContentFile> searchResults = new DefaultListModel<>();
+    private JList<ContentFile> listSearchResults;
+    private MediaSearchPanel mediaSearchPanel;
 
     private final List<TreeModelListener> treeListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Player panels shown in the frame, changed only in Swing thread together
+     * with the panel list and read by status poller thread.
+     */
+    private final List<PlayerPanel> playerPanels = new CopyOnWriteArrayList<>();
 
     @Autowired
     private DonationController donationController;
     @Autowired
     private ScheduledExecutorService executorService;
     @Autowired
+    @Qualifier(Config.TASK_EXECUTOR)
+    private ExecutorService taskExecutorService;
+    @Autowired
     private ApplicationPreferences preferences;
     @Autowired
     private UploadingFileRegistry fileRegstry;
@@ -138,6 +168,14 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
     @Autowired
     private KodiComm kodiComm;
     @Autowired
+    private ContentTreeScanner contentScanner;
+    @Autowired
+    private FileNameSearchIndex searchIndex;
+    @Autowired
+    private StatusPollScheduler pollScheduler;
+    @Autowired
+    private KodiNotifications kodiNotifications;
+    @Autowired
     private YtLinkExtractor youTubeLinkExtractor;
 
     private File lastSelectedFileFolder = null;
@@ -149,6 +187,9 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
 
     private final AtomicLong timeWhenEndScreencastFlowEnable = new AtomicLong();
 
+    private volatile boolean hasPlayingPlayers;
+    private volatile boolean minimized;
+
     private WeakReference<FfmpegWrapper> lastFFmpegWrapper;
 
     private static class FileTreeRenderer extends DefaultTreeCellRenderer {
@@ -201,16 +242,59 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         }
     }
 
+    private class SearchResultRenderer extends DefaultListCellRenderer {
+
+        @Override
+        public Component getListCellRendererComponent(
+                final JList<?> list,
+                final Object value,
+                final int index,
+                final boolean isSelected,
+                final boolean cellHasFocus
+        ) {
+            final DefaultListCellRenderer result = (DefaultListCellRenderer) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            if (value instanceof ContentFile) {
+                final ContentFile file = (ContentFile) value;
+                switch (file.getContentType()) {
+                    case AUDIO:
+                        result.setIcon(FileTreeRenderer.ICON_AUDIO);
+                        break;
+                    case VIDEO:
+                        result.setIcon(FileTreeRenderer.ICON_VIDEO);
+                        break;
+                    case PICTURE:
+                        result.setIcon(FileTreeRenderer.ICON_PICTURE);
+                        break;
+                    default:
+                        result.setIcon(FileTreeRenderer.ICON_UNKNOWN);
+                        break;
+                }
+                final Path folder = file.getFilePath().getParent();
+                if (folder != null && currentRootFolder != null && folder.startsWith(currentRootFolder) && !folder.equals(currentRootFolder)) {
+                    result.setText(file.getFileNameAsString() + "  [" + currentRootFolder.relativize(folder) + "]");
+                }
+                result.setToolTipText(file.getFilePathAsString());
+            }
+            return result;
+        }
+    }
+
     @Override
     public void flavorsChanged(final FlavorEvent e) {
         this.updateToolButtons();
     }
 
-    private final List<ContentTreeItem> videoFiles = new ArrayList<>();
+    @Nullable
+    private ContentFile getSelectedContentFile() {
+        if (this.fileTreeScrollPane.getViewport().getView() == this.listSearchResults) {
+            return this.listSearchResults.getSelectedValue();
+        }
+        final TreePath treePath = this.treeVideoFiles.getSelectionPath();
+        return treePath != null && treePath.getLastPathComponent() instanceof ContentFile ? (ContentFile) treePath.getLastPathComponent() : null;
+    }
 
     private void updateToolButtons() {
-        final TreePath treePath = this.treeVideoFiles.getSelectionPath();
-        final boolean contentFileFocused = treePath != null && treePath.getLastPathComponent() instanceof ContentFile;
+        final boolean contentFileFocused = this.getSelectedContentFile() != null;
         if (this.toggleButtonScreencast.isSelected()) {
             buttonPlaySelected.setEnabled(false);
             buttonImageFromClipboard.setEnabled(false);
@@ -255,6 +339,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
                         if (JOptionPane.showConfirmDialog(this, Utils.makeOwningDialogResizable(new JScrollPane(new OptionsPanel(container, this.soundAdapter))), "Options", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
                             container.save(this.preferences);
                             this.server.restartServer();
+                            this.kodiNotifications.reconnect();
                         } else {
                             LOGGER.warn("Preferences not changed, closing");
                             SpringApplication.exit(this.context, () -> 11);
@@ -352,6 +437,35 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
             });
 
             this.treeVideoFiles.setModel(this);
+
+            this.listSearchResults = new JList<>(this.searchResults);
+            this.listSearchResults.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            this.listSearchResults.setCellRenderer(new SearchResultRenderer());
+            this.listSearchResults.addListSelectionListener(e -> this.updateToolButtons());
+            this.listSearchResults.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(@NonNull final MouseEvent e) {
+                    final ContentFile selected = listSearchResults.getSelectedValue();
+                    if (!e.isPopupTrigger() && e.getClickCount() > 1 && selected != null) {
+                        openInSystem(selected);
+                    }
+                }
+            });
+            this.mediaSearchPanel = new MediaSearchPanel(this::onMediaSearch);
+            this.panelFileTree.add(this.mediaSearchPanel, java.awt.BorderLayout.SOUTH);
+            this.treeVideoFiles.addTreeWillExpandListener(new TreeWillExpandListener() {
+                @Override
+                public void treeWillExpand(@NonNull final TreeExpansionEvent event) {
+                    final Object node = event.getPath().getLastPathComponent();
+                    if (node instanceof ContentFolder) {
+                        loadContentFolder((ContentFolder) node);
+                    }
+                }
+
+                @Override
+                public void treeWillCollapse(@NonNull final TreeExpansionEvent event) {
+                }
+            });
             this.addWindowListener(new WindowAdapter() {
                 @Override
                 public void windowActivated(WindowEvent e) {
@@ -510,15 +624,100 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
             this.setExtendedState(this.getExtendedState() | MAXIMIZED_BOTH);
 
             this.setVisible(true);
-            this.executorService.scheduleAtFixedRate(this::updatePlayers, 1000L, 1500L, TimeUnit.MILLISECONDS);
             this.setFileRoot(this.preferences.getFileRoot());
 
-            this.applicationStatusPanel.set(new ApplicationStatusPanel(this, executorService, preferences));
+            this.applicationStatusPanel.set(new ApplicationStatusPanel(this, preferences, kodiComm));
             this.panelPlayers.add(this.applicationStatusPanel.get());
+
+            this.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowIconified(final WindowEvent e) {
+                    minimized = true;
+                }
+
+                @Override
+                public void windowDeiconified(final WindowEvent e) {
+                    minimized = false;
+                    requestStatusPoll();
+                }
+            });
+
+            this.pollScheduler.addSource("players", this::makePlayersPollParticipants, this::getPlayersPollInterval);
+            this.pollScheduler.addSource("application", this::makeApplicationPollParticipants, this::getApplicationPollInterval);
+            this.pollScheduler.start();
+        });
+        this.kodiNotifications.addListener(new KodiNotifications.Listener() {
+            @Override
+            public void onKodiNotification(@NonNull final String method, @NonNull final JsonNode params) {
+                onKodiNotificationReceived(method, params);
+            }
+
+            @Override
+            public void onKodiNotificationsConnection(final boolean connected) {
+                requestStatusPoll();
+            }
         });
         this.timerScheduler.reloadTimers();
     }
 
+    private void onKodiNotificationReceived(@NonNull final String method, @NonNull final JsonNode params) {
+        switch (method) {
+            case "Application.OnVolumeChanged": {
+                final ApplicationStatusPanel statusPanel = this.applicationStatusPanel.get();
+                final JsonNode data = params.path("data");
+                if (statusPanel != null && data.has("volume")) {
+                    statusPanel.onVolumeChanged(data.path("volume").asLong(), data.path("muted").asBoolean());
+                }
+            }
+            break;
+            case "Player.OnPlay":
+            case "Player.OnAVStart":
+            case "Playlist.OnAdd": {
+                this.notifyAllPlayersToRefreshFullData();
+                this.requestStatusPoll();
+            }
+            break;
+            case "Player.OnPause":
+            case "Player.OnResume":
+            case "Player.OnStop":
+            case "Player.OnSeek":
+            case "Player.OnSpeedChanged": {
+                this.requestStatusPoll();
+            }
+            break;
+            default: {
+                // ignore
+            }
+            break;
+        }
+    }
+
+    /**
+     * Request poll of Kodi status as soon as possible, should be called after
+     * user actions which change state of Kodi.
+     */
+    public void requestStatusPoll() {
+        this.pollScheduler.requestPoll();
+    }
+
+    private long getPlayersPollInterval() {
+        if (this.minimized) {
+            return MINIMIZED_POLL_INTERVAL_MILLISECONDS;
+        }
+        if (this.hasPlayingPlayers) {
+            // Kodi doesn't notify about playing progress
+            return PLAYING_POLL_INTERVAL_MILLISECONDS;
+        }
+        return this.kodiNotifications.isConnected() ? PUSH_MODE_IDLE_POLL_INTERVAL_MILLISECONDS : IDLE_POLL_INTERVAL_MILLISECONDS;
+    }
+
+    private long getApplicationPollInterval() {
+        if (this.kodiNotifications.isConnected()) {
+            return PUSH_MODE_APPLICATION_POLL_INTERVAL_MILLISECONDS;
+        }
+        return this.minimized ? MINIMIZED_POLL_INTERVAL_MILLISECONDS : APPLICATION_POLL_INTERVAL_MILLISECONDS;
+    }
+
     private boolean doesContainPlayer(final ActivePlayerInfo player) {
         boolean result = false;
 
@@ -546,6 +745,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
                 if (!playerId.contains(panel.getPlayerId())) {
                     LOGGER.info("Removed player panel '{}'", panel);
                     this.panelPlayers.remove(c);
+                    this.playerPanels.remove(panel);
                     panel.dispose();
                     result = true;
                 }
@@ -554,17 +754,36 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         return result;
     }
 
-    private void updatePlayers() {
+    @NonNull
+    private List<? extends KodiStatusPoller.Participant> makePlayersPollParticipants() {
+        final List<KodiStatusPoller.Participant> participants = new ArrayList<>(this.playerPanels);
+        // must be the last one to see paused state provided by player panels
+        participants.add(batch -> {
+            final BatchRequest.Response<ActivePlayerInfo[]> activePlayers = batch.getActivePlayers();
+            return () -> this.onActivePlayers(activePlayers);
+        });
+        return participants;
+    }
+
+    @NonNull
+    private List<? extends KodiStatusPoller.Participant> makeApplicationPollParticipants() {
+        final ApplicationStatusPanel statusPanel = this.applicationStatusPanel.get();
+        return statusPanel == null ? List.of() : List.of(statusPanel);
+    }
+
+    private void onActivePlayers(@NonNull final BatchRequest.Response<ActivePlayerInfo[]> response) {
         try {
-            final List<ActivePlayerInfo> players = this.kodiComm.findActivePlayers();
+            final ActivePlayerInfo[] foundPlayers = response.get();
+            final List<ActivePlayerInfo> players = foundPlayers == null ? List.of() : Arrays.asList(foundPlayers);
 
             SwingUtilities.invokeLater(() -> {
                 boolean changed = removeNonListedPlayers(players);
 
                 for (final ActivePlayerInfo p : players) {
                     if (!doesContainPlayer(p)) {
-                        final PlayerPanel panel = new PlayerPanel(MainFrame.this, p, executorService, this.kodiComm);
+                        final PlayerPanel panel = new PlayerPanel(MainFrame.this, p, taskExecutorService, this.kodiComm);
                         panelPlayers.add(panel);
+                        playerPanels.add(panel);
                         LOGGER.info("Added player panel '{}'", panel);
                         changed = true;
                     }
@@ -573,19 +792,24 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
                 if (changed) {
                     panelPlayers.revalidate();
                     panelPlayers.repaint();
+                    // new panels must get their data without waiting for next regular poll
+                    this.requestStatusPoll();
                 }
 
                 int pausedCounter = 0;
+                int playingCounter = 0;
 
                 for (final Component c : panelPlayers.getComponents()) {
                     if (c instanceof PlayerPanel) {
                         final PlayerPanel player = (PlayerPanel) c;
-                        player.refresh();
                         if (player.isPaused()) {
                             pausedCounter++;
+                        } else {
+                            playingCounter++;
                         }
                     }
                 }
+                this.hasPlayingPlayers = playingCounter > 0;
 
                 if (pausedCounter == 0) {
                     this.fileRegstry.resume();
@@ -599,8 +823,34 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         }
     }
 
+    private void onMediaSearch(@NonNull final String text, @Nullable final ContentType type) {
+        if (isBlank(text)) {
+            this.searchResults.clear();
+            this.mediaSearchPanel.setFound(-1, 0);
+            if (this.fileTreeScrollPane.getViewport().getView() != this.treeVideoFiles) {
+                this.fileTreeScrollPane.setViewportView(this.treeVideoFiles);
+            }
+        } else {
+            final long start = System.nanoTime();
+            final List<ContentFile> found = this.searchIndex.search(text, type, MAX_SEARCH_RESULTS);
+            LOGGER.debug("Search '{}' found {} files for {} us", text, found.size(), (System.nanoTime() - start) / 1000L);
+            this.searchResults.clear();
+            this.searchResults.addAll(found);
+            this.mediaSearchPanel.setFound(found.size(), this.searchIndex.size());
+            if (this.fileTreeScrollPane.getViewport().getView() != this.listSearchResults) {
+                this.fileTreeScrollPane.setViewportView(this.listSearchResults);
+            }
+        }
+        this.updateToolButtons();
+    }
+
     private void setFileRoot(@NonNull final String fileRootFolder) {
-        this.videoFiles.clear();
+        this.mediaSearchPanel.clear();
+        this.mediaSearchPanel.setIndexing(false);
+        if (this.contentScanSession != null) {
+            this.contentScanSession.cancel();
+            this.contentScanSession = null;
+        }
 
         LOGGER.info("Selecting file root '{}'", fileRootFolder);
 
@@ -613,31 +863,84 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
                     return;
                 }
                 this.currentRootFolder = theFilePath.toPath();
+                this.contentScanSession = this.contentScanner.startSession(this.currentRootFolder, new ContentTreeScanner.Sink() {
+                    @Override
+                    public void onFolderItems(@NonNull final ContentFolder folder, @NonNull final List<ContentTreeItem> items) {
+                        onContentFolderItems(folder, items);
+                    }
 
-                Files.list(this.currentRootFolder).filter(f -> {
-                    return Files.isReadable(f)
-                            && (Files.isDirectory(f) || ContentType.findType(f) != ContentType.UNKNOWN);
-                }).forEach(f -> {
-                    if (Files.isDirectory(f)) {
-                        try {
-                            this.videoFiles.add(new ContentFolder(f));
-                        } catch (IOException ex) {
-                            LOGGER.error("Can't read folder {}", f, ex);
+                    @Override
+                    public void onFolderItemChanged(@NonNull final ContentFolder folder, @NonNull final String name, @Nullable final ContentTreeItem item) {
+                        onContentFolderItemChanged(folder, name, item);
+                    }
+
+                    @Override
+                    public void onTreeIndexed(@NonNull final ContentFolder root) {
+                        mediaSearchPanel.setIndexing(false);
+                        if (!isBlank(mediaSearchPanel.getText())) {
+                            onMediaSearch(mediaSearchPanel.getText(), mediaSearchPanel.getContentType());
                         }
-                    } else {
-                        this.videoFiles.add(new ContentFile(f, ContentType.findType(f)));
                     }
                 });
-
-                Collections.sort(this.videoFiles, CONTENT_ITEM_COMPARATOR);
+                this.mediaSearchPanel.setIndexing(this.contentScanner.startIndexing(this.contentScanSession));
             }
-        } catch (IOException ex) {
-            LOGGER.error("Can't set file root", ex);
         } finally {
             this.treeListeners.forEach((l) -> {
                 l.treeStructureChanged(new TreeModelEvent(this, new TreePath(new Object[]{this})));
             });
+            if (this.contentScanSession != null) {
+                this.loadContentFolder(this.contentScanSession.getRoot());
+            }
+        }
+    }
+
+    private void loadContentFolder(@NonNull final ContentFolder folder) {
+        final ContentTreeScanner.Session session = this.contentScanSession;
+        if (session != null) {
+            this.contentScanner.load(session, folder);
+        }
+    }
+
+    private void onContentFolderItems(@NonNull final ContentFolder folder, @NonNull final List<ContentTreeItem> items) {
+        final TreePath path = this.makeTreePath(folder);
+        for (final ContentTreeItem item : items) {
+            final int index = folder.addSorted(item);
+            final TreeModelEvent event = new TreeModelEvent(this, path, new int[]{index}, new Object[]{item});
+            this.treeListeners.forEach((l) -> {
+                l.treeNodesInserted(event);
+            });
+        }
+    }
+
+    private void onContentFolderItemChanged(@NonNull final ContentFolder folder, @NonNull final String name, @Nullable final ContentTreeItem item) {
+        final TreePath path = this.makeTreePath(folder);
+        final int existingIndex = folder.findChild(name);
+        if (existingIndex >= 0) {
+            final ContentTreeItem existing = folder.getFiles().get(existingIndex);
+            if (item != null && existing.getClass() == item.getClass()
+                    && (!(item instanceof ContentFile) || ((ContentFile) item).getContentType() == ((ContentFile) existing).getContentType())) {
+                return;
+            }
+            folder.removeChild(existingIndex);
+            final TreeModelEvent event = new TreeModelEvent(this, path, new int[]{existingIndex}, new Object[]{existing});
+            this.treeListeners.forEach((l) -> {
+                l.treeNodesRemoved(event);
+            });
+        }
+        if (item != null) {
+            this.onContentFolderItems(folder, List.of(item));
+        }
+    }
+
+    @NonNull
+    private TreePath makeTreePath(@NonNull final ContentFolder folder) {
+        final List<Object> path = new ArrayList<>();
+        for (ContentFolder f = folder; f != null && f.getParent() != null; f = f.getParent()) {
+            path.add(f);
         }
+        path.add(this);
+        Collections.reverse(path);
+        return new TreePath(path.toArray());
     }
 
     /**
@@ -673,6 +976,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         menuTools = new javax.swing.JMenu();
         menuTimers = new javax.swing.JMenuItem();
         menuStaticContent = new javax.swing.JMenuItem();
+        menuServerMetrics = new javax.swing.JMenuItem();
         menuLookAndFeel = new javax.swing.JMenu();
         menuToolsOptions = new javax.swing.JMenuItem();
         menuMisc = new javax.swing.JMenu();
@@ -857,6 +1161,15 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         });
         menuTools.add(menuStaticContent);
 
+        menuServerMetrics.setIcon(new javax.swing.ImageIcon(getClass().getResource("/icons/16_ico_osd.png"))); // NOI18N
+        menuServerMetrics.setText("Server metrics");
+        menuServerMetrics.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                menuServerMetricsActionPerformed(evt);
+            }
+        });
+        menuTools.add(menuServerMetrics);
+
         menuLookAndFeel.setIcon(new javax.swing.ImageIcon(getClass().getResource("/icons/16_eye.png"))); // NOI18N
         menuLookAndFeel.setText("Look and Feel");
         menuTools.add(menuLookAndFeel);
@@ -932,6 +1245,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
       if (JOptionPane.showConfirmDialog(this, Utils.makeOwningDialogResizable(new JScrollPane(new OptionsPanel(container, this.soundAdapter))), "Options", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
           container.save(this.preferences);
           this.server.restartServer();
+          this.kodiNotifications.reconnect();
       }
   }//GEN-LAST:event_menuToolsOptionsActionPerformed
 
@@ -948,9 +1262,8 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
   }//GEN-LAST:event_treeVideoFilesMouseClicked
 
   private void buttonPlaySelectedActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_buttonPlaySelectedActionPerformed
-      final TreePath selected = this.treeVideoFiles.getSelectionPath();
-      if (selected != null && selected.getLastPathComponent() instanceof ContentFile) {
-          final ContentFile videoFile = (ContentFile) selected.getLastPathComponent();
+      final ContentFile videoFile = this.getSelectedContentFile();
+      if (videoFile != null) {
           if (this.fileRegstry.isFileAtPlay(videoFile.getFilePath())) {
               JOptionPane.showMessageDialog(this, "The File is already playing", "File is playing", JOptionPane.WARNING_MESSAGE);
           } else {
@@ -960,9 +1273,9 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
   }//GEN-LAST:event_buttonPlaySelectedActionPerformed
 
   private void buttonOpenSelectedFileInSystemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_buttonOpenSelectedFileInSystemActionPerformed
-      final TreePath path = this.treeVideoFiles.getSelectionPath();
-      if (path.getLastPathComponent() instanceof ContentFile) {
-          openInSystem((ContentFile) path.getLastPathComponent());
+      final ContentFile selected = this.getSelectedContentFile();
+      if (selected != null) {
+          openInSystem(selected);
       }
   }//GEN-LAST:event_buttonOpenSelectedFileInSystemActionPerformed
 
@@ -1050,19 +1363,10 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         infoPanel.setTextInfo(String.format("Opening link '%s'", Utils.cutStrLength(url, STR_CUT_LEN)));
         infoPanel.setVisible(true);
 
-        this.executorService.submit(() -> {
-            final KodiAddress kodiAddress;
-            kodiAddress = new KodiAddress(
-                    this.preferences.getKodiAddress(),
-                    this.preferences.getKodiPort(),
-                    this.preferences.getKodiName(),
-                    this.preferences.getKodiPassword(),
-                    this.preferences.isKodiSsl()
-            );
-
+        this.taskExecutorService.submit(() -> {
             final AtomicReference<Throwable> error = new AtomicReference<>();
             try {
-                final String result = new KodiService(kodiAddress, this.preferences.getJsonRequestTimeout()).doPlayerOpenFile(url);
+                final String result = this.kodiComm.makeKodiService().orElseThrow(() -> new IllegalStateException("Can't get kodi service")).doPlayerOpenFile(url);
                 LOGGER.info("Player open link response is '{}' for '{}'", result, url);
                 if (!"ok".equalsIgnoreCase(result)) {
                     throw new IllegalStateException("Can't start play link, status : " + result);
@@ -1125,7 +1429,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
               final FfmpegWrapper ffmpwrapper = new FfmpegWrapper(
                       this.preferences,
                       this.soundAdapter,
-                      this.server.getScreencastDataBuffer()
+                      this.server.getScreencastHub()
               );
 
               this.lastFFmpegWrapper = new WeakReference<>(ffmpwrapper);
@@ -1327,6 +1631,10 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         }
     }//GEN-LAST:event_menuStaticContentActionPerformed
 
+    private void menuServerMetricsActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_menuServerMetricsActionPerformed
+        JOptionPane.showMessageDialog(this, Utils.makeOwningDialogResizable(new ServerMetricsPanel(this.server.getMetrics())), "Server metrics", JOptionPane.PLAIN_MESSAGE);
+    }//GEN-LAST:event_menuServerMetricsActionPerformed
+
     private void menuMiscDecodeYoutubeUrlActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_menuMiscDecodeYoutubeUrlActionPerformed
         final String youtubeLinkUrl = JOptionPane.showInputDialog(this, "Enter Youtube URL", "");
         if (youtubeLinkUrl == null || youtubeLinkUrl.isBlank()) {
@@ -1425,7 +1733,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
             infoPanel.setTextInfo("Opening file '" + contentFile.getFileNameAsString() + "'");
             infoPanel.setVisible(true);
 
-            this.executorService.submit(() -> {
+            this.taskExecutorService.submit(() -> {
                 final String uuid = UUID.randomUUID().toString();
                 final UploadFileRecord record = this.fileRegstry.registerFile(uuid, contentFile.getFilePath(), data);
                 final AtomicReference<Throwable> error = new AtomicReference<>();
@@ -1467,20 +1775,11 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         infoPanel.setTextInfo("Starting screencast");
         infoPanel.setVisible(true);
 
-        this.executorService.submit(() -> {
-            final KodiAddress kodiAddress;
-            kodiAddress = new KodiAddress(
-                    this.preferences.getKodiAddress(),
-                    this.preferences.getKodiPort(),
-                    this.preferences.getKodiName(),
-                    this.preferences.getKodiPassword(),
-                    this.preferences.isKodiSsl()
-            );
-
+        this.taskExecutorService.submit(() -> {
             final AtomicReference<Throwable> error = new AtomicReference<>();
             try {
                 final String screenCastUrl = this.server.getScreenCastUrl();
-                final String result = new KodiService(kodiAddress, this.preferences.getJsonRequestTimeout()).doPlayerOpenFile(screenCastUrl);
+                final String result = this.kodiComm.makeKodiService().orElseThrow(() -> new IllegalStateException("Can't get kodi service")).doPlayerOpenFile(screenCastUrl);
                 LOGGER.info("Player open response for '{}' is '{}'", screenCastUrl, result);
                 if (!"ok".equalsIgnoreCase(result)) {
                     throw new IllegalStateException("Can't start play, status : " + result);
@@ -1509,6 +1808,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
                     ((PlayerPanel) c).notifyFullDataRefresh();
                 }
             }
+            this.requestStatusPoll();
         };
         if (SwingUtilities.isEventDispatchThread()) {
             r.run();
@@ -1541,6 +1841,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
     private javax.swing.JMenuItem menuOpenFile;
     private javax.swing.JMenuItem menuOpenYoutubeLink;
     private javax.swing.JMenuItem menuSelectFolder;
+    private javax.swing.JMenuItem menuServerMetrics;
     private javax.swing.JMenuItem menuStaticContent;
     private javax.swing.JMenuItem menuTimers;
     private javax.swing.JMenu menuTools;
@@ -1562,7 +1863,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
     @NonNull
     public Object getChild(@NonNull final Object parent, final int index) {
         if (parent == this) {
-            return this.videoFiles.get(index);
+            return this.getRootContent().getFiles().get(index);
         } else {
             return parent instanceof ContentFolder ? ((ContentFolder) parent).getFiles().get(index) : 0;
         }
@@ -1571,7 +1872,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
     @Override
     public int getChildCount(@NonNull final Object parent) {
         if (parent == this) {
-            return this.videoFiles.size();
+            return this.contentScanSession == null ? 0 : this.getRootContent().getFiles().size();
         } else {
             return parent instanceof ContentFolder ? ((ContentFolder) parent).getFiles().size() : 0;
         }
@@ -1589,7 +1890,7 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
     @Override
     public int getIndexOfChild(@NonNull final Object parent, @NonNull final Object child) {
         if (parent == this) {
-            return this.videoFiles.indexOf(child);
+            return this.contentScanSession == null ? -1 : this.getRootContent().getFiles().indexOf(child);
         } else {
             return ((ContentFolder) parent).getFiles().indexOf(child);
         }
@@ -1605,6 +1906,11 @@ public class MainFrame extends javax.swing.JFrame implements TreeModel, FlavorLi
         this.treeListeners.remove(l);
     }
 
+    @NonNull
+    private ContentFolder getRootContent() {
+        return this.contentScanSession.getRoot();
+    }
+
     @Override
     public String toString() {
         return this.currentRootFolder == null ? "NOT SELECTED" : this.currentRootFolder.getFileName().toString();
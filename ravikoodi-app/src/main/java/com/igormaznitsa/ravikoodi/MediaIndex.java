@@ -0,0 +1,625 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persistent index of media root folder. The index keeps for every read
+ * folder its modification time and list of media files and sub-folders (name,
+ * size, modification time and content type). Cached folder content is used
+ * while modification time of the folder is the same, changes in read folders
+ * are tracked by watch service and applied to the index incrementally. The
+ * index is saved into user home folder periodically and on exit, periodical
+ * save is started by timer but made in task executor because it can take long
+ * time for big library. Broken index file is removed and folders are read
+ * from file system again.
+ */
+@Component
+public class MediaIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MediaIndex.class);
+
+    public static final String PROPERTY_INDEX_FOLDER = "ravikoodi.index.folder";
+
+    private static final int MAGIC = 0x524B4D49;
+    private static final int VERSION = 1;
+    private static final long SAVE_INTERVAL_MILLISECONDS = 30000L;
+    private static final int MAX_WATCHED_FOLDERS = 4096;
+
+    public static final class Entry {
+
+        private final String name;
+        private final boolean directory;
+        private final long size;
+        private final long lastModified;
+        private final MimeTypes.ContentType contentType;
+
+        public Entry(
+                @NonNull final String name,
+                final boolean directory,
+                final long size,
+                final long lastModified,
+                @NonNull final MimeTypes.ContentType contentType
+        ) {
+            this.name = name;
+            this.directory = directory;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+        }
+
+        @NonNull
+        public String getName() {
+            return this.name;
+        }
+
+        public boolean isDirectory() {
+            return this.directory;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getLastModified() {
+            return this.lastModified;
+        }
+
+        @NonNull
+        public MimeTypes.ContentType getContentType() {
+            return this.contentType;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" + "name=" + this.name + ", directory=" + this.directory + ", size=" + this.size + ", lastModified=" + this.lastModified + ", contentType=" + this.contentType + '}';
+        }
+    }
+
+    public static final class Folder {
+
+        private final long lastModified;
+        private final Map<String, Entry> entries;
+
+        private Folder(final long lastModified, @NonNull final Map<String, Entry> entries) {
+            this.lastModified = lastModified;
+            this.entries = Collections.unmodifiableMap(entries);
+        }
+
+        public long getLastModified() {
+            return this.lastModified;
+        }
+
+        @NonNull
+        public Collection<Entry> getEntries() {
+            return this.entries.values();
+        }
+
+        @NonNull
+        private Folder with(@NonNull final String name, @Nullable final Entry entry, final long lastModified) {
+            final Map<String, Entry> newEntries = new HashMap<>(this.entries);
+            if (entry == null) {
+                newEntries.remove(name);
+            } else {
+                newEntries.put(name, entry);
+            }
+            return new Folder(lastModified, newEntries);
+        }
+    }
+
+    public interface Listener {
+
+        /**
+         * Called from watcher thread when an entry of indexed folder has been
+         * changed.
+         *
+         * @param folder folder containing the entry
+         * @param name name of changed entry
+         * @param entry new state of the entry, null if it is removed or not media
+         * one anymore
+         */
+        void onMediaIndexChange(@NonNull Path folder, @NonNull String name, @Nullable Entry entry);
+    }
+
+    private final Path indexFolder;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService taskExecutor;
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+    private final Map<Path, Folder> folders = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
+    private final Set<Path> watchedFolders = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+
+    private volatile Path root;
+    private volatile boolean dirty;
+    private volatile WatchService watchService;
+    private volatile boolean stopped;
+
+    @Autowired
+    public MediaIndex(
+            @NonNull final ScheduledExecutorService scheduler,
+            @NonNull @Qualifier(Config.TASK_EXECUTOR) final ExecutorService taskExecutor
+    ) {
+        this(findIndexFolder(), scheduler, taskExecutor);
+    }
+
+    MediaIndex(
+            @Nullable final Path indexFolder,
+            @Nullable final ScheduledExecutorService scheduler,
+            @Nullable final ExecutorService taskExecutor
+    ) {
+        this.indexFolder = indexFolder;
+        this.scheduler = scheduler;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @NonNull
+    private static Path findIndexFolder() {
+        final String folder = System.getProperty(PROPERTY_INDEX_FOLDER);
+        return folder == null ? Paths.get(System.getProperty("user.home"), ".ravikoodi", "index") : Paths.get(folder);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            final Thread thread = new Thread(this::doWatch, "media-index-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.warn("Can't create watch service, media index will not be updated on file changes: {}", ex.getMessage());
+        }
+        if (this.scheduler != null && this.taskExecutor != null) {
+            this.scheduler.scheduleWithFixedDelay(this::queueSave, SAVE_INTERVAL_MILLISECONDS, SAVE_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Called by timer, passes save of dirty index to task executor so that
+     * the scheduler is not blocked by serialization of big index. Only one
+     * save can be queued at the same time.
+     */
+    void queueSave() {
+        if (!this.dirty || this.stopped || !this.saveQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.taskExecutor.execute(() -> {
+                try {
+                    this.saveIfDirty();
+                } finally {
+                    this.saveQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            this.saveQueued.set(false);
+            LOGGER.debug("Can't queue media index save: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.stopped = true;
+        final WatchService service = this.watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                LOGGER.debug("Error during watch service close: {}", ex.getMessage());
+            }
+        }
+        this.saveIfDirty();
+    }
+
+    public void addListener(@NonNull final Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull final Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getUpdates() {
+        return this.updates.get();
+    }
+
+    public int size() {
+        return this.folders.size();
+    }
+
+    @Nullable
+    public Path getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Make index entry for file if it is media file or folder.
+     *
+     * @param path path to file
+     * @return entry or null if the file is not media one or not readable
+     * @throws IOException if file attributes can't be read
+     */
+    @Nullable
+    public static Entry makeEntry(@NonNull final Path path) throws IOException {
+        final Path fileName = path.getFileName();
+        if (fileName == null) {
+            return null;
+        }
+        final MimeTypes.ContentType type = MimeTypes.ContentType.findType(path);
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!attributes.isDirectory() && type == MimeTypes.ContentType.UNKNOWN) {
+            return null;
+        }
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+        return attributes.isDirectory()
+                ? new Entry(fileName.toString(), true, 0L, attributes.lastModifiedTime().toMillis(), MimeTypes.ContentType.UNKNOWN)
+                : new Entry(fileName.toString(), false, attributes.size(), attributes.lastModifiedTime().toMillis(), type);
+    }
+
+    /**
+     * Open index for root folder, saved index is loaded if it is not active one.
+     *
+     * @param rootFolder root media folder
+     */
+    public synchronized void open(@NonNull final Path rootFolder) {
+        final Path normalized = rootFolder.toAbsolutePath().normalize();
+        if (normalized.equals(this.root)) {
+            return;
+        }
+        this.saveIfDirty();
+        this.folders.clear();
+        this.watchKeys.keySet().forEach(WatchKey::cancel);
+        this.watchKeys.clear();
+        this.watchedFolders.clear();
+        this.root = normalized;
+        this.load(normalized);
+    }
+
+    /**
+     * Find actual indexed content of folder.
+     *
+     * @param folder folder path
+     * @return indexed content or null if the folder is not indexed or has been
+     * changed since indexing
+     */
+    @Nullable
+    public Folder findFolder(@NonNull final Path folder) {
+        final Folder result = this.folders.get(folder);
+        if (result == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+        if (getLastModified(folder) != result.getLastModified()) {
+            this.folders.remove(folder, result);
+            this.dirty = true;
+            this.misses.incrementAndGet();
+            return null;
+        }
+        this.hits.incrementAndGet();
+        this.watch(folder);
+        return result;
+    }
+
+    /**
+     * Visit all indexed folders.
+     *
+     * @param consumer consumer of folder path and its entries
+     */
+    public void forEachFolder(@NonNull final BiConsumer<Path, Collection<Entry>> consumer) {
+        this.folders.forEach((path, folder) -> consumer.accept(path, folder.getEntries()));
+    }
+
+    /**
+     * Save read content of folder in the index.
+     *
+     * @param folder folder path
+     * @param lastModified modification time of the folder before reading
+     * @param entries media entries of the folder
+     */
+    public void putFolder(@NonNull final Path folder, final long lastModified, @NonNull final Collection<Entry> entries) {
+        final Map<String, Entry> map = new HashMap<>();
+        entries.forEach(x -> map.put(x.getName(), x));
+        this.folders.put(folder, new Folder(lastModified, map));
+        this.dirty = true;
+        this.watch(folder);
+    }
+
+    /**
+     * Get modification time of file.
+     *
+     * @param path file path
+     * @return modification time in milliseconds or -1 if it can't be read
+     */
+    public static long getLastModified(@NonNull final Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException ex) {
+            return -1L;
+        }
+    }
+
+    private void watch(@NonNull final Path folder) {
+        final WatchService service = this.watchService;
+        if (service == null || this.watchedFolders.contains(folder)) {
+            return;
+        }
+        if (this.watchedFolders.size() >= MAX_WATCHED_FOLDERS) {
+            LOGGER.debug("Reached max number of watched folders, {} is not watched", folder);
+            return;
+        }
+        if (this.watchedFolders.add(folder)) {
+            try {
+                final WatchKey key = folder.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                this.watchKeys.put(key, folder);
+            } catch (IOException | ClosedWatchServiceException | UnsupportedOperationException ex) {
+                this.watchedFolders.remove(folder);
+                LOGGER.debug("Can't watch folder {}: {}", folder, ex.getMessage());
+            }
+        }
+    }
+
+    private void doWatch() {
+        LOGGER.info("Media index watcher started");
+        while (!this.stopped) {
+            final WatchKey key;
+            try {
+                key = this.watchService.take();
+            } catch (ClosedWatchServiceException | InterruptedException ex) {
+                break;
+            }
+            final Path folder = this.watchKeys.get(key);
+            if (folder == null) {
+                key.cancel();
+                continue;
+            }
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    LOGGER.warn("Lost file events for folder {}, it will be read again", folder);
+                    this.folders.remove(folder);
+                    this.dirty = true;
+                } else if (event.context() instanceof Path) {
+                    this.refreshEntry(folder, event.context().toString());
+                }
+            }
+            if (!key.reset()) {
+                this.watchKeys.remove(key);
+                this.watchedFolders.remove(folder);
+                if (this.folders.remove(folder) != null) {
+                    this.dirty = true;
+                }
+            }
+        }
+        LOGGER.info("Media index watcher stopped");
+    }
+
+    /**
+     * Read state of folder entry and apply it to the index.
+     *
+     * @param folder folder containing the entry
+     * @param name name of the entry
+     */
+    void refreshEntry(@NonNull final Path folder, @NonNull final String name) {
+        final Path path = folder.resolve(name);
+        Entry entry;
+        try {
+            entry = makeEntry(path);
+        } catch (NoSuchFileException ex) {
+            entry = null;
+        } catch (IOException ex) {
+            LOGGER.debug("Can't read attributes of {}: {}", path, ex.getMessage());
+            entry = null;
+        }
+        final Entry newEntry = entry;
+        final long folderLastModified = getLastModified(folder);
+        this.folders.computeIfPresent(folder, (k, old) -> old.with(name, newEntry, folderLastModified));
+        if (newEntry == null) {
+            this.folders.keySet().removeIf(x -> x.startsWith(path));
+        }
+        this.updates.incrementAndGet();
+        this.dirty = true;
+        for (final Listener l : this.listeners) {
+            try {
+                l.onMediaIndexChange(folder, name, newEntry);
+            } catch (Exception ex) {
+                LOGGER.error("Error in media index listener", ex);
+            }
+        }
+    }
+
+    @Nullable
+    private Path findIndexFile(@NonNull final Path rootFolder) {
+        if (this.indexFolder == null) {
+            return null;
+        }
+        final String id = UUID.nameUUIDFromBytes(rootFolder.toString().getBytes(StandardCharsets.UTF_8)).toString();
+        return this.indexFolder.resolve("media-" + id + ".idx");
+    }
+
+    private void load(@NonNull final Path rootFolder) {
+        final Path file = this.findIndexFile(rootFolder);
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final CRC32 checksum = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), checksum))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported index format");
+            }
+            if (!rootFolder.toString().equals(in.readUTF())) {
+                throw new IOException("Index for another root");
+            }
+            final MimeTypes.ContentType[] types = MimeTypes.ContentType.values();
+            final Map<Path, Folder> loaded = new HashMap<>();
+            final int folderNumber = in.readInt();
+            if (folderNumber < 0) {
+                throw new IOException("Wrong number of folders: " + folderNumber);
+            }
+            for (int i = 0; i < folderNumber; i++) {
+                final Path folder = rootFolder.resolve(in.readUTF());
+                final long lastModified = in.readLong();
+                final int entryNumber = in.readInt();
+                if (entryNumber < 0) {
+                    throw new IOException("Wrong number of entries: " + entryNumber);
+                }
+                final Map<String, Entry> entries = new HashMap<>();
+                for (int e = 0; e < entryNumber; e++) {
+                    final String name = in.readUTF();
+                    final boolean directory = in.readBoolean();
+                    final long size = in.readLong();
+                    final long entryLastModified = in.readLong();
+                    final int type = in.readUnsignedByte();
+                    if (type >= types.length) {
+                        throw new IOException("Wrong content type: " + type);
+                    }
+                    entries.put(name, new Entry(name, directory, size, entryLastModified, types[type]));
+                }
+                loaded.put(folder, new Folder(lastModified, entries));
+            }
+            final long calculated = checksum.getValue();
+            if (in.readLong() != calculated) {
+                throw new IOException("Wrong checksum");
+            }
+            this.folders.putAll(loaded);
+            LOGGER.info("Loaded media index of {} for {} ms, {} folders", rootFolder, System.currentTimeMillis() - start, loaded.size());
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Media index {} is broken, folders will be read again: {}", file, ex.getMessage());
+            this.folders.clear();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException dex) {
+                LOGGER.error("Can't delete broken media index {}", file, dex);
+            }
+        }
+    }
+
+    public synchronized void saveIfDirty() {
+        if (this.dirty) {
+            this.save();
+        }
+    }
+
+    private void save() {
+        final Path rootFolder = this.root;
+        final Path file = rootFolder == null ? null : this.findIndexFile(rootFolder);
+        if (file == null) {
+            return;
+        }
+        this.dirty = false;
+        final Map<Path, Folder> snapshot = new HashMap<>(this.folders);
+        try {
+            Files.createDirectories(this.indexFolder);
+            final Path tempFile = Files.createTempFile(this.indexFolder, "media-", ".tmp");
+            try {
+                final CRC32 checksum = new CRC32();
+                try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)), checksum))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(rootFolder.toString());
+                    out.writeInt(snapshot.size());
+                    for (final Map.Entry<Path, Folder> f : snapshot.entrySet()) {
+                        out.writeUTF(rootFolder.relativize(f.getKey()).toString());
+                        out.writeLong(f.getValue().getLastModified());
+                        final Collection<Entry> entries = f.getValue().getEntries();
+                        out.writeInt(entries.size());
+                        for (final Entry e : entries) {
+                            out.writeUTF(e.getName());
+                            out.writeBoolean(e.isDirectory());
+                            out.writeLong(e.getSize());
+                            out.writeLong(e.getLastModified());
+                            out.writeByte(e.getContentType().ordinal());
+                        }
+                    }
+                    out.writeLong(checksum.getValue());
+                }
+                try {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            LOGGER.debug("Saved media index {}, {} folders", file, snapshot.size());
+        } catch (IOException | RuntimeException ex) {
+            this.dirty = true;
+            LOGGER.error("Can't save media index {}", file, ex);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.awt.BorderLayout;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Search field for media file names with content type filter, search is
+ * started after short delay since last change.
+ */
+public class MediaSearchPanel extends JPanel {
+
+    private static final int SEARCH_DELAY_MILLISECONDS = 150;
+    private static final String ALL_TYPES = "All";
+
+    public interface Listener {
+
+        /**
+         * Called in Swing thread if search text or type has been changed.
+         *
+         * @param text search text, can be blank
+         * @param type selected content type, null for all types
+         */
+        void onMediaSearch(@NonNull String text, @Nullable MimeTypes.ContentType type);
+    }
+
+    private final JTextField textSearch;
+    private final JComboBox<Object> comboType;
+    private final JLabel labelFound;
+    private final Timer searchTimer;
+    private boolean indexing;
+    private int found = -1;
+    private int total;
+
+    public MediaSearchPanel(@NonNull final Listener listener) {
+        super(new BorderLayout(4, 0));
+        this.setBorder(new EmptyBorder(2, 2, 2, 2));
+
+        this.textSearch = new JTextField();
+        this.textSearch.setToolTipText("Search media files by name, ESC to clear");
+        this.comboType = new JComboBox<>(new Object[]{ALL_TYPES, MimeTypes.ContentType.VIDEO, MimeTypes.ContentType.AUDIO, MimeTypes.ContentType.PICTURE});
+        this.comboType.setToolTipText("Type of searched files");
+        this.labelFound = new JLabel();
+
+        this.searchTimer = new Timer(SEARCH_DELAY_MILLISECONDS, e -> listener.onMediaSearch(this.getText(), this.getContentType()));
+        this.searchTimer.setRepeats(false);
+
+        this.textSearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(@NonNull final DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(@NonNull final DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(@NonNull final DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        this.textSearch.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(@NonNull final KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    textSearch.setText("");
+                }
+            }
+        });
+        this.comboType.addActionListener(e -> this.searchTimer.restart());
+
+        this.add(this.textSearch, BorderLayout.CENTER);
+        this.add(this.comboType, BorderLayout.EAST);
+        this.add(this.labelFound, BorderLayout.SOUTH);
+    }
+
+    @NonNull
+    public String getText() {
+        return this.textSearch.getText();
+    }
+
+    @Nullable
+    public MimeTypes.ContentType getContentType() {
+        final Object selected = this.comboType.getSelectedItem();
+        return selected instanceof MimeTypes.ContentType ? (MimeTypes.ContentType) selected : null;
+    }
+
+    public void setFound(final int found, final int total) {
+        this.found = found;
+        this.total = total;
+        this.updateFoundLabel();
+    }
+
+    /**
+     * Set indexing state, while the tree is being indexed search results can
+     * miss files of not indexed folders.
+     *
+     * @param flag true if indexing is in progress
+     */
+    public void setIndexing(final boolean flag) {
+        this.indexing = flag;
+        this.updateFoundLabel();
+    }
+
+    private void updateFoundLabel() {
+        final String text = this.found < 0 ? "" : "Found " + this.found + " of " + this.total + " indexed files";
+        if (this.indexing) {
+            this.labelFound.setText(text.isEmpty() ? "Indexing..." : text + ", indexing...");
+        } else {
+            this.labelFound.setText(text);
+        }
+    }
+
+    public void clear() {
+        this.textSearch.setText("");
+    }
+}
@@ -5,6 +5,7 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import javax.swing.filechooser.FileFilter;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
@@ -81,6 +82,26 @@ public class MimeTypes {
 
   private static final Map<String, MimeRecord> EXTENSIONS = new HashMap<String, MimeRecord>();
 
+  /**
+   * Text files which can be published but are not media content, they are
+   * not shown in media lists.
+   */
+  private static final Map<String, String> TEXT_EXTENSIONS = new HashMap<>();
+
+  /**
+   * Not text types which can be compressed effectively.
+   */
+  private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+          "application/xml",
+          "application/json",
+          "application/javascript",
+          "application/x-mpegurl",
+          "application/x-subrip",
+          "audio/x-mpegurl",
+          "audio/x-scpls",
+          "image/svg+xml"
+  );
+
   private static void addRecord(@NonNull final String[] extensions, @NonNull final String mime, @NonNull final ContentType type) {
     for (final String e : extensions) {
       final MimeRecord newRecord = new MimeRecord(e, mime, type);
@@ -124,6 +145,35 @@ public class MimeTypes {
     addRecord(new String[]{"tif", "tiff"}, "image/tiff", ContentType.PICTURE);
     addRecord(new String[]{"png"}, "image/png", ContentType.PICTURE);
     addRecord(new String[]{"tga"}, "image/x-tga", ContentType.PICTURE);
+
+    TEXT_EXTENSIONS.put("m3u", "audio/x-mpegurl");
+    TEXT_EXTENSIONS.put("pls", "audio/x-scpls");
+    TEXT_EXTENSIONS.put("strm", "text/plain");
+    TEXT_EXTENSIONS.put("txt", "text/plain");
+    TEXT_EXTENSIONS.put("nfo", "text/plain");
+    TEXT_EXTENSIONS.put("srt", "application/x-subrip");
+    TEXT_EXTENSIONS.put("sub", "text/plain");
+    TEXT_EXTENSIONS.put("ass", "text/x-ssa");
+    TEXT_EXTENSIONS.put("ssa", "text/x-ssa");
+    TEXT_EXTENSIONS.put("vtt", "text/vtt");
+    TEXT_EXTENSIONS.put("xml", "application/xml");
+    TEXT_EXTENSIONS.put("json", "application/json");
+    TEXT_EXTENSIONS.put("htm", "text/html");
+    TEXT_EXTENSIONS.put("html", "text/html");
+    TEXT_EXTENSIONS.put("css", "text/css");
+  }
+
+  /**
+   * Check that content of MIME type can be compressed for transfer. Media
+   * types are already compressed and they are sent as is.
+   *
+   * @param mime MIME type, parameters are ignored
+   * @return true if content should be compressed
+   */
+  public static boolean isCompressible(@NonNull final String mime) {
+    final int parameters = mime.indexOf(';');
+    final String type = (parameters < 0 ? mime : mime.substring(0, parameters)).trim().toLowerCase(Locale.ENGLISH);
+    return type.startsWith("text/") || COMPRESSIBLE_TYPES.contains(type);
   }
 
   public FileFilter makeFileFilter(final ContentType contentType) {
@@ -174,6 +224,10 @@ public class MimeTypes {
   @NonNull
   public String findMimeTypeForFile(@NonNull final Path file) {
       final MimeRecord record = getMimeRecord(file);
-      return record == null ? "application/x-binary" : record.getMime();
+      if (record == null) {
+        final String textMime = TEXT_EXTENSIONS.get(Utils.getFileExtension(file).toLowerCase(Locale.ENGLISH));
+        return textMime == null ? "application/x-binary" : textMime;
+      }
+      return record.getMime();
   }
 }
@@ -1,6 +1,7 @@
 package com.igormaznitsa.ravikoodi;
 
 import com.igormaznitsa.ravikoodi.ApplicationPreferences.GrabberType;
+import com.igormaznitsa.ravikoodi.ApplicationPreferences.ServerEngineType;
 import com.igormaznitsa.ravikoodi.screencast.JavaSoundAdapter;
 import com.igormaznitsa.ravikoodi.ApplicationPreferences.Quality;
 import com.igormaznitsa.ravikoodi.ApplicationPreferences.SpeedProfile;
@@ -50,12 +51,17 @@ public class OptionsPanel extends javax.swing.JPanel {
         private boolean grabCursor;
         private int snapsPerSecond;
         private int kodiPort;
+        private int kodiNotificationPort;
+        private int serverBlockCacheSize;
         private int scaleUi;
         private String soundInput;
         private int bandwidth;
         private int crf;
+        private int keepAliveFps;
+        private boolean screencastHls;
         private Quality quality;
         private GrabberType grabberType;
+        private ServerEngineType serverEngine;
         private SpeedProfile speedProfile;
         private boolean kodiSsl;
         private float soundOffset;
@@ -76,7 +82,10 @@ public class OptionsPanel extends javax.swing.JPanel {
             this.kodiName = preferences.getKodiName();
             this.kodiPassword = preferences.getKodiPassword();
             this.kodiPort = preferences.getKodiPort();
+            this.kodiNotificationPort = preferences.getKodiNotificationPort();
             this.serverSsl = preferences.isServerSsl();
+            this.serverEngine = preferences.getServerEngine();
+            this.serverBlockCacheSize = preferences.getServerBlockCacheSize();
             this.kodiSsl = preferences.isKodiSsl();
             this.ffmpegPath = preferences.getFfmpegPath();
             this.snapsPerSecond = preferences.getSnapsPerSecond();
@@ -89,6 +98,8 @@ public class OptionsPanel extends javax.swing.JPanel {
             this.grabberType = preferences.getGrabberType();
             this.jsonRequestTimeout = preferences.getJsonRequestTimeout().toMillis();
             this.crf = preferences.getCrf();
+            this.keepAliveFps = preferences.getKeepAliveFps();
+            this.screencastHls = preferences.isScreencastHls();
         }
 
         public void save(@NonNull final ApplicationPreferences preferences) {
@@ -101,6 +112,8 @@ public class OptionsPanel extends javax.swing.JPanel {
             preferences.setServerInterface(this.host);
             preferences.setServerPort(this.port);
             preferences.setServerSsl(this.serverSsl);
+            preferences.setServerEngine(this.serverEngine);
+            preferences.setServerBlockCacheSize(this.serverBlockCacheSize);
 
             preferences.setGrabCursor(this.grabCursor);
             preferences.setFfmpegPath(this.ffmpegPath);
@@ -113,6 +126,8 @@ public class OptionsPanel extends javax.swing.JPanel {
             preferences.setGrabberType(this.grabberType);
             preferences.setThreads(this.threads);
             preferences.setCrf(this.crf);
+            preferences.setKeepAliveFps(this.keepAliveFps);
+            preferences.setScreencastHls(this.screencastHls);
 
             preferences.setKodiAddress(this.kodiAddress);
             preferences.setKodiName(this.kodiName);
@@ -120,6 +135,7 @@ public class OptionsPanel extends javax.swing.JPanel {
             preferences.setKodiSsl(this.kodiSsl);
 
             preferences.setKodiPort(this.kodiPort);
+            preferences.setKodiNotificationPort(this.kodiNotificationPort);
 
             preferences.setJsonRequestTimeout(Duration.ofMillis(this.jsonRequestTimeout));
 
@@ -160,6 +176,22 @@ public class OptionsPanel extends javax.swing.JPanel {
             this.crf = value;
         }
 
+        public int getKeepAliveFps() {
+            return this.keepAliveFps;
+        }
+
+        public void setKeepAliveFps(final int value) {
+            this.keepAliveFps = value;
+        }
+
+        public boolean isScreencastHls() {
+            return this.screencastHls;
+        }
+
+        public void setScreencastHls(final boolean value) {
+            this.screencastHls = value;
+        }
+
         public int getThreads() {
             return this.threads;
         }
@@ -271,6 +303,22 @@ public class OptionsPanel extends javax.swing.JPanel {
             this.kodiPort = port;
         }
 
+        public int getKodiNotificationPort() {
+            return this.kodiNotificationPort;
+        }
+
+        public void setKodiNotificationPort(final int port) {
+            this.kodiNotificationPort = port;
+        }
+
+        public int getServerBlockCacheSize() {
+            return this.serverBlockCacheSize;
+        }
+
+        public void setServerBlockCacheSize(final int megabytes) {
+            this.serverBlockCacheSize = megabytes;
+        }
+
         @NonNull
         public String getFfmpegPath() {
             return this.ffmpegPath;
@@ -313,6 +361,15 @@ public class OptionsPanel extends javax.swing.JPanel {
             return this.serverSsl;
         }
 
+        @NonNull
+        public ServerEngineType getServerEngine() {
+            return this.serverEngine;
+        }
+
+        public void setServerEngine(@NonNull final ServerEngineType serverEngine) {
+            this.serverEngine = serverEngine;
+        }
+
         public void setKodiSsl(final boolean useSsl) {
             this.kodiSsl = useSsl;
         }
@@ -399,8 +456,10 @@ public class OptionsPanel extends javax.swing.JPanel {
         });
 
         this.spinnerKodiPort.setEditor(new JSpinner.NumberEditor(this.spinnerKodiPort, "#"));
+        this.spinnerKodiNotificationPort.setEditor(new JSpinner.NumberEditor(this.spinnerKodiNotificationPort, "#"));
         this.spinnerGrabThreads.setEditor(new JSpinner.NumberEditor(this.spinnerGrabThreads, "##"));
         this.spinnerServerPort.setEditor(new JSpinner.NumberEditor(this.spinnerServerPort, "#"));
+        this.spinnerServerBlockCache.setEditor(new JSpinner.NumberEditor(this.spinnerServerBlockCache, "#"));
         this.spinnerSnapsPerSecond.setEditor(new JSpinner.NumberEditor(this.spinnerSnapsPerSecond, "##"));
         this.spinnerBandwidth.setEditor(new JSpinner.NumberEditor(this.spinnerBandwidth, "##"));
         this.spinnerSoundOffset.setEditor(new JSpinner.NumberEditor(this.spinnerSoundOffset, "##.##"));
@@ -408,6 +467,7 @@ public class OptionsPanel extends javax.swing.JPanel {
         this.comboSoundLine.setModel(new DefaultComboBoxModel<>(inputLines.toArray(new String[inputLines.size()])));
         this.comboSoundLine.setSelectedItem(data.getSoundInput());
 
+        this.comboServerEngine.setModel(new DefaultComboBoxModel<>(Stream.of(ServerEngineType.values()).map(x -> x.name()).toArray(String[]::new)));
         this.comboGrabberType.setModel(new DefaultComboBoxModel<>(Stream.of(GrabberType.values()).map(x -> x.name()).toArray(String[]::new)));
         this.comboQuality.setModel(new DefaultComboBoxModel<>(Stream.of(Quality.values()).map(x -> x.getViewName()).toArray(String[]::new)));
         this.comboSpeedProfile.setModel(new DefaultComboBoxModel<>(Stream.of(SpeedProfile.values()).map(x -> x.getViewName()).toArray(String[]::new)));
@@ -415,9 +475,11 @@ public class OptionsPanel extends javax.swing.JPanel {
         this.comboInterface.setModel(new DefaultComboBoxModel<>(ne.toArray(new String[ne.size()])));
         this.comboInterface.setSelectedItem(data.getServerHost());
         this.spinnerServerPort.setValue(data.getServerPort());
+        this.spinnerServerBlockCache.setValue(data.getServerBlockCacheSize());
         this.spinnerSoundOffset.setValue(data.getSoundOffset());
         this.textFieldKodiAddress.setText(data.getKodiAddress());
         this.spinnerKodiPort.setValue(data.getKodiPort());
+        this.spinnerKodiNotificationPort.setValue(data.getKodiNotificationPort());
         this.textFieldKodiName.setText(data.getKodiName());
         this.textFieldKodiPassword.setText(data.getKodiPassword());
 
@@ -430,10 +492,13 @@ public class OptionsPanel extends javax.swing.JPanel {
         this.comboSpeedProfile.setSelectedItem(data.getSpeedProfile().getViewName());
         this.spinnerSnapsPerSecond.setValue(data.getSnapsPerSecond());
         this.spinnerCrf.setValue(data.getCrf());
+        this.spinnerKeepAliveFps.setValue(data.getKeepAliveFps());
+        this.checkScreencastHls.setSelected(data.isScreencastHls());
         this.spinnerBandwidth.setValue(data.getBandwidth());
         this.spinnerGrabThreads.setValue(data.getThreads());
 
         this.checkServerSsl.setSelected(data.isServerSsl());
+        this.comboServerEngine.setSelectedItem(data.getServerEngine().name());
         this.checkKodiSsl.setSelected(data.isKodiSsl());
 
         this.comboBoxYoutubeMode.setSelectedItem(data.getYoutubeOpenUrlMode());
@@ -485,6 +550,10 @@ public class OptionsPanel extends javax.swing.JPanel {
         filler2 = new javax.swing.Box.Filler(new java.awt.Dimension(0, 0), new java.awt.Dimension(0, 0), new java.awt.Dimension(32767, 0));
         jLabel3 = new javax.swing.JLabel();
         checkServerSsl = new javax.swing.JCheckBox();
+        labelServerEngine = new javax.swing.JLabel();
+        comboServerEngine = new javax.swing.JComboBox<>();
+        labelServerBlockCache = new javax.swing.JLabel();
+        spinnerServerBlockCache = new javax.swing.JSpinner();
         panelKodiOptions = new javax.swing.JPanel();
         labelKodiAddress = new javax.swing.JLabel();
         labelKodiPort = new javax.swing.JLabel();
@@ -499,6 +568,8 @@ public class OptionsPanel extends javax.swing.JPanel {
         checkKodiSsl = new javax.swing.JCheckBox();
         labelKodiRpcTimeout = new javax.swing.JLabel();
         spinnerRpcTimeout = new javax.swing.JSpinner();
+        labelKodiNotificationPort = new javax.swing.JLabel();
+        spinnerKodiNotificationPort = new javax.swing.JSpinner();
         filler3 = new javax.swing.Box.Filler(new java.awt.Dimension(0, 0), new java.awt.Dimension(0, 0), new java.awt.Dimension(0, 32767));
         tabScreencast = new javax.swing.JPanel();
         panelScreenCast = new javax.swing.JPanel();
@@ -524,6 +595,10 @@ public class OptionsPanel extends javax.swing.JPanel {
         spinnerGrabThreads = new javax.swing.JSpinner();
         jLabel16 = new javax.swing.JLabel();
         spinnerCrf = new javax.swing.JSpinner();
+        labelKeepAliveFps = new javax.swing.JLabel();
+        spinnerKeepAliveFps = new javax.swing.JSpinner();
+        labelScreencastHls = new javax.swing.JLabel();
+        checkScreencastHls = new javax.swing.JCheckBox();
         tabYoutube = new javax.swing.JPanel();
         jLabel17 = new javax.swing.JLabel();
         jLabel18 = new javax.swing.JLabel();
@@ -654,6 +729,50 @@ public class OptionsPanel extends javax.swing.JPanel {
         gridBagConstraints.anchor = java.awt.GridBagConstraints.WEST;
         panelServerOptions.add(checkServerSsl, gridBagConstraints);
 
+        labelServerEngine.setHorizontalAlignment(javax.swing.SwingConstants.RIGHT);
+        labelServerEngine.setText("Engine:");
+        labelServerEngine.setToolTipText("Engine of internal server, NIO engine works only in HTTP mode");
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 3;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelServerOptions.add(labelServerEngine, gridBagConstraints);
+
+        comboServerEngine.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Item 1", "Item 2", "Item 3", "Item 4" }));
+        comboServerEngine.setToolTipText("JDK is the embedded Java HTTP server, NIO is the selector based server");
+        comboServerEngine.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                comboServerEngineActionPerformed(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 1;
+        gridBagConstraints.gridy = 3;
+        gridBagConstraints.anchor = java.awt.GridBagConstraints.WEST;
+        panelServerOptions.add(comboServerEngine, gridBagConstraints);
+
+        labelServerBlockCache.setHorizontalAlignment(javax.swing.SwingConstants.RIGHT);
+        labelServerBlockCache.setText("Block cache (MB):");
+        labelServerBlockCache.setToolTipText("Memory for cached blocks of files often requested by KODI");
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 4;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelServerOptions.add(labelServerBlockCache, gridBagConstraints);
+
+        spinnerServerBlockCache.setModel(new javax.swing.SpinnerNumberModel(64, 0, 4096, 16));
+        spinnerServerBlockCache.setToolTipText("Off-heap memory for head and tail blocks of served files in megabytes, 0 to turn off");
+        spinnerServerBlockCache.addChangeListener(new javax.swing.event.ChangeListener() {
+            public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                spinnerServerBlockCacheStateChanged(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 1;
+        gridBagConstraints.gridy = 4;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelServerOptions.add(spinnerServerBlockCache, gridBagConstraints);
+
         gridBagConstraints = new java.awt.GridBagConstraints();
         gridBagConstraints.gridx = 0;
         gridBagConstraints.gridy = 1;
@@ -743,7 +862,7 @@ public class OptionsPanel extends javax.swing.JPanel {
         });
         gridBagConstraints = new java.awt.GridBagConstraints();
         gridBagConstraints.gridx = 0;
-        gridBagConstraints.gridy = 6;
+        gridBagConstraints.gridy = 7;
         gridBagConstraints.gridwidth = 2;
         gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
         panelKodiOptions.add(buttonTestKodiConnection, gridBagConstraints);
@@ -792,6 +911,28 @@ public class OptionsPanel extends javax.swing.JPanel {
         gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
         panelKodiOptions.add(spinnerRpcTimeout, gridBagConstraints);
 
+        labelKodiNotificationPort.setHorizontalAlignment(javax.swing.SwingConstants.RIGHT);
+        labelKodiNotificationPort.setText("Events port:");
+        labelKodiNotificationPort.setToolTipText("TCP port of KODI JSON-RPC notifications");
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 6;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelKodiOptions.add(labelKodiNotificationPort, gridBagConstraints);
+
+        spinnerKodiNotificationPort.setModel(new javax.swing.SpinnerNumberModel(9090, 0, 65535, 1));
+        spinnerKodiNotificationPort.setToolTipText("TCP port of KODI JSON-RPC notifications (9090 by default), 0 to turn off and poll KODI");
+        spinnerKodiNotificationPort.addChangeListener(new javax.swing.event.ChangeListener() {
+            public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                spinnerKodiNotificationPortStateChanged(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 1;
+        gridBagConstraints.gridy = 6;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelKodiOptions.add(spinnerKodiNotificationPort, gridBagConstraints);
+
         gridBagConstraints = new java.awt.GridBagConstraints();
         gridBagConstraints.gridx = 1;
         gridBagConstraints.gridy = 1;
@@ -1036,6 +1177,47 @@ public class OptionsPanel extends javax.swing.JPanel {
         gridBagConstraints.anchor = java.awt.GridBagConstraints.NORTHWEST;
         panelScreenCast.add(spinnerCrf, gridBagConstraints);
 
+        labelKeepAliveFps.setHorizontalAlignment(javax.swing.SwingConstants.RIGHT);
+        labelKeepAliveFps.setText("Keep-alive FPS:");
+        labelKeepAliveFps.setToolTipText("Min frame rate for unchanged screen, set it equal to snaps per second to send every frame");
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 11;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelScreenCast.add(labelKeepAliveFps, gridBagConstraints);
+
+        spinnerKeepAliveFps.setModel(new javax.swing.SpinnerNumberModel(2, 1, 50, 1));
+        spinnerKeepAliveFps.addChangeListener(new javax.swing.event.ChangeListener() {
+            public void stateChanged(javax.swing.event.ChangeEvent evt) {
+                spinnerKeepAliveFpsStateChanged(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 1;
+        gridBagConstraints.gridy = 11;
+        gridBagConstraints.anchor = java.awt.GridBagConstraints.NORTHWEST;
+        panelScreenCast.add(spinnerKeepAliveFps, gridBagConstraints);
+
+        labelScreencastHls.setHorizontalAlignment(javax.swing.SwingConstants.RIGHT);
+        labelScreencastHls.setText("HLS stream:");
+        labelScreencastHls.setToolTipText("Provide screencast as HLS playlist of short segments, player can buffer and reconnect");
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 12;
+        gridBagConstraints.fill = java.awt.GridBagConstraints.HORIZONTAL;
+        panelScreenCast.add(labelScreencastHls, gridBagConstraints);
+
+        checkScreencastHls.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                checkScreencastHlsActionPerformed(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 1;
+        gridBagConstraints.gridy = 12;
+        gridBagConstraints.anchor = java.awt.GridBagConstraints.WEST;
+        panelScreenCast.add(checkScreencastHls, gridBagConstraints);
+
         tabScreencast.add(panelScreenCast, java.awt.BorderLayout.NORTH);
 
         tabPanel.addTab("Screencast", tabScreencast);
@@ -1139,6 +1321,14 @@ public class OptionsPanel extends javax.swing.JPanel {
       this.currentData.setKodiPort((Integer) this.spinnerKodiPort.getValue());
   }//GEN-LAST:event_spinnerKodiPortStateChanged
 
+  private void spinnerKodiNotificationPortStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_spinnerKodiNotificationPortStateChanged
+      this.currentData.setKodiNotificationPort((Integer) this.spinnerKodiNotificationPort.getValue());
+  }//GEN-LAST:event_spinnerKodiNotificationPortStateChanged
+
+  private void spinnerServerBlockCacheStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_spinnerServerBlockCacheStateChanged
+      this.currentData.setServerBlockCacheSize((Integer) this.spinnerServerBlockCache.getValue());
+  }//GEN-LAST:event_spinnerServerBlockCacheStateChanged
+
   private void buttonTestKodiConnectionActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_buttonTestKodiConnectionActionPerformed
       try {
           final KodiService testKodiService = new KodiService(
@@ -1163,6 +1353,10 @@ public class OptionsPanel extends javax.swing.JPanel {
       this.currentData.setServerSsl(this.checkServerSsl.isSelected());
   }//GEN-LAST:event_checkServerSslActionPerformed
 
+  private void comboServerEngineActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_comboServerEngineActionPerformed
+      this.currentData.setServerEngine(ServerEngineType.findForName(this.comboServerEngine.getSelectedItem().toString()));
+  }//GEN-LAST:event_comboServerEngineActionPerformed
+
   private void checkKodiSslActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_checkKodiSslActionPerformed
       this.currentData.setKodiSsl(this.checkKodiSsl.isSelected());
   }//GEN-LAST:event_checkKodiSslActionPerformed
@@ -1212,6 +1406,14 @@ public class OptionsPanel extends javax.swing.JPanel {
         this.currentData.setCrf((Integer) this.spinnerCrf.getValue());
     }//GEN-LAST:event_spinnerCrfStateChanged
 
+    private void spinnerKeepAliveFpsStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_spinnerKeepAliveFpsStateChanged
+        this.currentData.setKeepAliveFps((Integer) this.spinnerKeepAliveFps.getValue());
+    }//GEN-LAST:event_spinnerKeepAliveFpsStateChanged
+
+    private void checkScreencastHlsActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_checkScreencastHlsActionPerformed
+        this.currentData.setScreencastHls(this.checkScreencastHls.isSelected());
+    }//GEN-LAST:event_checkScreencastHlsActionPerformed
+
     private void spinnerScaleUiStateChanged(javax.swing.event.ChangeEvent evt) {//GEN-FIRST:event_spinnerScaleUiStateChanged
         this.currentData.setScaleUi((Integer) this.spinnerScaleUi.getValue());
     }//GEN-LAST:event_spinnerScaleUiStateChanged
@@ -1237,6 +1439,7 @@ public class OptionsPanel extends javax.swing.JPanel {
     private javax.swing.JButton buttonTestKodiConnection;
     private javax.swing.JCheckBox checkGrabCursor;
     private javax.swing.JCheckBox checkKodiSsl;
+    private javax.swing.JCheckBox checkScreencastHls;
     private javax.swing.JCheckBox checkServerSsl;
     private javax.swing.JComboBox<YtMode> comboBoxYoutubeMode;
     private javax.swing.JComboBox<YtQuality> comboBoxYoutubePreferredQuality;
@@ -1244,6 +1447,7 @@ public class OptionsPanel extends javax.swing.JPanel {
     private javax.swing.JComboBox<String> comboGrabberType;
     private javax.swing.JComboBox<String> comboInterface;
     private javax.swing.JComboBox<String> comboQuality;
+    private javax.swing.JComboBox<String> comboServerEngine;
     private javax.swing.JComboBox<String> comboSoundLine;
     private javax.swing.JComboBox<String> comboSpeedProfile;
     private javax.swing.Box.Filler filler1;
@@ -1270,12 +1474,17 @@ public class OptionsPanel extends javax.swing.JPanel {
     private javax.swing.JLabel jLabel7;
     private javax.swing.JLabel jLabel8;
     private javax.swing.JLabel jLabel9;
+    private javax.swing.JLabel labelKeepAliveFps;
+    private javax.swing.JLabel labelScreencastHls;
     private javax.swing.JLabel labelKodiAddress;
     private javax.swing.JLabel labelKodiName;
+    private javax.swing.JLabel labelKodiNotificationPort;
     private javax.swing.JLabel labelKodiPassword;
     private javax.swing.JLabel labelKodiPort;
     private javax.swing.JLabel labelKodiRpcTimeout;
     private javax.swing.JLabel labelScaleUi;
+    private javax.swing.JLabel labelServerBlockCache;
+    private javax.swing.JLabel labelServerEngine;
     private javax.swing.JPanel panelGeneral;
     private javax.swing.JPanel panelKodiOptions;
     private javax.swing.JPanel panelScreenCast;
@@ -1283,8 +1492,11 @@ public class OptionsPanel extends javax.swing.JPanel {
     private javax.swing.JSpinner spinnerBandwidth;
     private javax.swing.JSpinner spinnerCrf;
     private javax.swing.JSpinner spinnerGrabThreads;
+    private javax.swing.JSpinner spinnerKeepAliveFps;
+    private javax.swing.JSpinner spinnerKodiNotificationPort;
     private javax.swing.JSpinner spinnerKodiPort;
     private javax.swing.JSpinner spinnerRpcTimeout;
+    private javax.swing.JSpinner spinnerServerBlockCache;
     private javax.swing.JSpinner spinnerScaleUi;
     private javax.swing.JSpinner spinnerServerPort;
     private javax.swing.JSpinner spinnerSnapsPerSecond;
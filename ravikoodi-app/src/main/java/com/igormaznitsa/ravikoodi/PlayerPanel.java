@@ -2,6 +2,7 @@ package com.igormaznitsa.ravikoodi;
 
 import com.igormaznitsa.ravikoodi.kodijsonapi.ActivePlayerInfo;
 import com.igormaznitsa.ravikoodi.kodijsonapi.AudioStream;
+import com.igormaznitsa.ravikoodi.kodijsonapi.BatchRequest;
 import com.igormaznitsa.ravikoodi.kodijsonapi.KodiService;
 import com.igormaznitsa.ravikoodi.kodijsonapi.PlayerItem;
 import com.igormaznitsa.ravikoodi.kodijsonapi.PlayerProperties;
@@ -15,7 +16,7 @@ import java.awt.event.MouseEvent;
 import java.io.InputStream;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -29,8 +30,10 @@ import javax.swing.ToolTipManager;
 import javax.swing.plaf.basic.BasicProgressBarUI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
-public final class PlayerPanel extends javax.swing.JPanel {
+public final class PlayerPanel extends javax.swing.JPanel implements KodiStatusPoller.Participant {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PlayerPanel.class);
 
@@ -40,7 +43,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
 
   private final KodiComm kodiComm;
   private final ActivePlayerInfo playerInfo;
-  private final ScheduledExecutorService executors;
+  private final ExecutorService executors;
 
   private final AtomicBoolean fullPlayerDataRefresh = new AtomicBoolean(true);
 
@@ -84,7 +87,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
     DIGIFONT = font;
   }
 
-  public PlayerPanel(final MainFrame parent, final ActivePlayerInfo playerInfo, final ScheduledExecutorService executors, final KodiComm kodiComm) {
+  public PlayerPanel(final MainFrame parent, final ActivePlayerInfo playerInfo, final ExecutorService executors, final KodiComm kodiComm) {
     super();
     initComponents();
 
@@ -164,114 +167,136 @@ public final class PlayerPanel extends javax.swing.JPanel {
     this.comboAudio.setSelectedItem(audioStream);
   }
 
+  /**
+   * Request refresh of the player status as soon as possible, the panel
+   * status is refreshed in common batch of status poll.
+   */
   public void refresh() {
+    this.parent.requestStatusPoll();
+  }
+
+  @Override
+  @Nullable
+  public Runnable prepareStatusRequest(@NonNull final BatchRequest batch) {
     if (this.ignoreRefresh) {
-      return;
+      return null;
     }
 
     final long counterValue = this.updateStatusCounter.get();
-    if (this.executors.isShutdown()) {
-      return;
+    final BatchRequest.Response<PlayerProperties> propertiesResponse;
+    final BatchRequest.Response<PlayerItem> itemResponse;
+
+    if (this.fullPlayerDataRefresh.compareAndSet(true, false)) {
+      propertiesResponse = batch.getPlayerProperties(this.playerInfo,
+              "percentage",
+              "time",
+              "totaltime",
+              "speed",
+              "audiostreams",
+              "currentaudiostream",
+              "subtitles",
+              "currentsubtitle",
+              "subtitleenabled");
+      itemResponse = batch.getPlayerItem(this.playerInfo);
+    } else {
+      propertiesResponse = batch.getPlayerProperties(this.playerInfo,
+              "percentage",
+              "time",
+              "totaltime",
+              "speed",
+              "subtitleenabled"
+      );
+      itemResponse = null;
     }
-    this.executors.submit(() -> {
-      try {
-        final PlayerProperties properties;
-        final String title;
-
-        if (this.fullPlayerDataRefresh.compareAndSet(true, false)) {
-          properties = this.kodiComm.getPlayerProperties(this.playerInfo,
-                  "percentage",
-                  "time",
-                  "totaltime",
-                  "speed",
-                  "audiostreams",
-                  "currentaudiostream",
-                  "subtitles",
-                  "currentsubtitle",
-                  "subtitleenabled");
-
-          final PlayerItem playerItem = this.kodiComm.getPlayerItem(this.playerInfo);
-          title = playerItem.getItem().getLabel();
-
-          SwingUtilities.invokeLater(() -> {
-            this.comboAudio.setModel(new DefaultComboBoxModel<>(properties.getAudiostreams()));
-            this.comboSubtitle.setModel(new DefaultComboBoxModel<>(properties.getSubtitles()));
-
-            this.comboSubtitle.setEnabled(this.comboSubtitle.getModel().getSize() > 1);
-            this.checkboxSubtitleEabled.setEnabled(this.comboSubtitle.getModel().getSize() > 0);
-            this.comboAudio.setEnabled(this.comboAudio.getModel().getSize() > 1);
-
-            this.lastDetectedAudiostream.set(properties.getCurrentaudiostream());
-            this.lastDetectedSubtitle.set(properties.getCurrentsubtitle());
-
-            focusSelectedAudiostream(properties.getCurrentaudiostream());
-            focusSelectedSubtitle(properties.getCurrentsubtitle(), properties.isSubtitleenabled());
-
-            this.labelStartTime.setText("00:00:00.000");
-            this.labelEndTime.setText(properties.getTotaltime().toString());
-          });
-        } else {
-
-          if (this.updateStatusCounter.get() != counterValue) {
-            return;
-          }
 
-          title = null;
-          properties = this.kodiComm.getPlayerProperties(this.playerInfo,
-                  "percentage",
-                  "time",
-                  "totaltime",
-                  "speed",
-                  "subtitleenabled"
-          );
+    return () -> this.onStatus(counterValue, propertiesResponse, itemResponse);
+  }
+
+  private void onStatus(
+          final long counterValue,
+          @NonNull final BatchRequest.Response<PlayerProperties> propertiesResponse,
+          @Nullable final BatchRequest.Response<PlayerItem> itemResponse
+  ) {
+    try {
+      final PlayerProperties properties = propertiesResponse.get();
+      final String title;
+
+      if (itemResponse == null) {
+        if (this.updateStatusCounter.get() != counterValue) {
+          return;
         }
+        title = null;
+      } else {
+        final PlayerItem playerItem = itemResponse.get();
+        title = playerItem.getItem().getLabel();
 
-        this.lastProperties.set(properties);
+        SwingUtilities.invokeLater(() -> {
+          this.comboAudio.setModel(new DefaultComboBoxModel<>(properties.getAudiostreams()));
+          this.comboSubtitle.setModel(new DefaultComboBoxModel<>(properties.getSubtitles()));
 
-        final double percentage = properties.getPercentage();
-        final Time time = properties.getTime();
-        final Time totalTime = properties.getTotaltime();
+          this.comboSubtitle.setEnabled(this.comboSubtitle.getModel().getSize() > 1);
+          this.checkboxSubtitleEabled.setEnabled(this.comboSubtitle.getModel().getSize() > 0);
+          this.comboAudio.setEnabled(this.comboAudio.getModel().getSize() > 1);
 
-        final long speed = properties.getSpeed();
-        this.paused.set(speed == 0L);
-        this.lastSubtitleEnabled.set(properties.isSubtitleenabled());
+          this.lastDetectedAudiostream.set(properties.getCurrentaudiostream());
+          this.lastDetectedSubtitle.set(properties.getCurrentsubtitle());
 
-        SwingUtilities.invokeLater(() -> {
-          if (this.updateStatusCounter.getAndIncrement() == counterValue) {
-            this.enableListeners = false;
-            try {
-              this.speed.set(speed);
-              if (title != null) {
-                this.labelTitle.setText(title);
-              }
-              if (totalTime.isZero()) {
-                this.progressTime.setIndeterminate(true);
-                this.progressTime.setStringPainted(false);
-                this.labelEndTime.setText("..:..:......");
-                this.labelStartTime.setText("..:..:......");
-              } else {
-                this.progressTime.setIndeterminate(false);
-                this.progressTime.setStringPainted(true);
-
-                this.labelStartTime.setText("00:00:00.000");
-                this.labelEndTime.setText(properties.getTotaltime().toString());
-              }
-              this.progressTime.setValue((int) Math.round(percentage * 100d));
-              this.progressTime.setString(title);
-
-              this.progressTime.setString(time.toString());
-              this.checkboxSubtitleEabled.setSelected(properties.isSubtitleenabled());
-              this.buttonPausePlay.setIcon(speed == 0 ? ICO_BIG_PLAY : ICO_BIG_PAUSE);
-              this.labelSpeed.setText("<html><b>Speed: " + speed + "</b></html>");
-            } finally {
-              this.enableListeners = true;
+          focusSelectedAudiostream(properties.getCurrentaudiostream());
+          focusSelectedSubtitle(properties.getCurrentsubtitle(), properties.isSubtitleenabled());
+
+          this.labelStartTime.setText("00:00:00.000");
+          this.labelEndTime.setText(properties.getTotaltime().toString());
+        });
+      }
+
+      this.lastProperties.set(properties);
+
+      final double percentage = properties.getPercentage();
+      final Time time = properties.getTime();
+      final Time totalTime = properties.getTotaltime();
+
+      final long speed = properties.getSpeed();
+      this.paused.set(speed == 0L);
+      this.lastSubtitleEnabled.set(properties.isSubtitleenabled());
+
+      SwingUtilities.invokeLater(() -> {
+        if (this.updateStatusCounter.getAndIncrement() == counterValue) {
+          this.enableListeners = false;
+          try {
+            this.speed.set(speed);
+            if (title != null) {
+              this.labelTitle.setText(title);
             }
+            if (totalTime.isZero()) {
+              this.progressTime.setIndeterminate(true);
+              this.progressTime.setStringPainted(false);
+              this.labelEndTime.setText("..:..:......");
+              this.labelStartTime.setText("..:..:......");
+            } else {
+              this.progressTime.setIndeterminate(false);
+              this.progressTime.setStringPainted(true);
+
+              this.labelStartTime.setText("00:00:00.000");
+              this.labelEndTime.setText(properties.getTotaltime().toString());
+            }
+            this.progressTime.setValue((int) Math.round(percentage * 100d));
+            this.progressTime.setString(title);
+
+            this.progressTime.setString(time.toString());
+            this.checkboxSubtitleEabled.setSelected(properties.isSubtitleenabled());
+            this.buttonPausePlay.setIcon(speed == 0 ? ICO_BIG_PLAY : ICO_BIG_PAUSE);
+            this.labelSpeed.setText("<html><b>Speed: " + speed + "</b></html>");
+          } finally {
+            this.enableListeners = true;
           }
-        });
-      } catch (Throwable thr) {
-        LOGGER.error("Error during player update", thr);
+        }
+      });
+    } catch (Throwable thr) {
+      if (itemResponse != null) {
+        this.fullPlayerDataRefresh.set(true);
       }
-    });
+      LOGGER.error("Error during player update", thr);
+    }
   }
 
   public void notifyFullDataRefresh() {
@@ -532,6 +557,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
         try {
           LOGGER.info("Decreasing player {} speed", this);
           this.kodiComm.decPlayerSpeed(playerInfo);
+          this.refresh();
         } catch (Throwable thr) {
           LOGGER.error("Error during player speed decrease", thr);
         }
@@ -545,6 +571,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
         try {
           LOGGER.info("Increasing player {} speed", this);
           this.kodiComm.incPlayerSpeed(this.playerInfo);
+          this.refresh();
         } catch (Throwable thr) {
           LOGGER.error("Error during player speed increase", thr);
         }
@@ -557,6 +584,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
       executors.submit(() -> {
         try {
           this.kodiComm.doPlayerStartPause(this.playerInfo);
+          this.refresh();
         } catch (Throwable thr) {
           LOGGER.error("Error during player pause/play", thr);
         }
@@ -572,6 +600,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
           try {
             LOGGER.info("Trying to change audiostream of '{}' to '{}'", this.playerInfo, newAudioStream);
             this.kodiComm.setPlayerAudiostream(this.playerInfo, newAudioStream);
+            this.refresh();
           } catch (Throwable thr) {
             LOGGER.error("Error during set player audiostream", thr);
           }
@@ -594,6 +623,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
       try {
         LOGGER.info("Trying to change subtite of '{}' to '{}', enable={}", this.playerInfo, subtitle, enable);
         this.kodiComm.setPlayerSubtitle(this.playerInfo, subtitle, enable);
+        this.refresh();
       } catch (Throwable thr) {
         LOGGER.error("Error during set player audiostream", thr);
       }
@@ -619,6 +649,7 @@ public final class PlayerPanel extends javax.swing.JPanel {
         LOGGER.info("Seek player '{}' position : {}%", this.playerInfo, position);
         final PlayerSeekResult result = this.kodiComm.doPlayerSeekPercentage(playerInfo, position * 100.0d);
         this.progressTime.setValue((int) Math.round(result.getPercentage() * 100));
+        this.refresh();
       } catch (Throwable ex) {
         LOGGER.error("Error in player seek: {}", ex.getMessage());
       }
@@ -30,7 +30,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import javax.swing.Box;
+import javax.swing.DefaultCellEditor;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -85,8 +87,9 @@ public class PublishedFilesTable extends JPanel {
 
         this.resourceTable.getTableHeader().setReorderingAllowed(false);
 
-        this.resourceTable.getColumnModel().getColumn(2).setCellRenderer(new FilePathCellRenderer());
-        this.resourceTable.getColumnModel().getColumn(2).setCellEditor(new FilePathCellEditor(dir));
+        this.resourceTable.getColumnModel().getColumn(2).setCellEditor(new DefaultCellEditor(new JComboBox<>(StaticResource.CachePolicy.values())));
+        this.resourceTable.getColumnModel().getColumn(4).setCellRenderer(new FilePathCellRenderer());
+        this.resourceTable.getColumnModel().getColumn(4).setCellEditor(new FilePathCellEditor(dir));
 
         final JPanel buttonPanel = new JPanel(new GridBagLayout());
 
@@ -210,7 +213,7 @@ public class PublishedFilesTable extends JPanel {
 
         @Override
         public int getColumnCount() {
-            return 3;
+            return 5;
         }
 
         @Override
@@ -219,8 +222,12 @@ public class PublishedFilesTable extends JPanel {
                 case 0:
                     return "Enable";
                 case 1:
-                    return "ID";
+                    return "Mapped";
                 case 2:
+                    return "Cache";
+                case 3:
+                    return "ID";
+                case 4:
                     return "Path";
                 default:
                     throw new Error("Unexpected column: " + column);
@@ -231,10 +238,13 @@ public class PublishedFilesTable extends JPanel {
         public Class<?> getColumnClass(final int column) {
             switch (column) {
                 case 0:
-                    return Boolean.class;
                 case 1:
-                    return String.class;
+                    return Boolean.class;
                 case 2:
+                    return StaticResource.CachePolicy.class;
+                case 3:
+                    return String.class;
+                case 4:
                     return File.class;
                 default:
                     throw new Error("Unexpected column: " + column);
@@ -253,8 +263,12 @@ public class PublishedFilesTable extends JPanel {
                 case 0:
                     return timer.isEnabled();
                 case 1:
-                    return timer.getId();
+                    return timer.isMapped();
                 case 2:
+                    return timer.getCachePolicy();
+                case 3:
+                    return timer.getId();
+                case 4:
                     return timer.getResourcePath();
                 default:
                     throw new Error("Unexpected column: " + col);
@@ -268,7 +282,13 @@ public class PublishedFilesTable extends JPanel {
                 case 0:
                     timer.setEnabled((Boolean) value);
                     break;
-                case 1: {
+                case 1:
+                    timer.setMapped((Boolean) value);
+                    break;
+                case 2:
+                    timer.setCachePolicy((StaticResource.CachePolicy) value);
+                    break;
+                case 3: {
                     final String newId = ((String) value).trim();
                     if (newId.isEmpty()) {
                         JOptionPane.showMessageDialog(SwingUtilities.getWindowAncestor(resourceTable), "ID can't be empty", "Wrong ID", JOptionPane.ERROR_MESSAGE);
@@ -284,7 +304,7 @@ public class PublishedFilesTable extends JPanel {
                     }
                     timer.setId(newId);
                 }break;
-                case 2:
+                case 4:
                     timer.setResourcePath((File) value);
                     break;
                 default:
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import org.springframework.lang.NonNull;
+
+/**
+ * Live view of HTTP server metrics, values are refreshed every second while
+ * the panel is shown.
+ */
+public class ServerMetricsPanel extends JPanel {
+
+    private static final int REFRESH_INTERVAL_MILLISECONDS = 1000;
+
+    private static final String[] COLUMNS = {"File", "Requests", "Ranges", "416", "Aborted", "Active", "Sent", "Speed", "TTFB p50/p95, ms"};
+
+    private final HttpMetrics metrics;
+    private final JLabel labelSummary;
+    private final StreamsTableModel tableModel;
+    private final Timer refreshTimer;
+
+    public ServerMetricsPanel(@NonNull final HttpMetrics metrics) {
+        super(new BorderLayout(0, 4));
+        this.setBorder(new EmptyBorder(4, 4, 4, 4));
+        this.metrics = metrics;
+
+        this.labelSummary = new JLabel();
+        this.tableModel = new StreamsTableModel();
+        final JTable table = new JTable(this.tableModel);
+        table.setFillsViewportHeight(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getColumnModel().getColumn(0).setPreferredWidth(240);
+
+        final JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(860, 240));
+
+        this.add(this.labelSummary, BorderLayout.NORTH);
+        this.add(scrollPane, BorderLayout.CENTER);
+        this.add(new JLabel("Metrics in Prometheus format are provided locally through /" + InternalServer.PATH_METRICS), BorderLayout.SOUTH);
+
+        this.refreshTimer = new Timer(REFRESH_INTERVAL_MILLISECONDS, e -> this.refresh());
+        this.refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        this.refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        this.refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void refresh() {
+        final HttpMetrics.Histogram ttfb = this.metrics.getTimeToFirstByte();
+        this.labelSummary.setText(String.format(Locale.ROOT,
+                "<html>Requests: <b>%d</b>, file transfers: <b>%d</b>, ranges: <b>%d</b>, 304: <b>%d</b>, 416: <b>%d</b>, 404: <b>%d</b>, aborted: <b>%d</b>, sent: <b>%s</b><br>"
+                + "TTFB p50/p95/max: <b>%d/%d/%d</b> ms, screencast stalls: <b>%d</b> (%.1f s)</html>",
+                this.metrics.getRequests(),
+                this.metrics.getTransfers(),
+                this.metrics.getRangeRequests(),
+                this.metrics.getNotModified(),
+                this.metrics.getNotSatisfiable(),
+                this.metrics.getNotFound(),
+                this.metrics.getAborted(),
+                HttpMetrics.formatBytes(this.metrics.getBytesSent()),
+                ttfb.getQuantile(0.5d),
+                ttfb.getQuantile(0.95d),
+                ttfb.getMax(),
+                this.metrics.getScreencastStalls(),
+                this.metrics.getScreencastStallMilliseconds() / 1000.0d));
+        this.tableModel.setStreams(this.metrics.getStreams());
+    }
+
+    private static final class StreamsTableModel extends AbstractTableModel {
+
+        private List<HttpMetrics.StreamStats> streams = new ArrayList<>();
+
+        private void setStreams(@NonNull final List<HttpMetrics.StreamStats> streams) {
+            this.streams = streams;
+            this.fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return this.streams.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(final int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(final int row, final int column) {
+            final HttpMetrics.StreamStats stream = this.streams.get(row);
+            switch (column) {
+                case 0:
+                    return stream.getName();
+                case 1:
+                    return stream.getRequests();
+                case 2:
+                    return stream.getRangeRequests();
+                case 3:
+                    return stream.getNotSatisfiable();
+                case 4:
+                    return stream.getAborted();
+                case 5:
+                    return stream.getActive();
+                case 6:
+                    return HttpMetrics.formatBytes(stream.getBytesSent());
+                case 7:
+                    return HttpMetrics.formatBytes(stream.getLastThroughput()) + "/s";
+                case 8:
+                    return stream.getTimeToFirstByte().getQuantile(0.5d) + "/" + stream.getTimeToFirstByte().getQuantile(0.95d);
+                default:
+                    throw new Error("Unexpected column: " + column);
+            }
+        }
+    }
+}
@@ -15,8 +15,15 @@
  */
 package com.igormaznitsa.ravikoodi;
 
+import com.igormaznitsa.ravikoodi.prefs.StaticResource;
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,11 +34,53 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+/**
+ * Registry of static resources provided under {@link InternalServer#PATH_RESOURCES}.
+ * Resources marked as mapped are mapped into memory during refresh and their
+ * ranges are served as slices of the mapping, the mapping is made again if
+ * the file has been changed since mapping.
+ */
 @Component
 public class StaticFileRegistry {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StaticFileRegistry.class);
 
+    private static final class MappedFile {
+
+        private final Path file;
+        private long lastModified;
+        private long size;
+        private MappedByteBuffer buffer;
+
+        private MappedFile(@NonNull final Path file) {
+            this.file = file;
+        }
+
+        private synchronized void map() throws IOException {
+            final long fileModified = Files.getLastModifiedTime(this.file).toMillis();
+            final long fileSize = Files.size(this.file);
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("File is too big for mapping: " + this.file);
+            }
+            try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, fileSize);
+            }
+            this.lastModified = fileModified;
+            this.size = fileSize;
+        }
+
+        @NonNull
+        private synchronized ByteBuffer getData() throws IOException {
+            if (this.buffer == null
+                    || Files.getLastModifiedTime(this.file).toMillis() != this.lastModified
+                    || Files.size(this.file) != this.size) {
+                LOGGER.info("Mapping file {}", this.file);
+                this.map();
+            }
+            return this.buffer.asReadOnlyBuffer();
+        }
+    }
+
     @Autowired
     private MimeTypes mimeTypes;
 
@@ -39,6 +88,8 @@ public class StaticFileRegistry {
     private ApplicationPreferences applicationPreferences;
 
     private final Map<String, UploadFileRecord> records = new ConcurrentHashMap<>();
+    private final Map<String, MappedFile> mappedFiles = new ConcurrentHashMap<>();
+    private final Map<String, StaticResource.CachePolicy> cachePolicies = new ConcurrentHashMap<>();
 
     public StaticFileRegistry() {
 
@@ -53,6 +104,40 @@ public class StaticFileRegistry {
         return Optional.ofNullable(this.records.get(uid));
     }
 
+    /**
+     * Find memory mapped content of resource, the file is mapped again if it
+     * has been changed.
+     *
+     * @param uid resource id
+     * @return read only buffer with whole file content, empty if the resource
+     * is not mapped or its mapping is not possible
+     */
+    @NonNull
+    public Optional<ByteBuffer> findMappedData(@NonNull final String uid) {
+        final MappedFile mapped = this.mappedFiles.get(uid);
+        if (mapped == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapped.getData());
+        } catch (IOException ex) {
+            LOGGER.warn("Can't map file of static resource {}: {}", uid, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get client cache policy of resource.
+     *
+     * @param uid resource id
+     * @return policy defined for static resource, files registered directly
+     * are not cached
+     */
+    @NonNull
+    public StaticResource.CachePolicy findCachePolicy(@NonNull final String uid) {
+        return this.cachePolicies.getOrDefault(uid, StaticResource.CachePolicy.NO_STORE);
+    }
+
     public UploadFileRecord registerFile(@NonNull final String uid, @NonNull final Path file, @Nullable final byte[] data) {
         LOGGER.info("Registering file {} as static resource: {}", file, uid);
         final UploadFileRecord newRecord = new UploadFileRecord(uid, file, this.mimeTypes.findMimeTypeForFile(file), data);
@@ -63,15 +148,21 @@ public class StaticFileRegistry {
     public void unregisterFile(final String uid, final boolean totally) {
         LOGGER.info("Unregistering file {}, totally={}", uid, totally);
         this.records.remove(uid);
+        this.mappedFiles.remove(uid);
+        this.cachePolicies.remove(uid);
     }
 
     public void clear() {
         this.records.clear();
+        this.mappedFiles.clear();
+        this.cachePolicies.clear();
     }
 
     public synchronized void refresh() {
         LOGGER.info("Refreshing static resources");
         this.records.clear();
+        this.mappedFiles.clear();
+        this.cachePolicies.clear();
         this.applicationPreferences.getStaticResources()
                 .stream()
                 .filter(r -> r.isEnabled() && r.getResourcePath() != null)
@@ -80,7 +171,14 @@ public class StaticFileRegistry {
                 final Path path = r.getResourcePath().toPath();
                 final UploadFileRecord record = new UploadFileRecord(r.getId(), path, this.mimeTypes.findMimeTypeForFile(path), null);
                 this.records.put(r.getId(), record);
+                this.cachePolicies.put(r.getId(), r.getCachePolicy());
                 LOGGER.info("Registered static resource {}: {}", r.getId(), record);
+                if (r.isMapped()) {
+                    final MappedFile mapped = new MappedFile(path);
+                    mapped.map();
+                    this.mappedFiles.put(r.getId(), mapped);
+                    LOGGER.info("Static resource {} has been mapped into memory, {} bytes", r.getId(), mapped.size);
+                }
             } catch (Exception ex) {
                 LOGGER.error("Error during registration static resource: {}", r, ex);
             }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Central scheduler of Kodi status polls. Every registered source provides its
+ * poll interval for current state, the scheduler polls all sources which are
+ * due by single batch of {@link KodiStatusPoller}, increases interval of
+ * sources exponentially on failures and decreases it for short time after
+ * user actions. Only one poll can be executed at the same time, requests made
+ * during active poll are merged into single next poll.
+ */
+@Component
+public class StatusPollScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatusPollScheduler.class);
+
+    public static final long MAX_BACKOFF_INTERVAL_MILLISECONDS = 30000L;
+    public static final long BOOST_INTERVAL_MILLISECONDS = 500L;
+    public static final long BOOST_DURATION_MILLISECONDS = 3000L;
+    private static final long NO_SOURCE_INTERVAL_MILLISECONDS = 1000L;
+    private static final int MAX_FAILURES = 16;
+
+    public static final class Source {
+
+        private final String name;
+        private final Supplier<List<? extends KodiStatusPoller.Participant>> participants;
+        private final LongSupplier interval;
+        private volatile long nextPollTime;
+        private volatile int failures;
+
+        private Source(
+                @NonNull final String name,
+                @NonNull final Supplier<List<? extends KodiStatusPoller.Participant>> participants,
+                @NonNull final LongSupplier interval
+        ) {
+            this.name = name;
+            this.participants = participants;
+            this.interval = interval;
+        }
+
+        @NonNull
+        public String getName() {
+            return this.name;
+        }
+
+        public int getFailures() {
+            return this.failures;
+        }
+
+        public long getNextPollTime() {
+            return this.nextPollTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Source{" + "name=" + this.name + ", failures=" + this.failures + '}';
+        }
+    }
+
+    private final KodiStatusPoller poller;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final AtomicLong boostUntil = new AtomicLong();
+    private final AtomicLong mergedRequests = new AtomicLong();
+    private final AtomicReference<ScheduledFuture<?>> nextTick = new AtomicReference<>();
+    private volatile long servedRequestCounter;
+    private volatile boolean started;
+    private volatile boolean stopped;
+
+    @Autowired
+    public StatusPollScheduler(
+            @NonNull final KodiStatusPoller poller,
+            @NonNull final ScheduledExecutorService scheduler,
+            @NonNull @Qualifier(Config.TASK_EXECUTOR) final ExecutorService executor
+    ) {
+        this.poller = poller;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Register source of polling.
+     *
+     * @param name name of the source, for logging
+     * @param participants supplier of participants to be polled, called
+     * for every poll
+     * @param interval supplier of normal poll interval in milliseconds for
+     * current state of the source
+     * @return registered source
+     */
+    @NonNull
+    public Source addSource(
+            @NonNull final String name,
+            @NonNull final Supplier<List<? extends KodiStatusPoller.Participant>> participants,
+            @NonNull final LongSupplier interval
+    ) {
+        final Source result = new Source(name, participants, interval);
+        this.sources.add(result);
+        LOGGER.info("Added status poll source '{}'", name);
+        return result;
+    }
+
+    public void start() {
+        if (!this.started) {
+            this.started = true;
+            this.scheduleNext();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.stopped = true;
+        final ScheduledFuture<?> future = this.nextTick.getAndSet(null);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Request poll of all sources as soon as possible and make polling faster
+     * for short time, should be called after user actions. If poll is active
+     * then all requests are merged into single next poll.
+     */
+    public void requestPoll() {
+        this.boostUntil.set(System.currentTimeMillis() + BOOST_DURATION_MILLISECONDS);
+        this.requestCounter.incrementAndGet();
+        if (this.inFlight.get()) {
+            this.mergedRequests.incrementAndGet();
+        } else {
+            this.submitTick();
+        }
+    }
+
+    public long getMergedRequests() {
+        return this.mergedRequests.get();
+    }
+
+    /**
+     * Calculate poll interval for source.
+     *
+     * @param interval normal interval of the source in milliseconds
+     * @param failures number of sequential failed polls
+     * @param boost true if polling is boosted after user action
+     * @return interval to next poll in milliseconds
+     */
+    static long calcInterval(final long interval, final int failures, final boolean boost) {
+        if (failures > 0) {
+            final long backoff = interval << Math.min(failures, 10);
+            return Math.max(interval, Math.min(MAX_BACKOFF_INTERVAL_MILLISECONDS, backoff));
+        }
+        return boost ? Math.min(interval, BOOST_INTERVAL_MILLISECONDS) : interval;
+    }
+
+    private void submitTick() {
+        if (!this.started || this.stopped) {
+            return;
+        }
+        final ScheduledFuture<?> future = this.nextTick.getAndSet(null);
+        if (future != null) {
+            future.cancel(false);
+        }
+        try {
+            this.executor.submit(this::tick);
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warn("Status poll rejected: {}", ex.getMessage());
+        }
+    }
+
+    private void scheduleNext() {
+        if (!this.started || this.stopped) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        long next = now + NO_SOURCE_INTERVAL_MILLISECONDS;
+        for (final Source s : this.sources) {
+            next = Math.min(next, s.nextPollTime);
+        }
+        try {
+            final ScheduledFuture<?> future = this.scheduler.schedule(this::submitTick, Math.max(0L, next - now), TimeUnit.MILLISECONDS);
+            final ScheduledFuture<?> prev = this.nextTick.getAndSet(future);
+            if (prev != null) {
+                prev.cancel(false);
+            }
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warn("Status poll schedule rejected: {}", ex.getMessage());
+        }
+    }
+
+    void tick() {
+        if (!this.inFlight.compareAndSet(false, true)) {
+            // active poll will check request counter at its end
+            return;
+        }
+        try {
+            final long counter = this.requestCounter.get();
+            final boolean requested = counter != this.servedRequestCounter;
+            this.servedRequestCounter = counter;
+
+            final long now = System.currentTimeMillis();
+            final List<Source> due = new ArrayList<>();
+            final List<KodiStatusPoller.Participant> participants = new ArrayList<>();
+            for (final Source s : this.sources) {
+                if (requested || s.nextPollTime <= now) {
+                    due.add(s);
+                    participants.addAll(s.participants.get());
+                }
+            }
+
+            if (!due.isEmpty()) {
+                final boolean success = this.poller.poll(participants);
+                final long finished = System.currentTimeMillis();
+                final boolean boost = finished < this.boostUntil.get();
+                for (final Source s : due) {
+                    s.failures = success ? 0 : Math.min(MAX_FAILURES, s.failures + 1);
+                    s.nextPollTime = finished + calcInterval(s.interval.getAsLong(), s.failures, boost);
+                }
+            }
+        } catch (Throwable ex) {
+            LOGGER.error("Error during status poll", ex);
+        } finally {
+            this.inFlight.set(false);
+        }
+
+        if (this.requestCounter.get() != this.servedRequestCounter) {
+            this.submitTick();
+        } else {
+            this.scheduleNext();
+        }
+    }
+}
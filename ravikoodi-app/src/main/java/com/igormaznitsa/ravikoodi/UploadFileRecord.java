@@ -20,8 +20,10 @@ import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -29,6 +31,19 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 public final class UploadFileRecord {
+
+    private static final class EntityTag {
+
+        private final long size;
+        private final long lastModified;
+        private final String value;
+
+        private EntityTag(final long size, final long lastModified, @NonNull final String value) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
     
     private final String id;
     private final Path file;
@@ -36,6 +51,8 @@ public final class UploadFileRecord {
     private final AtomicInteger uploadsCounter = new AtomicInteger();
     private final AtomicLong validUntil = new AtomicLong();
     private final byte[] predefinedData;
+    private volatile UploadingFileRegistry registry;
+    private volatile EntityTag entityTag;
 
     UploadFileRecord(@NonNull final String id, @NonNull final Path file, @NonNull final String mimeType, @Nullable final byte[] predefinedData) {
         this.validUntil.set(System.currentTimeMillis() + UploadingFileRegistry.INITIAL_VALID_DELAY_MILLISECONDS);
@@ -62,10 +79,41 @@ public final class UploadFileRecord {
         }
     }
 
+    @NonNull
+    public FileChannel getAsFileChannel() throws IOException {
+        if (this.predefinedData == null) {
+            return FileChannel.open(this.file, StandardOpenOption.READ);
+        } else {
+            throw new IOException("Record contains predefined data: " + this.id);
+        }
+    }
+
     public Optional<byte[]> getPredefinedData() {
         return Optional.ofNullable(this.predefinedData);
     }
 
+    /**
+     * Get strong entity tag of the record content. The tag is made from hash
+     * of predefined data or from size and modification time of file, it is
+     * cached and made again only if size or modification time is changed.
+     *
+     * @param size current size of content
+     * @param lastModified current last modification time of file
+     * @return quoted entity tag
+     */
+    @NonNull
+    public String getEntityTag(final long size, final long lastModified) {
+        EntityTag result = this.entityTag;
+        if (result == null || result.size != size || (this.predefinedData == null && result.lastModified != lastModified)) {
+            final String value = this.predefinedData == null
+                    ? HttpValidators.makeEntityTag(size, lastModified)
+                    : HttpValidators.makeEntityTag(this.predefinedData);
+            result = new EntityTag(size, lastModified, value);
+            this.entityTag = result;
+        }
+        return result.value;
+    }
+
     public int getUploadsCounter() {
         return this.uploadsCounter.get();
     }
@@ -74,14 +122,41 @@ public final class UploadFileRecord {
         this.validUntil.set(System.currentTimeMillis() + UploadingFileRegistry.VALID_TIME_MILLISECONDS);
     }
 
-    public int incUploadsCounter() {
+    void setRegistry(@Nullable final UploadingFileRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Increase number of active uploads. Counter change and notification of
+     * registry are made under the record monitor to keep registry active set
+     * consistent with the counter.
+     *
+     * @return new number of active uploads
+     */
+    public synchronized int incUploadsCounter() {
         this.validUntil.set(System.currentTimeMillis() + UploadingFileRegistry.VALID_TIME_MILLISECONDS);
-        return this.uploadsCounter.incrementAndGet();
+        final int result = this.uploadsCounter.incrementAndGet();
+        final UploadingFileRegistry currentRegistry = this.registry;
+        if (result == 1 && currentRegistry != null) {
+            currentRegistry.onUploadsStarted(this);
+        }
+        return result;
     }
 
-    public int decUploadsCounter() {
+    /**
+     * Decrease number of active uploads, made under the record monitor.
+     *
+     * @return new number of active uploads
+     * @see #incUploadsCounter()
+     */
+    public synchronized int decUploadsCounter() {
         this.validUntil.set(System.currentTimeMillis() + UploadingFileRegistry.VALID_TIME_MILLISECONDS);
-        return this.uploadsCounter.decrementAndGet();
+        final int result = this.uploadsCounter.decrementAndGet();
+        final UploadingFileRegistry currentRegistry = this.registry;
+        if (result == 0 && currentRegistry != null) {
+            currentRegistry.onUploadsFinished(this);
+        }
+        return result;
     }
 
     @NonNull
@@ -2,14 +2,14 @@ package com.igormaznitsa.ravikoodi;
 
 import jakarta.annotation.PostConstruct;
 import java.nio.file.Path;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +17,13 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+/**
+ * Registry of files published for Kodi. Records are indexed by their file
+ * path, records with active uploads are tracked through upload counters of
+ * records and expiration of records is checked through priority queue ordered
+ * by valid time so that only records with passed valid time are processed by
+ * periodical check.
+ */
 @Component
 public class UploadingFileRegistry {
 
@@ -26,6 +33,22 @@ public class UploadingFileRegistry {
   public static final long VALID_TIME_MILLISECONDS = 5000L;
   public static final long CHECK_DELAY_MILLISECONDS = 3000L;
 
+  private static final class Expiration implements Comparable<Expiration> {
+
+    private final UploadFileRecord record;
+    private final long time;
+
+    private Expiration(@NonNull final UploadFileRecord record, final long time) {
+      this.record = record;
+      this.time = time;
+    }
+
+    @Override
+    public int compareTo(@NonNull final Expiration that) {
+      return Long.compare(this.time, that.time);
+    }
+  }
+
   @Autowired
   private MimeTypes mimeTypes;
 
@@ -34,11 +57,22 @@ public class UploadingFileRegistry {
 
   private final AtomicBoolean paused = new AtomicBoolean();
 
-  private final AtomicReference<Map<String,UploadFileRecord>> removedFileRecordStore = new AtomicReference<>();
+  private final AtomicReference<ExpiringLruCache<String,UploadFileRecord>> removedFileRecordStore = new AtomicReference<>();
   
   private final Map<String, UploadFileRecord> records = new ConcurrentHashMap<>();
+  private final Map<Path, Set<String>> recordsByPath = new ConcurrentHashMap<>();
+  private final Set<UploadFileRecord> activeRecords = ConcurrentHashMap.newKeySet();
+  private final PriorityBlockingQueue<Expiration> expirations = new PriorityBlockingQueue<>();
+
+  public UploadingFileRegistry() {
+  }
+
+  UploadingFileRegistry(@NonNull final MimeTypes mimeTypes, @Nullable final ScheduledExecutorService executor) {
+    this.mimeTypes = mimeTypes;
+    this.executor = executor;
+  }
 
-  public void setRemovedRecordsStore(final Map<String, UploadFileRecord> store) {
+  public void setRemovedRecordsStore(final ExpiringLruCache<String, UploadFileRecord> store) {
     this.removedFileRecordStore.set(store);
   }
   
@@ -60,29 +94,92 @@ public class UploadingFileRegistry {
   }
 
   private void collectTimeoutFiles() {
-    if (this.paused.get()) {
-      this.records.entrySet().forEach(x -> x.getValue().refreshValidTime());
-    } else {
-      final long time = System.currentTimeMillis();
-      final List<String> listOfTimeOut = this.records.entrySet()
-              .stream()
-              .filter(x -> x.getValue().getUploadsCounter() == 0 && x.getValue().getValidUntil() < time)
-              .map(x -> x.getKey())
-              .collect(Collectors.toList());
-
-      final Map<String, UploadFileRecord> removedRecordsStore = this.removedFileRecordStore.get();
-      listOfTimeOut.forEach(x -> {
-        LOGGER.info("Collected file registry record '{}'", x);
-        if (removedRecordsStore!=null) {
-          final UploadFileRecord removedRecord = this.records.remove(x);
-          if (removedRecord != null) {
-            removedRecordsStore.put(removedRecord.getId(), removedRecord);
-          }
+    this.collectTimeoutFiles(System.currentTimeMillis());
+  }
+
+  void collectTimeoutFiles(final long time) {
+    final boolean pausedWork = this.paused.get();
+    final ExpiringLruCache<String, UploadFileRecord> removedRecordsStore = this.removedFileRecordStore.get();
+    while (true) {
+      final Expiration head = this.expirations.peek();
+      if (head == null || head.time > time) {
+        break;
+      }
+      final Expiration expiration = this.expirations.poll();
+      final UploadFileRecord record = expiration.record;
+      if (this.records.get(record.getId()) != record) {
+        continue;
+      }
+      if (pausedWork) {
+        record.setValidUntil(time + VALID_TIME_MILLISECONDS);
+        this.expirations.add(new Expiration(record, record.getValidUntil()));
+      } else if (record.getUploadsCounter() > 0) {
+        this.expirations.add(new Expiration(record, time + VALID_TIME_MILLISECONDS));
+      } else if (record.getValidUntil() > time) {
+        this.expirations.add(new Expiration(record, record.getValidUntil()));
+      } else if (removedRecordsStore == null) {
+        this.expirations.add(new Expiration(record, time + CHECK_DELAY_MILLISECONDS));
+      } else {
+        LOGGER.info("Collected file registry record '{}'", record.getId());
+        if (this.removeRecord(record.getId(), record)) {
+          removedRecordsStore.put(record.getId(), record);
         }
-      });
+      }
+    }
+    if (removedRecordsStore != null) {
+      removedRecordsStore.purgeExpired();
     }
   }
 
+  private void addRecord(@NonNull final UploadFileRecord record) {
+    this.recordsByPath.compute(record.getFile(), (path, ids) -> {
+      final Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+      result.add(record.getId());
+      return result;
+    });
+    synchronized (record) {
+      record.setRegistry(this);
+      if (record.getUploadsCounter() > 0) {
+        this.activeRecords.add(record);
+      }
+    }
+    this.expirations.add(new Expiration(record, record.getValidUntil()));
+  }
+
+  private boolean removeRecord(@NonNull final String uid, @Nullable final UploadFileRecord expected) {
+    final UploadFileRecord removed;
+    if (expected == null) {
+      removed = this.records.remove(uid);
+    } else {
+      removed = this.records.remove(uid, expected) ? expected : null;
+    }
+    if (removed != null) {
+      this.forgetRecord(removed);
+    }
+    return removed != null;
+  }
+
+  private void forgetRecord(@NonNull final UploadFileRecord record) {
+    synchronized (record) {
+      record.setRegistry(null);
+      this.activeRecords.remove(record);
+    }
+    this.recordsByPath.computeIfPresent(record.getFile(), (path, ids) -> {
+      ids.remove(record.getId());
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+
+  void onUploadsStarted(@NonNull final UploadFileRecord record) {
+    if (this.records.get(record.getId()) == record) {
+      this.activeRecords.add(record);
+    }
+  }
+
+  void onUploadsFinished(@NonNull final UploadFileRecord record) {
+    this.activeRecords.remove(record);
+  }
+
   @Nullable
   public UploadFileRecord restoreRecord(@NonNull final UploadFileRecord record) {
     LOGGER.info("Restoring record: {}", record);
@@ -90,6 +187,7 @@ public class UploadingFileRegistry {
     if (this.records.putIfAbsent(record.getId(), record) == null) {
       LOGGER.info("Record {} has been restored", record.getId());
       record.refreshValidTime();
+      this.addRecord(record);
       result = record;
     }
     return result;
@@ -97,19 +195,23 @@ public class UploadingFileRegistry {
   
   public UploadFileRecord registerFile(@NonNull final String uid, @NonNull final Path file, @Nullable final byte[] data) {
     final UploadFileRecord newRecord = new UploadFileRecord(uid, file, this.mimeTypes.findMimeTypeForFile(file), data);
-    this.records.put(uid, newRecord);
+    final UploadFileRecord replaced = this.records.put(uid, newRecord);
+    if (replaced != null) {
+      this.forgetRecord(replaced);
+    }
+    this.addRecord(newRecord);
     return newRecord;
   }
 
   public boolean isFileAtPlay(@NonNull final Path path) {
-    return this.records.values().stream().anyMatch((record) -> (record.getFile().equals(path)));
+    return this.recordsByPath.containsKey(path);
   }
 
   public void unregisterFile(final String uid, final boolean totally) {
       LOGGER.info("Unregistering file {}, totally={}", uid, totally);
-      this.records.remove(uid);
+      this.removeRecord(uid, null);
       if (totally) {
-          final Map<String, UploadFileRecord> fileRecordStore = this.removedFileRecordStore.get();
+          final ExpiringLruCache<String, UploadFileRecord> fileRecordStore = this.removedFileRecordStore.get();
           if (fileRecordStore!=null){
             fileRecordStore.remove(uid);
           }
@@ -117,7 +219,11 @@ public class UploadingFileRegistry {
   }
 
   public void clear() {
+    this.records.values().forEach(x -> x.setRegistry(null));
     this.records.clear();
+    this.recordsByPath.clear();
+    this.activeRecords.clear();
+    this.expirations.clear();
   }
 
   @Nullable
@@ -125,7 +231,15 @@ public class UploadingFileRegistry {
     return this.records.get(uid);
   }
 
+  public int size() {
+    return this.records.size();
+  }
+
+  public int getActiveUploads() {
+    return this.activeRecords.size();
+  }
+
   public boolean hasActiveUploads() {
-    return !this.records.isEmpty() && this.records.values().stream().anyMatch(x -> x.getUploadsCounter() > 0);
+    return !this.activeRecords.isEmpty();
   }
 }
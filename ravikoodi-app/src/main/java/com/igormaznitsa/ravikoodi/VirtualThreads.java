@@ -0,0 +1,72 @@
+package com.igormaznitsa.ravikoodi;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+/**
+ * Access to virtual threads through reflection because the project is compiled
+ * for Java 17 but can be started under JDK 21+ where they are available.
+ */
+public final class VirtualThreads {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+  private static final Method THREAD_OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null;
+    Method name = null;
+    Method factory = null;
+    Method newThreadPerTaskExecutor = null;
+    try {
+      final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      name = builderClass.getMethod("name", String.class, long.class);
+      factory = builderClass.getMethod("factory");
+      newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+    } catch (ClassNotFoundException | NoSuchMethodException ex) {
+      ofVirtual = null;
+    }
+    THREAD_OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = name;
+    BUILDER_FACTORY = factory;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  private VirtualThreads() {
+  }
+
+  public static boolean isSupported() {
+    return THREAD_OF_VIRTUAL != null;
+  }
+
+  /**
+   * Make executor starting new virtual thread for each task.
+   *
+   * @param namePrefix prefix of thread names, must not be null
+   * @return executor or empty if virtual threads are not supported by current JVM
+   */
+  @NonNull
+  public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor(@NonNull final String namePrefix) {
+    if (!isSupported()) {
+      return Optional.empty();
+    }
+    try {
+      final Object builder = BUILDER_NAME.invoke(THREAD_OF_VIRTUAL.invoke(null), namePrefix, 0L);
+      final ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+      return Optional.of((ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory));
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      LOGGER.error("Can't create virtual thread executor", ex);
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.igormaznitsa.ravikoodi.kodijsonapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set of JSON-RPC requests to be sent to Kodi as single JSON-RPC 2.0 batch
+ * through {@link KodiService#execute(BatchRequest)}. Every added request returns
+ * response holder which gets its value or error after batch execution.
+ */
+public class BatchRequest {
+
+  public static final class Response<T> {
+
+    private final long id;
+    private final String method;
+    private final Object params;
+    private final Class<T> type;
+
+    private volatile boolean done;
+    private volatile T result;
+    private volatile Throwable error;
+
+    private Response(final long id, final String method, final Object params, final Class<T> type) {
+      this.id = id;
+      this.method = method;
+      this.params = params;
+      this.type = type;
+    }
+
+    long getId() {
+      return this.id;
+    }
+
+    Object getParams() {
+      return this.params;
+    }
+
+    Class<T> getType() {
+      return this.type;
+    }
+
+    public String getMethod() {
+      return this.method;
+    }
+
+    public boolean isDone() {
+      return this.done;
+    }
+
+    public boolean isSuccess() {
+      return this.done && this.error == null;
+    }
+
+    public Throwable getError() {
+      return this.error;
+    }
+
+    /**
+     * Get result of the request.
+     *
+     * @return result value, can be null if Kodi returned null
+     * @throws Throwable error returned by Kodi for the request or error of whole
+     * batch
+     * @throws IllegalStateException if batch has not been executed yet
+     */
+    public T get() throws Throwable {
+      if (!this.done) {
+        throw new IllegalStateException("Batch is not executed yet: " + this.method);
+      }
+      if (this.error != null) {
+        throw this.error;
+      }
+      return this.result;
+    }
+
+    void complete(final T result) {
+      this.result = result;
+      this.error = null;
+      this.done = true;
+    }
+
+    void complete(final ObjectMapper mapper, final JsonNode result) throws IOException {
+      this.complete(result == null || result.isNull() ? null : mapper.treeToValue(result, this.type));
+    }
+
+    void fail(final Throwable error) {
+      this.result = null;
+      this.error = error;
+      this.done = true;
+    }
+
+    @Override
+    public String toString() {
+      return "Response{" + "id=" + this.id + ", method=" + this.method + ", done=" + this.done + '}';
+    }
+  }
+
+  private final List<Response<?>> responses = new ArrayList<>();
+
+  public synchronized <T> Response<T> add(final String method, final Object params, final Class<T> type) {
+    final Response<T> result = new Response<>(this.responses.size() + 1, method, params, type);
+    this.responses.add(result);
+    return result;
+  }
+
+  public Response<ActivePlayerInfo[]> getActivePlayers() {
+    return this.add("Player.GetActivePlayers", null, ActivePlayerInfo[].class);
+  }
+
+  public Response<PlayerProperties> getPlayerProperties(final ActivePlayerInfo player, final String... properties) {
+    return this.add("Player.GetProperties", new PlayerPropertiesRequest(player, properties), PlayerProperties.class);
+  }
+
+  public Response<PlayerItem> getPlayerItem(final ActivePlayerInfo player) {
+    return this.add("Player.GetItem", new PlayerItemReq(player, PlayerItem.ALL_NAMES), PlayerItem.class);
+  }
+
+  public Response<ApplicationProperties> getApplicationProperties(final String... properties) {
+    return this.add("Application.GetProperties", new ApplicationPropertiesReq(properties), ApplicationProperties.class);
+  }
+
+  public synchronized int size() {
+    return this.responses.size();
+  }
+
+  public synchronized boolean isEmpty() {
+    return this.responses.isEmpty();
+  }
+
+  synchronized List<Response<?>> getResponses() {
+    return Collections.unmodifiableList(new ArrayList<>(this.responses));
+  }
+
+  /**
+   * Mark all not completed requests as failed one, used if whole batch can't be
+   * executed.
+   *
+   * @param error error to be provided for requests
+   */
+  public void fail(final Throwable error) {
+    for (final Response<?> r : this.getResponses()) {
+      if (!r.isDone()) {
+        r.fail(error);
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.igormaznitsa.ravikoodi.kodijsonapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client of Kodi JSON-RPC notifications. Kodi sends notifications through its
+ * TCP JSON-RPC port (9090 by default) as stream of JSON objects without any
+ * delimiters, the client reads the stream and provides notifications to
+ * listener. The client is single use one, it should be recreated for new
+ * connection.
+ */
+public class KodiNotificationClient implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(KodiNotificationClient.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  public interface Listener {
+
+    /**
+     * Called for every notification received from Kodi, called from reading
+     * thread so that must not be blocked for long time.
+     *
+     * @param method notification method, like Player.OnPlay
+     * @param params notification parameters, missing node if not provided
+     */
+    void onNotification(String method, JsonNode params);
+
+    /**
+     * Called when connection has been established.
+     */
+    default void onConnected() {
+    }
+  }
+
+  private final String host;
+  private final int port;
+  private final Duration connectTimeout;
+  private final Listener listener;
+  private final AtomicReference<Socket> socket = new AtomicReference<>();
+  private volatile boolean connected;
+  private volatile boolean closed;
+
+  public KodiNotificationClient(final String host, final int port, final Duration connectTimeout, final Listener listener) {
+    this.host = host;
+    this.port = port;
+    this.connectTimeout = connectTimeout;
+    this.listener = listener;
+  }
+
+  public String getHost() {
+    return this.host;
+  }
+
+  public int getPort() {
+    return this.port;
+  }
+
+  public boolean isConnected() {
+    return this.connected && !this.closed;
+  }
+
+  /**
+   * Connect to Kodi and read notifications in the current thread until the
+   * connection is closed.
+   *
+   * @throws IOException if connection can't be established or has been broken,
+   * it is not thrown if the client has been closed
+   * @throws IllegalStateException if the client has been already started
+   */
+  public void run() throws IOException {
+    final Socket newSocket = new Socket();
+    if (!this.socket.compareAndSet(null, newSocket)) {
+      throw new IllegalStateException("Client already started");
+    }
+    try (newSocket) {
+      if (this.closed) {
+        return;
+      }
+      newSocket.connect(new InetSocketAddress(this.host, this.port), (int) this.connectTimeout.toMillis());
+      newSocket.setKeepAlive(true);
+      newSocket.setTcpNoDelay(true);
+      this.connected = true;
+      LOGGER.info("Connected to Kodi notifications {}:{}", this.host, this.port);
+      this.listener.onConnected();
+
+      try (JsonParser parser = MAPPER.getFactory().createParser(newSocket.getInputStream())) {
+        while (!this.closed && parser.nextToken() != null) {
+          final JsonNode node = MAPPER.readTree(parser);
+          if (node != null) {
+            this.dispatch(node);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      if (!this.closed) {
+        throw ex;
+      }
+    } finally {
+      this.connected = false;
+    }
+  }
+
+  private void dispatch(final JsonNode node) {
+    final JsonNode method = node.get("method");
+    if (method == null || !method.isTextual() || node.has("id")) {
+      // not a notification
+      return;
+    }
+    try {
+      this.listener.onNotification(method.asText(), node.path("params"));
+    } catch (Exception ex) {
+      LOGGER.error("Error during processing of notification {}", method.asText(), ex);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+    final Socket current = this.socket.get();
+    if (current != null) {
+      try {
+        current.close();
+      } catch (IOException ex) {
+        LOGGER.debug("Error during socket close: {}", ex.getMessage());
+      }
+    }
+  }
+}
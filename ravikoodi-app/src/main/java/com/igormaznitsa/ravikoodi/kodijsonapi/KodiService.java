@@ -1,16 +1,26 @@
 package com.igormaznitsa.ravikoodi.kodijsonapi;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.googlecode.jsonrpc4j.JsonRpcClientException;
 import com.googlecode.jsonrpc4j.JsonRpcHttpClient;
 import com.igormaznitsa.ravikoodi.KodiAddress;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -23,6 +33,13 @@ public class KodiService {
   private final KodiAddress address;
   private final Duration requestTimeout;
   private final URL url;
+  private final Map<String, String> headers;
+  private final JsonRpcHttpClient client;
+
+  /**
+   * Object mapper is thread safe and its creation is expensive so it is shared among all services.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
 
   public enum Control {
     UP,
@@ -50,134 +67,250 @@ public class KodiService {
     this.requestTimeout = requestTimeout;
     this.address = address;
     this.url = new URL((address.isUseSsl() ? "https://" : "http://") + address.getHost() + ':' + address.getPort() + "/jsonrpc");
+    this.headers = makeHeaders();
+    this.client = makeJsonRpcClient();
+  }
+
+  public KodiAddress getAddress() {
+    return this.address;
+  }
+
+  public Duration getRequestTimeout() {
+    return this.requestTimeout;
+  }
+
+  /**
+   * Send all requests of the batch to Kodi as single JSON-RPC 2.0 batch in one
+   * HTTP round trip. Results and errors are provided through responses of the
+   * batch, an error for a request doesn't affect other requests.
+   *
+   * @param batch batch to be executed, must not be null
+   * @throws IOException if batch can't be sent or response can't be parsed, in
+   * the case all requests of the batch are marked as failed
+   */
+  public void execute(final BatchRequest batch) throws IOException {
+    final List<BatchRequest.Response<?>> requests = batch.getResponses();
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    final ArrayNode body = MAPPER.createArrayNode();
+    for (final BatchRequest.Response<?> r : requests) {
+      final ObjectNode request = body.addObject();
+      request.put("jsonrpc", "2.0");
+      request.put("method", r.getMethod());
+      if (r.getParams() != null) {
+        request.set("params", MAPPER.valueToTree(r.getParams()));
+      }
+      request.put("id", r.getId());
+    }
+
+    final JsonNode response;
+    try {
+      response = this.postJson(MAPPER.writeValueAsBytes(body));
+    } catch (IOException ex) {
+      batch.fail(ex);
+      throw ex;
+    }
+
+    if (response.isObject() && response.has("error")) {
+      // Kodi can answer by single error object if whole batch is rejected
+      batch.fail(makeError(response.get("error")));
+      return;
+    }
+    if (!response.isArray()) {
+      final IOException error = new IOException("Unexpected batch response: " + response.getNodeType());
+      batch.fail(error);
+      throw error;
+    }
+
+    final Map<Long, JsonNode> responseById = new HashMap<>();
+    for (final JsonNode r : response) {
+      final JsonNode id = r.get("id");
+      if (id != null && id.canConvertToLong()) {
+        responseById.put(id.asLong(), r);
+      }
+    }
+
+    for (final BatchRequest.Response<?> r : requests) {
+      final JsonNode node = responseById.get(r.getId());
+      if (node == null) {
+        r.fail(new IllegalStateException("There is no response for " + r.getMethod()));
+      } else if (node.has("error")) {
+        r.fail(makeError(node.get("error")));
+      } else {
+        try {
+          r.complete(MAPPER, node.get("result"));
+        } catch (IOException ex) {
+          r.fail(ex);
+        }
+      }
+    }
+  }
+
+  private static JsonRpcClientException makeError(final JsonNode error) {
+    return new JsonRpcClientException(error.path("code").asInt(), error.path("message").asText("Unknown error"), error.get("data"));
+  }
+
+  private JsonNode postJson(final byte[] body) throws IOException {
+    final int timeout = (int) this.requestTimeout.toMillis();
+    // connection is not disconnected to be returned into keep-alive cache
+    final HttpURLConnection connection = (HttpURLConnection) this.url.openConnection();
+    connection.setConnectTimeout(timeout);
+    connection.setReadTimeout(timeout);
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setUseCaches(false);
+    this.headers.forEach(connection::setRequestProperty);
+    connection.setRequestProperty("Content-Type", "application/json");
+    connection.setFixedLengthStreamingMode(body.length);
+
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(body);
+    }
+
+    final int code = connection.getResponseCode();
+    if (code != HttpURLConnection.HTTP_OK) {
+      final InputStream errorStream = connection.getErrorStream();
+      if (errorStream != null) {
+        try (errorStream) {
+          errorStream.readAllBytes();
+        }
+      }
+      throw new IOException("Unexpected HTTP response code " + code + " for JSON-RPC batch");
+    }
+
+    try (InputStream in = connection.getInputStream()) {
+      return MAPPER.readTree(in);
+    }
   }
 
   public PlaylistProperties getPlaylistProperties(final Playlist playlist, final String... properties) throws Throwable {
     final PlaylistPropertiesRequest request = new PlaylistPropertiesRequest(playlist, properties);
-    return makeJsonRpcClient().invoke("Playlist.GetProperties", request, PlaylistProperties.class);
+    return this.client.invoke("Playlist.GetProperties", request, PlaylistProperties.class);
   }
 
   public ApplicationProperties getAllApplicationProperties() throws Throwable {
-    return makeJsonRpcClient().invoke("Application.GetProperties", new ApplicationPropertiesReq(ApplicationProperties.ALL_NAMES), ApplicationProperties.class);
+    return this.client.invoke("Application.GetProperties", new ApplicationPropertiesReq(ApplicationProperties.ALL_NAMES), ApplicationProperties.class);
   }
 
   public ApplicationProperties getApplicationProperties(final String... properties) throws Throwable {
-    return makeJsonRpcClient().invoke("Application.GetProperties", new ApplicationPropertiesReq(properties), ApplicationProperties.class);
+    return this.client.invoke("Application.GetProperties", new ApplicationPropertiesReq(properties), ApplicationProperties.class);
   }
 
   public PlayerProperties getAllPlayerProperties(final ActivePlayerInfo player) throws Throwable {
     final PlayerPropertiesRequest request = new PlayerPropertiesRequest(player, PlayerProperties.ALL_NAMES);
-    return makeJsonRpcClient().invoke("Player.GetProperties", request, PlayerProperties.class);
+    return this.client.invoke("Player.GetProperties", request, PlayerProperties.class);
   }
 
   public PlayerProperties getPlayerProperties(final ActivePlayerInfo player, final String... playerProperties) throws Throwable {
     final PlayerPropertiesRequest request = new PlayerPropertiesRequest(player, playerProperties);
-    return makeJsonRpcClient().invoke("Player.GetProperties", request, PlayerProperties.class);
+    return this.client.invoke("Player.GetProperties", request, PlayerProperties.class);
   }
 
   public PlayerSeekResult doPlayerSeekPercentage(final ActivePlayerInfo player, final double percentage) throws Throwable {
       try {
-        return makeJsonRpcClient().invoke("Player.Seek", new PlayerSeekPercentageReq(player, percentage), PlayerSeekResult.class);
+        return this.client.invoke("Player.Seek", new PlayerSeekPercentageReq(player, percentage), PlayerSeekResult.class);
       } catch (JsonRpcClientException ex) {
         LOGGER.info("Trying new API request format for Player.Seek as fallback");
-        return makeJsonRpcClient().invoke("Player.Seek", new PlayerSeekPercentageReq2(player, percentage), PlayerSeekResult.class);  
+        return this.client.invoke("Player.Seek", new PlayerSeekPercentageReq2(player, percentage), PlayerSeekResult.class);  
       }
   }
 
   public ActivePlayerInfo[] getActivePlayers() throws Throwable {
-    return makeJsonRpcClient().invoke("Player.GetActivePlayers", null, ActivePlayerInfo[].class);
+    return this.client.invoke("Player.GetActivePlayers", null, ActivePlayerInfo[].class);
   }
 
   public String clearPlaylist(final Playlist playlist) throws Throwable {
-    return makeJsonRpcClient().invoke("Playlist.Clear", new PlaylistReq(playlist), String.class);
+    return this.client.invoke("Playlist.Clear", new PlaylistReq(playlist), String.class);
   }
 
   public String addPlaylistItem(final Playlist playlist, final PlaylistFileItem item) throws Throwable {
-    return makeJsonRpcClient().invoke("Playlist.Add", new PlaylistAddFileReq(playlist, item), String.class);
+    return this.client.invoke("Playlist.Add", new PlaylistAddFileReq(playlist, item), String.class);
   }
 
   public long setApplicationVolume(final long volume) throws Throwable {
     final Volume volumeObj = new Volume();
     volumeObj.setVolume(volume);
-    return makeJsonRpcClient().invoke("Application.SetVolume", volumeObj, long.class);
+    return this.client.invoke("Application.SetVolume", volumeObj, long.class);
   }
 
   public boolean setApplicationMute(final boolean mute) throws Throwable {
     final Mute muteObj = new Mute();
     muteObj.setMute(mute);
-    return makeJsonRpcClient().invoke("Application.SetMute", muteObj, boolean.class);
+    return this.client.invoke("Application.SetMute", muteObj, boolean.class);
   }
 
   public String sendInputExecuteAction(final ExecuteAction action) throws Throwable {
-    return makeJsonRpcClient().invoke("Input.ExecuteAction", new InputExecuteAction(action), String.class);
+    return this.client.invoke("Input.ExecuteAction", new InputExecuteAction(action), String.class);
   }
 
   public String sendControlEvent(final Control event, final Object... args) throws Throwable {
     switch (event) {
       case SELECT:
-        return makeJsonRpcClient().invoke("Input.Select", new Empty(), String.class);
+        return this.client.invoke("Input.Select", new Empty(), String.class);
       case BACK:
-        return makeJsonRpcClient().invoke("Input.Back", new Empty(), String.class);
+        return this.client.invoke("Input.Back", new Empty(), String.class);
       case CONTEXT_MENU:
-        return makeJsonRpcClient().invoke("Input.ContextMenu", new Empty(), String.class);
+        return this.client.invoke("Input.ContextMenu", new Empty(), String.class);
       case DOWN:
-        return makeJsonRpcClient().invoke("Input.Down", new Empty(), String.class);
+        return this.client.invoke("Input.Down", new Empty(), String.class);
       case LEFT:
-        return makeJsonRpcClient().invoke("Input.Left", new Empty(), String.class);
+        return this.client.invoke("Input.Left", new Empty(), String.class);
       case RIGHT:
-        return makeJsonRpcClient().invoke("Input.Right", new Empty(), String.class);
+        return this.client.invoke("Input.Right", new Empty(), String.class);
       case UP:
-        return makeJsonRpcClient().invoke("Input.Up", new Empty(), String.class);
+        return this.client.invoke("Input.Up", new Empty(), String.class);
       case HOME:
-        return makeJsonRpcClient().invoke("Input.Home", new Empty(), String.class);
+        return this.client.invoke("Input.Home", new Empty(), String.class);
       case SEND_TEXT:
-        return makeJsonRpcClient().invoke("Input.SendText", new Text(args.length > 0 ? String.valueOf(args[0]) : ""), String.class);
+        return this.client.invoke("Input.SendText", new Text(args.length > 0 ? String.valueOf(args[0]) : ""), String.class);
       default:
         throw new Error("Unexpected event " + event);
     }
   }
 
   public String doSystemReboot() throws Throwable {
-    return makeJsonRpcClient().invoke("System.Reboot", new Empty(), String.class);
+    return this.client.invoke("System.Reboot", new Empty(), String.class);
   }
 
   public String doSystemShutdown() throws Throwable {
-    return makeJsonRpcClient().invoke("System.Shutdown", new Empty(), String.class);
+    return this.client.invoke("System.Shutdown", new Empty(), String.class);
   }
 
   public String setPlayerAudiostream(final ActivePlayerInfo player, final AudioStream stream) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.SetAudioStream", new PlayerAudioStreamReq(player, stream), String.class);
+    return this.client.invoke("Player.SetAudioStream", new PlayerAudioStreamReq(player, stream), String.class);
   }
 
   public String setPlayerSubtitle(final ActivePlayerInfo player, final Subtitle subtitle, final boolean enable) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.SetSubtitle", new PlayerSubtitleReq(player, subtitle, enable), String.class);
+    return this.client.invoke("Player.SetSubtitle", new PlayerSubtitleReq(player, subtitle, enable), String.class);
   }
 
   public PlaylistItems getPlaylistItems(final Playlist playlist) throws Throwable {
-    return makeJsonRpcClient().invoke("Playlist.GetItems", new PlaylistReq(playlist), PlaylistItems.class);
+    return this.client.invoke("Playlist.GetItems", new PlaylistReq(playlist), PlaylistItems.class);
   }
 
   public PlayerSpeed setPlayerSpeed(final ActivePlayerInfo player, final long speed) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.SetSpeed", new PlayerSpeedReq(player, speed), PlayerSpeed.class);
+    return this.client.invoke("Player.SetSpeed", new PlayerSpeedReq(player, speed), PlayerSpeed.class);
   }
 
   public PlayerSpeed setPlayerSpeed(final ActivePlayerInfo player, final PlayerSpeedIncDecReq.Direction direction) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.SetSpeed", new PlayerSpeedIncDecReq(player, direction), PlayerSpeed.class);
+    return this.client.invoke("Player.SetSpeed", new PlayerSpeedIncDecReq(player, direction), PlayerSpeed.class);
   }
 
   public String doPlayerStop(final ActivePlayerInfo player) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.Stop", new PlayerIdReq(player), String.class);
+    return this.client.invoke("Player.Stop", new PlayerIdReq(player), String.class);
   }
 
   public String doPlayerRepeat(final ActivePlayerInfo player, final String state) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.SetRepeat", new PlayerRepeatReq(player, state), String.class);
+    return this.client.invoke("Player.SetRepeat", new PlayerRepeatReq(player, state), String.class);
   }
   
   public String doPlayerOpenFile(final String filePath, final Map<String,String> ... options) throws Throwable {
     try {
       final Map<String,String> collectedOptions = Arrays.stream(options).flatMap(x -> x.entrySet().stream()).collect(Collectors.toMap(
           Map.Entry::getKey, Map.Entry::getValue));
-      return makeJsonRpcClient().invoke("Player.Open", new PlayerOpenFilePathReq(filePath, collectedOptions), String.class);
+      return this.client.invoke("Player.Open", new PlayerOpenFilePathReq(filePath, collectedOptions), String.class);
     } catch (Exception e) {
       if (e.getMessage().contains("no response body")) {
         LOGGER.warn("Can't get response body");
@@ -195,7 +328,7 @@ public class KodiService {
       try {
           final Map<String, String> collectedOptions = Arrays.stream(options).flatMap(x -> x.entrySet().stream()).collect(Collectors.toMap(
               Map.Entry::getKey, Map.Entry::getValue));
-          return makeJsonRpcClient().invoke("Player.Open", new PlayerOpenPlaylistReq(playlist, collectedOptions), String.class);
+          return this.client.invoke("Player.Open", new PlayerOpenPlaylistReq(playlist, collectedOptions), String.class);
       } catch (Exception e) {
           if (e.getMessage().contains("no response body")) {
               LOGGER.warn("Can't get response body for play list open");
@@ -208,24 +341,34 @@ public class KodiService {
   }
   
   public PlayerSpeed doPlayerStartPause(final ActivePlayerInfo player) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.PlayPause", new PlayerIdReq(player), PlayerSpeed.class);
+    return this.client.invoke("Player.PlayPause", new PlayerIdReq(player), PlayerSpeed.class);
   }
 
   public PlayerItem getPlayerItem(final ActivePlayerInfo player) throws Throwable {
-    return makeJsonRpcClient().invoke("Player.GetItem", new PlayerItemReq(player, PlayerItem.ALL_NAMES), PlayerItem.class);
+    return this.client.invoke("Player.GetItem", new PlayerItemReq(player, PlayerItem.ALL_NAMES), PlayerItem.class);
   }
 
   public Playlist[] getPlaylists() throws Throwable {
-    return makeJsonRpcClient().invoke("Playlist.GetPlaylists", null, Playlist[].class);
+    return this.client.invoke("Playlist.GetPlaylists", null, Playlist[].class);
   }
 
-  private JsonRpcHttpClient makeJsonRpcClient() {
-    final Map<String, String> headers = new HashMap<>();
+  private Map<String, String> makeHeaders() {
+    final Map<String, String> result = new HashMap<>();
     if (this.address.getName() != null && this.address.getPassword() != null) {
-      headers.put("Authorization", "Basic " + Base64.getEncoder().encodeToString((this.address.getName() + ":" + this.address.getPassword()).getBytes(Charset.forName("US-ASCII"))));
+      result.put("Authorization", "Basic " + Base64.getEncoder().encodeToString((this.address.getName() + ":" + this.address.getPassword()).getBytes(Charset.forName("US-ASCII"))));
     }
+    return Collections.unmodifiableMap(result);
+  }
 
-    final JsonRpcHttpClient result = new JsonRpcHttpClient(this.url, headers);
+  /**
+   * Make JSON-RPC client which is kept for whole life of the service. The client
+   * doesn't close connections so that HttpURLConnection keep-alive cache reuses
+   * sockets to the same Kodi host, headers are calculated once.
+   *
+   * @return created client, must not be null
+   */
+  private JsonRpcHttpClient makeJsonRpcClient() {
+    final JsonRpcHttpClient result = new JsonRpcHttpClient(MAPPER, this.url, this.headers);
     result.setReadTimeoutMillis((int)this.requestTimeout.toMillis());
     result.setConnectionTimeoutMillis((int)this.requestTimeout.toMillis());
 
@@ -27,6 +27,50 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 public final class StaticResource implements Comparable<StaticResource> {
+
+    /**
+     * Policy of client side caching of resource.
+     */
+    public enum CachePolicy {
+        NO_STORE("Don't cache", "no-cache, no-store, must-revalidate"),
+        REVALIDATE("Revalidate", "no-cache"),
+        HOUR("1 hour", "public, max-age=3600"),
+        DAY("1 day", "public, max-age=86400");
+
+        private final String title;
+        private final String cacheControl;
+
+        CachePolicy(@NonNull final String title, @NonNull final String cacheControl) {
+            this.title = title;
+            this.cacheControl = cacheControl;
+        }
+
+        /**
+         * Get value for Cache-Control header.
+         *
+         * @return header value
+         */
+        @NonNull
+        public String getCacheControl() {
+            return this.cacheControl;
+        }
+
+        @NonNull
+        public static CachePolicy find(@Nullable final String name, @NonNull final CachePolicy dflt) {
+            for (final CachePolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            return dflt;
+        }
+
+        @Override
+        @NonNull
+        public String toString() {
+            return this.title;
+        }
+    }
     
     @NonNull
     public static StaticResource fromBase64(@NonNull final String base64encoded) throws IOException {
@@ -37,6 +81,8 @@ public final class StaticResource implements Comparable<StaticResource> {
         }
         final StaticResource result = new StaticResource(properties.getProperty("id"));
         result.setEnabled(Boolean.parseBoolean(properties.getProperty("enabled")));
+        result.setMapped(Boolean.parseBoolean(properties.getProperty("mapped")));
+        result.setCachePolicy(CachePolicy.find(properties.getProperty("cache"), CachePolicy.REVALIDATE));
         if (properties.containsKey("resource")) {
             result.setResourcePath(new File(properties.getProperty("resource")));
         }
@@ -44,6 +90,8 @@ public final class StaticResource implements Comparable<StaticResource> {
     }
     private String id;
     private boolean enabled;
+    private boolean mapped;
+    private CachePolicy cachePolicy = CachePolicy.REVALIDATE;
     private File resourcePath;
 
     public StaticResource(@NonNull final String id) {
@@ -65,6 +113,29 @@ public final class StaticResource implements Comparable<StaticResource> {
         this.enabled = value;
     }
 
+    /**
+     * Flag shows that the resource file should be mapped into memory and
+     * served from the mapping.
+     *
+     * @return true if the file should be memory mapped
+     */
+    public boolean isMapped() {
+        return this.mapped;
+    }
+
+    public void setMapped(final boolean value) {
+        this.mapped = value;
+    }
+
+    @NonNull
+    public CachePolicy getCachePolicy() {
+        return this.cachePolicy;
+    }
+
+    public void setCachePolicy(@NonNull final CachePolicy policy) {
+        this.cachePolicy = Objects.requireNonNull(policy);
+    }
+
     @Nullable
     public File getResourcePath() {
         return this.resourcePath;
@@ -79,6 +150,8 @@ public final class StaticResource implements Comparable<StaticResource> {
         final Properties properties = new Properties();
         properties.setProperty("id", this.id);
         properties.setProperty("enabled", Boolean.toString(this.enabled));
+        properties.setProperty("mapped", Boolean.toString(this.mapped));
+        properties.setProperty("cache", this.cachePolicy.name());
         if (this.resourcePath != null) {
             properties.setProperty("resource", this.resourcePath.getAbsolutePath());
         }
@@ -17,11 +17,11 @@ package com.igormaznitsa.ravikoodi.screencast;
 
 import ch.qos.logback.core.util.CloseUtil;
 import com.igormaznitsa.ravikoodi.ApplicationPreferences;
+import com.igormaznitsa.ravikoodi.screencast.screensrc.ParallelRgbConverter;
+import com.igormaznitsa.ravikoodi.screencast.screensrc.RgbConverters;
 import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -62,7 +62,7 @@ public final class FfmpegWrapper implements ScreenGrabber.ScreenGrabberListener
               LOGGER.info("Sound stream is not active anymore");
               break;
             } else if (len > 0) {
-              destinationWriter.add(Arrays.copyOf(buffer, len));
+              destinationWriter.add(buffer, 0, len);
             }
           }
         } finally {
@@ -80,7 +80,7 @@ public final class FfmpegWrapper implements ScreenGrabber.ScreenGrabberListener
   private final AtomicReference<Process> externalProcess = new AtomicReference<>();
   private final AtomicReference<FfmpegNetCommunicator> communicator = new AtomicReference<>();
   private volatile boolean active = true;
-  private final PreemptiveBuffer output;
+  private final TsBroadcastHub output;
   private final ApplicationPreferences preferences;
   private final Optional<JavaSoundAdapter.SoundPort> soundPort;
   private final AtomicReference<Thread> soundGrabbingThread = new AtomicReference<>();
@@ -88,7 +88,7 @@ public final class FfmpegWrapper implements ScreenGrabber.ScreenGrabberListener
   public FfmpegWrapper(
           final ApplicationPreferences preferences,
           final JavaSoundAdapter soundAdapter,
-          final PreemptiveBuffer output
+          final TsBroadcastHub output
   ) {
     this.output = Objects.requireNonNull(output);
     this.preferences = Objects.requireNonNull(preferences);
@@ -113,13 +113,14 @@ public final class FfmpegWrapper implements ScreenGrabber.ScreenGrabberListener
   }
 
   private void consumeVideoStream(final Integer length, final byte[] data) {
-    this.output.put(Arrays.copyOf(data, length));
+    this.output.put(data, 0, length);
   }
 
   @Override
   public void onStarted(final ScreenGrabber source) {
     if (this.externalProcess.get() == null) {
       final FfmpegNetCommunicator ffmpegCom;
+      this.output.reset();
 
       try {
         final Supplier<Boolean> activityIndicator = () -> this.active;
@@ -286,7 +287,7 @@ public final class FfmpegWrapper implements ScreenGrabber.ScreenGrabberListener
     args.add("+faststart");
     
     args.add("-g");
-    args.add(Integer.toString(snapsPerSecond * 10));
+    args.add(Integer.toString(snapsPerSecond * (this.preferences.isScreencastHls() ? 2 : 10)));
     args.add("-bf");
     args.add("15");
     
@@ -332,18 +333,9 @@ public final class FfmpegWrapper implements ScreenGrabber.ScreenGrabberListener
   }
 
   @NonNull
-  private byte[] extractRgb(@NonNull final BufferedImage intTypeBufferedImage) {
-    final int[] imageDataBuffer = ((DataBufferInt) intTypeBufferedImage.getRaster().getDataBuffer()).getData();
-    final int bufferLen = imageDataBuffer.length;
-
-    final byte[] result = new byte[bufferLen * 3];
-    int dataIndex = 0;
-    for (int i = 0; i < bufferLen; i++) {
-      final int argb = imageDataBuffer[i];
-      result[dataIndex++] = (byte) (argb >> 16);
-      result[dataIndex++] = (byte) (argb >> 8);
-      result[dataIndex++] = (byte) argb;
-    }
+  public static byte[] extractRgb(@NonNull final BufferedImage intTypeBufferedImage) {
+    final byte[] result = new byte[RgbConverters.rgbLength(intTypeBufferedImage)];
+    ParallelRgbConverter.getDefault().convert(intTypeBufferedImage, result);
     return result;
   }
 
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast;
+
+import java.awt.Rectangle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Detector of changed regions between sequential RGB frames. Frame is split
+ * into square tiles and hash of every tile is compared with hash from the
+ * previous frame.
+ */
+public final class FrameChangeDetector {
+
+  private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final int width;
+  private final int height;
+  private final int tileSize;
+  private final int columns;
+  private final int rows;
+  private final long[] previousHashes;
+  private final long[] currentHashes;
+  private boolean hasPrevious;
+  private int changedTiles;
+  private Rectangle dirtyRegion;
+
+  public FrameChangeDetector(final int width, final int height, final int tileSize) {
+    if (width <= 0 || height <= 0 || tileSize <= 0) {
+      throw new IllegalArgumentException("Wrong frame or tile size");
+    }
+    this.width = width;
+    this.height = height;
+    this.tileSize = tileSize;
+    this.columns = (width + tileSize - 1) / tileSize;
+    this.rows = (height + tileSize - 1) / tileSize;
+    this.previousHashes = new long[this.columns * this.rows];
+    this.currentHashes = new long[this.columns * this.rows];
+  }
+
+  public int getTileCount() {
+    return this.currentHashes.length;
+  }
+
+  /**
+   * Number of changed tiles detected by last update.
+   *
+   * @return number of changed tiles
+   */
+  public int getChangedTiles() {
+    return this.changedTiles;
+  }
+
+  /**
+   * Bounds of changed tiles detected by last update.
+   *
+   * @return dirty region in pixels or null if nothing changed
+   */
+  @Nullable
+  public Rectangle getDirtyRegion() {
+    return this.dirtyRegion;
+  }
+
+  /**
+   * Forget the previous frame so that next frame is detected as fully changed.
+   */
+  public void reset() {
+    this.hasPrevious = false;
+  }
+
+  /**
+   * Compare frame with the previous one and remember it.
+   *
+   * @param rgb frame data, three bytes per pixel
+   * @return true if there is any change or it is the first frame
+   */
+  public boolean update(@NonNull final byte[] rgb) {
+    final int lineLength = this.width * 3;
+    if (rgb.length < lineLength * this.height) {
+      throw new IllegalArgumentException("Unexpected frame size: " + rgb.length);
+    }
+
+    final long[] hashes = this.currentHashes;
+    for (int i = 0; i < hashes.length; i++) {
+      hashes[i] = i;
+    }
+
+    final int tileLineLength = this.tileSize * 3;
+    for (int y = 0; y < this.height; y++) {
+      final int rowBase = (y / this.tileSize) * this.columns;
+      int offset = y * lineLength;
+      final int lineEnd = offset + lineLength;
+      for (int column = 0; column < this.columns; column++) {
+        final int end = Math.min(offset + tileLineLength, lineEnd);
+        hashes[rowBase + column] = hash(hashes[rowBase + column], rgb, offset, end);
+        offset = end;
+      }
+    }
+
+    int changed = 0;
+    int minColumn = Integer.MAX_VALUE;
+    int minRow = Integer.MAX_VALUE;
+    int maxColumn = -1;
+    int maxRow = -1;
+    for (int i = 0; i < hashes.length; i++) {
+      if (!this.hasPrevious || hashes[i] != this.previousHashes[i]) {
+        changed++;
+        final int column = i % this.columns;
+        final int row = i / this.columns;
+        minColumn = Math.min(minColumn, column);
+        maxColumn = Math.max(maxColumn, column);
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+      }
+    }
+    System.arraycopy(hashes, 0, this.previousHashes, 0, hashes.length);
+    this.hasPrevious = true;
+    this.changedTiles = changed;
+
+    if (changed == 0) {
+      this.dirtyRegion = null;
+    } else {
+      final int x = minColumn * this.tileSize;
+      final int y = minRow * this.tileSize;
+      this.dirtyRegion = new Rectangle(x, y,
+              Math.min(this.width, (maxColumn + 1) * this.tileSize) - x,
+              Math.min(this.height, (maxRow + 1) * this.tileSize) - y);
+    }
+    return changed != 0;
+  }
+
+  private static long hash(long hash, @NonNull final byte[] data, int offset, final int end) {
+    for (; offset + Long.BYTES <= end; offset += Long.BYTES) {
+      hash = Long.rotateLeft((hash ^ (long) LONG_VIEW.get(data, offset)) * HASH_MULTIPLIER, 29);
+    }
+    for (; offset < end; offset++) {
+      hash = Long.rotateLeft((hash ^ data[offset]) * HASH_MULTIPLIER, 29);
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Cuts MPEG-TS stream of the broadcast hub into short segments for HLS live
+ * playlist. Segment starts with PAT followed by a key frame and is closed at
+ * the next such boundary after target duration, if there is no key frame for
+ * long time then segment is closed at PAT. Target duration declared in
+ * playlist is constant for the whole stream and no segment is longer than it.
+ * Segments are kept in bounded ring and shared between all clients, the
+ * oldest ones are evicted.
+ */
+public final class HlsSegmenter implements TsBroadcastHub.UnitListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HlsSegmenter.class);
+
+  public static final long DEFAULT_TARGET_DURATION_MS = 2000L;
+  public static final int DEFAULT_PLAYLIST_SEGMENTS = 6;
+  public static final int DEFAULT_MAX_SEGMENTS = 12;
+  public static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+  private static final int FORCED_CUT_FACTOR = 3;
+  private static final long KEY_FRAME_JITTER_DIVIDER = 4L;
+
+  /**
+   * Completed segment, its data must not be changed.
+   */
+  public static final class Segment {
+
+    private final long sequence;
+    private final byte[] data;
+    private final long durationMs;
+    private final boolean discontinuity;
+    private final long discontinuitySequence;
+
+    private Segment(final long sequence, @NonNull final byte[] data, final long durationMs, final boolean discontinuity, final long discontinuitySequence) {
+      this.sequence = sequence;
+      this.data = data;
+      this.durationMs = durationMs;
+      this.discontinuity = discontinuity;
+      this.discontinuitySequence = discontinuitySequence;
+    }
+
+    public long getSequence() {
+      return this.sequence;
+    }
+
+    @NonNull
+    public byte[] getData() {
+      return this.data;
+    }
+
+    public long getDurationMs() {
+      return this.durationMs;
+    }
+
+    public boolean isDiscontinuity() {
+      return this.discontinuity;
+    }
+  }
+
+  private final long targetDurationMs;
+  private final long maxDurationMs;
+  private final long forcedCutMs;
+  private final int playlistSegments;
+  private final int maxSegments;
+  private final long maxBytes;
+  private final BooleanSupplier enabled;
+  private final LongSupplier clock;
+
+  private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+  private final ByteArrayOutputStream current = new ByteArrayOutputStream(1024 * 1024);
+  private volatile boolean active;
+  private boolean started;
+  private long segmentStart;
+  private int patOffset = -1;
+  private long patTime;
+  private long nextSequence;
+  private long discontinuities;
+  private boolean pendingDiscontinuity;
+  private long bytes;
+
+  private final AtomicLong evictedSegments = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param targetDurationMs wanted duration of segment
+   * @param playlistSegments number of the newest segments listed in playlist
+   * @param maxSegments max number of kept segments, older than listed ones are
+   * kept for clients which are still loading them
+   * @param maxBytes max number of bytes in kept segments
+   * @param enabled checked on every reset of stream, segmenting is active only
+   * if it returns true
+   */
+  public HlsSegmenter(final long targetDurationMs, final int playlistSegments, final int maxSegments, final long maxBytes, @NonNull final BooleanSupplier enabled) {
+    this(targetDurationMs, playlistSegments, maxSegments, maxBytes, enabled, System::currentTimeMillis);
+  }
+
+  HlsSegmenter(final long targetDurationMs, final int playlistSegments, final int maxSegments, final long maxBytes, @NonNull final BooleanSupplier enabled, @NonNull final LongSupplier clock) {
+    this.targetDurationMs = Math.max(500L, targetDurationMs);
+    this.maxDurationMs = (this.targetDurationMs * FORCED_CUT_FACTOR + 999L) / 1000L * 1000L;
+    this.forcedCutMs = this.maxDurationMs - this.targetDurationMs / 2L;
+    this.playlistSegments = Math.max(2, playlistSegments);
+    this.maxSegments = Math.max(this.playlistSegments, maxSegments);
+    this.maxBytes = maxBytes;
+    this.enabled = enabled;
+    this.clock = clock;
+  }
+
+  public boolean isActive() {
+    return this.active;
+  }
+
+  @Override
+  public synchronized void onReset() {
+    this.active = this.enabled.getAsBoolean();
+    this.current.reset();
+    this.started = false;
+    this.patOffset = -1;
+    if (this.active) {
+      this.pendingDiscontinuity = !this.segments.isEmpty();
+    } else {
+      this.segments.clear();
+      this.bytes = 0L;
+      this.pendingDiscontinuity = false;
+    }
+    this.notifyAll();
+  }
+
+  @Override
+  public synchronized void onUnit(@NonNull final byte[] unit, final boolean pat, final boolean keyFrame) {
+    if (!this.active) {
+      return;
+    }
+    final long now = this.clock.getAsLong();
+    if (pat) {
+      if (!this.started) {
+        this.current.reset();
+      } else if (now - this.segmentStart >= this.forcedCutMs && this.current.size() > 0) {
+        LOGGER.warn("There is no key frame for {} ms, segment is cut at PAT", now - this.segmentStart);
+        this.cut(this.current.size(), now);
+      }
+      this.patOffset = this.current.size();
+      this.patTime = now;
+    }
+    if (this.patOffset < 0 && !this.started) {
+      return;
+    }
+    this.current.write(unit, 0, unit.length);
+
+    if (keyFrame && this.patOffset >= 0) {
+      if (!this.started) {
+        this.started = true;
+        this.segmentStart = this.patTime;
+      } else if (this.patOffset > 0 && this.patTime - this.segmentStart >= this.targetDurationMs - this.targetDurationMs / KEY_FRAME_JITTER_DIVIDER) {
+        this.cut(this.patOffset, this.patTime);
+      }
+      this.patOffset = -1;
+    }
+  }
+
+  private void cut(final int length, final long time) {
+    final byte[] buffered = this.current.toByteArray();
+    final byte[] data = new byte[length];
+    System.arraycopy(buffered, 0, data, 0, length);
+    this.current.reset();
+    this.current.write(buffered, length, buffered.length - length);
+
+    final boolean discontinuity = this.pendingDiscontinuity;
+    this.pendingDiscontinuity = false;
+    if (discontinuity) {
+      this.discontinuities++;
+    }
+    // duration is measured by arrival of data, late PAT is a delay of delivery
+    // and not longer media so that the duration is limited by declared one
+    final long duration = Math.min(this.maxDurationMs, Math.max(1L, time - this.segmentStart));
+    this.segments.addLast(new Segment(this.nextSequence++, data, duration, discontinuity, this.discontinuities));
+    this.bytes += data.length;
+    this.segmentStart = time;
+
+    while (this.segments.size() > this.maxSegments || (this.bytes > this.maxBytes && this.segments.size() > 1)) {
+      this.bytes -= this.segments.removeFirst().getData().length;
+      this.evictedSegments.incrementAndGet();
+    }
+    this.notifyAll();
+  }
+
+  /**
+   * Wait for number of completed segments.
+   *
+   * @param count number of segments
+   * @param timeoutMs max time to wait
+   * @return true if there are segments, false if timeout
+   * @throws InterruptedException if thread interrupted during wait
+   */
+  public synchronized boolean awaitSegments(final int count, final long timeoutMs) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMs;
+    while (this.segments.size() < count) {
+      final long wait = deadline - System.currentTimeMillis();
+      if (wait <= 0L) {
+        return false;
+      }
+      this.wait(wait);
+    }
+    return true;
+  }
+
+  @Nullable
+  public synchronized Segment findSegment(final long sequence) {
+    for (final Segment segment : this.segments) {
+      if (segment.sequence == sequence) {
+        return segment;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Make live media playlist of the newest segments.
+   *
+   * @param segmentNamePrefix prefix of segment URI, sequence number and '.ts'
+   * are added to it
+   * @return playlist text
+   */
+  @NonNull
+  public synchronized String makePlaylist(@NonNull final String segmentNamePrefix) {
+    final List<Segment> listed = new ArrayList<>(this.segments);
+    if (listed.size() > this.playlistSegments) {
+      listed.subList(0, listed.size() - this.playlistSegments).clear();
+    }
+
+    final StringBuilder result = new StringBuilder();
+    result.append("#EXTM3U\n");
+    result.append("#EXT-X-VERSION:3\n");
+    result.append("#EXT-X-TARGETDURATION:").append(this.maxDurationMs / 1000L).append('\n');
+    if (listed.isEmpty()) {
+      result.append("#EXT-X-MEDIA-SEQUENCE:").append(this.nextSequence).append('\n');
+    } else {
+      final Segment first = listed.get(0);
+      result.append("#EXT-X-MEDIA-SEQUENCE:").append(first.sequence).append('\n');
+      final long discontinuitySequence = first.discontinuitySequence - (first.discontinuity ? 1L : 0L);
+      if (discontinuitySequence > 0L) {
+        result.append("#EXT-X-DISCONTINUITY-SEQUENCE:").append(discontinuitySequence).append('\n');
+      }
+    }
+    for (final Segment s : listed) {
+      if (s.discontinuity) {
+        result.append("#EXT-X-DISCONTINUITY\n");
+      }
+      result.append("#EXTINF:").append(String.format(Locale.ROOT, "%.3f", s.durationMs / 1000.0d)).append(",\n");
+      result.append(segmentNamePrefix).append(s.sequence).append(".ts\n");
+    }
+    return result.toString();
+  }
+
+  public synchronized int getSegmentCount() {
+    return this.segments.size();
+  }
+
+  public synchronized long getBytes() {
+    return this.bytes;
+  }
+
+  public long getEvictedSegments() {
+    return this.evictedSegments.get();
+  }
+}
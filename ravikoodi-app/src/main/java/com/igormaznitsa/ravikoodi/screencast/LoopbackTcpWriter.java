@@ -24,6 +24,7 @@ import java.net.Socket;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -35,7 +36,9 @@ public class LoopbackTcpWriter extends NetConnection {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LoopbackTcpWriter.class);
 
-  private final PreemptiveBuffer buffer;
+  private static final long MAX_WAIT_DATA_MS = 500L;
+
+  private final PooledFrameRing buffer;
   private final ServerSocket serverSocket;
   private final AtomicReference<Socket> currentSocket = new AtomicReference<>();
   private final Thread thread;
@@ -54,7 +57,7 @@ public class LoopbackTcpWriter extends NetConnection {
   ) throws IOException {
     super(id, dataFlowTimeout);
     this.active = Objects.requireNonNull(active);
-    this.buffer = new PreemptiveBuffer(maxQueuedItems);
+    this.buffer = new PooledFrameRing(maxQueuedItems);
     this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
     this.thread = new Thread(
             this::doWork, id + this.serverSocket.getLocalPort()
@@ -66,6 +69,18 @@ public class LoopbackTcpWriter extends NetConnection {
     this.buffer.put(data);
   }
 
+  public void add(@NonNull final byte[] data, final int offset, final int length) {
+    this.buffer.put(data, offset, length);
+  }
+
+  public long getDroppedFrames() {
+    return this.buffer.getDropped();
+  }
+
+  public int getQueueDepth() {
+    return this.buffer.size();
+  }
+
   @NonNull
   public InetAddress getInetAddress() {
     return this.serverSocket.getInetAddress();
@@ -134,18 +149,25 @@ public class LoopbackTcpWriter extends NetConnection {
           long nextWatchTime = System.currentTimeMillis() + watchTimeDelayMs;
 
           while (!Thread.currentThread().isInterrupted() && !this.disposed.get() && this.active.get()) {
-            final byte[] portion = this.buffer.next();
-            if (portion == null) {
-              if (nextWatchTime < System.currentTimeMillis()) {
+            final long waitMs = Math.max(1L, Math.min(MAX_WAIT_DATA_MS, nextWatchTime - System.currentTimeMillis()));
+            final PooledFrameRing.Frame frame = this.buffer.take(waitMs, TimeUnit.MILLISECONDS);
+            if (frame == null) {
+              if (nextWatchTime <= System.currentTimeMillis()) {
                 this.listeners.forEach(x -> x.onDataFlowTimeout(this, this.dataFlowTimeout));
                 nextWatchTime = System.currentTimeMillis() + watchTimeDelayMs;
               }
             } else {
-              outStream.write(portion);
+              try {
+                outStream.write(frame.getData(), 0, frame.getLength());
+              } finally {
+                this.buffer.release(frame);
+              }
               outStream.flush();
               nextWatchTime = System.currentTimeMillis() + watchTimeDelayMs;
             }
           }
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
         } catch (IOException ex) {
           if (!this.disposed.get()) {
             LOGGER.error("Error during write", ex);
@@ -154,6 +176,8 @@ public class LoopbackTcpWriter extends NetConnection {
           CloseUtil.closeQuietly(outStream);
           this.currentSocket.set(null);
           CloseUtil.closeQuietly(socket);
+          LOGGER.info("Connection completed, offered {} frames, dropped {} frames, max queue depth {}",
+                  this.buffer.getOffered(), this.buffer.getDropped(), this.buffer.getMaxDepth());
           this.listeners.forEach(x -> x.onCompleted(this));
         }
       }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Bounded ring of reusable frame buffers between single producer and single
+ * consumer. Data is copied into pooled buffers so that there is no allocation
+ * after warm-up. If the ring is full then the oldest frame is dropped while the
+ * ring is not started and the latest frame is overwritten after start, so that
+ * a connected consumer receives continuous stream until the moment of
+ * overflow.
+ */
+public final class PooledFrameRing {
+
+  /**
+   * Frame buffer, must be returned into the ring through
+   * {@link #release(Frame)} after processing.
+   */
+  public static final class Frame {
+
+    private byte[] data;
+    private int length;
+
+    private Frame(final int initialCapacity) {
+      this.data = new byte[initialCapacity];
+    }
+
+    private void set(@NonNull final byte[] source, final int offset, final int length) {
+      if (this.data.length < length) {
+        this.data = new byte[length];
+      }
+      System.arraycopy(source, offset, this.data, 0, length);
+      this.length = length;
+    }
+
+    @NonNull
+    public byte[] getData() {
+      return this.data;
+    }
+
+    public int getLength() {
+      return this.length;
+    }
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = this.lock.newCondition();
+
+  private final Frame[] queue;
+  private final Frame[] free;
+  private int freeCount;
+  private int head;
+  private int count;
+  private int maxDepth;
+  private volatile boolean started;
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong offered = new AtomicLong();
+
+  public PooledFrameRing(final int capacity) {
+    this(capacity, 0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param capacity max number of queued frames
+   * @param initialFrameSize initial size of pooled buffers
+   */
+  public PooledFrameRing(final int capacity, final int initialFrameSize) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.queue = new Frame[capacity];
+    // one extra frame for the consumer
+    this.free = new Frame[capacity + 1];
+    for (int i = 0; i < this.free.length; i++) {
+      this.free[i] = new Frame(initialFrameSize);
+    }
+    this.freeCount = this.free.length;
+  }
+
+  public boolean isStarted() {
+    return this.started;
+  }
+
+  public void start() {
+    this.started = true;
+  }
+
+  public void suspend() {
+    this.started = false;
+  }
+
+  public int getCapacity() {
+    return this.queue.length;
+  }
+
+  /**
+   * Current number of queued frames.
+   *
+   * @return number of frames in the queue
+   */
+  public int size() {
+    this.lock.lock();
+    try {
+      return this.count;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Max number of queued frames detected since creation or last clear.
+   *
+   * @return max queue depth
+   */
+  public int getMaxDepth() {
+    this.lock.lock();
+    try {
+      return this.maxDepth;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  public long getDropped() {
+    return this.dropped.get();
+  }
+
+  public long getOffered() {
+    return this.offered.get();
+  }
+
+  public void clear() {
+    this.lock.lock();
+    try {
+      while (this.count > 0) {
+        this.releaseFrame(this.queue[this.head]);
+        this.queue[this.head] = null;
+        this.head = (this.head + 1) % this.queue.length;
+        this.count--;
+      }
+      this.head = 0;
+      this.maxDepth = 0;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  public void put(@NonNull final byte[] data) {
+    this.put(data, 0, data.length);
+  }
+
+  /**
+   * Copy data into a pooled frame and queue it.
+   *
+   * @param data source array
+   * @param offset offset in the array
+   * @param length number of bytes
+   */
+  public void put(@NonNull final byte[] data, final int offset, final int length) {
+    this.offered.incrementAndGet();
+    this.lock.lock();
+    try {
+      final Frame target;
+      if (this.count < this.queue.length) {
+        target = this.freeCount > 0 ? this.free[--this.freeCount] : new Frame(length);
+        this.queue[(this.head + this.count) % this.queue.length] = target;
+        this.count++;
+        this.maxDepth = Math.max(this.maxDepth, this.count);
+      } else if (this.started) {
+        target = this.queue[(this.head + this.count - 1) % this.queue.length];
+        this.dropped.incrementAndGet();
+      } else {
+        target = this.queue[this.head];
+        this.queue[this.head] = null;
+        this.head = (this.head + 1) % this.queue.length;
+        this.queue[(this.head + this.count - 1) % this.queue.length] = target;
+        this.dropped.incrementAndGet();
+      }
+      target.set(data, offset, length);
+      this.notEmpty.signal();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Take next frame, waiting if needed.
+   *
+   * @param timeout max time to wait
+   * @param unit time unit
+   * @return frame which must be released after use or null if timeout
+   * @throws InterruptedException if interrupted during wait
+   */
+  @Nullable
+  public Frame take(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      while (this.count == 0) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = this.notEmpty.awaitNanos(nanos);
+      }
+      final Frame result = this.queue[this.head];
+      this.queue[this.head] = null;
+      this.head = (this.head + 1) % this.queue.length;
+      this.count--;
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Return frame into the pool.
+   *
+   * @param frame taken frame, can be null
+   */
+  public void release(@Nullable final Frame frame) {
+    if (frame != null) {
+      this.lock.lock();
+      try {
+        this.releaseFrame(frame);
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
+  private void releaseFrame(@NonNull final Frame frame) {
+    if (this.freeCount < this.free.length) {
+      this.free[this.freeCount++] = frame;
+    }
+  }
+}
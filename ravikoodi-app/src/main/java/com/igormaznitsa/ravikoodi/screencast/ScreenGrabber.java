@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,17 +38,23 @@ public final class ScreenGrabber implements Closeable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ScreenGrabber.class);
 
+  private static final int CHANGE_DETECTION_TILE_SIZE = 64;
+
   private final AtomicBoolean disposed = new AtomicBoolean();
   private final AtomicReference<Thread> grabbingThread = new AtomicReference<>();
   private final int snapsPerSecond;
+  private final int keepAliveFps;
   private final boolean showCursor;
   private final List<ScreenGrabberListener> listeners = new CopyOnWriteArrayList<>();
   private final Rectangle targetSize;
   private final AbstractScreenSource screenSource;
+  private final AtomicLong sentFrames = new AtomicLong();
+  private final AtomicLong skippedFrames = new AtomicLong();
   
   public ScreenGrabber(final ApplicationPreferences preferences) throws AWTException {
     this.showCursor = preferences.isGrabCursor();
     this.snapsPerSecond = preferences.getSnapsPerSecond();
+    this.keepAliveFps = preferences.getKeepAliveFps();
 
     final GrabberType grabberType = preferences.getGrabberType();
     
@@ -72,7 +79,7 @@ public final class ScreenGrabber implements Closeable {
     
     this.targetSize = this.screenSource.getBounds();
     
-    LOGGER.info("Prepared screen grabber {} for {}x{}, device {}, show cursor = {}, {} snapshots per second", this.screenSource, this.targetSize.width, this.targetSize.height, this.screenSource.getSourceDevice().getIDstring(), this.showCursor, this.snapsPerSecond);
+    LOGGER.info("Prepared screen grabber {} for {}x{}, device {}, show cursor = {}, {} snapshots per second, keep-alive {} fps", this.screenSource, this.targetSize.width, this.targetSize.height, this.screenSource.getSourceDevice().getIDstring(), this.showCursor, this.snapsPerSecond, this.keepAliveFps);
   }
   
   @Nullable
@@ -103,6 +110,18 @@ public final class ScreenGrabber implements Closeable {
     return this.snapsPerSecond;
   }
 
+  public int getKeepAliveFps() {
+    return this.keepAliveFps;
+  }
+
+  public long getSentFrames() {
+    return this.sentFrames.get();
+  }
+
+  public long getSkippedFrames() {
+    return this.skippedFrames.get();
+  }
+
   public void addGrabbingListener(final ScreenGrabberListener listener) {
     this.listeners.add(Objects.requireNonNull(listener));
   }
@@ -139,11 +158,35 @@ public final class ScreenGrabber implements Closeable {
   private void run() {
     LOGGER.info("Screen grabber thread '{}' has been started", Thread.currentThread().getName());
     final long delayBetweenFrames = 1000L / this.snapsPerSecond;
+    final long keepAliveDelay = 1000L / this.keepAliveFps;
+    final int expectedFrameSize = this.targetSize.width * this.targetSize.height * 3;
+    // no sense to check frames if each one must be sent anyway
+    final FrameChangeDetector changeDetector = this.keepAliveFps < this.snapsPerSecond
+            ? new FrameChangeDetector(this.targetSize.width, this.targetSize.height, CHANGE_DETECTION_TILE_SIZE)
+            : null;
+    long lastSentTime = 0L;
     try {
       while (!Thread.currentThread().isInterrupted() && !this.disposed.get()) {
         final long start = System.currentTimeMillis();
         try {
-          this.listeners.forEach(x -> x.onGrabbed(this, this.screenSource.grabRgb()));
+          final byte[] frame = this.screenSource.grabRgb();
+          try {
+            final boolean changed = changeDetector == null
+                    || frame == null
+                    || frame.length != expectedFrameSize
+                    || changeDetector.update(frame);
+            if (changed || start - lastSentTime >= keepAliveDelay) {
+              lastSentTime = start;
+              this.sentFrames.incrementAndGet();
+              this.listeners.forEach(x -> x.onGrabbed(this, frame));
+            } else {
+              this.skippedFrames.incrementAndGet();
+            }
+          } finally {
+            if (frame != null) {
+              this.screenSource.releaseRgb(frame);
+            }
+          }
         } catch (Exception ex) {
           this.listeners.forEach(x -> x.onError(this, ex));
         }
@@ -158,7 +201,7 @@ public final class ScreenGrabber implements Closeable {
         }
       }
     } finally {
-      LOGGER.info("Screen grabber thread '{}' has been completed", Thread.currentThread().getName());
+      LOGGER.info("Screen grabber thread '{}' has been completed, sent {} frames, skipped {} unchanged frames, frame pool: {}", Thread.currentThread().getName(), this.sentFrames.get(), this.skippedFrames.get(), this.screenSource.getFramePool());
     }
   }
 
@@ -191,6 +234,13 @@ public final class ScreenGrabber implements Closeable {
 
     }
 
+    /**
+     * Notification about grabbed frame. The frame buffer is reused after the
+     * call so that listener must copy data if it needs them later.
+     *
+     * @param source source grabber
+     * @param rgbImageData frame data
+     */
     default void onGrabbed(ScreenGrabber source, byte[] rgbImageData) {
 
     }
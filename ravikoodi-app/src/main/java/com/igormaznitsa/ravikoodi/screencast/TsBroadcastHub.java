@@ -0,0 +1,445 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Broadcast hub for MPEG-TS stream. Single producer (FFmpeg output) writes
+ * data into shared ring of TS packet units and every subscriber reads the ring
+ * through its own cursor, so that one encoding can be played by several
+ * clients. New subscriber starts from the most recent PAT/PMT boundary
+ * followed by a key frame, slow subscriber which lost its position in the
+ * ring is moved to the most recent boundary. Key frames are detected only on
+ * the video elementary stream found through PAT and PMT, random access flags
+ * of audio packets are ignored.
+ */
+public final class TsBroadcastHub {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsBroadcastHub.class);
+
+  public static final int TS_PACKET_SIZE = 188;
+  private static final byte TS_SYNC_BYTE = 0x47;
+  private static final int PID_PAT = 0;
+  private static final int NO_PID = -1;
+  private static final int TABLE_PAT = 0x00;
+  private static final int TABLE_PMT = 0x02;
+  private static final int PSI_CRC_SIZE = 4;
+  private static final long NO_POSITION = -1L;
+
+  private final byte[][] ring;
+  private final int mask;
+  private final long maxBytes;
+
+  private final byte[] carry = new byte[TS_PACKET_SIZE];
+  private int carrySize;
+
+  private long headSeq;
+  private long tailSeq;
+  private long ringBytes;
+  private long lastPatSeq = NO_POSITION;
+  private long lastKeyFramePatSeq = NO_POSITION;
+  private long generation;
+  private int pmtPid = NO_PID;
+  private int videoPid = NO_PID;
+
+  private volatile UnitListener unitListener;
+
+  private final AtomicInteger subscribers = new AtomicInteger();
+  private final AtomicLong droppedUnits = new AtomicLong();
+  private final AtomicLong resyncCounter = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param maxUnits max number of units in the ring, will be rounded up to power of two
+   * @param maxBytes max number of bytes kept in the ring, should be enough to keep a whole GOP
+   */
+  public TsBroadcastHub(final int maxUnits, final long maxBytes) {
+    final int capacity = Integer.highestOneBit(Math.max(16, maxUnits - 1)) << 1;
+    this.ring = new byte[capacity][];
+    this.mask = capacity - 1;
+    this.maxBytes = Math.max(TS_PACKET_SIZE, maxBytes);
+  }
+
+  private static boolean isPat(@NonNull final byte[] data, final int offset) {
+    return (data[offset + 1] & 0x40) != 0 && ((((data[offset + 1] & 0x1F) << 8) | (data[offset + 2] & 0xFF)) == PID_PAT);
+  }
+
+  private static int getPid(@NonNull final byte[] data, final int offset) {
+    return ((data[offset + 1] & 0x1F) << 8) | (data[offset + 2] & 0xFF);
+  }
+
+  private static boolean isVideoStreamType(final int streamType) {
+    switch (streamType) {
+      case 0x01: // MPEG-1 video
+      case 0x02: // MPEG-2 video
+      case 0x10: // MPEG-4 part 2
+      case 0x1B: // H.264
+      case 0x24: // H.265
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Find start of PSI section in packet, only section which starts in the
+   * packet is found.
+   *
+   * @return offset of the section table id or -1 if there is no section start
+   */
+  private static int findSectionStart(@NonNull final byte[] data, final int offset) {
+    if ((data[offset + 1] & 0x40) == 0) {
+      return -1;
+    }
+    final int adaptationControl = (data[offset + 3] >> 4) & 0x3;
+    if ((adaptationControl & 1) == 0) {
+      return -1;
+    }
+    final int packetEnd = offset + TS_PACKET_SIZE;
+    int payload = offset + 4;
+    if (adaptationControl == 3) {
+      payload += 1 + (data[payload] & 0xFF);
+    }
+    if (payload >= packetEnd) {
+      return -1;
+    }
+    final int section = payload + 1 + (data[payload] & 0xFF);
+    return section + 3 <= packetEnd ? section : -1;
+  }
+
+  /**
+   * Follow PAT and PMT to find PID of video elementary stream.
+   */
+  private void parsePsi(@NonNull final byte[] data, final int offset) {
+    final int pid = getPid(data, offset);
+    if (pid != PID_PAT && pid != this.pmtPid) {
+      return;
+    }
+    final int section = findSectionStart(data, offset);
+    if (section < 0) {
+      return;
+    }
+    final int sectionLength = ((data[section + 1] & 0x0F) << 8) | (data[section + 2] & 0xFF);
+    final int sectionEnd = Math.min(offset + TS_PACKET_SIZE, section + 3 + sectionLength) - PSI_CRC_SIZE;
+    final int tableId = data[section] & 0xFF;
+
+    if (pid == PID_PAT) {
+      if (tableId != TABLE_PAT) {
+        return;
+      }
+      for (int i = section + 8; i + 4 <= sectionEnd; i += 4) {
+        final int program = ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
+        if (program != 0) {
+          final int newPmtPid = ((data[i + 2] & 0x1F) << 8) | (data[i + 3] & 0xFF);
+          if (newPmtPid != this.pmtPid) {
+            this.pmtPid = newPmtPid;
+            this.videoPid = NO_PID;
+          }
+          return;
+        }
+      }
+    } else if (tableId == TABLE_PMT && section + 12 <= sectionEnd) {
+      final int programInfoLength = ((data[section + 10] & 0x0F) << 8) | (data[section + 11] & 0xFF);
+      int i = section + 12 + programInfoLength;
+      while (i + 5 <= sectionEnd) {
+        final int streamType = data[i] & 0xFF;
+        if (isVideoStreamType(streamType)) {
+          final int elementaryPid = ((data[i + 1] & 0x1F) << 8) | (data[i + 2] & 0xFF);
+          if (elementaryPid != this.videoPid) {
+            LOGGER.info("Detected video elementary stream PID {}, stream type 0x{}", elementaryPid, Integer.toHexString(streamType));
+            this.videoPid = elementaryPid;
+          }
+          return;
+        }
+        i += 5 + (((data[i + 3] & 0x0F) << 8) | (data[i + 4] & 0xFF));
+      }
+    }
+  }
+
+  private boolean isVideoRandomAccess(@NonNull final byte[] data, final int offset) {
+    return this.videoPid != NO_PID && getPid(data, offset) == this.videoPid && isRandomAccess(data, offset);
+  }
+
+  private static boolean isRandomAccess(@NonNull final byte[] data, final int offset) {
+    final int adaptationControl = (data[offset + 3] >> 4) & 0x3;
+    if (adaptationControl == 2 || adaptationControl == 3) {
+      final int adaptationLength = data[offset + 4] & 0xFF;
+      return adaptationLength > 0 && (data[offset + 5] & 0x40) != 0;
+    }
+    return false;
+  }
+
+  /**
+   * Listener of units added into the ring, it is called under lock of the hub
+   * so that it gets units in the stream order.
+   */
+  public interface UnitListener {
+
+    /**
+     * Called for every added unit.
+     *
+     * @param unit unit data, must not be changed
+     * @param pat true if the unit starts with PAT
+     * @param keyFrame true if the unit contains key frame of video stream
+     */
+    void onUnit(@NonNull byte[] unit, boolean pat, boolean keyFrame);
+
+    /**
+     * Called when the hub is reset for new stream.
+     */
+    void onReset();
+  }
+
+  public void setUnitListener(@Nullable final UnitListener listener) {
+    this.unitListener = listener;
+  }
+
+  public int getSubscribers() {
+    return this.subscribers.get();
+  }
+
+  public long getDroppedUnits() {
+    return this.droppedUnits.get();
+  }
+
+  public synchronized int size() {
+    return (int) (this.headSeq - this.tailSeq);
+  }
+
+  /**
+   * Drop all buffered data, must be called when new stream is started.
+   * Subscribers are kept and will continue from the first boundary of the new
+   * stream.
+   */
+  public synchronized void reset() {
+    for (long i = this.tailSeq; i < this.headSeq; i++) {
+      this.ring[(int) (i & this.mask)] = null;
+    }
+    this.tailSeq = this.headSeq;
+    this.ringBytes = 0L;
+    this.carrySize = 0;
+    this.lastPatSeq = NO_POSITION;
+    this.lastKeyFramePatSeq = NO_POSITION;
+    this.pmtPid = NO_PID;
+    this.videoPid = NO_PID;
+    this.generation++;
+    final UnitListener listener = this.unitListener;
+    if (listener != null) {
+      listener.onReset();
+    }
+    this.notifyAll();
+  }
+
+  /**
+   * Put data from the stream, data can be provided in any portions, they will
+   * be aligned to TS packets.
+   *
+   * @param data source array, content is copied
+   * @param offset start offset
+   * @param length number of bytes
+   */
+  public synchronized void put(@NonNull final byte[] data, final int offset, final int length) {
+    int pos = offset;
+    final int end = offset + length;
+
+    if (this.carrySize > 0) {
+      final int needed = Math.min(TS_PACKET_SIZE - this.carrySize, length);
+      System.arraycopy(data, pos, this.carry, this.carrySize, needed);
+      this.carrySize += needed;
+      pos += needed;
+      if (this.carrySize < TS_PACKET_SIZE) {
+        return;
+      }
+      this.carrySize = 0;
+      this.appendPackets(this.carry, 0, TS_PACKET_SIZE);
+    }
+
+    while (pos < end) {
+      if (data[pos] != TS_SYNC_BYTE) {
+        final int start = pos;
+        while (pos < end && data[pos] != TS_SYNC_BYTE) {
+          pos++;
+        }
+        this.resyncCounter.incrementAndGet();
+        LOGGER.warn("Lost TS sync, skipped {} bytes", pos - start);
+        continue;
+      }
+      int packetsEnd = pos;
+      while (packetsEnd + TS_PACKET_SIZE <= end && data[packetsEnd] == TS_SYNC_BYTE) {
+        packetsEnd += TS_PACKET_SIZE;
+      }
+      if (packetsEnd > pos) {
+        this.appendPackets(data, pos, packetsEnd - pos);
+        pos = packetsEnd;
+      }
+      if (pos < end && end - pos < TS_PACKET_SIZE && data[pos] == TS_SYNC_BYTE) {
+        this.carrySize = end - pos;
+        System.arraycopy(data, pos, this.carry, 0, this.carrySize);
+        pos = end;
+      }
+    }
+    this.notifyAll();
+  }
+
+  private void appendPackets(@NonNull final byte[] data, final int offset, final int length) {
+    int unitStart = offset;
+    boolean keyFrame = false;
+    for (int pos = offset; pos < offset + length; pos += TS_PACKET_SIZE) {
+      if (isPat(data, pos) && pos > unitStart) {
+        this.addUnit(data, unitStart, pos - unitStart, keyFrame);
+        unitStart = pos;
+        keyFrame = false;
+      }
+      this.parsePsi(data, pos);
+      keyFrame |= this.isVideoRandomAccess(data, pos);
+    }
+    this.addUnit(data, unitStart, offset + length - unitStart, keyFrame);
+  }
+
+  private void addUnit(@NonNull final byte[] data, final int offset, final int length, final boolean keyFrame) {
+    final boolean pat = isPat(data, offset);
+    final byte[] unitData = new byte[length];
+    System.arraycopy(data, offset, unitData, 0, length);
+
+    while (this.headSeq - this.tailSeq >= this.ring.length) {
+      this.removeTail();
+    }
+    final long seq = this.headSeq++;
+    this.ring[(int) (seq & this.mask)] = unitData;
+    this.ringBytes += length;
+
+    if (pat) {
+      this.lastPatSeq = seq;
+    }
+    if (keyFrame && this.lastPatSeq != NO_POSITION) {
+      this.lastKeyFramePatSeq = this.lastPatSeq;
+    }
+
+    final UnitListener listener = this.unitListener;
+    if (listener != null) {
+      listener.onUnit(unitData, pat, keyFrame);
+    }
+
+    while (this.ringBytes > this.maxBytes && this.tailSeq < seq) {
+      this.removeTail();
+    }
+    if (this.lastPatSeq < this.tailSeq) {
+      this.lastPatSeq = NO_POSITION;
+    }
+    if (this.lastKeyFramePatSeq < this.tailSeq) {
+      this.lastKeyFramePatSeq = NO_POSITION;
+    }
+  }
+
+  private void removeTail() {
+    final int index = (int) (this.tailSeq & this.mask);
+    this.ringBytes -= this.ring[index].length;
+    this.ring[index] = null;
+    this.tailSeq++;
+  }
+
+  private long findJoinPosition() {
+    if (this.lastKeyFramePatSeq != NO_POSITION) {
+      return this.lastKeyFramePatSeq;
+    }
+    return this.lastPatSeq;
+  }
+
+  @NonNull
+  public Subscription subscribe() {
+    this.subscribers.incrementAndGet();
+    return new Subscription();
+  }
+
+  /**
+   * Reading cursor of a client, must be closed after use.
+   */
+  public final class Subscription implements Closeable {
+
+    private long cursor = NO_POSITION;
+    private long subscriptionGeneration = -1L;
+    private long dropped;
+    private boolean closed;
+
+    private Subscription() {
+    }
+
+    /**
+     * Take next portion of the stream.
+     *
+     * @param timeoutMs max time to wait for data
+     * @return data or null if there is no data during timeout, the array is
+     * shared between subscribers and must not be changed
+     * @throws InterruptedException if thread interrupted during wait
+     */
+    @Nullable
+    public byte[] take(final long timeoutMs) throws InterruptedException {
+      final TsBroadcastHub hub = TsBroadcastHub.this;
+      final long deadline = System.currentTimeMillis() + timeoutMs;
+      synchronized (hub) {
+        while (!this.closed) {
+          if (this.subscriptionGeneration != hub.generation) {
+            this.subscriptionGeneration = hub.generation;
+            this.cursor = NO_POSITION;
+          }
+          if (this.cursor != NO_POSITION && this.cursor < hub.tailSeq) {
+            final long lost = hub.tailSeq - this.cursor;
+            this.dropped += lost;
+            hub.droppedUnits.addAndGet(lost);
+            LOGGER.warn("Subscriber is too slow, lost {} units", lost);
+            this.cursor = NO_POSITION;
+          }
+          if (this.cursor == NO_POSITION) {
+            this.cursor = hub.findJoinPosition();
+          }
+          if (this.cursor != NO_POSITION && this.cursor < hub.headSeq) {
+            return hub.ring[(int) (this.cursor++ & hub.mask)];
+          }
+          final long wait = deadline - System.currentTimeMillis();
+          if (wait <= 0L) {
+            return null;
+          }
+          hub.wait(wait);
+        }
+      }
+      return null;
+    }
+
+    public long getDropped() {
+      return this.dropped;
+    }
+
+    @Override
+    public void close() {
+      synchronized (TsBroadcastHub.this) {
+        if (this.closed) {
+          return;
+        }
+        this.closed = true;
+        TsBroadcastHub.this.notifyAll();
+      }
+      TsBroadcastHub.this.subscribers.decrementAndGet();
+    }
+  }
+}
@@ -30,8 +30,15 @@ public abstract class AbstractScreenSource {
 
   protected static final Image MOUSE_ICON = Utils.loadImage("64_mouse_pointer.png");
 
+  /**
+   * Number of idle frame buffers kept for reuse.
+   */
+  private static final int FRAME_POOL_SIZE = 3;
+
   private final AtomicBoolean disposed = new AtomicBoolean();
 
+  private final RgbFramePool framePool = new RgbFramePool(FRAME_POOL_SIZE);
+
   private final boolean showPointer;
 
   public AbstractScreenSource(final boolean showPointer) {
@@ -96,9 +103,29 @@ public abstract class AbstractScreenSource {
 
   public abstract Rectangle getBounds();
 
+  /**
+   * Grab frame. The returned buffer can be taken from pool so that it should be
+   * returned through {@link #releaseRgb(byte[])} after use.
+   *
+   * @return RGB frame data or null
+   */
   @Nullable
   public abstract byte[] grabRgb();
 
+  /**
+   * Return grabbed frame buffer for reuse.
+   *
+   * @param rgb buffer returned by {@link #grabRgb()}
+   */
+  public void releaseRgb(@NonNull final byte[] rgb) {
+    this.framePool.release(rgb);
+  }
+
+  @NonNull
+  public RgbFramePool getFramePool() {
+    return this.framePool;
+  }
+
   public final void dispose() {
     if (this.disposed.compareAndSet(false, true)) {
       this.onDispose();
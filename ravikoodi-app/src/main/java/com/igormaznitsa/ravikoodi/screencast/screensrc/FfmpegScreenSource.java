@@ -75,7 +75,7 @@ public class FfmpegScreenSource extends AbstractScreenSource {
   private final Rectangle screenBounds;
   private final Rectangle targetSize;
   private final LoopbackTcpReader resultReader;
-  private final byte[] targetRgbBuffer;
+  private final RgbFrameAssembler frameAssembler;
   private final Process ffmpegProcess;
   private final Exchanger<byte[]> dataExchanger = new Exchanger<>();
   private final double aspectWidth;
@@ -86,7 +86,6 @@ public class FfmpegScreenSource extends AbstractScreenSource {
   private final double scaleX;
   private final double scaleY;
   private final int captureDeviceIndex;
-  private int rgbBufferPositon = 0;
 
   public FfmpegScreenSource(@NonNull final ApplicationPreferences preferences, final boolean showPointer) throws IOException {
     super(showPointer);
@@ -98,7 +97,15 @@ public class FfmpegScreenSource extends AbstractScreenSource {
     this.targetSize = calculateTargetSize(preferences.getQuality(), this.screenBounds);
     this.aspectWidth = (double) this.targetSize.width / (double) this.screenBounds.width;
     this.aspectHeight = (double) this.targetSize.height / (double) this.screenBounds.height;
-    this.targetRgbBuffer = new byte[this.targetSize.width * this.targetSize.height * 3];
+    this.frameAssembler = new RgbFrameAssembler(this.targetSize.width * this.targetSize.height * 3, frame -> {
+      try {
+        final byte[] copy = this.getFramePool().acquire(frame.length);
+        System.arraycopy(frame, 0, copy, 0, frame.length);
+        this.dataExchanger.exchange(copy);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    });
 
     if (SystemUtils.IS_OS_MAC) {
       this.captureDeviceIndex = findMacCaptureDeviceIndex(preferences);
@@ -311,27 +318,9 @@ public class FfmpegScreenSource extends AbstractScreenSource {
 
 
   private void consumeInData(@NonNull final Integer length, @NonNull final byte[] data) {
-    int len = length;
-
-    final int dataToWrite = Math.min(len, this.targetRgbBuffer.length - this.rgbBufferPositon);
-    System.arraycopy(data, 0, this.targetRgbBuffer, this.rgbBufferPositon, Math.min(len, dataToWrite));
-    this.rgbBufferPositon += dataToWrite;
-    len -= dataToWrite;
-    if (this.rgbBufferPositon >= this.targetRgbBuffer.length) {
-      this.rgbBufferPositon = 0;
-      try {
-        this.dataExchanger.exchange(Arrays.copyOf(this.targetRgbBuffer, this.targetRgbBuffer.length));
-        if (len > 0) {
-          System.arraycopy(data, dataToWrite, this.targetRgbBuffer, 0, len);
-          this.rgbBufferPositon = len;
-        }
-      } catch (InterruptedException ex) {
-        Thread.currentThread().interrupt();
-      }
-    }
+    this.frameAssembler.accept(length, data);
   }
 
-
   @Override
   @NonNull
   public GraphicsDevice getSourceDevice() {
@@ -361,26 +350,46 @@ public class FfmpegScreenSource extends AbstractScreenSource {
     return result;
   }
 
-  private void drawPointer(final Point mousePoint, final byte[] rgbArray) {
-    final int visibleWidth = Math.min(this.targetSize.width - mousePoint.x, this.scaledMouseCursorWidth);
-    final int visibleHeight = Math.min(this.targetSize.height - mousePoint.y, this.scaledMouseCursorHeight);
+  /**
+   * Draw ARGB pointer over packed RGB frame, fully transparent pixels are
+   * skipped.
+   *
+   * @param pointerArgb pointer pixels
+   * @param pointerWidth pointer width
+   * @param pointerHeight pointer height
+   * @param frameWidth frame width
+   * @param frameHeight frame height
+   * @param mousePoint pointer position on the frame
+   * @param rgbArray frame data, three bytes per pixel
+   */
+  public static void drawPointer(
+          @NonNull final int[] pointerArgb,
+          final int pointerWidth,
+          final int pointerHeight,
+          final int frameWidth,
+          final int frameHeight,
+          @NonNull final Point mousePoint,
+          @NonNull final byte[] rgbArray
+  ) {
+    final int visibleWidth = Math.min(frameWidth - mousePoint.x, pointerWidth);
+    final int visibleHeight = Math.min(frameHeight - mousePoint.y, pointerHeight);
 
     int scry = mousePoint.y;
     for (int y = 0; y < visibleHeight; y++) {
-      if (scry < 0 || scry >= this.targetSize.height) {
+      if (scry < 0 || scry >= frameHeight) {
         scry++;
         continue;
       }
       int scrx = mousePoint.x;
       for (int x = 0; x < visibleWidth; x++) {
-        if (scrx < 0 || scrx >= this.targetSize.width) {
+        if (scrx < 0 || scrx >= frameWidth) {
           scrx++;
           continue;
         }
-        final int posAtCursor = y * this.scaledMouseCursorWidth + x;
-        int targetPos = scry * this.targetSize.width * 3 + scrx * 3;
+        final int posAtCursor = y * pointerWidth + x;
+        int targetPos = scry * frameWidth * 3 + scrx * 3;
 
-        final int argb = this.scaledMouseCursorARGB[posAtCursor];
+        final int argb = pointerArgb[posAtCursor];
         if (argb != 0) {
           final byte r = (byte) (argb >>> 16);
           final byte g = (byte) (argb >>> 8);
@@ -394,7 +403,11 @@ public class FfmpegScreenSource extends AbstractScreenSource {
       }
       scry++;
     }
+  }
 
+  private void drawPointer(final Point mousePoint, final byte[] rgbArray) {
+    drawPointer(this.scaledMouseCursorARGB, this.scaledMouseCursorWidth, this.scaledMouseCursorHeight,
+            this.targetSize.width, this.targetSize.height, mousePoint, rgbArray);
   }
 
   @Override
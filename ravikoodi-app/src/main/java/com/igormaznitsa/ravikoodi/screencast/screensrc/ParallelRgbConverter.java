@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast.screensrc;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+/**
+ * Converter of images into packed RGB which splits big images into row bands
+ * and converts them on own fork-join pool. Images smaller than threshold are
+ * converted in the caller thread.
+ */
+public final class ParallelRgbConverter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRgbConverter.class);
+
+  /**
+   * System property to define min number of pixels in image for parallel
+   * conversion.
+   */
+  public static final String PROPERTY_THRESHOLD = "ravikoodi.rgb.parallel.threshold";
+  /**
+   * Default threshold, 2560x1440 and bigger screens are converted in parallel.
+   */
+  public static final int DEFAULT_THRESHOLD = 3_600_000;
+
+  private static final int MIN_ROWS_IN_BAND = 16;
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+  private final int parallelism;
+
+  private static final class DefaultHolder {
+
+    private static final ParallelRgbConverter INSTANCE = new ParallelRgbConverter(
+            Integer.getInteger(PROPERTY_THRESHOLD, DEFAULT_THRESHOLD),
+            Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param threshold min number of pixels for parallel conversion
+   * @param parallelism number of threads in pool, if less than 2 then parallel
+   * conversion is off
+   */
+  public ParallelRgbConverter(final int threshold, final int parallelism) {
+    this.threshold = Math.max(0, threshold);
+    this.parallelism = Math.max(1, parallelism);
+    if (this.parallelism > 1) {
+      this.pool = new ForkJoinPool(this.parallelism, p -> {
+        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+        thread.setName("rgb-converter-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+      }, null, false);
+    } else {
+      this.pool = null;
+    }
+    LOGGER.info("Created RGB converter, threshold {} pixels, parallelism {}", this.threshold, this.parallelism);
+  }
+
+  /**
+   * Converter shared by screen sources, threshold can be changed through
+   * system property {@value #PROPERTY_THRESHOLD}.
+   *
+   * @return default converter
+   */
+  @NonNull
+  public static ParallelRgbConverter getDefault() {
+    return DefaultHolder.INSTANCE;
+  }
+
+  public int getThreshold() {
+    return this.threshold;
+  }
+
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Check that image will be converted in parallel.
+   *
+   * @param image source image
+   * @return true if image is converted by bands in pool
+   */
+  public boolean isParallel(@NonNull final BufferedImage image) {
+    return this.pool != null
+            && (long) image.getWidth() * image.getHeight() >= this.threshold
+            && image.getHeight() >= MIN_ROWS_IN_BAND * 2
+            && RgbConverters.isRangeConvertible(image);
+  }
+
+  /**
+   * Convert image into target buffer.
+   *
+   * @param image source image, must have packed raster
+   * @param target target buffer
+   * @return number of written bytes
+   * @see RgbConverters#convert(BufferedImage, byte[])
+   */
+  public int convert(@NonNull final BufferedImage image, @NonNull final byte[] target) {
+    if (this.isParallel(image)) {
+      final int length = RgbConverters.checkTarget(image, target);
+      final int rowsInBand = Math.max(MIN_ROWS_IN_BAND, image.getHeight() / (this.parallelism * 2));
+      this.pool.invoke(new BandTask(image, target, 0, image.getHeight(), rowsInBand));
+      return length;
+    } else {
+      return RgbConverters.convert(image, target);
+    }
+  }
+
+  public void shutdown() {
+    if (this.pool != null) {
+      this.pool.shutdownNow();
+    }
+  }
+
+  private static final class BandTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BufferedImage image;
+    private final byte[] target;
+    private final int rowFrom;
+    private final int rowTo;
+    private final int rowsInBand;
+
+    BandTask(final BufferedImage image, final byte[] target, final int rowFrom, final int rowTo, final int rowsInBand) {
+      this.image = image;
+      this.target = target;
+      this.rowFrom = rowFrom;
+      this.rowTo = rowTo;
+      this.rowsInBand = rowsInBand;
+    }
+
+    @Override
+    protected void compute() {
+      final int rows = this.rowTo - this.rowFrom;
+      if (rows <= this.rowsInBand) {
+        final int width = this.image.getWidth();
+        RgbConverters.convertPixels(this.image, this.rowFrom * width, this.rowTo * width, this.target);
+      } else {
+        final int middle = this.rowFrom + rows / 2;
+        invokeAll(
+                new BandTask(this.image, this.target, this.rowFrom, middle, this.rowsInBand),
+                new BandTask(this.image, this.target, middle, this.rowTo, this.rowsInBand));
+      }
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast.screensrc;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.util.Arrays;
+import org.springframework.lang.NonNull;
+
+/**
+ * Converters of image pixels into packed RGB, three bytes per pixel. All
+ * converters write into caller provided buffer.
+ */
+public final class RgbConverters {
+
+  private RgbConverters() {
+  }
+
+  /**
+   * Number of bytes needed to keep RGB data of image.
+   *
+   * @param image source image
+   * @return number of bytes
+   */
+  public static int rgbLength(@NonNull final BufferedImage image) {
+    return image.getWidth() * image.getHeight() * 3;
+  }
+
+  /**
+   * Convert image into target buffer. Unsupported image types produce black
+   * frame.
+   *
+   * @param image source image, must have packed raster
+   * @param target target buffer, must have at least {@link #rgbLength(BufferedImage)} bytes
+   * @return number of written bytes
+   */
+  public static int convert(@NonNull final BufferedImage image, @NonNull final byte[] target) {
+    final int pixels = image.getWidth() * image.getHeight();
+    final int length = checkTarget(image, target);
+
+    switch (image.getType()) {
+      case BufferedImage.TYPE_BYTE_BINARY: {
+        final int imageWidth = image.getWidth();
+        final int imageHeight = image.getHeight();
+        int dataIndex = 0;
+        for (int y = 0; y < imageHeight; y++) {
+          for (int x = 0; x < imageWidth; x++) {
+            final int rgb = image.getRGB(x, y);
+            target[dataIndex++] = (byte) (rgb >> 16);
+            target[dataIndex++] = (byte) (rgb >> 8);
+            target[dataIndex++] = (byte) rgb;
+          }
+        }
+      }
+      break;
+      default: {
+        convertPixels(image, 0, pixels, target);
+      }
+      break;
+    }
+    return length;
+  }
+
+  /**
+   * Check that target buffer is big enough for image.
+   *
+   * @param image source image
+   * @param target target buffer
+   * @return number of bytes needed for image
+   * @throws IllegalArgumentException if buffer is too small
+   */
+  static int checkTarget(@NonNull final BufferedImage image, @NonNull final byte[] target) {
+    final int length = rgbLength(image);
+    if (target.length < length) {
+      throw new IllegalArgumentException("Too small target buffer: " + target.length + " < " + length);
+    }
+    return length;
+  }
+
+  /**
+   * Check that image pixels can be converted by ranges through
+   * {@link #convertPixels(BufferedImage, int, int, byte[])}.
+   *
+   * @param image source image
+   * @return true if conversion by ranges is supported
+   */
+  public static boolean isRangeConvertible(@NonNull final BufferedImage image) {
+    return image.getType() != BufferedImage.TYPE_BYTE_BINARY;
+  }
+
+  /**
+   * Convert range of pixels, the range is written into the same position of
+   * the target buffer, so that several ranges can be converted concurrently.
+   *
+   * @param image source image, must have packed raster
+   * @param from index of the first pixel
+   * @param to index of the pixel after the last one
+   * @param target target buffer
+   */
+  public static void convertPixels(@NonNull final BufferedImage image, final int from, final int to, @NonNull final byte[] target) {
+    final DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+    switch (image.getType()) {
+      case BufferedImage.TYPE_INT_BGR: {
+        intBgrToRgb(((DataBufferInt) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_INT_ARGB:
+      case BufferedImage.TYPE_INT_ARGB_PRE:
+      case BufferedImage.TYPE_INT_RGB: {
+        intRgbToRgb(((DataBufferInt) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_USHORT_555_RGB: {
+        ushort555ToRgb(((DataBufferUShort) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_USHORT_565_RGB: {
+        ushort565ToRgb(((DataBufferUShort) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_USHORT_GRAY: {
+        ushortGrayToRgb(((DataBufferUShort) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_3BYTE_BGR: {
+        byte3BgrToRgb(((DataBufferByte) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_4BYTE_ABGR:
+      case BufferedImage.TYPE_4BYTE_ABGR_PRE: {
+        byte4AbgrToRgb(((DataBufferByte) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_BYTE_GRAY: {
+        byteGrayToRgb(((DataBufferByte) dataBuffer).getData(), from, to, target);
+      }
+      break;
+      case BufferedImage.TYPE_BYTE_INDEXED: {
+        byteIndexedToRgb(((DataBufferByte) dataBuffer).getData(), image.getColorModel(), from, to, target);
+      }
+      break;
+      default: {
+        Arrays.fill(target, from * 3, to * 3, (byte) 0);
+      }
+      break;
+    }
+  }
+
+  public static void intRgbToRgb(@NonNull final int[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final int argb = src[i];
+      target[dataIndex++] = (byte) (argb >> 16);
+      target[dataIndex++] = (byte) (argb >> 8);
+      target[dataIndex++] = (byte) argb;
+    }
+  }
+
+  public static void intBgrToRgb(@NonNull final int[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final int bgr = src[i];
+      target[dataIndex++] = (byte) bgr;
+      target[dataIndex++] = (byte) (bgr >> 8);
+      target[dataIndex++] = (byte) (bgr >> 16);
+    }
+  }
+
+  public static void ushort555ToRgb(@NonNull final short[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final int rgb = src[i];
+      target[dataIndex++] = (byte) ((rgb >>> 7) & 0xF8); // R
+      target[dataIndex++] = (byte) ((rgb >>> 2) & 0xF8); // G
+      target[dataIndex++] = (byte) (rgb << 3); // B
+    }
+  }
+
+  public static void ushort565ToRgb(@NonNull final short[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final int rgb = src[i];
+      target[dataIndex++] = (byte) ((rgb >>> 8) & 0xF8); // R
+      target[dataIndex++] = (byte) ((rgb >>> 3) & 0xFC); // G
+      target[dataIndex++] = (byte) (rgb << 3); // B
+    }
+  }
+
+  public static void ushortGrayToRgb(@NonNull final short[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final byte gray = (byte) (src[i] >>> 8);
+      target[dataIndex++] = gray;
+      target[dataIndex++] = gray;
+      target[dataIndex++] = gray;
+    }
+  }
+
+  public static void byte3BgrToRgb(@NonNull final byte[] src, final int from, final int to, @NonNull final byte[] target) {
+    final int end = to * 3;
+    for (int i = from * 3; i < end; i += 3) {
+      final byte b = src[i];
+      target[i] = src[i + 2];
+      target[i + 1] = src[i + 1];
+      target[i + 2] = b;
+    }
+  }
+
+  public static void byte4AbgrToRgb(@NonNull final byte[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    int srcIndex = from * 4;
+    for (int i = from; i < to; i++) {
+      target[dataIndex++] = src[srcIndex + 3];
+      target[dataIndex++] = src[srcIndex + 2];
+      target[dataIndex++] = src[srcIndex + 1];
+      srcIndex += 4;
+    }
+  }
+
+  public static void byteGrayToRgb(@NonNull final byte[] src, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final byte level = src[i];
+      target[dataIndex++] = level;
+      target[dataIndex++] = level;
+      target[dataIndex++] = level;
+    }
+  }
+
+  public static void byteIndexedToRgb(@NonNull final byte[] src, @NonNull final ColorModel model, final int from, final int to, @NonNull final byte[] target) {
+    int dataIndex = from * 3;
+    for (int i = from; i < to; i++) {
+      final int rgb = model.getRGB(src[i] & 0xFF);
+      target[dataIndex++] = (byte) (rgb >> 16);
+      target[dataIndex++] = (byte) (rgb >> 8);
+      target[dataIndex++] = (byte) rgb;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast.screensrc;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.springframework.lang.NonNull;
+
+/**
+ * Collects raw RGB stream chunks into whole frames. The frame buffer is reused
+ * so that consumer must copy data if it needs them after the call.
+ */
+public final class RgbFrameAssembler {
+
+  private final byte[] frame;
+  private final Consumer<byte[]> frameConsumer;
+  private int position;
+
+  public RgbFrameAssembler(final int frameSize, @NonNull final Consumer<byte[]> frameConsumer) {
+    if (frameSize <= 0) {
+      throw new IllegalArgumentException("Frame size must be positive: " + frameSize);
+    }
+    this.frame = new byte[frameSize];
+    this.frameConsumer = Objects.requireNonNull(frameConsumer);
+  }
+
+  public int getFrameSize() {
+    return this.frame.length;
+  }
+
+  /**
+   * Add chunk of data, every completed frame is sent to the consumer.
+   *
+   * @param length number of bytes in the chunk
+   * @param data chunk data, starts from zero offset
+   */
+  public void accept(final int length, @NonNull final byte[] data) {
+    int offset = 0;
+    while (offset < length && !Thread.currentThread().isInterrupted()) {
+      final int toCopy = Math.min(length - offset, this.frame.length - this.position);
+      System.arraycopy(data, offset, this.frame, this.position, toCopy);
+      this.position += toCopy;
+      offset += toCopy;
+      if (this.position == this.frame.length) {
+        this.position = 0;
+        this.frameConsumer.accept(this.frame);
+      }
+    }
+  }
+
+  public void reset() {
+    this.position = 0;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.screencast.screensrc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.lang.NonNull;
+
+/**
+ * Pool of frame buffers to avoid allocation of new array for every grabbed
+ * frame. Buffers with size different from requested one are dropped.
+ */
+public final class RgbFramePool {
+
+  private final BlockingQueue<byte[]> idle;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong allocations = new AtomicLong();
+  private final AtomicLong allocatedBytes = new AtomicLong();
+  private final long createdAt = System.nanoTime();
+
+  public RgbFramePool(final int maxIdle) {
+    this.idle = new ArrayBlockingQueue<>(maxIdle);
+  }
+
+  /**
+   * Get buffer from pool or allocate new one.
+   *
+   * @param size required size in bytes
+   * @return buffer which has exactly required size
+   */
+  @NonNull
+  public byte[] acquire(final int size) {
+    byte[] result;
+    while ((result = this.idle.poll()) != null) {
+      if (result.length == size) {
+        this.hits.incrementAndGet();
+        return result;
+      }
+    }
+    this.allocations.incrementAndGet();
+    this.allocatedBytes.addAndGet(size);
+    return new byte[size];
+  }
+
+  /**
+   * Return buffer into pool, it is just dropped if pool is full.
+   *
+   * @param buffer buffer to return
+   */
+  public void release(@NonNull final byte[] buffer) {
+    this.idle.offer(buffer);
+  }
+
+  public long getHits() {
+    return this.hits.get();
+  }
+
+  public long getAllocations() {
+    return this.allocations.get();
+  }
+
+  public long getAllocatedBytes() {
+    return this.allocatedBytes.get();
+  }
+
+  /**
+   * Part of requests served from the pool.
+   *
+   * @return value in 0..1
+   */
+  public double getHitRatio() {
+    final long hitCount = this.hits.get();
+    final long total = hitCount + this.allocations.get();
+    return total == 0L ? 0.0d : (double) hitCount / (double) total;
+  }
+
+  /**
+   * Average allocation rate since pool creation.
+   *
+   * @return bytes per second
+   */
+  public double getAllocationRate() {
+    final double seconds = Math.max(1L, System.nanoTime() - this.createdAt) / 1.0e9d;
+    return this.allocatedBytes.get() / seconds;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RgbFramePool(hits=%d, allocations=%d, allocated=%d bytes, hit ratio=%.3f, allocation rate=%.1f bytes/s)",
+            this.getHits(), this.getAllocations(), this.getAllocatedBytes(), this.getHitRatio(), this.getAllocationRate());
+  }
+}
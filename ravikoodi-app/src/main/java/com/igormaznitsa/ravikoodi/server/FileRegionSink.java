@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.function.LongConsumer;
+import org.springframework.lang.NonNull;
+
+/**
+ * Response body which can send a file region directly to the client socket
+ * without copying it through user space buffers.
+ */
+public interface FileRegionSink {
+
+  /**
+   * Queue region of file to be sent. If the method returns normally then the
+   * sink owns the channel, closes it when the region is sent or the connection
+   * is broken and calls the completion listener exactly once with number of
+   * actually sent bytes, the number is less than count if sending has been
+   * broken.
+   *
+   * @param channel file channel, must not be null
+   * @param position start position in the file
+   * @param count number of bytes to send
+   * @param onComplete listener to be called after end of sending, gets number of sent bytes
+   * @throws IOException if the region can't be queued, the channel stays owned by caller
+   */
+  void sendFileRegion(
+          @NonNull FileChannel channel,
+          long position,
+          long count,
+          @NonNull LongConsumer onComplete
+  ) throws IOException;
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import javax.net.ssl.SSLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Engine based on the embedded JDK HTTP server, the only one supports HTTPS.
+ */
+public final class JdkServerEngine implements ServerEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JdkServerEngine.class);
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Constructor.
+   *
+   * @param address address to bind
+   * @param backlog socket backlog
+   * @param sslContext SSL context to be used in HTTPS mode, null for HTTP
+   * @param executor executor to process requests, the engine becomes its owner and shuts it down on close
+   * @param rootHandler root handler for all requests
+   * @throws IOException if server can't be created
+   */
+  public JdkServerEngine(
+          @NonNull final InetSocketAddress address,
+          final int backlog,
+          @Nullable final SSLContext sslContext,
+          @NonNull final ExecutorService executor,
+          @NonNull final HttpHandler rootHandler
+  ) throws IOException {
+    this.executor = executor;
+    if (sslContext == null) {
+      this.server = HttpServer.create(address, backlog);
+    } else {
+      final HttpsServer sslServer = HttpsServer.create(address, backlog);
+      sslServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+      this.server = sslServer;
+    }
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/", rootHandler);
+  }
+
+  @Override
+  public void start() {
+    LOGGER.info("JDK server engine started on {}", this.server.getAddress());
+    this.server.start();
+  }
+
+  @Override
+  public void stop() {
+    try {
+      this.server.stop(1);
+    } catch (Exception ex) {
+      LOGGER.error("Error during server close", ex);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.stop();
+    this.executor.shutdownNow();
+  }
+
+  @Override
+  @NonNull
+  public String getHost() {
+    return this.server.getAddress().getHostString();
+  }
+
+  @Override
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import com.sun.net.httpserver.Headers;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+/**
+ * Single client connection of {@link NioServerEngine}. Reading, parsing and
+ * writing are made only by the selector thread, workers just put response
+ * parts into the outbound queue.
+ */
+final class NioConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NioConnection.class);
+
+  static final int MAX_REQUEST_HEADER_SIZE = 64 * 1024;
+  static final int MAX_REQUEST_BODY_SIZE = 1024 * 1024;
+  private static final int INITIAL_READ_BUFFER_SIZE = 8 * 1024;
+  private static final long MAX_QUEUED_BYTES = 512L * 1024L;
+
+  private static final Outbound END_OF_RESPONSE = new Outbound() {
+    @Override
+    public boolean writeTo(@NonNull final SocketChannel channel) {
+      return true;
+    }
+
+    @Override
+    public int memory() {
+      return 0;
+    }
+
+    @Override
+    public void release() {
+    }
+  };
+
+  private enum State {
+    READING,
+    PROCESSING
+  }
+
+  private final NioServerEngine engine;
+  private final SocketChannel channel;
+  private final InetSocketAddress localAddress;
+  private final InetSocketAddress remoteAddress;
+  private final Deque<Outbound> outbound = new ArrayDeque<>();
+
+  private SelectionKey key;
+  private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+  private State state = State.READING;
+  private long queuedBytes;
+  private boolean writeRequested;
+  private boolean continueSent;
+  private boolean errorResponseQueued;
+  private volatile boolean closeAfterResponse;
+  private volatile boolean closed;
+  private volatile long lastActivity = System.currentTimeMillis();
+
+  NioConnection(@NonNull final NioServerEngine engine, @NonNull final SocketChannel channel) throws IOException {
+    this.engine = engine;
+    this.channel = channel;
+    this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+    this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+  }
+
+  void setKey(@NonNull final SelectionKey key) {
+    this.key = key;
+  }
+
+  @NonNull
+  InetSocketAddress getLocalAddress() {
+    return this.localAddress;
+  }
+
+  @NonNull
+  InetSocketAddress getRemoteAddress() {
+    return this.remoteAddress;
+  }
+
+  boolean isClosed() {
+    return this.closed;
+  }
+
+  boolean isCloseAfterResponse() {
+    return this.closeAfterResponse;
+  }
+
+  void markCloseAfterResponse() {
+    this.closeAfterResponse = true;
+  }
+
+  void onReadable() throws IOException {
+    if (!this.readBuffer.hasRemaining()) {
+      if (this.readBuffer.capacity() >= MAX_REQUEST_HEADER_SIZE + MAX_REQUEST_BODY_SIZE) {
+        this.sendErrorAndClose(413);
+        return;
+      }
+      final ByteBuffer grown = ByteBuffer.allocate(Math.min(this.readBuffer.capacity() * 2, MAX_REQUEST_HEADER_SIZE + MAX_REQUEST_BODY_SIZE));
+      this.readBuffer.flip();
+      grown.put(this.readBuffer);
+      this.readBuffer = grown;
+    }
+    final int read = this.channel.read(this.readBuffer);
+    if (read < 0) {
+      this.close();
+    } else if (read > 0) {
+      this.lastActivity = System.currentTimeMillis();
+      this.tryParseRequest();
+    }
+  }
+
+  void onWritable() throws IOException {
+    while (true) {
+      final Outbound next;
+      synchronized (this) {
+        next = this.outbound.peekFirst();
+        if (next == null) {
+          this.writeRequested = false;
+          this.updateInterest();
+          return;
+        }
+      }
+      if (!next.writeTo(this.channel)) {
+        this.lastActivity = System.currentTimeMillis();
+        return;
+      }
+      this.lastActivity = System.currentTimeMillis();
+      synchronized (this) {
+        if (this.closed) {
+          return;
+        }
+        this.outbound.pollFirst();
+        this.queuedBytes -= next.memory();
+        this.notifyAll();
+      }
+      if (next == END_OF_RESPONSE) {
+        this.onResponseSent();
+        if (this.closed) {
+          return;
+        }
+      }
+    }
+  }
+
+  void closeIfIdle(final long now) {
+    final boolean idle;
+    synchronized (this) {
+      idle = this.state == State.READING && this.outbound.isEmpty();
+    }
+    if (idle && now - this.lastActivity > NioServerEngine.KEEP_ALIVE_TIMEOUT_MS) {
+      LOGGER.debug("Closing idle connection {}", this);
+      this.close();
+    }
+  }
+
+  void onExchangeCompleted() {
+    try {
+      this.enqueue(END_OF_RESPONSE);
+    } catch (IOException ex) {
+      LOGGER.debug("Connection closed before end of response: {}", this);
+    }
+  }
+
+  void sendErrorAndClose(final int status) {
+    synchronized (this) {
+      if (this.errorResponseQueued) {
+        return;
+      }
+      this.errorResponseQueued = true;
+      this.closeAfterResponse = true;
+      this.state = State.PROCESSING;
+    }
+    final String response = "HTTP/1.1 " + status + ' ' + NioHttpExchange.findReasonPhrase(status) + "\r\n"
+            + "Content-Length: 0\r\n"
+            + "Connection: close\r\n\r\n";
+    try {
+      this.enqueue(ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1)));
+      this.enqueue(END_OF_RESPONSE);
+    } catch (IOException ex) {
+      this.close();
+    }
+    this.updateInterest();
+  }
+
+  void enqueue(@NonNull final ByteBuffer buffer) throws IOException {
+    if (buffer.hasRemaining()) {
+      this.enqueue(new BufferOutbound(buffer));
+    }
+  }
+
+  void enqueue(@NonNull final FileChannel fileChannel, final long position, final long count, @NonNull final LongConsumer onComplete) throws IOException {
+    this.enqueue(new FileRegionOutbound(fileChannel, position, count, onComplete));
+  }
+
+  private void enqueue(@NonNull final Outbound item) throws IOException {
+    final boolean selectorThread = this.engine.isSelectorThread();
+    boolean scheduleWrite = false;
+    synchronized (this) {
+      while (!selectorThread && !this.closed && this.queuedBytes > MAX_QUEUED_BYTES) {
+        try {
+          this.wait(1000L);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted during wait for send", ex);
+        }
+      }
+      if (this.closed) {
+        throw new IOException("Connection closed");
+      }
+      this.outbound.addLast(item);
+      this.queuedBytes += item.memory();
+      if (!this.writeRequested) {
+        this.writeRequested = true;
+        scheduleWrite = true;
+      }
+    }
+    if (scheduleWrite) {
+      if (selectorThread) {
+        this.updateInterest();
+      } else {
+        this.engine.executeInSelector(this::updateInterest);
+      }
+    }
+  }
+
+  void close() {
+    final List<Outbound> toRelease;
+    synchronized (this) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      toRelease = new ArrayList<>(this.outbound);
+      this.outbound.clear();
+      this.queuedBytes = 0L;
+      this.notifyAll();
+    }
+    toRelease.forEach(Outbound::release);
+    if (this.key != null) {
+      this.key.cancel();
+    }
+    try {
+      this.channel.close();
+    } catch (IOException ex) {
+      LOGGER.debug("Error during channel close: {}", ex.getMessage());
+    }
+  }
+
+  private void updateInterest() {
+    if (this.closed || this.key == null || !this.key.isValid()) {
+      return;
+    }
+    int ops = 0;
+    synchronized (this) {
+      if (this.state == State.READING) {
+        ops |= SelectionKey.OP_READ;
+      }
+      if (!this.outbound.isEmpty()) {
+        ops |= SelectionKey.OP_WRITE;
+      }
+    }
+    this.key.interestOps(ops);
+  }
+
+  private void onResponseSent() throws IOException {
+    if (this.closeAfterResponse) {
+      this.close();
+    } else {
+      synchronized (this) {
+        this.state = State.READING;
+        this.continueSent = false;
+      }
+      this.updateInterest();
+      this.tryParseRequest();
+    }
+  }
+
+  private static int findHeaderEnd(@NonNull final ByteBuffer buffer, final int from, final int to) {
+    for (int i = from; i + 3 < to; i++) {
+      if (buffer.get(i) == '\r' && buffer.get(i + 1) == '\n' && buffer.get(i + 2) == '\r' && buffer.get(i + 3) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean hasToken(final String headerValue, final String token) {
+    if (headerValue == null) {
+      return false;
+    }
+    for (final String item : headerValue.split(",")) {
+      if (item.trim().equalsIgnoreCase(token)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void tryParseRequest() throws IOException {
+    synchronized (this) {
+      if (this.state != State.READING || this.closeAfterResponse) {
+        return;
+      }
+    }
+
+    final int filled = this.readBuffer.position();
+    int start = 0;
+    while (start < filled && (this.readBuffer.get(start) == '\r' || this.readBuffer.get(start) == '\n')) {
+      start++;
+    }
+
+    final int headerEnd = findHeaderEnd(this.readBuffer, start, filled);
+    if (headerEnd < 0) {
+      if (filled - start > MAX_REQUEST_HEADER_SIZE) {
+        this.sendErrorAndClose(431);
+      }
+      return;
+    }
+    if (headerEnd - start > MAX_REQUEST_HEADER_SIZE) {
+      this.sendErrorAndClose(431);
+      return;
+    }
+
+    final String head = new String(this.readBuffer.array(), start, headerEnd - start, StandardCharsets.ISO_8859_1);
+    final String[] lines = head.split("\r\n");
+    final String[] requestLine = lines[0].split(" ");
+    if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/")) {
+      this.sendErrorAndClose(400);
+      return;
+    }
+
+    final String method = requestLine[0];
+    final String protocol = requestLine[2];
+    final URI uri;
+    try {
+      uri = new URI(requestLine[1]);
+    } catch (URISyntaxException ex) {
+      this.sendErrorAndClose(400);
+      return;
+    }
+
+    final Headers headers = new Headers();
+    for (int i = 1; i < lines.length; i++) {
+      final String line = lines[i];
+      final int colon = line.indexOf(':');
+      if (colon <= 0 || Character.isWhitespace(line.charAt(0))) {
+        this.sendErrorAndClose(400);
+        return;
+      }
+      headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+    }
+
+    if (headers.containsKey("Transfer-Encoding")) {
+      this.sendErrorAndClose(501);
+      return;
+    }
+
+    long contentLength = 0L;
+    final String contentLengthText = headers.getFirst("Content-Length");
+    if (contentLengthText != null) {
+      try {
+        contentLength = Long.parseLong(contentLengthText.trim());
+      } catch (NumberFormatException ex) {
+        this.sendErrorAndClose(400);
+        return;
+      }
+      if (contentLength < 0L) {
+        this.sendErrorAndClose(400);
+        return;
+      }
+      if (contentLength > MAX_REQUEST_BODY_SIZE) {
+        this.sendErrorAndClose(413);
+        return;
+      }
+    }
+
+    final int bodyStart = headerEnd + 4;
+    if (filled - bodyStart < contentLength) {
+      if (!this.continueSent && hasToken(headers.getFirst("Expect"), "100-continue")) {
+        this.continueSent = true;
+        // interim response goes through outbound queue so that partial write is completed on OP_WRITE
+        this.enqueue(ByteBuffer.wrap("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)));
+      }
+      return;
+    }
+
+    final byte[] body = new byte[(int) contentLength];
+    this.readBuffer.get(bodyStart, body);
+    this.readBuffer.flip();
+    this.readBuffer.position(bodyStart + body.length);
+    this.readBuffer.compact();
+    if (this.readBuffer.position() == 0 && this.readBuffer.capacity() > INITIAL_READ_BUFFER_SIZE) {
+      this.readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+    }
+
+    final String connectionHeader = headers.getFirst("Connection");
+    final boolean keepAlive;
+    if ("HTTP/1.1".equals(protocol)) {
+      keepAlive = !hasToken(connectionHeader, "close");
+    } else {
+      keepAlive = hasToken(connectionHeader, "keep-alive");
+    }
+    if (!keepAlive) {
+      this.closeAfterResponse = true;
+    }
+
+    synchronized (this) {
+      this.state = State.PROCESSING;
+    }
+    this.updateInterest();
+    this.engine.dispatch(this, new NioHttpExchange(this, method.toUpperCase(Locale.ROOT), uri, protocol, headers, body));
+  }
+
+  @Override
+  public String toString() {
+    return "NioConnection(" + this.remoteAddress + ')';
+  }
+
+  private interface Outbound {
+
+    boolean writeTo(@NonNull SocketChannel channel) throws IOException;
+
+    int memory();
+
+    void release();
+  }
+
+  private static final class BufferOutbound implements Outbound {
+
+    private final ByteBuffer buffer;
+
+    BufferOutbound(@NonNull final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean writeTo(@NonNull final SocketChannel channel) throws IOException {
+      channel.write(this.buffer);
+      return !this.buffer.hasRemaining();
+    }
+
+    @Override
+    public int memory() {
+      return this.buffer.capacity();
+    }
+
+    @Override
+    public void release() {
+    }
+  }
+
+  private static final class FileRegionOutbound implements Outbound {
+
+    private final FileChannel fileChannel;
+    private final LongConsumer onComplete;
+    private final long count;
+    private long position;
+    private long remaining;
+    private boolean released;
+
+    FileRegionOutbound(@NonNull final FileChannel fileChannel, final long position, final long count, @NonNull final LongConsumer onComplete) {
+      this.fileChannel = fileChannel;
+      this.position = position;
+      this.count = count;
+      this.remaining = count;
+      this.onComplete = onComplete;
+    }
+
+    @Override
+    public boolean writeTo(@NonNull final SocketChannel channel) throws IOException {
+      try {
+        while (this.remaining > 0L) {
+          final long sent = this.fileChannel.transferTo(this.position, this.remaining, channel);
+          if (sent <= 0L) {
+            if (this.position >= this.fileChannel.size()) {
+              throw new IOException("File is shorter than expected, position " + this.position);
+            }
+            return false;
+          }
+          this.position += sent;
+          this.remaining -= sent;
+        }
+      } catch (IOException ex) {
+        this.release();
+        throw ex;
+      }
+      this.release();
+      return true;
+    }
+
+    @Override
+    public int memory() {
+      return 0;
+    }
+
+    @Override
+    public synchronized void release() {
+      if (!this.released) {
+        this.released = true;
+        try {
+          this.fileChannel.close();
+        } catch (IOException ex) {
+          LOGGER.debug("Error during file channel close: {}", ex.getMessage());
+        } finally {
+          this.onComplete.accept(this.count - this.remaining);
+        }
+      }
+    }
+  }
+}
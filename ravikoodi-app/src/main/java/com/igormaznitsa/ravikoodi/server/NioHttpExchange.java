@@ -0,0 +1,290 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+/**
+ * Exchange object provided by {@link NioServerEngine} to handlers, keeps
+ * contract of the JDK server so that the same handler can be used with both
+ * engines.
+ */
+final class NioHttpExchange extends HttpExchange {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NioHttpExchange.class);
+
+  private static final Map<Integer, String> REASON_PHRASES = Map.ofEntries(
+          Map.entry(100, "Continue"),
+          Map.entry(200, "OK"),
+          Map.entry(204, "No Content"),
+          Map.entry(206, "Partial Content"),
+          Map.entry(301, "Moved Permanently"),
+          Map.entry(302, "Found"),
+          Map.entry(304, "Not Modified"),
+          Map.entry(400, "Bad Request"),
+          Map.entry(403, "Forbidden"),
+          Map.entry(404, "Not Found"),
+          Map.entry(405, "Method Not Allowed"),
+          Map.entry(412, "Precondition Failed"),
+          Map.entry(413, "Content Too Large"),
+          Map.entry(416, "Range Not Satisfiable"),
+          Map.entry(431, "Request Header Fields Too Large"),
+          Map.entry(500, "Internal Server Error"),
+          Map.entry(501, "Not Implemented"),
+          Map.entry(503, "Service Unavailable")
+  );
+
+  private final NioConnection connection;
+  private final String method;
+  private final URI requestUri;
+  private final String protocol;
+  private final Headers requestHeaders;
+  private final Headers responseHeaders = new Headers();
+  private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+  private final NioResponseStream responseStream;
+  private InputStream requestBody;
+  private OutputStream responseBody;
+  private int responseCode = -1;
+  private boolean closed;
+
+  NioHttpExchange(
+          @NonNull final NioConnection connection,
+          @NonNull final String method,
+          @NonNull final URI requestUri,
+          @NonNull final String protocol,
+          @NonNull final Headers requestHeaders,
+          @NonNull final byte[] body
+  ) {
+    this.connection = connection;
+    this.method = method;
+    this.requestUri = requestUri;
+    this.protocol = protocol;
+    this.requestHeaders = requestHeaders;
+    this.requestBody = new ByteArrayInputStream(body);
+    this.responseStream = new NioResponseStream(connection);
+    this.responseBody = this.responseStream;
+  }
+
+  @NonNull
+  static String findReasonPhrase(final int status) {
+    return REASON_PHRASES.getOrDefault(status, "Status " + status);
+  }
+
+  @Override
+  public Headers getRequestHeaders() {
+    return this.requestHeaders;
+  }
+
+  @Override
+  public Headers getResponseHeaders() {
+    return this.responseHeaders;
+  }
+
+  @Override
+  public URI getRequestURI() {
+    return this.requestUri;
+  }
+
+  @Override
+  public String getRequestMethod() {
+    return this.method;
+  }
+
+  /**
+   * The engine has only root handler and doesn't provide contexts.
+   *
+   * @return null always
+   */
+  @Override
+  public HttpContext getHttpContext() {
+    return null;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      this.requestBody.close();
+    } catch (IOException ex) {
+      LOGGER.debug("Error during request body close: {}", ex.getMessage());
+    }
+    if (this.responseCode < 0) {
+      LOGGER.warn("Response headers have not been sent for {} {}", this.method, this.requestUri);
+      this.connection.markCloseAfterResponse();
+    }
+    try {
+      this.responseBody.close();
+    } catch (IOException ex) {
+      LOGGER.debug("Error during response body close: {}", ex.getMessage());
+      this.connection.markCloseAfterResponse();
+    }
+  }
+
+  /**
+   * Called if handler has thrown exception, sends error status if it is still
+   * possible else just forces connection close after response.
+   */
+  synchronized void abort() {
+    if (this.responseCode < 0 && !this.connection.isClosed()) {
+      try {
+        this.responseHeaders.clear();
+        this.connection.markCloseAfterResponse();
+        this.sendResponseHeaders(500, -1);
+      } catch (IOException ex) {
+        LOGGER.debug("Can't send error response: {}", ex.getMessage());
+      }
+    } else {
+      this.connection.markCloseAfterResponse();
+    }
+  }
+
+  @Override
+  public InputStream getRequestBody() {
+    return this.requestBody;
+  }
+
+  @Override
+  public OutputStream getResponseBody() {
+    return this.responseBody;
+  }
+
+  @Override
+  public synchronized void sendResponseHeaders(final int rCode, final long responseLength) throws IOException {
+    if (this.responseCode >= 0) {
+      throw new IOException("Headers already sent");
+    }
+
+    final boolean http11 = "HTTP/1.1".equals(this.protocol);
+    final boolean noBody = "HEAD".equals(this.method) || rCode < 200 || rCode == 204 || rCode == 304;
+
+    if (noBody) {
+      if (rCode < 200 || rCode == 204) {
+        this.responseHeaders.remove("Content-Length");
+      }
+      this.responseHeaders.remove("Transfer-Encoding");
+      this.responseStream.setNoBody();
+    } else if (responseLength > 0L) {
+      this.responseHeaders.remove("Transfer-Encoding");
+      this.responseHeaders.set("Content-Length", Long.toString(responseLength));
+      this.responseStream.setFixedLength(responseLength);
+    } else if (responseLength == 0L) {
+      this.responseHeaders.remove("Content-Length");
+      if (http11) {
+        this.responseHeaders.set("Transfer-Encoding", "chunked");
+        this.responseStream.setChunked();
+      } else {
+        this.responseHeaders.remove("Transfer-Encoding");
+        this.connection.markCloseAfterResponse();
+        this.responseStream.setRaw();
+      }
+    } else {
+      this.responseHeaders.remove("Transfer-Encoding");
+      this.responseHeaders.set("Content-Length", "0");
+      this.responseStream.setNoBody();
+    }
+
+    if (!this.responseHeaders.containsKey("Date")) {
+      this.responseHeaders.set("Date", DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+    }
+    if (this.connection.isCloseAfterResponse()) {
+      this.responseHeaders.set("Connection", "close");
+    }
+
+    final StringBuilder buffer = new StringBuilder(256);
+    buffer.append("HTTP/1.1 ").append(rCode).append(' ').append(findReasonPhrase(rCode)).append("\r\n");
+    for (final Map.Entry<String, List<String>> header : this.responseHeaders.entrySet()) {
+      for (final String value : header.getValue()) {
+        buffer.append(header.getKey()).append(": ").append(value == null ? "" : value).append("\r\n");
+      }
+    }
+    buffer.append("\r\n");
+
+    this.responseCode = rCode;
+    this.connection.enqueue(ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.ISO_8859_1)));
+  }
+
+  @Override
+  public InetSocketAddress getRemoteAddress() {
+    return this.connection.getRemoteAddress();
+  }
+
+  @Override
+  public int getResponseCode() {
+    return this.responseCode;
+  }
+
+  @Override
+  public InetSocketAddress getLocalAddress() {
+    return this.connection.getLocalAddress();
+  }
+
+  @Override
+  public String getProtocol() {
+    return this.protocol;
+  }
+
+  @Override
+  public Object getAttribute(final String name) {
+    return this.attributes.get(name);
+  }
+
+  @Override
+  public void setAttribute(final String name, final Object value) {
+    if (value == null) {
+      this.attributes.remove(name);
+    } else {
+      this.attributes.put(name, value);
+    }
+  }
+
+  @Override
+  public void setStreams(final InputStream i, final OutputStream o) {
+    if (i != null) {
+      this.requestBody = i;
+    }
+    if (o != null) {
+      this.responseBody = o;
+    }
+  }
+
+  @Override
+  public HttpPrincipal getPrincipal() {
+    return null;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import org.springframework.lang.NonNull;
+
+/**
+ * Response body stream of {@link NioServerEngine}, frames written data
+ * according to selected transfer mode and passes it to the connection.
+ */
+final class NioResponseStream extends OutputStream implements FileRegionSink {
+
+  private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
+  private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+  private enum Mode {
+    NOT_SENT,
+    NONE,
+    FIXED,
+    CHUNKED,
+    RAW
+  }
+
+  private final NioConnection connection;
+  private Mode mode = Mode.NOT_SENT;
+  private long remaining;
+  private boolean closed;
+
+  NioResponseStream(@NonNull final NioConnection connection) {
+    this.connection = connection;
+  }
+
+  void setNoBody() {
+    this.mode = Mode.NONE;
+  }
+
+  void setFixedLength(final long length) {
+    this.mode = Mode.FIXED;
+    this.remaining = length;
+  }
+
+  void setChunked() {
+    this.mode = Mode.CHUNKED;
+  }
+
+  void setRaw() {
+    this.mode = Mode.RAW;
+  }
+
+  private void assertCanWrite(final long length) throws IOException {
+    if (this.closed) {
+      throw new IOException("Stream closed");
+    }
+    switch (this.mode) {
+      case NOT_SENT:
+        throw new IOException("Response headers not sent");
+      case NONE: {
+        if (length > 0L) {
+          throw new IOException("Response must not have body");
+        }
+      }
+      break;
+      case FIXED: {
+        if (length > this.remaining) {
+          throw new IOException("Too many bytes to write, remaining " + this.remaining);
+        }
+      }
+      break;
+      default:
+        break;
+    }
+  }
+
+  @Override
+  public synchronized void write(final int b) throws IOException {
+    this.write(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public synchronized void write(@NonNull final byte[] data, final int off, final int len) throws IOException {
+    if ((off | len | (off + len) | (data.length - (off + len))) < 0) {
+      throw new IndexOutOfBoundsException();
+    }
+    this.assertCanWrite(len);
+    if (len == 0) {
+      return;
+    }
+    if (this.mode == Mode.CHUNKED) {
+      final byte[] header = (Integer.toHexString(len) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+      final ByteBuffer buffer = ByteBuffer.allocate(header.length + len + CRLF.length);
+      buffer.put(header).put(data, off, len).put(CRLF).flip();
+      this.connection.enqueue(buffer);
+    } else {
+      this.connection.enqueue(ByteBuffer.wrap(Arrays.copyOfRange(data, off, off + len)));
+      if (this.mode == Mode.FIXED) {
+        this.remaining -= len;
+      }
+    }
+  }
+
+  @Override
+  public synchronized void sendFileRegion(
+          @NonNull final FileChannel channel,
+          final long position,
+          final long count,
+          @NonNull final LongConsumer onComplete
+  ) throws IOException {
+    this.assertCanWrite(count);
+    if (count <= 0L) {
+      channel.close();
+      onComplete.accept(0L);
+      return;
+    }
+    if (this.mode == Mode.CHUNKED) {
+      this.connection.enqueue(ByteBuffer.wrap((Long.toHexString(count) + "\r\n").getBytes(StandardCharsets.ISO_8859_1)));
+      this.connection.enqueue(channel, position, count, onComplete);
+      this.connection.enqueue(ByteBuffer.wrap(CRLF));
+    } else {
+      this.connection.enqueue(channel, position, count, onComplete);
+      if (this.mode == Mode.FIXED) {
+        this.remaining -= count;
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    // all written data is already in the connection queue
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    if (this.mode == Mode.CHUNKED) {
+      this.connection.enqueue(ByteBuffer.wrap(LAST_CHUNK));
+    } else if (this.mode == Mode.FIXED && this.remaining > 0L) {
+      this.connection.markCloseAfterResponse();
+      throw new IOException("Insufficient bytes written to stream, remaining " + this.remaining);
+    }
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+
+/**
+ * HTTP/1.1 engine built on a single selector thread. Connections are
+ * multiplexed by the selector, parsed requests are processed by bounded pool
+ * of worker threads and file regions are sent by the selector thread through
+ * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * so that long media streams don't hold any worker thread.
+ */
+public final class NioServerEngine implements ServerEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NioServerEngine.class);
+
+  static final long KEEP_ALIVE_TIMEOUT_MS = 60000L;
+  private static final long SELECT_TIMEOUT_MS = 1000L;
+  private static final int MAX_QUEUED_REQUESTS = 256;
+
+  private final ServerSocketChannel serverChannel;
+  private final Selector selector;
+  private final HttpHandler handler;
+  private final ThreadPoolExecutor workers;
+  private final Thread selectorThread;
+  private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private final InetSocketAddress address;
+
+  public NioServerEngine(
+          @NonNull final InetSocketAddress address,
+          final int backlog,
+          final int workerThreads,
+          @NonNull final HttpHandler rootHandler
+  ) throws IOException {
+    this.handler = Objects.requireNonNull(rootHandler);
+    this.selector = Selector.open();
+    try {
+      this.serverChannel = ServerSocketChannel.open();
+      try {
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.socket().setReuseAddress(true);
+        this.serverChannel.bind(address, backlog);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+      } catch (IOException ex) {
+        this.serverChannel.close();
+        throw ex;
+      }
+    } catch (IOException ex) {
+      this.selector.close();
+      throw ex;
+    }
+    this.address = (InetSocketAddress) this.serverChannel.getLocalAddress();
+
+    final AtomicInteger workerCounter = new AtomicInteger();
+    final int threads = Math.max(1, workerThreads);
+    this.workers = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS),
+            r -> {
+              final Thread thread = new Thread(r, "nio-server-worker-" + this.address.getPort() + '-' + workerCounter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }
+    );
+    this.workers.allowCoreThreadTimeOut(true);
+
+    this.selectorThread = new Thread(this::selectLoop, "nio-server-selector-" + this.address.getPort());
+    this.selectorThread.setDaemon(true);
+  }
+
+  @Override
+  public void start() {
+    if (this.closed.get()) {
+      throw new IllegalStateException("Already closed");
+    }
+    if (this.started.compareAndSet(false, true)) {
+      LOGGER.info("NIO server engine started on {}, worker threads {}", this.address, this.workers.getMaximumPoolSize());
+      this.selectorThread.start();
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (this.closed.compareAndSet(false, true)) {
+      this.selector.wakeup();
+      if (this.started.get() && Thread.currentThread() != this.selectorThread) {
+        try {
+          this.selectorThread.join(1000L);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (!this.started.get()) {
+        this.closeChannels();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    this.stop();
+    this.workers.shutdownNow();
+  }
+
+  @Override
+  @NonNull
+  public String getHost() {
+    return this.address.getHostString();
+  }
+
+  @Override
+  public int getPort() {
+    return this.address.getPort();
+  }
+
+  void executeInSelector(@NonNull final Runnable task) {
+    this.selectorTasks.add(task);
+    this.selector.wakeup();
+  }
+
+  boolean isSelectorThread() {
+    return Thread.currentThread() == this.selectorThread;
+  }
+
+  void dispatch(@NonNull final NioConnection connection, @NonNull final NioHttpExchange exchange) {
+    try {
+      this.workers.execute(() -> {
+        try {
+          this.handler.handle(exchange);
+        } catch (Throwable ex) {
+          LOGGER.error("Error during request processing: {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), ex);
+          exchange.abort();
+        } finally {
+          exchange.close();
+          connection.onExchangeCompleted();
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      LOGGER.warn("Too many queued requests, rejecting {} {}", exchange.getRequestMethod(), exchange.getRequestURI());
+      connection.sendErrorAndClose(503);
+    }
+  }
+
+  private void selectLoop() {
+    long nextIdleCheck = System.currentTimeMillis() + SELECT_TIMEOUT_MS;
+    try {
+      while (!this.closed.get() && !Thread.currentThread().isInterrupted()) {
+        this.selector.select(SELECT_TIMEOUT_MS);
+
+        Runnable task;
+        while ((task = this.selectorTasks.poll()) != null) {
+          try {
+            task.run();
+          } catch (RuntimeException ex) {
+            LOGGER.error("Error in selector task", ex);
+          }
+        }
+
+        final Iterator<SelectionKey> iterator = this.selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+          final SelectionKey key = iterator.next();
+          iterator.remove();
+          if (key.isValid()) {
+            if (key.isAcceptable()) {
+              this.accept();
+            } else {
+              final NioConnection connection = (NioConnection) key.attachment();
+              try {
+                if (key.isReadable()) {
+                  connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                  connection.onWritable();
+                }
+              } catch (IOException | RuntimeException ex) {
+                LOGGER.debug("Closing connection {} for error: {}", connection, ex.getMessage());
+                connection.close();
+              }
+            }
+          }
+        }
+
+        final long now = System.currentTimeMillis();
+        if (now >= nextIdleCheck) {
+          nextIdleCheck = now + SELECT_TIMEOUT_MS;
+          for (final SelectionKey key : this.selector.keys()) {
+            if (key.attachment() instanceof NioConnection) {
+              ((NioConnection) key.attachment()).closeIfIdle(now);
+            }
+          }
+        }
+      }
+    } catch (IOException | RuntimeException ex) {
+      if (!this.closed.get()) {
+        LOGGER.error("Error in selector loop", ex);
+      }
+    } finally {
+      this.closeChannels();
+      LOGGER.info("NIO server engine selector loop completed: {}", this.address);
+    }
+  }
+
+  private void accept() {
+    try {
+      SocketChannel channel;
+      while ((channel = this.serverChannel.accept()) != null) {
+        try {
+          channel.configureBlocking(false);
+          channel.socket().setTcpNoDelay(true);
+          final NioConnection connection = new NioConnection(this, channel);
+          connection.setKey(channel.register(this.selector, SelectionKey.OP_READ, connection));
+          LOGGER.debug("Accepted connection {}", connection);
+        } catch (IOException ex) {
+          LOGGER.warn("Can't register incoming connection: {}", ex.getMessage());
+          channel.close();
+        }
+      }
+    } catch (IOException ex) {
+      LOGGER.error("Error during accept", ex);
+    }
+  }
+
+  private void closeChannels() {
+    final List<NioConnection> connections = new ArrayList<>();
+    if (this.selector.isOpen()) {
+      try {
+        for (final SelectionKey key : this.selector.keys()) {
+          if (key.attachment() instanceof NioConnection) {
+            connections.add((NioConnection) key.attachment());
+          }
+        }
+      } catch (RuntimeException ex) {
+        LOGGER.debug("Can't collect connections: {}", ex.getMessage());
+      }
+    }
+    connections.forEach(NioConnection::close);
+    try {
+      this.serverChannel.close();
+    } catch (IOException ex) {
+      LOGGER.debug("Error during server channel close: {}", ex.getMessage());
+    }
+    try {
+      this.selector.close();
+    } catch (IOException ex) {
+      LOGGER.debug("Error during selector close: {}", ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.server;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * HTTP engine which accepts connections and routes requests to the root handler.
+ */
+public interface ServerEngine {
+
+  void start();
+
+  void stop();
+
+  void close();
+
+  @NonNull
+  String getHost();
+
+  int getPort();
+}
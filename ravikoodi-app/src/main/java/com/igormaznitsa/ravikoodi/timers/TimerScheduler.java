@@ -17,6 +17,7 @@ package com.igormaznitsa.ravikoodi.timers;
 
 import com.igormaznitsa.ravikoodi.ApplicationPreferences;
 import com.igormaznitsa.ravikoodi.GuiMessager;
+import com.igormaznitsa.ravikoodi.Config;
 import com.igormaznitsa.ravikoodi.KodiComm;
 import com.igormaznitsa.ravikoodi.prefs.TimerResource;
 import com.igormaznitsa.ravikoodi.UploadingFileRegistry;
@@ -34,6 +35,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -44,6 +46,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
@@ -55,6 +58,7 @@ public class TimerScheduler {
     private static final Logger LOGGER = LoggerFactory.getLogger(TimerScheduler.class);
 
     private final ScheduledExecutorService executor;
+    private final ExecutorService taskExecutor;
     private final ApplicationPreferences preferences;
     private final List<ScheduledTimer> timers = new ArrayList<>();
     private final KodiComm kodiComm;
@@ -67,11 +71,13 @@ public class TimerScheduler {
         @NonNull final GuiMessager guiMessager,
         @NonNull final KodiComm kodiComm,
         @NonNull final ScheduledExecutorService executor,
+        @NonNull @Qualifier(Config.TASK_EXECUTOR) final ExecutorService taskExecutor,
         @NonNull final ApplicationPreferences preferences
     ) {
         this.fileRegistry = fileRegistry;
         this.guiMessager = guiMessager;
         this.executor = executor;
+        this.taskExecutor = taskExecutor;
         this.preferences = preferences;
         this.kodiComm = kodiComm;
     }
@@ -94,7 +100,8 @@ public class TimerScheduler {
                         this.kodiComm,
                         String.format("Timer#%d[%s]", counter.getAndIncrement(), x.getName()),
                         x,
-                        this.executor)
+                        this.executor,
+                        this.taskExecutor)
                 )
                 .collect(Collectors.toList()));
 
@@ -122,6 +129,7 @@ public class TimerScheduler {
         private final File resource;
         private final KodiComm kodiComm;
         private final ScheduledExecutorService executorService;
+        private final ExecutorService taskExecutor;
         private final TimerResource timer;
         private final AtomicReference<ScheduledFuture<?>> scheduledFutureRef = new AtomicReference<>();
         private final AtomicReference<String> lastUuid = new AtomicReference<>();
@@ -134,7 +142,8 @@ public class TimerScheduler {
             @NonNull final KodiComm kodiComm,
             @NonNull final String id,
             @NonNull final TimerResource timer,
-            @NonNull final ScheduledExecutorService executorService
+            @NonNull final ScheduledExecutorService executorService,
+            @NonNull final ExecutorService taskExecutor
         ) {
             this.fileRegistry = fileRegistry;
             this.guiMessager = guiMessager;
@@ -142,6 +151,7 @@ public class TimerScheduler {
             this.id = id;
             this.timer = timer;
             this.executorService = executorService;
+            this.taskExecutor = taskExecutor;
             this.resource = timer.getResourcePath();
         }
 
@@ -183,7 +193,7 @@ public class TimerScheduler {
 
             consumerOfCalculatedTime.accept(scheduledTime);
             return this.executorService.schedule(
-                call,
+                () -> this.taskExecutor.execute(call),
                 LocalDateTime.now().until(scheduledTime, ChronoUnit.SECONDS),
                 TimeUnit.SECONDS
             );
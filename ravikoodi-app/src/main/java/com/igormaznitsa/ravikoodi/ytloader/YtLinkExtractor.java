@@ -23,15 +23,17 @@ import com.github.kiulian.downloader.downloader.request.RequestVideoInfo;
 import com.github.kiulian.downloader.model.playlist.PlaylistInfo;
 import com.github.kiulian.downloader.model.videos.VideoInfo;
 import com.github.kiulian.downloader.model.videos.formats.VideoFormat;
+import com.igormaznitsa.ravikoodi.Config;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.util.TriConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
@@ -64,10 +66,10 @@ public class YtLinkExtractor {
         return found == null ? Optional.empty() : Optional.of(Pair.of(found, foundQuality));
     }
 
-    final ScheduledExecutorService executor;
+    final ExecutorService executor;
     final YoutubeDownloader youtubeDownloader;
 
-    public YtLinkExtractor(@NonNull final ScheduledExecutorService executor) {
+    public YtLinkExtractor(@NonNull @Qualifier(Config.TASK_EXECUTOR) final ExecutorService executor) {
         this.executor = executor;
         this.youtubeDownloader = new YoutubeDownloader();
         this.youtubeDownloader.getConfig().setExecutorService(this.executor);
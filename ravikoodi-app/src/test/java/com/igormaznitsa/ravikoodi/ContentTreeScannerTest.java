@@ -0,0 +1,213 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContentTreeScannerTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private ExecutorService executor;
+  private ExecutorService uiExecutor;
+  private ContentTreeScanner scanner;
+
+  @Before
+  public void before() {
+    this.executor = Executors.newFixedThreadPool(2);
+    this.uiExecutor = Executors.newSingleThreadExecutor();
+    this.scanner = new ContentTreeScanner(this.executor, this.uiExecutor, new MediaIndex(null, null, null), new FileNameSearchIndex());
+  }
+
+  @After
+  public void after() {
+    this.executor.shutdownNow();
+    this.uiExecutor.shutdownNow();
+  }
+
+  private static List<String> names(final List<ContentTreeItem> items) {
+    return items.stream().map(ContentTreeItem::getFileNameAsString).collect(Collectors.toList());
+  }
+
+  @Test(timeout = 10000L)
+  public void testLoadFolderByChunks() throws Exception {
+    final File root = this.tempFolder.newFolder("root");
+    final File sub = new File(root, "sub");
+    assertTrue(sub.mkdir());
+    assertTrue(new File(sub, "inner.mp4").createNewFile());
+    final int files = ContentTreeScanner.CHUNK_SIZE * 2 + 3;
+    for (int i = 0; i < files; i++) {
+      assertTrue(new File(root, String.format("file%03d.mp4", i)).createNewFile());
+    }
+    assertTrue(new File(root, "unknown.qqq").createNewFile());
+
+    final AtomicInteger chunks = new AtomicInteger();
+    final CountDownLatch loaded = new CountDownLatch(1);
+
+    final ContentTreeScanner.Sink sink = new ContentTreeScanner.Sink() {
+      @Override
+      public void onFolderItems(final ContentFolder folder, final List<ContentTreeItem> items) {
+        chunks.incrementAndGet();
+        items.forEach(folder::addSorted);
+      }
+
+      @Override
+      public void onFolderLoaded(final ContentFolder folder) {
+        loaded.countDown();
+      }
+    };
+
+    final ContentTreeScanner.Session session = this.scanner.startSession(root.toPath(), sink);
+    final ContentFolder rootFolder = session.getRoot();
+    assertTrue(this.scanner.load(session, rootFolder));
+    assertFalse(this.scanner.load(session, rootFolder));
+    assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+    assertTrue(rootFolder.isLoaded());
+    assertEquals(3, chunks.get());
+    assertEquals(files + 1, rootFolder.getFiles().size());
+
+    final ContentTreeItem first = rootFolder.getFiles().get(0);
+    assertTrue(first instanceof ContentFolder);
+    assertEquals("sub", first.getFileNameAsString());
+    assertSame(rootFolder, ((ContentFolder) first).getParent());
+    assertEquals(ContentFolder.State.NOT_LOADED, ((ContentFolder) first).getState());
+    assertTrue(((ContentFolder) first).getFiles().isEmpty());
+
+    final List<String> expected = new ArrayList<>(names(rootFolder.getFiles()));
+    expected.sort(String::compareTo);
+    expected.remove("sub");
+    expected.add(0, "sub");
+    assertEquals(expected, names(rootFolder.getFiles()));
+  }
+
+  @Test(timeout = 10000L)
+  public void testCancelledSessionDropsResults() throws Exception {
+    final File root = this.tempFolder.newFolder("root");
+    assertTrue(new File(root, "file.mp4").createNewFile());
+
+    final AtomicInteger calls = new AtomicInteger();
+    final ContentTreeScanner.Session session = this.scanner.startSession(root.toPath(), (folder, items) -> calls.incrementAndGet());
+    session.cancel();
+    assertFalse(this.scanner.load(session, session.getRoot()));
+
+    this.executor.shutdown();
+    assertTrue(this.executor.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(0, calls.get());
+    assertTrue(session.getRoot().getFiles().isEmpty());
+  }
+
+  @Test(timeout = 10000L)
+  public void testIndexedFolderAndChanges() throws Exception {
+    final File root = this.tempFolder.newFolder("root");
+    assertTrue(new File(root, "file.mp4").createNewFile());
+
+    final MediaIndex index = new MediaIndex(null, null, null);
+    final FileNameSearchIndex searchIndex = new FileNameSearchIndex();
+    final ContentTreeScanner indexedScanner = new ContentTreeScanner(this.executor, this.uiExecutor, index, searchIndex);
+    final CountDownLatch loaded = new CountDownLatch(2);
+    final List<String> changes = new CopyOnWriteArrayList<>();
+    final ContentTreeScanner.Sink sink = new ContentTreeScanner.Sink() {
+      @Override
+      public void onFolderItems(final ContentFolder folder, final List<ContentTreeItem> items) {
+        items.forEach(folder::addSorted);
+      }
+
+      @Override
+      public void onFolderLoaded(final ContentFolder folder) {
+        loaded.countDown();
+      }
+
+      @Override
+      public void onFolderItemChanged(final ContentFolder folder, final String name, final ContentTreeItem item) {
+        changes.add(name + '=' + (item != null));
+      }
+    };
+
+    final ContentTreeScanner.Session first = indexedScanner.startSession(root.toPath(), sink);
+    assertTrue(indexedScanner.load(first, first.getRoot()));
+    while (!first.getRoot().isLoaded()) {
+      Thread.sleep(10L);
+    }
+    assertEquals(0L, index.getHits());
+    first.cancel();
+
+    final ContentTreeScanner.Session second = indexedScanner.startSession(root.toPath(), sink);
+    assertTrue(indexedScanner.load(second, second.getRoot()));
+    assertTrue(loaded.await(5, TimeUnit.SECONDS));
+    assertEquals(1L, index.getHits());
+    assertEquals(List.of("file.mp4"), names(second.getRoot().getFiles()));
+
+    assertTrue(new File(root, "new.mp4").createNewFile());
+    index.refreshEntry(root.toPath(), "new.mp4");
+    this.uiExecutor.submit(() -> {}).get();
+    assertEquals(List.of("new.mp4=true"), changes);
+    assertEquals(2, searchIndex.size());
+    assertEquals(1, searchIndex.search("new", null, 10).size());
+  }
+
+  @Test(timeout = 10000L)
+  public void testIndexingOfNotExpandedFolders() throws Exception {
+    final File root = this.tempFolder.newFolder("root");
+    final File deep = new File(root, "a/b/c");
+    assertTrue(deep.mkdirs());
+    assertTrue(new File(deep, "deep.mp4").createNewFile());
+    assertTrue(new File(root, "a/middle.mp3").createNewFile());
+    assertTrue(new File(root, "top.mp4").createNewFile());
+
+    final MediaIndex index = new MediaIndex(null, null, null);
+    final FileNameSearchIndex searchIndex = new FileNameSearchIndex();
+    final ContentTreeScanner indexedScanner = new ContentTreeScanner(this.executor, this.uiExecutor, index, searchIndex);
+    final CountDownLatch indexed = new CountDownLatch(1);
+    final ContentTreeScanner.Session session = indexedScanner.startSession(root.toPath(), new ContentTreeScanner.Sink() {
+      @Override
+      public void onFolderItems(final ContentFolder folder, final List<ContentTreeItem> items) {
+      }
+
+      @Override
+      public void onTreeIndexed(final ContentFolder rootFolder) {
+        indexed.countDown();
+      }
+    });
+    assertTrue(indexedScanner.startIndexing(session));
+    assertFalse(indexedScanner.startIndexing(session));
+    assertTrue(indexed.await(5, TimeUnit.SECONDS));
+
+    assertFalse(session.isIndexing());
+    assertEquals(3, searchIndex.size());
+    assertEquals(4, index.size());
+    final List<ContentFile> found = searchIndex.search("deep", null, 10);
+    assertEquals(1, found.size());
+    assertEquals(new File(deep, "deep.mp4").toPath().toAbsolutePath().normalize(), found.get(0).getFilePath());
+    assertTrue(session.getRoot().getFiles().isEmpty());
+  }
+
+  @Test
+  public void testMakeItem() throws Exception {
+    final Path root = this.tempFolder.newFolder("root").toPath();
+    final ContentFolder parent = new ContentFolder(root);
+    assertNull(MediaIndex.makeEntry(Files.createFile(root.resolve("text.qqq"))));
+    final ContentTreeItem file = ContentTreeScanner.makeItem(parent, MediaIndex.makeEntry(Files.createFile(root.resolve("movie.mp4"))));
+    assertTrue(file instanceof ContentFile);
+    assertEquals(root.resolve("movie.mp4"), ((ContentFile) file).getFilePath());
+    assertEquals(MimeTypes.ContentType.VIDEO, ((ContentFile) file).getContentType());
+    assertTrue(ContentTreeScanner.makeItem(parent, MediaIndex.makeEntry(Files.createDirectory(root.resolve("folder.mp4")))) instanceof ContentFolder);
+  }
+}
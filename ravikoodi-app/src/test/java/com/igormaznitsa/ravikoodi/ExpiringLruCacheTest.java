@@ -0,0 +1,46 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ExpiringLruCacheTest {
+
+  @Test
+  public void testLruEviction() {
+    final ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 1000L, () -> 0L);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    assertEquals("A", cache.get("a"));
+    cache.put("c", "C");
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals("A", cache.remove("a"));
+    assertNull(cache.remove("a"));
+    assertEquals("C", cache.get("c"));
+    assertEquals(1L, cache.getEvictions());
+    assertEquals(3L, cache.getHits());
+    assertEquals(2L, cache.getMisses());
+  }
+
+  @Test
+  public void testExpiration() {
+    final AtomicLong time = new AtomicLong();
+    final ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 1000L, time::get);
+    cache.put("a", "A");
+    time.set(500L);
+    cache.put("b", "B");
+    time.set(1000L);
+    assertNull(cache.get("a"));
+    assertEquals("B", cache.get("b"));
+    assertEquals(1L, cache.getExpirations());
+
+    cache.put("c", "C");
+    time.set(1600L);
+    cache.purgeExpired();
+    assertEquals(1, cache.size());
+    assertEquals("C", cache.remove("c"));
+    assertEquals(2L, cache.getExpirations());
+  }
+}
@@ -0,0 +1,121 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileBlockCacheTest {
+
+  private static final int BLOCK = 1024;
+
+  private Path file;
+  private byte[] content;
+
+  @Before
+  public void before() throws Exception {
+    this.file = Files.createTempFile("blockcache", ".bin");
+    this.content = new byte[(int) (FileBlockCache.MAX_CACHED_RANGE_LENGTH * 3)];
+    new Random(12345L).nextBytes(this.content);
+    Files.write(this.file, this.content);
+  }
+
+  @After
+  public void after() throws Exception {
+    Files.deleteIfExists(this.file);
+  }
+
+  private byte[] send(final FileBlockCache cache, final long lastModified, final String header) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertTrue(cache.send(this.file, this.content.length, lastModified, new HttpRange(header, this.content.length), out));
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testHeadAndTailServedFromCache() throws Exception {
+    final FileBlockCache cache = new FileBlockCache(BLOCK);
+    cache.setBudget(64L * BLOCK);
+
+    assertArrayEquals(Arrays.copyOfRange(this.content, 100, 3000), send(cache, 1L, "bytes=100-2999"));
+    assertEquals(0L, cache.getHits());
+    assertEquals(3L, cache.getMisses());
+
+    assertArrayEquals(Arrays.copyOfRange(this.content, 0, 2048), send(cache, 1L, "bytes=0-2047"));
+    assertEquals(2L, cache.getHits());
+    assertEquals(3L, cache.getMisses());
+
+    final int tail = this.content.length - 10;
+    assertArrayEquals(Arrays.copyOfRange(this.content, tail, this.content.length), send(cache, 1L, "bytes=" + tail + "-"));
+    assertArrayEquals(Arrays.copyOfRange(this.content, tail, this.content.length), send(cache, 1L, "bytes=" + tail + "-"));
+    assertEquals(3L, cache.getHits());
+    assertEquals(4, cache.size());
+  }
+
+  @Test
+  public void testLongMiddleRangeIsNotCached() throws Exception {
+    final FileBlockCache cache = new FileBlockCache(BLOCK);
+    cache.setBudget(64L * BLOCK);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertFalse(cache.send(this.file, this.content.length, 1L, new HttpRange(null, this.content.length), out));
+    assertEquals(0, out.size());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testDisabledCache() throws Exception {
+    final FileBlockCache cache = new FileBlockCache(BLOCK);
+    cache.setBudget(0L);
+    assertFalse(cache.send(this.file, this.content.length, 1L, new HttpRange("bytes=0-10", this.content.length), new ByteArrayOutputStream()));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() throws Exception {
+    final FileBlockCache cache = new FileBlockCache(BLOCK);
+    cache.setBudget(2L * BLOCK);
+
+    send(cache, 1L, "bytes=0-10");
+    send(cache, 1L, "bytes=1024-1034");
+    send(cache, 1L, "bytes=0-10");
+    assertArrayEquals(Arrays.copyOfRange(this.content, 2048, 2059), send(cache, 1L, "bytes=2048-2058"));
+    assertEquals(2, cache.size());
+    assertEquals(1L, cache.getEvictions());
+
+    final long hits = cache.getHits();
+    send(cache, 1L, "bytes=0-10");
+    assertEquals(hits + 1L, cache.getHits());
+    send(cache, 1L, "bytes=1024-1034");
+    assertEquals(hits + 1L, cache.getHits());
+  }
+
+  @Test
+  public void testChangedFileIsNotServedFromCache() throws Exception {
+    final FileBlockCache cache = new FileBlockCache(BLOCK);
+    cache.setBudget(8L * BLOCK);
+
+    assertArrayEquals(Arrays.copyOfRange(this.content, 0, 100), send(cache, 1L, "bytes=0-99"));
+
+    this.content[5] = (byte) (this.content[5] + 1);
+    Files.write(this.file, this.content);
+
+    assertArrayEquals(Arrays.copyOfRange(this.content, 0, 100), send(cache, 2L, "bytes=0-99"));
+    assertEquals(0L, cache.getHits());
+  }
+
+  @Test
+  public void testBudgetDecreaseEvictsBlocks() throws Exception {
+    final FileBlockCache cache = new FileBlockCache(BLOCK);
+    cache.setBudget(8L * BLOCK);
+    send(cache, 1L, "bytes=0-8191");
+    assertEquals(8, cache.size());
+    cache.setBudget(3L * BLOCK);
+    assertEquals(3, cache.size());
+    assertArrayEquals(Arrays.copyOfRange(this.content, 0, 8192), send(cache, 1L, "bytes=0-8191"));
+    assertEquals(3, cache.size());
+  }
+}
@@ -0,0 +1,89 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class FileNameSearchIndexTest {
+
+  private static final Path ROOT = Paths.get("/media").toAbsolutePath();
+
+  private static MediaIndex.Entry file(final String name, final MimeTypes.ContentType type) {
+    return new MediaIndex.Entry(name, false, 1L, 1L, type);
+  }
+
+  private static MediaIndex.Entry folder(final String name) {
+    return new MediaIndex.Entry(name, true, 0L, 1L, MimeTypes.ContentType.UNKNOWN);
+  }
+
+  private static List<String> names(final List<ContentFile> files) {
+    return files.stream().map(ContentFile::getFileNameAsString).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testSearch() {
+    final FileNameSearchIndex index = new FileNameSearchIndex();
+    index.reset(ROOT);
+    index.putFolder(ROOT, List.of(
+            file("Movie One.mp4", MimeTypes.ContentType.VIDEO),
+            file("movie two.avi", MimeTypes.ContentType.VIDEO),
+            file("Song.mp3", MimeTypes.ContentType.AUDIO),
+            folder("movies")));
+
+    assertEquals(List.of("Movie One.mp4", "movie two.avi"), names(index.search("MOVIE", null, 10)));
+    assertEquals(List.of("Movie One.mp4"), names(index.search("e on", null, 10)));
+    assertEquals(List.of("Song.mp3"), names(index.search("mp", MimeTypes.ContentType.AUDIO, 10)));
+    assertEquals(List.of("Song.mp3"), names(index.search(".mp3", null, 10)));
+    assertTrue(index.search("xyz", null, 10).isEmpty());
+    assertTrue(index.search("  ", null, 10).isEmpty());
+    assertEquals(1, index.search("movie", null, 1).size());
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  public void testIncrementalUpdates() {
+    final FileNameSearchIndex index = new FileNameSearchIndex();
+    index.reset(ROOT);
+    final Path sub = ROOT.resolve("sub");
+    index.putFolder(ROOT, List.of(file("root.mp4", MimeTypes.ContentType.VIDEO), folder("sub")));
+    index.putFolder(sub, List.of(file("inner.mp4", MimeTypes.ContentType.VIDEO)));
+    assertEquals(2, index.size());
+
+    index.putEntry(sub, "added.mp4", file("added.mp4", MimeTypes.ContentType.VIDEO));
+    index.putEntry(ROOT, "root.mp4", null);
+    index.putEntry(ROOT.resolve("unknown"), "skipped.mp4", file("skipped.mp4", MimeTypes.ContentType.VIDEO));
+    assertEquals(List.of("added.mp4", "inner.mp4"), names(index.search(".mp4", null, 10)));
+
+    index.putFolder(ROOT, List.of(file("root2.mp4", MimeTypes.ContentType.VIDEO)));
+    assertFalse(index.hasFolder(sub));
+    assertEquals(List.of("root2.mp4"), names(index.search(".mp4", null, 10)));
+  }
+
+  @Test
+  public void testLargeIndexWithCompaction() {
+    final FileNameSearchIndex index = new FileNameSearchIndex();
+    index.reset(ROOT);
+    for (int f = 0; f < 100; f++) {
+      final List<MediaIndex.Entry> entries = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        entries.add(file(String.format("file_%03d_%04d.mkv", f, i), MimeTypes.ContentType.VIDEO));
+      }
+      index.putFolder(ROOT.resolve("folder" + f), entries);
+    }
+    assertEquals(100000, index.size());
+    assertEquals(List.of("file_042_0777.mkv"), names(index.search("042_0777", null, 10)));
+    assertEquals(100, index.search("_0777.", null, 1000).size());
+
+    for (int f = 0; f < 100; f += 2) {
+      index.putFolder(ROOT.resolve("folder" + f), List.of());
+    }
+    assertEquals(50000, index.size());
+    assertTrue(index.search("042_0777", null, 10).isEmpty());
+    assertEquals(50, index.search("_0777.", null, 1000).size());
+  }
+}
@@ -0,0 +1,113 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GzipContentCacheTest {
+
+  private Path file;
+
+  @Before
+  public void before() throws Exception {
+    this.file = Files.createTempFile("gzipcache", ".srt");
+  }
+
+  @After
+  public void after() throws Exception {
+    Files.deleteIfExists(this.file);
+  }
+
+  private static String makeSubtitles() {
+    final StringBuilder buffer = new StringBuilder();
+    for (int i = 1; i <= 200; i++) {
+      buffer.append(i).append("\n00:00:01,000 --> 00:00:02,000\nSome subtitle text line\n\n");
+    }
+    return buffer.toString();
+  }
+
+  private static byte[] decompress(final byte[] data) throws Exception {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      return in.readAllBytes();
+    }
+  }
+
+  @Test
+  public void testIsGzipAccepted() {
+    assertFalse(GzipContentCache.isGzipAccepted(null));
+    assertFalse(GzipContentCache.isGzipAccepted(""));
+    assertFalse(GzipContentCache.isGzipAccepted("deflate, br"));
+    assertTrue(GzipContentCache.isGzipAccepted("gzip"));
+    assertTrue(GzipContentCache.isGzipAccepted("deflate, GZIP;q=0.5"));
+    assertFalse(GzipContentCache.isGzipAccepted("gzip;q=0"));
+    assertTrue(GzipContentCache.isGzipAccepted("*"));
+    assertFalse(GzipContentCache.isGzipAccepted("*;q=0"));
+    assertFalse(GzipContentCache.isGzipAccepted("gzip;q=0, *"));
+  }
+
+  @Test
+  public void testCompressRoundTrip() throws Exception {
+    final byte[] data = makeSubtitles().getBytes(StandardCharsets.UTF_8);
+    final byte[] compressed = GzipContentCache.compress(data);
+    assertTrue(compressed.length < data.length);
+    assertArrayEquals(data, decompress(compressed));
+  }
+
+  @Test
+  public void testFindCachesVariant() throws Exception {
+    final byte[] data = makeSubtitles().getBytes(StandardCharsets.UTF_8);
+    Files.write(this.file, data);
+    final GzipContentCache cache = new GzipContentCache(1024L * 1024L);
+    final long modified = Files.getLastModifiedTime(this.file).toMillis();
+
+    final byte[] first = cache.find(this.file, data.length, modified);
+    assertNotNull(first);
+    assertArrayEquals(data, decompress(first));
+    assertSame(first, cache.find(this.file, data.length, modified));
+    assertEquals(1L, cache.getCompressions());
+    assertEquals(1L, cache.getHits());
+    assertEquals(first.length, cache.getCachedBytes());
+
+    Files.setLastModifiedTime(this.file, FileTime.fromMillis(modified + 5000L));
+    assertNotNull(cache.find(this.file, data.length, modified + 5000L));
+    assertEquals(2L, cache.getCompressions());
+
+    cache.clear();
+    assertEquals(0L, cache.getCachedBytes());
+  }
+
+  @Test
+  public void testFindIgnoresIncompressibleAndOversized() throws Exception {
+    final byte[] data = new byte[64 * 1024];
+    new Random(777L).nextBytes(data);
+    Files.write(this.file, data);
+    final GzipContentCache cache = new GzipContentCache(1024L * 1024L);
+    final long modified = Files.getLastModifiedTime(this.file).toMillis();
+
+    assertNull(cache.find(this.file, data.length, modified));
+    assertNull(cache.find(this.file, data.length, modified));
+    assertEquals(1L, cache.getCompressions());
+
+    assertNull(cache.find(this.file, GzipContentCache.MAX_SOURCE_SIZE + 1L, modified));
+    assertNull(cache.find(this.file, 0L, modified));
+  }
+
+  @Test
+  public void testCompressibleMimeTypes() {
+    assertTrue(MimeTypes.isCompressible("text/plain"));
+    assertTrue(MimeTypes.isCompressible("application/x-mpegurl"));
+    assertTrue(MimeTypes.isCompressible("application/json; charset=utf-8"));
+    assertFalse(MimeTypes.isCompressible("video/mp4"));
+    assertFalse(MimeTypes.isCompressible("image/jpeg"));
+    assertTrue(MimeTypes.isCompressible(new MimeTypes().findMimeTypeForFile(Path.of("movie.srt"))));
+  }
+}
@@ -0,0 +1,102 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Paths;
+import org.junit.Test;
+
+public class HttpMetricsTest {
+
+  private static UploadFileRecord makeRecord(final String id, final String file) {
+    return new UploadFileRecord(id, Paths.get("/media", file), "video/mp4", null);
+  }
+
+  @Test
+  public void testHistogram() {
+    final HttpMetrics.Histogram histogram = new HttpMetrics.Histogram(new long[]{10L, 100L, 1000L});
+    assertEquals(0L, histogram.getQuantile(0.5d));
+    for (int i = 0; i < 90; i++) {
+      histogram.record(5L);
+    }
+    for (int i = 0; i < 10; i++) {
+      histogram.record(500L);
+    }
+    histogram.record(3000L);
+    assertEquals(101L, histogram.getCount());
+    assertEquals(90L * 5L + 10L * 500L + 3000L, histogram.getSum());
+    assertEquals(3000L, histogram.getMax());
+    assertEquals(10L, histogram.getQuantile(0.5d));
+    assertEquals(1000L, histogram.getQuantile(0.95d));
+    assertEquals(3000L, histogram.getQuantile(1.0d));
+  }
+
+  @Test
+  public void testTransfers() {
+    final HttpMetrics metrics = new HttpMetrics();
+    final UploadFileRecord record = makeRecord("abc", "movie.mp4");
+
+    final HttpMetrics.Transfer full = metrics.startTransfer(record);
+    assertEquals(1, metrics.findStream("abc").getActive());
+    full.headersSent();
+    full.completed(1000L);
+    full.aborted();
+
+    final HttpMetrics.Transfer range = metrics.startTransfer(record);
+    range.rangeRequested();
+    range.headersSent();
+    range.aborted();
+    range.end();
+
+    metrics.startTransfer(record).notSatisfiable();
+    metrics.startTransfer(record).end();
+
+    final HttpMetrics.StreamStats stream = metrics.findStream("abc");
+    assertEquals("movie.mp4", stream.getName());
+    assertEquals(4L, stream.getRequests());
+    assertEquals(1L, stream.getRangeRequests());
+    assertEquals(1L, stream.getAborted());
+    assertEquals(1L, stream.getNotSatisfiable());
+    assertEquals(1000L, stream.getBytesSent());
+    assertEquals(0, stream.getActive());
+    assertEquals(2L, stream.getTimeToFirstByte().getCount());
+    assertTrue(stream.getLastThroughput() > 0L);
+
+    assertEquals(4L, metrics.getTransfers());
+    assertEquals(1L, metrics.getAborted());
+    assertEquals(1L, metrics.getNotSatisfiable());
+    assertEquals(1000L, metrics.getBytesSent());
+  }
+
+  @Test
+  public void testStreamsAreBounded() {
+    final HttpMetrics metrics = new HttpMetrics();
+    final HttpMetrics.Transfer active = metrics.startTransfer(makeRecord("active", "a.mp4"));
+    for (int i = 0; i < HttpMetrics.MAX_STREAMS * 2; i++) {
+      metrics.startTransfer(makeRecord("id" + i, "f" + i + ".mp4")).end();
+    }
+    assertTrue(metrics.getStreams().size() <= HttpMetrics.MAX_STREAMS);
+    assertNotNull(metrics.findStream("active"));
+    active.end();
+  }
+
+  @Test
+  public void testRender() {
+    final HttpMetrics metrics = new HttpMetrics();
+    metrics.onRequest();
+    metrics.onNotFound();
+    metrics.onScreencastStall(1500L);
+    metrics.registerGauge("test_gauge", "Test gauge", () -> 42L);
+    final HttpMetrics.Transfer transfer = metrics.startTransfer(makeRecord("x1", "some \"quoted\".mkv"));
+    transfer.headersSent();
+    transfer.completed(10L);
+
+    final String text = metrics.render();
+    assertTrue(text.contains("ravikoodi_http_requests_total 1\n"));
+    assertTrue(text.contains("ravikoodi_http_not_found_total 1\n"));
+    assertTrue(text.contains("ravikoodi_screencast_stall_milliseconds_total 1500\n"));
+    assertTrue(text.contains("# TYPE test_gauge gauge\ntest_gauge 42\n"));
+    assertTrue(text.contains("ravikoodi_stream_sent_bytes_total{id=\"x1\",file=\"some \\\"quoted\\\".mkv\"} 10\n"));
+    assertTrue(text.contains("ravikoodi_http_ttfb_milliseconds_bucket{le=\"+Inf\"} 1\n"));
+    assertTrue(text.contains("ravikoodi_http_ttfb_milliseconds_count 1\n"));
+  }
+}
@@ -1,6 +1,8 @@
 package com.igormaznitsa.ravikoodi;
 
 import static org.junit.Assert.*;
+
+import java.util.List;
 import org.junit.Test;
 
 public class HttpRangeTest {
@@ -35,4 +37,81 @@ public class HttpRangeTest {
     assertEquals(63240192, range.getLength());
   }
   
+  @Test
+  public void testSuffixRange() {
+    final HttpRange range = new HttpRange("bytes=-500", 10000);
+    assertEquals(9500, range.getStart());
+    assertEquals(9999, range.getEnd());
+
+    final List<HttpRange> tooLong = HttpRange.parseRanges("bytes=-20000", 10000);
+    assertEquals(1, tooLong.size());
+    assertEquals(0, tooLong.get(0).getStart());
+    assertEquals(9999, tooLong.get(0).getEnd());
+  }
+
+  @Test
+  public void testEndIsLimitedByContentSize() {
+    final List<HttpRange> ranges = HttpRange.parseRanges("bytes=100-999999", 1000);
+    assertEquals(1, ranges.size());
+    assertEquals(100, ranges.get(0).getStart());
+    assertEquals(999, ranges.get(0).getEnd());
+  }
+
+  @Test
+  public void testIgnoredHeaders() {
+    assertNull(HttpRange.parseRanges(null, 1000));
+    assertNull(HttpRange.parseRanges("items=0-10", 1000));
+    assertNull(HttpRange.parseRanges("bytes=10-5", 1000));
+    assertNull(HttpRange.parseRanges("bytes=a-5", 1000));
+    assertNull(HttpRange.parseRanges("bytes=", 1000));
+    assertNull(HttpRange.parseRanges("bytes=100", 1000));
+  }
+
+  @Test
+  public void testNotSatisfiable() {
+    assertTrue(HttpRange.parseRanges("bytes=1000-", 1000).isEmpty());
+    assertTrue(HttpRange.parseRanges("bytes=-0", 1000).isEmpty());
+    assertTrue(HttpRange.parseRanges("bytes=2000-3000, 5000-", 1000).isEmpty());
+    assertTrue(HttpRange.parseRanges("bytes=-10", 0).isEmpty());
+    assertEquals(1, HttpRange.parseRanges("bytes=2000-3000, 0-1", 1000).size());
+  }
+
+  @Test
+  public void testMultipleRangesAreSortedAndCoalesced() {
+    final List<HttpRange> ranges = HttpRange.parseRanges("bytes=5000-5999, 0-99, 50-199, 250-300, -100", 100000);
+    assertEquals(3, ranges.size());
+    assertEquals(0, ranges.get(0).getStart());
+    assertEquals(300, ranges.get(0).getEnd());
+    assertEquals(5000, ranges.get(1).getStart());
+    assertEquals(5999, ranges.get(1).getEnd());
+    assertEquals(99900, ranges.get(2).getStart());
+    assertEquals(99999, ranges.get(2).getEnd());
+    assertEquals("bytes 99900-99999/100000", ranges.get(2).toStringForHeader());
+  }
+
+  @Test
+  public void testTooManyRangesAreIgnored() {
+    final StringBuilder header = new StringBuilder("bytes=");
+    for (int i = 0; i <= HttpRange.MAX_RANGES; i++) {
+      if (i > 0) {
+        header.append(',');
+      }
+      header.append(i * 1000).append('-').append(i * 1000 + 10);
+    }
+    assertNull(HttpRange.parseRanges(header.toString(), 1000000));
+  }
+
+  @Test
+  public void testIfRange() {
+    final long lastModified = 784111777000L + 123L;
+    assertTrue(HttpRange.isIfRangeMatched(null, null, lastModified));
+    assertTrue(HttpRange.isIfRangeMatched("Sun, 06 Nov 1994 08:49:37 GMT", null, lastModified));
+    assertFalse(HttpRange.isIfRangeMatched("Sun, 06 Nov 1994 08:49:38 GMT", null, lastModified));
+    assertFalse(HttpRange.isIfRangeMatched("not a date", null, lastModified));
+    assertTrue(HttpRange.isIfRangeMatched("\"abc\"", "\"abc\"", lastModified));
+    assertFalse(HttpRange.isIfRangeMatched("\"abc\"", "\"abd\"", lastModified));
+    assertFalse(HttpRange.isIfRangeMatched("W/\"abc\"", "W/\"abc\"", lastModified));
+    assertFalse(HttpRange.isIfRangeMatched("\"abc\"", null, lastModified));
+  }
+
 }
@@ -0,0 +1,63 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import org.junit.Test;
+
+public class HttpValidatorsTest {
+
+  private static final long TIME = 784111777123L;
+
+  @Test
+  public void testDate() {
+    assertEquals("Sun, 6 Nov 1994 08:49:37 GMT", HttpValidators.formatDate(TIME));
+    assertEquals(784111777000L, HttpValidators.parseDate("Sun, 06 Nov 1994 08:49:37 GMT"));
+    assertEquals(-1L, HttpValidators.parseDate("yesterday"));
+    assertEquals(-1L, HttpValidators.parseDate(null));
+  }
+
+  @Test
+  public void testEntityTags() {
+    assertEquals("\"3e8-" + Long.toHexString(TIME) + "\"", HttpValidators.makeEntityTag(1000L, TIME));
+    final String tag = HttpValidators.makeEntityTag("hello".getBytes(StandardCharsets.UTF_8));
+    assertEquals(34, tag.length());
+    assertEquals(tag, HttpValidators.makeEntityTag("hello".getBytes(StandardCharsets.UTF_8)));
+    assertNotEquals(tag, HttpValidators.makeEntityTag("hello!".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testIfNoneMatch() {
+    final String tag = HttpValidators.makeEntityTag(10L, TIME);
+    assertTrue(HttpValidators.isNotModified(tag, null, tag, TIME));
+    assertTrue(HttpValidators.isNotModified("\"other\", W/" + tag, null, tag, TIME));
+    assertTrue(HttpValidators.isNotModified("*", null, tag, TIME));
+    assertFalse(HttpValidators.isNotModified("\"other\"", null, tag, TIME));
+    // If-Modified-Since is ignored if If-None-Match presented
+    assertFalse(HttpValidators.isNotModified("\"other\"", "Sun, 06 Nov 1994 08:49:37 GMT", tag, TIME));
+  }
+
+  @Test
+  public void testIfModifiedSince() {
+    final String tag = HttpValidators.makeEntityTag(10L, TIME);
+    assertTrue(HttpValidators.isNotModified(null, "Sun, 06 Nov 1994 08:49:37 GMT", tag, TIME));
+    assertTrue(HttpValidators.isNotModified(null, "Sun, 06 Nov 1994 09:00:00 GMT", tag, TIME));
+    assertFalse(HttpValidators.isNotModified(null, "Sun, 06 Nov 1994 08:49:36 GMT", tag, TIME));
+    assertFalse(HttpValidators.isNotModified(null, "Sun, 06 Nov 1994 08:49:37 GMT", tag, 0L));
+    assertFalse(HttpValidators.isNotModified(null, "wrong", tag, TIME));
+    assertFalse(HttpValidators.isNotModified(null, null, tag, TIME));
+  }
+
+  @Test
+  public void testRecordEntityTagIsCachedAndUpdated() {
+    final UploadFileRecord record = new UploadFileRecord("id", Paths.get("/media/a.mp4"), "video/mp4", null);
+    final String first = record.getEntityTag(100L, TIME);
+    assertSame(first, record.getEntityTag(100L, TIME));
+    assertNotEquals(first, record.getEntityTag(100L, TIME + 1000L));
+    assertNotEquals(first, record.getEntityTag(101L, TIME));
+
+    final UploadFileRecord data = new UploadFileRecord("data", Paths.get("image.png"), "image/png", new byte[]{1, 2, 3});
+    assertEquals(HttpValidators.makeEntityTag(new byte[]{1, 2, 3}), data.getEntityTag(3L, 0L));
+  }
+}
@@ -0,0 +1,175 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MediaIndexTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static List<String> names(final MediaIndex.Folder folder) {
+    return folder.getEntries().stream().map(MediaIndex.Entry::getName).sorted().collect(Collectors.toList());
+  }
+
+  private Path prepareRoot() throws Exception {
+    final Path root = this.tempFolder.newFolder("media").toPath();
+    Files.write(root.resolve("a.mp4"), new byte[123]);
+    Files.createDirectory(root.resolve("sub"));
+    return root;
+  }
+
+  private static void indexRoot(final MediaIndex index, final Path root) throws Exception {
+    index.open(root);
+    try (Stream<Path> files = Files.list(root)) {
+      index.putFolder(root, MediaIndex.getLastModified(root), files.map(x -> {
+        try {
+          return MediaIndex.makeEntry(x);
+        } catch (Exception ex) {
+          throw new IllegalStateException(ex);
+        }
+      }).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    final Path root = this.prepareRoot();
+    final Path indexFolder = this.tempFolder.newFolder("index").toPath();
+
+    final MediaIndex index = new MediaIndex(indexFolder, null, null);
+    indexRoot(index, root);
+    index.saveIfDirty();
+
+    final MediaIndex loaded = new MediaIndex(indexFolder, null, null);
+    loaded.open(root);
+    assertEquals(1, loaded.size());
+    final MediaIndex.Folder folder = loaded.findFolder(root);
+    assertNotNull(folder);
+    assertEquals(List.of("a.mp4", "sub"), names(folder));
+    final MediaIndex.Entry file = folder.getEntries().stream().filter(x -> !x.isDirectory()).findFirst().get();
+    assertEquals(123L, file.getSize());
+    assertEquals(MimeTypes.ContentType.VIDEO, file.getContentType());
+    assertEquals(Files.getLastModifiedTime(root.resolve("a.mp4")).toMillis(), file.getLastModified());
+  }
+
+  private static final class RecordingExecutor extends AbstractExecutorService {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public void execute(final Runnable command) {
+      this.tasks.add(command);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return false;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+      return true;
+    }
+  }
+
+  @Test
+  public void testPeriodicSaveIsMadeInTaskExecutor() throws Exception {
+    final Path root = this.prepareRoot();
+    final Path indexFolder = this.tempFolder.newFolder("index").toPath();
+    final RecordingExecutor executor = new RecordingExecutor();
+
+    final MediaIndex index = new MediaIndex(indexFolder, null, executor);
+    indexRoot(index, root);
+    index.queueSave();
+    index.queueSave();
+    assertEquals(1, executor.tasks.size());
+    try (Stream<Path> files = Files.list(indexFolder)) {
+      assertEquals(0L, files.count());
+    }
+
+    executor.tasks.remove(0).run();
+    try (Stream<Path> files = Files.list(indexFolder)) {
+      assertEquals(1L, files.count());
+    }
+    index.queueSave();
+    assertTrue(executor.tasks.isEmpty());
+  }
+
+  @Test
+  public void testBrokenIndexIsDropped() throws Exception {
+    final Path root = this.prepareRoot();
+    final Path indexFolder = this.tempFolder.newFolder("index").toPath();
+
+    final MediaIndex index = new MediaIndex(indexFolder, null, null);
+    indexRoot(index, root);
+    index.saveIfDirty();
+
+    final Path indexFile;
+    try (Stream<Path> files = Files.list(indexFolder)) {
+      indexFile = files.findFirst().get();
+    }
+    final byte[] data = Files.readAllBytes(indexFile);
+    data[data.length / 2] ^= 0x55;
+    Files.write(indexFile, data);
+
+    final MediaIndex loaded = new MediaIndex(indexFolder, null, null);
+    loaded.open(root);
+    assertEquals(0, loaded.size());
+    assertNull(loaded.findFolder(root));
+    assertFalse(Files.exists(indexFile));
+  }
+
+  @Test
+  public void testChangedFolderIsNotUsed() throws Exception {
+    final Path root = this.prepareRoot();
+    final MediaIndex index = new MediaIndex(null, null, null);
+    index.open(root);
+    index.putFolder(root, MediaIndex.getLastModified(root) - 10000L, List.of());
+    assertNull(index.findFolder(root));
+    assertEquals(1L, index.getMisses());
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void testRefreshEntry() throws Exception {
+    final Path root = this.prepareRoot();
+    final MediaIndex index = new MediaIndex(null, null, null);
+    indexRoot(index, root);
+
+    Files.write(root.resolve("b.mp3"), new byte[10]);
+    index.refreshEntry(root, "b.mp3");
+    Files.delete(root.resolve("a.mp4"));
+    index.refreshEntry(root, "a.mp4");
+
+    final MediaIndex.Folder folder = index.findFolder(root);
+    assertNotNull(folder);
+    assertEquals(List.of("b.mp3", "sub"), names(folder));
+    assertEquals(2L, index.getUpdates());
+  }
+}
@@ -0,0 +1,109 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatusPollSchedulerTest {
+
+  private ScheduledExecutorService scheduler;
+  private ExecutorService executor;
+
+  @Before
+  public void before() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    this.executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void after() {
+    this.scheduler.shutdownNow();
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testCalcInterval() {
+    assertEquals(1500L, StatusPollScheduler.calcInterval(1500L, 0, false));
+    assertEquals(StatusPollScheduler.BOOST_INTERVAL_MILLISECONDS, StatusPollScheduler.calcInterval(1500L, 0, true));
+    assertEquals(3000L, StatusPollScheduler.calcInterval(1500L, 1, false));
+    assertEquals(6000L, StatusPollScheduler.calcInterval(1500L, 2, true));
+    assertEquals(StatusPollScheduler.MAX_BACKOFF_INTERVAL_MILLISECONDS, StatusPollScheduler.calcInterval(1500L, 16, false));
+    assertEquals(60000L, StatusPollScheduler.calcInterval(60000L, 3, false));
+  }
+
+  @Test(timeout = 10000L)
+  public void testRequestsDuringPollAreMerged() throws Exception {
+    final CountDownLatch pollStarted = new CountDownLatch(1);
+    final CountDownLatch releasePoll = new CountDownLatch(1);
+    final AtomicInteger polls = new AtomicInteger();
+    final CountDownLatch secondPoll = new CountDownLatch(2);
+
+    final KodiStatusPoller poller = new KodiStatusPoller(null) {
+      @Override
+      public boolean poll(final Collection<? extends Participant> participants) {
+        polls.incrementAndGet();
+        pollStarted.countDown();
+        secondPoll.countDown();
+        try {
+          releasePoll.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        return true;
+      }
+    };
+
+    final StatusPollScheduler pollScheduler = new StatusPollScheduler(poller, this.scheduler, this.executor);
+    pollScheduler.addSource("test", List::of, () -> 60000L);
+    try {
+      pollScheduler.start();
+      assertTrue(pollStarted.await(5, TimeUnit.SECONDS));
+
+      for (int i = 0; i < 5; i++) {
+        pollScheduler.requestPoll();
+      }
+      assertEquals(5L, pollScheduler.getMergedRequests());
+      releasePoll.countDown();
+
+      assertTrue(secondPoll.await(5, TimeUnit.SECONDS));
+      Thread.sleep(300L);
+      assertEquals(2, polls.get());
+    } finally {
+      pollScheduler.stop();
+    }
+  }
+
+  @Test(timeout = 10000L)
+  public void testBackoffOnFailure() throws Exception {
+    final AtomicInteger polls = new AtomicInteger();
+    final KodiStatusPoller poller = new KodiStatusPoller(null) {
+      @Override
+      public boolean poll(final Collection<? extends Participant> participants) {
+        polls.incrementAndGet();
+        return false;
+      }
+    };
+
+    final StatusPollScheduler pollScheduler = new StatusPollScheduler(poller, this.scheduler, this.executor);
+    final StatusPollScheduler.Source source = pollScheduler.addSource("test", List::of, () -> 100L);
+    try {
+      pollScheduler.start();
+      Thread.sleep(1000L);
+      // with backoff 200, 400, 800 ms there can be only few polls instead of 10
+      assertTrue(polls.get() >= 2 && polls.get() <= 4);
+      assertTrue(source.getFailures() >= 2);
+    } finally {
+      pollScheduler.stop();
+    }
+  }
+}
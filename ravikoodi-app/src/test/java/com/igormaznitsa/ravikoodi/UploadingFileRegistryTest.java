@@ -0,0 +1,126 @@
+package com.igormaznitsa.ravikoodi;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UploadingFileRegistryTest {
+
+  private UploadingFileRegistry registry;
+  private ExpiringLruCache<String, UploadFileRecord> removed;
+
+  @Before
+  public void before() {
+    this.registry = new UploadingFileRegistry(new MimeTypes(), null);
+    this.removed = new ExpiringLruCache<>(16, 3600000L);
+    this.registry.setRemovedRecordsStore(this.removed);
+  }
+
+  @Test
+  public void testPathIndex() {
+    final Path path = Paths.get("/media/movie.mp4");
+    this.registry.registerFile("a", path, null);
+    this.registry.registerFile("b", path, null);
+    assertTrue(this.registry.isFileAtPlay(path));
+    assertFalse(this.registry.isFileAtPlay(Paths.get("/media/other.mp4")));
+
+    this.registry.unregisterFile("a", false);
+    assertTrue(this.registry.isFileAtPlay(path));
+    this.registry.unregisterFile("b", false);
+    assertFalse(this.registry.isFileAtPlay(path));
+
+    this.registry.registerFile("c", path, null);
+    this.registry.registerFile("c", Paths.get("/media/other.mp4"), null);
+    assertFalse(this.registry.isFileAtPlay(path));
+    assertEquals(1, this.registry.size());
+  }
+
+  @Test
+  public void testActiveUploads() {
+    final UploadFileRecord record = this.registry.registerFile("a", Paths.get("/media/movie.mp4"), null);
+    assertFalse(this.registry.hasActiveUploads());
+    record.incUploadsCounter();
+    record.incUploadsCounter();
+    assertEquals(1, this.registry.getActiveUploads());
+    record.decUploadsCounter();
+    assertTrue(this.registry.hasActiveUploads());
+    record.decUploadsCounter();
+    assertFalse(this.registry.hasActiveUploads());
+
+    record.incUploadsCounter();
+    this.registry.unregisterFile("a", true);
+    assertFalse(this.registry.hasActiveUploads());
+    record.decUploadsCounter();
+    record.incUploadsCounter();
+    assertFalse(this.registry.hasActiveUploads());
+  }
+
+  @Test
+  public void testActiveUploadsStartDuringDelayedFinish() throws Exception {
+    final CountDownLatch finishing = new CountDownLatch(1);
+    final UploadingFileRegistry slowRegistry = new UploadingFileRegistry(new MimeTypes(), null) {
+      @Override
+      void onUploadsFinished(final UploadFileRecord record) {
+        finishing.countDown();
+        try {
+          Thread.sleep(200L);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        super.onUploadsFinished(record);
+      }
+    };
+    final UploadFileRecord record = slowRegistry.registerFile("a", Paths.get("/media/movie.mp4"), null);
+    record.incUploadsCounter();
+
+    final Thread finisher = new Thread(record::decUploadsCounter);
+    finisher.start();
+    assertTrue(finishing.await(5L, TimeUnit.SECONDS));
+    record.incUploadsCounter();
+    finisher.join();
+
+    assertEquals(1, record.getUploadsCounter());
+    assertTrue(slowRegistry.hasActiveUploads());
+    record.decUploadsCounter();
+    assertFalse(slowRegistry.hasActiveUploads());
+  }
+
+  @Test
+  public void testExpiration() {
+    final UploadFileRecord expired = this.registry.registerFile("expired", Paths.get("/media/a.mp4"), null);
+    final UploadFileRecord active = this.registry.registerFile("active", Paths.get("/media/b.mp4"), null);
+    final UploadFileRecord refreshed = this.registry.registerFile("refreshed", Paths.get("/media/c.mp4"), null);
+
+    final long time = System.currentTimeMillis() + UploadingFileRegistry.INITIAL_VALID_DELAY_MILLISECONDS + 1000L;
+    active.incUploadsCounter();
+    refreshed.setValidUntil(time + 1000L);
+
+    this.registry.collectTimeoutFiles(time);
+    assertNull(this.registry.find("expired"));
+    assertSame(expired, this.removed.get("expired"));
+    assertFalse(this.registry.isFileAtPlay(Paths.get("/media/a.mp4")));
+    assertNotNull(this.registry.find("active"));
+    assertNotNull(this.registry.find("refreshed"));
+
+    active.decUploadsCounter();
+    active.setValidUntil(0L);
+    this.registry.pause();
+    this.registry.collectTimeoutFiles(time + UploadingFileRegistry.VALID_TIME_MILLISECONDS * 4);
+    assertEquals(2, this.registry.size());
+    this.registry.resume();
+
+    this.registry.collectTimeoutFiles(time + UploadingFileRegistry.VALID_TIME_MILLISECONDS * 10);
+    assertEquals(0, this.registry.size());
+    assertEquals(3, this.removed.size());
+
+    final UploadFileRecord restored = this.registry.restoreRecord(this.removed.get("active"));
+    assertSame(active, restored);
+    assertTrue(this.registry.isFileAtPlay(Paths.get("/media/b.mp4")));
+    assertNull(this.registry.restoreRecord(active));
+  }
+}
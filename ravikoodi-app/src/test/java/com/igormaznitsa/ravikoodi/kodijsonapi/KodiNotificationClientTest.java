@@ -0,0 +1,101 @@
+package com.igormaznitsa.ravikoodi.kodijsonapi;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class KodiNotificationClientTest {
+
+  private static final class Recorder implements KodiNotificationClient.Listener {
+
+    final List<String> methods = new CopyOnWriteArrayList<>();
+    final AtomicReference<JsonNode> lastParams = new AtomicReference<>();
+    final CountDownLatch connected = new CountDownLatch(1);
+
+    @Override
+    public void onNotification(final String method, final JsonNode params) {
+      this.methods.add(method);
+      this.lastParams.set(params);
+    }
+
+    @Override
+    public void onConnected() {
+      this.connected.countDown();
+    }
+  }
+
+  @Test(timeout = 10000L)
+  public void testReadConcatenatedNotifications() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      final Recorder recorder = new Recorder();
+      final KodiNotificationClient client = new KodiNotificationClient("127.0.0.1", server.getLocalPort(), Duration.ofSeconds(3), recorder);
+
+      final Thread thread = new Thread(() -> {
+        try {
+          client.run();
+        } catch (Exception ex) {
+          throw new RuntimeException(ex);
+        }
+      });
+      thread.start();
+
+      try (Socket socket = server.accept()) {
+        assertTrue(recorder.connected.await(3, TimeUnit.SECONDS));
+        assertTrue(client.isConnected());
+        final OutputStream out = socket.getOutputStream();
+        // Kodi sends objects without delimiters, responses must be ignored
+        out.write(("{\"jsonrpc\":\"2.0\",\"method\":\"Player.OnPlay\",\"params\":{\"data\":{\"player\":{\"playerid\":1,\"speed\":1}},\"sender\":\"xbmc\"}}"
+                + "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"OK\"}"
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"Player.OnPause\",\"params\":{\"data\":{\"player\":{\"playerid\":1,\"speed\":0}},\"sender\":\"xbmc\"}}\n"
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"Application.OnVolumeChanged\",\"params\":{\"data\":{\"muted\":false,\"volume\":42},\"sender\":\"xbmc\"}}").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+      }
+      thread.join(5000L);
+
+      assertFalse(thread.isAlive());
+      assertFalse(client.isConnected());
+      assertEquals(List.of("Player.OnPlay", "Player.OnPause", "Application.OnVolumeChanged"), recorder.methods);
+      assertEquals(42, recorder.lastParams.get().path("data").path("volume").asInt());
+    }
+  }
+
+  @Test(timeout = 10000L)
+  public void testCloseStopsReading() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      final Recorder recorder = new Recorder();
+      final KodiNotificationClient client = new KodiNotificationClient("127.0.0.1", server.getLocalPort(), Duration.ofSeconds(3), recorder);
+      final AtomicReference<Throwable> error = new AtomicReference<>();
+      final Thread thread = new Thread(() -> {
+        try {
+          client.run();
+        } catch (Throwable ex) {
+          error.set(ex);
+        }
+      });
+      thread.start();
+
+      try (Socket socket = server.accept()) {
+        socket.setSoTimeout(5000);
+        assertTrue(recorder.connected.await(3, TimeUnit.SECONDS));
+        client.close();
+        thread.join(5000L);
+        assertFalse(thread.isAlive());
+        assertNull(error.get());
+        assertTrue(recorder.methods.isEmpty());
+        assertEquals(-1, socket.getInputStream().read());
+      }
+    }
+  }
+}
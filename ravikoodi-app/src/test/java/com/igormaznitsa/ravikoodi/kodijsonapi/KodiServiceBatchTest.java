@@ -0,0 +1,125 @@
+package com.igormaznitsa.ravikoodi.kodijsonapi;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.googlecode.jsonrpc4j.JsonRpcClientException;
+import com.igormaznitsa.ravikoodi.KodiAddress;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KodiServiceBatchTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final AtomicInteger httpRequests = new AtomicInteger();
+  private final AtomicReference<String> authorization = new AtomicReference<>();
+  private HttpServer server;
+
+  @Before
+  public void startServer() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/jsonrpc", exchange -> {
+      this.httpRequests.incrementAndGet();
+      this.authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+      final JsonNode request = this.mapper.readTree(exchange.getRequestBody());
+      final ArrayNode response = this.mapper.createArrayNode();
+      // answer in reverse order to check matching by id
+      for (int i = request.size() - 1; i >= 0; i--) {
+        final JsonNode r = request.get(i);
+        final ObjectNode answer = response.addObject();
+        answer.put("jsonrpc", "2.0");
+        answer.set("id", r.get("id"));
+        switch (r.get("method").asText()) {
+          case "Player.GetActivePlayers": {
+            answer.putArray("result").addObject().put("playerid", 1).put("type", "video");
+          }
+          break;
+          case "Player.GetProperties": {
+            assertEquals(1, r.path("params").path("playerid").asInt());
+            answer.putObject("result").put("percentage", 12.5d).put("speed", 1);
+          }
+          break;
+          default: {
+            answer.putObject("error").put("code", -32601).put("message", "Method not found.");
+          }
+          break;
+        }
+      }
+      final byte[] body = this.mapper.writeValueAsBytes(response);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    this.server.start();
+  }
+
+  @After
+  public void stopServer() {
+    this.server.stop(0);
+  }
+
+  private KodiService makeService() throws Exception {
+    return new KodiService(new KodiAddress("127.0.0.1", this.server.getAddress().getPort(), "kodi", "secret", false), Duration.ofSeconds(5));
+  }
+
+  @Test
+  public void testBatchInSingleRoundTrip() throws Throwable {
+    final KodiService service = makeService();
+    final BatchRequest batch = new BatchRequest();
+    final BatchRequest.Response<ActivePlayerInfo[]> players = batch.getActivePlayers();
+    final BatchRequest.Response<PlayerProperties> properties = batch.getPlayerProperties(this.mapper.readValue("{\"playerid\":1,\"type\":\"video\"}", ActivePlayerInfo.class), "percentage", "speed");
+    final BatchRequest.Response<ApplicationProperties> application = batch.getApplicationProperties(ApplicationProperties.ALL_NAMES);
+
+    assertFalse(players.isDone());
+    service.execute(batch);
+
+    assertEquals(1, this.httpRequests.get());
+    assertEquals("Basic a29kaTpzZWNyZXQ=", this.authorization.get());
+
+    assertTrue(players.isSuccess());
+    assertEquals(1, players.get().length);
+    assertEquals(1L, players.get()[0].getPlayerid());
+    assertEquals("video", players.get()[0].getType());
+
+    assertTrue(properties.isSuccess());
+    assertEquals(12.5d, properties.get().getPercentage(), 0.0d);
+    assertEquals(1L, properties.get().getSpeed());
+
+    assertTrue(application.isDone());
+    assertFalse(application.isSuccess());
+    assertTrue(application.getError() instanceof JsonRpcClientException);
+    assertEquals(-32601, ((JsonRpcClientException) application.getError()).getCode());
+  }
+
+  @Test
+  public void testNotExecutedResponse() {
+    final BatchRequest batch = new BatchRequest();
+    final BatchRequest.Response<ActivePlayerInfo[]> players = batch.getActivePlayers();
+    assertThrows(IllegalStateException.class, players::get);
+  }
+
+  @Test
+  public void testWholeBatchFailed() throws Exception {
+    final KodiService service = makeService();
+    this.server.stop(0);
+    final BatchRequest batch = new BatchRequest();
+    final BatchRequest.Response<ActivePlayerInfo[]> players = batch.getActivePlayers();
+    assertThrows(IOException.class, () -> service.execute(batch));
+    assertTrue(players.isDone());
+    assertTrue(players.getError() instanceof IOException);
+  }
+}
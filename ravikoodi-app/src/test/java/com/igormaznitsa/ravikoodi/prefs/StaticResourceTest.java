@@ -0,0 +1,37 @@
+package com.igormaznitsa.ravikoodi.prefs;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.Test;
+
+public class StaticResourceTest {
+
+  @Test
+  public void testBase64RoundTrip() throws Exception {
+    final StaticResource resource = new StaticResource("intro");
+    resource.setEnabled(true);
+    resource.setMapped(true);
+    resource.setCachePolicy(StaticResource.CachePolicy.DAY);
+    resource.setResourcePath(new File("/some/intro.mp4"));
+
+    final StaticResource restored = StaticResource.fromBase64(resource.toBase64());
+    assertEquals("intro", restored.getId());
+    assertTrue(restored.isEnabled());
+    assertTrue(restored.isMapped());
+    assertEquals(StaticResource.CachePolicy.DAY, restored.getCachePolicy());
+    assertEquals(new File("/some/intro.mp4").getAbsoluteFile(), restored.getResourcePath());
+  }
+
+  @Test
+  public void testOldRecordIsNotMapped() throws Exception {
+    final String old = Base64.getEncoder().encodeToString("id=art\nenabled=true\n".getBytes(StandardCharsets.UTF_8));
+    final StaticResource restored = StaticResource.fromBase64(old);
+    assertEquals("art", restored.getId());
+    assertTrue(restored.isEnabled());
+    assertFalse(restored.isMapped());
+    assertEquals(StaticResource.CachePolicy.REVALIDATE, restored.getCachePolicy());
+  }
+}
@@ -0,0 +1,63 @@
+package com.igormaznitsa.ravikoodi.screencast;
+
+import static org.junit.Assert.*;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import org.junit.Test;
+
+public class FrameChangeDetectorTest {
+
+  private static final int WIDTH = 100;
+  private static final int HEIGHT = 70;
+
+  private static void setPixel(final byte[] frame, final int x, final int y, final int rgb) {
+    final int offset = (y * WIDTH + x) * 3;
+    frame[offset] = (byte) (rgb >> 16);
+    frame[offset + 1] = (byte) (rgb >> 8);
+    frame[offset + 2] = (byte) rgb;
+  }
+
+  @Test
+  public void testDetectChanges() {
+    final byte[] frame = new byte[WIDTH * HEIGHT * 3];
+    new Random(1L).nextBytes(frame);
+    final FrameChangeDetector detector = new FrameChangeDetector(WIDTH, HEIGHT, 32);
+    assertEquals(4 * 3, detector.getTileCount());
+
+    assertTrue(detector.update(frame));
+    assertEquals(12, detector.getChangedTiles());
+    assertEquals(new Rectangle(0, 0, WIDTH, HEIGHT), detector.getDirtyRegion());
+
+    assertFalse(detector.update(frame.clone()));
+    assertEquals(0, detector.getChangedTiles());
+    assertNull(detector.getDirtyRegion());
+
+    setPixel(frame, 40, 10, 0x123456);
+    setPixel(frame, 99, 69, 0x654321);
+    assertTrue(detector.update(frame));
+    assertEquals(2, detector.getChangedTiles());
+    assertEquals(new Rectangle(32, 0, 68, 70), detector.getDirtyRegion());
+
+    detector.reset();
+    assertTrue(detector.update(frame));
+    assertEquals(12, detector.getChangedTiles());
+  }
+
+  @Test
+  public void testSwappedTilesAreChanged() {
+    final byte[] frame = new byte[WIDTH * HEIGHT * 3];
+    final FrameChangeDetector detector = new FrameChangeDetector(WIDTH, HEIGHT, 32);
+    setPixel(frame, 0, 0, 0xFFFFFF);
+    detector.update(frame);
+    setPixel(frame, 0, 0, 0);
+    setPixel(frame, 32, 0, 0xFFFFFF);
+    assertTrue(detector.update(frame));
+    assertEquals(2, detector.getChangedTiles());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongFrameSize() {
+    new FrameChangeDetector(WIDTH, HEIGHT, 32).update(new byte[10]);
+  }
+}
@@ -0,0 +1,176 @@
+package com.igormaznitsa.ravikoodi.screencast;
+
+import static com.igormaznitsa.ravikoodi.screencast.TsPackets.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class HlsSegmenterTest {
+
+  private static void putGop(final TsBroadcastHub hub, final int marker) {
+    final byte[] gop = join(pat(marker), keyFrame(marker), data(marker));
+    hub.put(gop, 0, gop.length);
+  }
+
+  private static TsBroadcastHub makeHub(final HlsSegmenter segmenter) {
+    final TsBroadcastHub hub = new TsBroadcastHub(64, 1024 * 1024);
+    hub.setUnitListener(segmenter);
+    hub.reset();
+    return hub;
+  }
+
+  @Test
+  public void testSegmentsCutAtKeyFrameAfterTargetDuration() {
+    final AtomicLong time = new AtomicLong(10000L);
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> true, time::get);
+    final TsBroadcastHub hub = makeHub(segmenter);
+
+    final byte[] garbage = data(99);
+    hub.put(garbage, 0, garbage.length);
+
+    putGop(hub, 1);
+    time.addAndGet(1000L);
+    putGop(hub, 2);
+    assertEquals(0, segmenter.getSegmentCount());
+    time.addAndGet(1000L);
+    putGop(hub, 3);
+    assertEquals(1, segmenter.getSegmentCount());
+
+    final HlsSegmenter.Segment first = segmenter.findSegment(0L);
+    assertNotNull(first);
+    assertEquals(2000L, first.getDurationMs());
+    assertEquals(8 * TsBroadcastHub.TS_PACKET_SIZE, first.getData().length);
+    assertEquals(1, first.getData()[187]);
+    assertFalse(first.isDiscontinuity());
+  }
+
+  @Test
+  public void testOldSegmentsEvictedAndPlaylistSliding() {
+    final AtomicLong time = new AtomicLong();
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> true, time::get);
+    final TsBroadcastHub hub = makeHub(segmenter);
+
+    for (int i = 0; i < 8; i++) {
+      putGop(hub, i);
+      time.addAndGet(2000L);
+    }
+    assertEquals(4, segmenter.getSegmentCount());
+    assertEquals(3L, segmenter.getEvictedSegments());
+    assertNull(segmenter.findSegment(2L));
+    assertNotNull(segmenter.findSegment(3L));
+
+    final String playlist = segmenter.makePlaylist("seg-");
+    assertTrue(playlist.startsWith("#EXTM3U\n"));
+    assertTrue(playlist.contains("#EXT-X-TARGETDURATION:6\n"));
+    assertTrue(playlist.contains("#EXT-X-MEDIA-SEQUENCE:4\n"));
+    assertTrue(playlist.contains("#EXTINF:2.000,\nseg-4.ts\n"));
+    assertTrue(playlist.endsWith("seg-6.ts\n"));
+    assertFalse(playlist.contains("seg-3.ts"));
+    assertFalse(playlist.contains("#EXT-X-ENDLIST"));
+  }
+
+  @Test
+  public void testForcedCutWithoutKeyFrame() {
+    final AtomicLong time = new AtomicLong();
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> true, time::get);
+    final TsBroadcastHub hub = makeHub(segmenter);
+
+    putGop(hub, 1);
+    for (int i = 0; i < 4; i++) {
+      time.addAndGet(2000L);
+      final byte[] unit = join(pat(10 + i), data(10 + i));
+      hub.put(unit, 0, unit.length);
+    }
+    assertEquals(1, segmenter.getSegmentCount());
+    assertEquals(6000L, segmenter.findSegment(0L).getDurationMs());
+  }
+
+  @Test
+  public void testAudioRandomAccessDoesNotStartSegment() {
+    final AtomicLong time = new AtomicLong();
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> true, time::get);
+    final TsBroadcastHub hub = makeHub(segmenter);
+
+    final byte[] audio = join(pat(1), audioKeyFrame(1), data(1));
+    hub.put(audio, 0, audio.length);
+    time.addAndGet(2000L);
+    putGop(hub, 2);
+    time.addAndGet(1000L);
+    hub.put(audio, 0, audio.length);
+    time.addAndGet(1000L);
+    putGop(hub, 3);
+
+    assertEquals(1, segmenter.getSegmentCount());
+    final HlsSegmenter.Segment first = segmenter.findSegment(0L);
+    assertEquals(2, first.getData()[187]);
+    assertEquals(2000L, first.getDurationMs());
+    assertEquals(8 * TsBroadcastHub.TS_PACKET_SIZE, first.getData().length);
+  }
+
+  @Test
+  public void testTargetDurationConstantAcrossForcedCut() {
+    final AtomicLong time = new AtomicLong();
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> true, time::get);
+    final TsBroadcastHub hub = makeHub(segmenter);
+
+    putGop(hub, 1);
+    for (int i = 0; i < 3; i++) {
+      time.addAndGet(2000L);
+      putGop(hub, 2 + i);
+      assertTrue(segmenter.makePlaylist("s").contains("#EXT-X-TARGETDURATION:6\n"));
+    }
+
+    final byte[] noKeyFrame = join(pat(20), data(20));
+    for (int i = 0; i < 3; i++) {
+      time.addAndGet(2000L);
+      hub.put(noKeyFrame, 0, noKeyFrame.length);
+      assertTrue(segmenter.makePlaylist("s").contains("#EXT-X-TARGETDURATION:6\n"));
+    }
+    time.addAndGet(9000L);
+    hub.put(noKeyFrame, 0, noKeyFrame.length);
+    assertEquals(6000L, segmenter.findSegment(3L).getDurationMs());
+    assertEquals(6000L, segmenter.findSegment(4L).getDurationMs());
+    assertTrue(segmenter.makePlaylist("s").contains("#EXTINF:6.000,\ns4.ts\n"));
+
+    for (int i = 0; i < 6; i++) {
+      final String playlist = segmenter.makePlaylist("s");
+      assertTrue(playlist, playlist.contains("#EXT-X-TARGETDURATION:6\n"));
+      time.addAndGet(2000L);
+      putGop(hub, 30 + i);
+    }
+    assertNull(segmenter.findSegment(4L));
+    assertTrue(segmenter.makePlaylist("s").contains("#EXT-X-TARGETDURATION:6\n"));
+  }
+
+  @Test
+  public void testResetMakesDiscontinuity() {
+    final AtomicLong time = new AtomicLong();
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> true, time::get);
+    final TsBroadcastHub hub = makeHub(segmenter);
+
+    putGop(hub, 1);
+    time.addAndGet(2000L);
+    putGop(hub, 2);
+    hub.reset();
+    time.addAndGet(2000L);
+    putGop(hub, 3);
+    time.addAndGet(2000L);
+    putGop(hub, 4);
+
+    assertEquals(2, segmenter.getSegmentCount());
+    assertTrue(segmenter.findSegment(1L).isDiscontinuity());
+    assertTrue(segmenter.makePlaylist("s").contains("#EXT-X-DISCONTINUITY\n#EXTINF:2.000,\ns1.ts\n"));
+  }
+
+  @Test
+  public void testDisabledSegmenterKeepsNothing() throws Exception {
+    final HlsSegmenter segmenter = new HlsSegmenter(2000L, 3, 4, 1024 * 1024, () -> false, () -> 0L);
+    final TsBroadcastHub hub = makeHub(segmenter);
+    putGop(hub, 1);
+    putGop(hub, 2);
+    assertFalse(segmenter.isActive());
+    assertEquals(0, segmenter.getSegmentCount());
+    assertFalse(segmenter.awaitSegments(1, 10L));
+  }
+}
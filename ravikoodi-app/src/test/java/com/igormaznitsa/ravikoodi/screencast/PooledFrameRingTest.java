@@ -0,0 +1,82 @@
+package com.igormaznitsa.ravikoodi.screencast;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class PooledFrameRingTest {
+
+  private static int takeFirstByte(final PooledFrameRing ring) throws Exception {
+    final PooledFrameRing.Frame frame = ring.take(100L, TimeUnit.MILLISECONDS);
+    assertNotNull(frame);
+    try {
+      return frame.getData()[0];
+    } finally {
+      ring.release(frame);
+    }
+  }
+
+  @Test
+  public void testNotStartedDropsOldest() throws Exception {
+    final PooledFrameRing ring = new PooledFrameRing(3);
+    for (int i = 1; i <= 5; i++) {
+      ring.put(new byte[]{(byte) i});
+    }
+    assertEquals(3, ring.size());
+    assertEquals(2L, ring.getDropped());
+    assertEquals(3, takeFirstByte(ring));
+    assertEquals(4, takeFirstByte(ring));
+    assertEquals(5, takeFirstByte(ring));
+    assertNull(ring.take(10L, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testStartedOverwritesLatest() throws Exception {
+    final PooledFrameRing ring = new PooledFrameRing(3);
+    ring.start();
+    for (int i = 1; i <= 5; i++) {
+      ring.put(new byte[]{(byte) i});
+    }
+    assertEquals(2L, ring.getDropped());
+    assertEquals(3, ring.getMaxDepth());
+    assertEquals(1, takeFirstByte(ring));
+    assertEquals(2, takeFirstByte(ring));
+    assertEquals(5, takeFirstByte(ring));
+  }
+
+  @Test
+  public void testBuffersReused() throws Exception {
+    final PooledFrameRing ring = new PooledFrameRing(2, 16);
+    ring.put(new byte[]{1, 2, 3}, 1, 2);
+    PooledFrameRing.Frame frame = ring.take(100L, TimeUnit.MILLISECONDS);
+    assertEquals(2, frame.getLength());
+    assertEquals(2, frame.getData()[0]);
+    final byte[] array = frame.getData();
+    ring.release(frame);
+    ring.put(new byte[]{7});
+    frame = ring.take(100L, TimeUnit.MILLISECONDS);
+    assertSame(array, frame.getData());
+    assertEquals(1, frame.getLength());
+    ring.release(frame);
+  }
+
+  @Test(timeout = 5000L)
+  public void testTakeWaitsForProducer() throws Exception {
+    final PooledFrameRing ring = new PooledFrameRing(2);
+    final Thread producer = new Thread(() -> {
+      try {
+        Thread.sleep(50L);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      ring.put(new byte[]{42});
+    });
+    producer.start();
+    final PooledFrameRing.Frame frame = ring.take(3L, TimeUnit.SECONDS);
+    assertNotNull(frame);
+    assertEquals(42, frame.getData()[0]);
+    ring.release(frame);
+    producer.join();
+  }
+}
@@ -0,0 +1,101 @@
+package com.igormaznitsa.ravikoodi.screencast;
+
+import static com.igormaznitsa.ravikoodi.screencast.TsPackets.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class TsBroadcastHubTest {
+
+  private static int firstMarker(final byte[] unit) {
+    return unit[187] & 0xFF;
+  }
+
+  @Test
+  public void testAllSubscribersGetSameData() throws Exception {
+    final TsBroadcastHub hub = new TsBroadcastHub(64, 1024 * 1024);
+    try (final TsBroadcastHub.Subscription first = hub.subscribe();
+            final TsBroadcastHub.Subscription second = hub.subscribe()) {
+      assertEquals(2, hub.getSubscribers());
+      final byte[] stream = join(pat(1), keyFrame(2), data(3));
+      hub.put(stream, 0, stream.length);
+      assertArrayEquals(stream, first.take(100L));
+      assertArrayEquals(stream, second.take(100L));
+      assertNull(first.take(10L));
+    }
+    assertEquals(0, hub.getSubscribers());
+  }
+
+  @Test
+  public void testNewSubscriberStartsFromLastKeyFrameBoundary() throws Exception {
+    final TsBroadcastHub hub = new TsBroadcastHub(64, 1024 * 1024);
+    final byte[] stream = join(data(1), pat(2), keyFrame(3), data(4), pat(5), keyFrame(6), data(7), pat(8), data(9));
+    hub.put(stream, 0, stream.length);
+    assertEquals(4, hub.size());
+    try (final TsBroadcastHub.Subscription subscription = hub.subscribe()) {
+      assertEquals(5, firstMarker(subscription.take(100L)));
+      assertEquals(8, firstMarker(subscription.take(100L)));
+      assertNull(subscription.take(10L));
+    }
+  }
+
+  @Test
+  public void testAudioRandomAccessIsNotKeyFrame() throws Exception {
+    final TsBroadcastHub hub = new TsBroadcastHub(64, 1024 * 1024);
+    final byte[] stream = join(pat(1), keyFrame(2), data(3), pat(4), audioKeyFrame(5), data(6), pat(7), data(8));
+    hub.put(stream, 0, stream.length);
+    try (final TsBroadcastHub.Subscription subscription = hub.subscribe()) {
+      assertEquals(1, firstMarker(subscription.take(100L)));
+      assertEquals(4, firstMarker(subscription.take(100L)));
+    }
+  }
+
+  @Test
+  public void testNoKeyFrameWithoutPmt() throws Exception {
+    final TsBroadcastHub hub = new TsBroadcastHub(64, 1024 * 1024);
+    final byte[] patOnly = Arrays.copyOf(pat(1), TsBroadcastHub.TS_PACKET_SIZE);
+    final byte[] stream = join(patOnly, keyFrame(2), data(3), patOnly, data(4));
+    hub.put(stream, 0, stream.length);
+    try (final TsBroadcastHub.Subscription subscription = hub.subscribe()) {
+      final byte[] first = subscription.take(100L);
+      assertEquals(2 * TsBroadcastHub.TS_PACKET_SIZE, first.length);
+      assertEquals(4, first[TsBroadcastHub.TS_PACKET_SIZE + 187]);
+      assertNull(subscription.take(10L));
+    }
+  }
+
+  @Test
+  public void testPacketsSplitBetweenPortions() throws Exception {
+    final TsBroadcastHub hub = new TsBroadcastHub(64, 1024 * 1024);
+    final byte[] stream = join(pat(1), keyFrame(2), data(3));
+    try (final TsBroadcastHub.Subscription subscription = hub.subscribe()) {
+      hub.put(stream, 0, 100);
+      assertNull(subscription.take(10L));
+      hub.put(stream, 100, stream.length - 100);
+      final ByteArrayOutputStream received = new ByteArrayOutputStream();
+      byte[] next;
+      while ((next = subscription.take(10L)) != null) {
+        received.writeBytes(next);
+      }
+      assertArrayEquals(stream, received.toByteArray());
+    }
+  }
+
+  @Test
+  public void testSlowSubscriberMovedToLastBoundary() throws Exception {
+    final TsBroadcastHub hub = new TsBroadcastHub(16, 1024 * 1024);
+    try (final TsBroadcastHub.Subscription subscription = hub.subscribe()) {
+      final byte[] start = join(pat(1), keyFrame(2));
+      hub.put(start, 0, start.length);
+      assertEquals(1, firstMarker(subscription.take(100L)));
+      for (int i = 0; i < 40; i++) {
+        final byte[] next = (i % 10 == 0) ? join(pat(10 + i), keyFrame(100 + i)) : data(10 + i);
+        hub.put(next, 0, next.length);
+      }
+      assertEquals(40, firstMarker(subscription.take(100L)));
+      assertTrue(subscription.getDropped() > 0L);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.igormaznitsa.ravikoodi.screencast;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * MPEG-TS packets for tests of the broadcast hub and HLS segmenter.
+ */
+final class TsPackets {
+
+  private TsPackets() {
+  }
+
+  static byte[] packet(final int... header) {
+    final byte[] result = new byte[TsBroadcastHub.TS_PACKET_SIZE];
+    for (int i = 0; i < header.length; i++) {
+      result[i] = (byte) header[i];
+    }
+    return result;
+  }
+
+  /**
+   * PAT with program 1 in PID 0x1000 followed by PMT with H.264 video in PID
+   * 0x100 and AAC audio in PID 0x101.
+   */
+  static byte[] pat(final int marker) {
+    final byte[] result = packet(0x47, 0x40, 0x00, 0x10, 0x00,
+            0x00, 0xB0, 13, 0x00, 0x01, 0xC1, 0x00, 0x00,
+            0x00, 0x01, 0xF0, 0x00,
+            0, 0, 0, 0);
+    result[187] = (byte) marker;
+    final byte[] pmt = packet(0x47, 0x50, 0x00, 0x10, 0x00,
+            0x02, 0xB0, 23, 0x00, 0x01, 0xC1, 0x00, 0x00, 0xE1, 0x00, 0xF0, 0x00,
+            0x1B, 0xE1, 0x00, 0xF0, 0x00,
+            0x0F, 0xE1, 0x01, 0xF0, 0x00,
+            0, 0, 0, 0);
+    return join(result, pmt);
+  }
+
+  static byte[] keyFrame(final int marker) {
+    final byte[] result = new byte[TsBroadcastHub.TS_PACKET_SIZE];
+    result[0] = 0x47;
+    result[1] = 0x41;
+    result[2] = 0x00;
+    result[3] = 0x30;
+    result[4] = 7;
+    result[5] = 0x40;
+    result[187] = (byte) marker;
+    return result;
+  }
+
+  static byte[] audioKeyFrame(final int marker) {
+    final byte[] result = new byte[TsBroadcastHub.TS_PACKET_SIZE];
+    result[0] = 0x47;
+    result[1] = 0x41;
+    result[2] = 0x01;
+    result[3] = 0x30;
+    result[4] = 7;
+    result[5] = 0x40;
+    result[187] = (byte) marker;
+    return result;
+  }
+
+  static byte[] data(final int marker) {
+    final byte[] result = new byte[TsBroadcastHub.TS_PACKET_SIZE];
+    result[0] = 0x47;
+    result[1] = 0x01;
+    result[2] = 0x00;
+    result[3] = 0x10;
+    result[187] = (byte) marker;
+    return result;
+  }
+
+  static byte[] join(final byte[]... packets) {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    for (final byte[] p : packets) {
+      buffer.writeBytes(p);
+    }
+    return buffer.toByteArray();
+  }
+}
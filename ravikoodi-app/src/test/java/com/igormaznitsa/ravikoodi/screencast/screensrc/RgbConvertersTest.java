@@ -0,0 +1,112 @@
+package com.igormaznitsa.ravikoodi.screencast.screensrc;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+
+public class RgbConvertersTest {
+
+  private static BufferedImage makeImage(final int type) {
+    final BufferedImage result = new BufferedImage(7, 5, type);
+    for (int y = 0; y < result.getHeight(); y++) {
+      for (int x = 0; x < result.getWidth(); x++) {
+        result.setRGB(x, y, 0xFF000000 | ((x * 37) << 16) | ((y * 51) << 8) | (x * y * 7));
+      }
+    }
+    return result;
+  }
+
+  private static void assertSameAsImage(final BufferedImage image, final byte[] rgb, final int mask) {
+    int index = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        final int expected = image.getRGB(x, y);
+        final int actual = ((rgb[index++] & 0xFF) << 16) | ((rgb[index++] & 0xFF) << 8) | (rgb[index++] & 0xFF);
+        assertEquals("Pixel " + x + ',' + y, expected & mask, actual & mask);
+      }
+    }
+  }
+
+  @Test
+  public void testExactTypes() {
+    for (final int type : new int[]{
+      BufferedImage.TYPE_INT_RGB,
+      BufferedImage.TYPE_INT_BGR,
+      BufferedImage.TYPE_INT_ARGB,
+      BufferedImage.TYPE_3BYTE_BGR,
+      BufferedImage.TYPE_4BYTE_ABGR,
+      BufferedImage.TYPE_BYTE_INDEXED
+    }) {
+      final BufferedImage image = makeImage(type);
+      final byte[] target = new byte[RgbConverters.rgbLength(image) + 10];
+      assertEquals(7 * 5 * 3, RgbConverters.convert(image, target));
+      assertSameAsImage(image, target, 0xFFFFFF);
+    }
+  }
+
+  @Test
+  public void testUShortTypes() {
+    final BufferedImage image565 = makeImage(BufferedImage.TYPE_USHORT_565_RGB);
+    final byte[] target = new byte[RgbConverters.rgbLength(image565)];
+    RgbConverters.convert(image565, target);
+    assertSameAsImage(image565, target, 0xF8FCF8);
+
+    final BufferedImage image555 = makeImage(BufferedImage.TYPE_USHORT_555_RGB);
+    RgbConverters.convert(image555, target);
+    assertSameAsImage(image555, target, 0xF8F8F8);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooSmallTarget() {
+    RgbConverters.convert(makeImage(BufferedImage.TYPE_INT_RGB), new byte[10]);
+  }
+
+  @Test
+  public void testFramePool() {
+    final RgbFramePool pool = new RgbFramePool(2);
+    final byte[] first = pool.acquire(100);
+    pool.release(first);
+    assertSame(first, pool.acquire(100));
+    pool.release(first);
+    assertNotSame(first, pool.acquire(200));
+    assertEquals(1L, pool.getHits());
+    assertEquals(2L, pool.getAllocations());
+    assertEquals(300L, pool.getAllocatedBytes());
+  }
+
+  @Test
+  public void testParallelConversion() {
+    final ParallelRgbConverter converter = new ParallelRgbConverter(0, 4);
+    try {
+      for (final int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_BINARY}) {
+        final BufferedImage image = new BufferedImage(33, 211, type);
+        for (int y = 0; y < image.getHeight(); y++) {
+          for (int x = 0; x < image.getWidth(); x++) {
+            image.setRGB(x, y, (x * 7919) ^ (y * 104729));
+          }
+        }
+        assertEquals(type != BufferedImage.TYPE_BYTE_BINARY, converter.isParallel(image));
+        final byte[] expected = new byte[RgbConverters.rgbLength(image)];
+        RgbConverters.convert(image, expected);
+        final byte[] actual = new byte[expected.length];
+        assertEquals(expected.length, converter.convert(image, actual));
+        assertArrayEquals(expected, actual);
+      }
+    } finally {
+      converter.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelThreshold() {
+    final ParallelRgbConverter converter = new ParallelRgbConverter(1000, 4);
+    try {
+      assertFalse(converter.isParallel(new BufferedImage(10, 99, BufferedImage.TYPE_INT_RGB)));
+      assertTrue(converter.isParallel(new BufferedImage(10, 100, BufferedImage.TYPE_INT_RGB)));
+      assertFalse(new ParallelRgbConverter(0, 1).isParallel(new BufferedImage(10, 100, BufferedImage.TYPE_INT_RGB)));
+    } finally {
+      converter.shutdown();
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.igormaznitsa.ravikoodi.screencast.screensrc;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class RgbFrameAssemblerTest {
+
+  @Test
+  public void testChunksSplitBetweenFrames() {
+    final List<byte[]> frames = new ArrayList<>();
+    final RgbFrameAssembler assembler = new RgbFrameAssembler(4, x -> frames.add(Arrays.copyOf(x, x.length)));
+    assembler.accept(3, new byte[]{1, 2, 3, 99});
+    assertTrue(frames.isEmpty());
+    assembler.accept(10, new byte[]{4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+    assertEquals(3, frames.size());
+    assertArrayEquals(new byte[]{1, 2, 3, 4}, frames.get(0));
+    assertArrayEquals(new byte[]{5, 6, 7, 8}, frames.get(1));
+    assertArrayEquals(new byte[]{9, 10, 11, 12}, frames.get(2));
+    assembler.accept(3, new byte[]{14, 15, 16});
+    assertEquals(4, frames.size());
+    assertArrayEquals(new byte[]{13, 14, 15, 16}, frames.get(3));
+  }
+}
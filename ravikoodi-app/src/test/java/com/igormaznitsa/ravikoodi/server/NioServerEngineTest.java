@@ -0,0 +1,333 @@
+package com.igormaznitsa.ravikoodi.server;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NioServerEngineTest {
+
+  private Path file;
+  private NioServerEngine engine;
+
+  private static final class Response {
+
+    private final int status;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    private Response(final int status, final Map<String, String> headers, final byte[] body) {
+      this.status = status;
+      this.headers = headers;
+      this.body = body;
+    }
+
+    private String header(final String name) {
+      return this.headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    private String text() {
+      return new String(this.body, StandardCharsets.UTF_8);
+    }
+  }
+
+  @Before
+  public void before() throws Exception {
+    this.file = Files.createTempFile("nioengine", ".bin");
+  }
+
+  @After
+  public void after() throws Exception {
+    if (this.engine != null) {
+      this.engine.close();
+    }
+    Files.deleteIfExists(this.file);
+  }
+
+  private NioServerEngine start(final HttpHandler handler) throws IOException {
+    this.engine = new NioServerEngine(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16, 2, handler);
+    this.engine.start();
+    return this.engine;
+  }
+
+  private Socket connect() throws IOException {
+    final Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.engine.getPort());
+    socket.setSoTimeout(10000);
+    return socket;
+  }
+
+  private static void send(final Socket socket, final String request) throws IOException {
+    socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+    socket.getOutputStream().flush();
+  }
+
+  private static String readLine(final InputStream in) throws IOException {
+    final StringBuilder result = new StringBuilder();
+    int chr;
+    while ((chr = in.read()) >= 0) {
+      if (chr == '\n') {
+        break;
+      }
+      if (chr != '\r') {
+        result.append((char) chr);
+      }
+    }
+    if (chr < 0 && result.length() == 0) {
+      throw new IOException("End of stream");
+    }
+    return result.toString();
+  }
+
+  private static byte[] readFully(final InputStream in, final int length) throws IOException {
+    final byte[] result = in.readNBytes(length);
+    if (result.length != length) {
+      throw new IOException("Unexpected end of stream");
+    }
+    return result;
+  }
+
+  private static Response read(final InputStream in, final boolean head) throws IOException {
+    final String statusLine = readLine(in);
+    final int status = Integer.parseInt(statusLine.split(" ")[1]);
+    final Map<String, String> headers = new TreeMap<>();
+    String line;
+    while (!(line = readLine(in)).isEmpty()) {
+      final int colon = line.indexOf(':');
+      headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+    }
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    if (!head) {
+      if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+        while (true) {
+          final int size = Integer.parseInt(readLine(in).trim(), 16);
+          if (size == 0) {
+            readLine(in);
+            break;
+          }
+          body.writeBytes(readFully(in, size));
+          readLine(in);
+        }
+      } else if (headers.containsKey("content-length")) {
+        body.writeBytes(readFully(in, Integer.parseInt(headers.get("content-length"))));
+      }
+    }
+    return new Response(status, headers, body.toByteArray());
+  }
+
+  private static HttpHandler makeEchoHandler() {
+    return exchange -> {
+      final String path = exchange.getRequestURI().getPath();
+      final byte[] requestBody = exchange.getRequestBody().readAllBytes();
+      final byte[] body = (path + ':' + requestBody.length).getBytes(StandardCharsets.UTF_8);
+      if (path.startsWith("/chunked")) {
+        exchange.sendResponseHeaders(200, 0);
+        exchange.getResponseBody().write(body, 0, 3);
+        exchange.getResponseBody().write(body, 3, body.length - 3);
+      } else if (path.startsWith("/empty")) {
+        exchange.sendResponseHeaders(204, -1);
+      } else if ("HEAD".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Content-Length", Integer.toString(body.length));
+        exchange.sendResponseHeaders(200, -1);
+      } else {
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      }
+    };
+  }
+
+  @Test(timeout = 15000L)
+  public void testFixedChunkedAndNoBodyResponses() throws Exception {
+    start(makeEchoHandler());
+    try (Socket socket = connect()) {
+      final InputStream in = socket.getInputStream();
+
+      send(socket, "GET /fixed HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      Response response = read(in, false);
+      assertEquals(200, response.status);
+      assertEquals("8", response.header("Content-Length"));
+      assertNull(response.header("Transfer-Encoding"));
+      assertEquals("/fixed:0", response.text());
+
+      send(socket, "GET /chunked HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      response = read(in, false);
+      assertEquals(200, response.status);
+      assertEquals("chunked", response.header("Transfer-Encoding"));
+      assertNull(response.header("Content-Length"));
+      assertEquals("/chunked:0", response.text());
+
+      send(socket, "GET /empty HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      response = read(in, false);
+      assertEquals(204, response.status);
+      assertNull(response.header("Content-Length"));
+      assertEquals(0, response.body.length);
+
+      send(socket, "HEAD /fixed HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      response = read(in, true);
+      assertEquals(200, response.status);
+      assertEquals("8", response.header("Content-Length"));
+
+      send(socket, "GET /fixed HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      assertEquals("/fixed:0", read(in, false).text());
+    }
+  }
+
+  @Test(timeout = 15000L)
+  public void testKeepAliveAndPipelinedRequests() throws Exception {
+    final AtomicInteger requests = new AtomicInteger();
+    final HttpHandler echo = makeEchoHandler();
+    start(exchange -> {
+      requests.incrementAndGet();
+      echo.handle(exchange);
+    });
+    try (Socket socket = connect()) {
+      final InputStream in = socket.getInputStream();
+      send(socket, "POST /first HTTP/1.1\r\nHost: localhost\r\nContent-Length: 5\r\n\r\nhello");
+      assertEquals("/first:5", read(in, false).text());
+
+      send(socket, "GET /a HTTP/1.1\r\nHost: localhost\r\n\r\n"
+              + "GET /chunked-b HTTP/1.1\r\nHost: localhost\r\n\r\n"
+              + "POST /c HTTP/1.1\r\nHost: localhost\r\nContent-Length: 3\r\nConnection: close\r\n\r\nabc");
+      assertEquals("/a:0", read(in, false).text());
+      assertEquals("/chunked-b:0", read(in, false).text());
+      final Response last = read(in, false);
+      assertEquals("/c:3", last.text());
+      assertEquals("close", last.header("Connection"));
+      assertEquals(-1, in.read());
+    }
+    assertEquals(4, requests.get());
+  }
+
+  @Test(timeout = 15000L)
+  public void testExpectContinue() throws Exception {
+    start(makeEchoHandler());
+    try (Socket socket = connect()) {
+      final InputStream in = socket.getInputStream();
+      send(socket, "POST /upload HTTP/1.1\r\nHost: localhost\r\nExpect: 100-continue\r\nContent-Length: 5\r\n\r\n");
+      assertEquals("HTTP/1.1 100 Continue", readLine(in));
+      assertEquals("", readLine(in));
+      send(socket, "hello");
+      final Response response = read(in, false);
+      assertEquals(200, response.status);
+      assertEquals("/upload:5", response.text());
+
+      send(socket, "POST /next HTTP/1.1\r\nHost: localhost\r\nExpect: 100-continue\r\nContent-Length: 2\r\nConnection: close\r\n\r\n");
+      assertEquals("HTTP/1.1 100 Continue", readLine(in));
+      assertEquals("", readLine(in));
+      send(socket, "ok");
+      assertEquals("/next:2", read(in, false).text());
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test(timeout = 15000L)
+  public void testOversizedBodyRejected() throws Exception {
+    final AtomicInteger requests = new AtomicInteger();
+    start(exchange -> {
+      requests.incrementAndGet();
+      exchange.sendResponseHeaders(200, -1);
+    });
+    try (Socket socket = connect()) {
+      send(socket, "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + (NioConnection.MAX_REQUEST_BODY_SIZE + 1) + "\r\n\r\n");
+      final Response response = read(socket.getInputStream(), false);
+      assertEquals(413, response.status);
+      assertEquals("close", response.header("Connection"));
+      assertEquals(-1, socket.getInputStream().read());
+    }
+    assertEquals(0, requests.get());
+  }
+
+  @Test(timeout = 15000L)
+  public void testQueuedFileRegion() throws Exception {
+    final byte[] content = new byte[300 * 1024];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31);
+    }
+    Files.write(this.file, content);
+
+    final AtomicLong sentBytes = new AtomicLong(-1L);
+    final CountDownLatch completed = new CountDownLatch(1);
+    start(exchange -> {
+      exchange.sendResponseHeaders(200, content.length - 1000L);
+      final FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ);
+      ((FileRegionSink) exchange.getResponseBody()).sendFileRegion(channel, 1000L, content.length - 1000L, sent -> {
+        sentBytes.set(sent);
+        completed.countDown();
+      });
+    });
+
+    try (Socket socket = connect()) {
+      send(socket, "GET /file HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      final Response response = read(socket.getInputStream(), false);
+      assertEquals(200, response.status);
+      assertEquals(content.length - 1000, response.body.length);
+      for (int i = 0; i < response.body.length; i++) {
+        assertEquals(content[i + 1000], response.body[i]);
+      }
+    }
+    assertTrue(completed.await(5, TimeUnit.SECONDS));
+    assertEquals(content.length - 1000L, sentBytes.get());
+  }
+
+  @Test(timeout = 30000L)
+  public void testClientAbortDuringFileRegion() throws Exception {
+    final long size = 256L * 1024L * 1024L;
+    try (RandomAccessFile raf = new RandomAccessFile(this.file.toFile(), "rw")) {
+      raf.setLength(size);
+    }
+
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicLong sentBytes = new AtomicLong(-1L);
+    final CountDownLatch completed = new CountDownLatch(1);
+    final AtomicReference<FileChannel> channelRef = new AtomicReference<>();
+    start(exchange -> {
+      exchange.sendResponseHeaders(200, size);
+      final FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ);
+      channelRef.set(channel);
+      ((FileRegionSink) exchange.getResponseBody()).sendFileRegion(channel, 0L, size, sent -> {
+        calls.incrementAndGet();
+        sentBytes.set(sent);
+        completed.countDown();
+      });
+    });
+
+    try (Socket socket = connect()) {
+      socket.setReceiveBufferSize(4096);
+      send(socket, "GET /file HTTP/1.1\r\nHost: localhost\r\n\r\n");
+      final InputStream in = socket.getInputStream();
+      while (!readLine(in).isEmpty()) {
+        // skip headers
+      }
+      readFully(in, 81);
+      socket.setSoLinger(true, 0);
+    }
+
+    assertTrue(completed.await(20, TimeUnit.SECONDS));
+    Thread.sleep(200L);
+    assertEquals(1, calls.get());
+    assertTrue(sentBytes.get() >= 81L);
+    assertTrue(sentBytes.get() < size);
+    assertFalse(channelRef.get().isOpen());
+  }
+}
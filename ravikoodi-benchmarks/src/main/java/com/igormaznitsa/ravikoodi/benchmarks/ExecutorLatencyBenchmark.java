@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.benchmarks;
+
+import com.igormaznitsa.ravikoodi.VirtualThreads;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of short timer actions and of blocking calls while executors are
+ * loaded by slow KODI JSON-RPC like calls. Sample time mode provides p99 in
+ * the report. SPLIT_VIRTUAL mode requires JDK 21+.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExecutorLatencyBenchmark {
+
+  public enum ExecutorMode {
+    /**
+     * Single scheduled pool for all tasks, as it was before split.
+     */
+    SHARED_POOL,
+    /**
+     * Small scheduler plus cached pool of platform threads for blocking tasks.
+     */
+    SPLIT_PLATFORM,
+    /**
+     * Small scheduler plus virtual thread per blocking task.
+     */
+    SPLIT_VIRTUAL
+  }
+
+  @Param({"SHARED_POOL", "SPLIT_PLATFORM", "SPLIT_VIRTUAL"})
+  public ExecutorMode mode;
+
+  @Param({"200"})
+  public int slowCallMs;
+
+  @Param({"64"})
+  public int slowCallsInFlight;
+
+  private ScheduledExecutorService scheduler;
+  private ExecutorService taskExecutor;
+  private Thread loadGenerator;
+
+  private static ScheduledExecutorService makeScheduler(final int threads) {
+    return new ScheduledThreadPoolExecutor(threads, r -> {
+      final Thread thread = new Thread(r, "bench-scheduler-" + System.nanoTime());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static void sleep(final long milliseconds) {
+    try {
+      Thread.sleep(milliseconds);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    switch (this.mode) {
+      case SHARED_POOL: {
+        this.scheduler = makeScheduler(5);
+        this.taskExecutor = this.scheduler;
+      }
+      break;
+      case SPLIT_PLATFORM: {
+        this.scheduler = makeScheduler(2);
+        this.taskExecutor = Executors.newCachedThreadPool(r -> {
+          final Thread thread = new Thread(r, "bench-task-" + System.nanoTime());
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+      break;
+      case SPLIT_VIRTUAL: {
+        this.scheduler = makeScheduler(2);
+        this.taskExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor("bench-virtual-")
+                .orElseThrow(() -> new IllegalStateException("Virtual threads are not supported by current JVM"));
+      }
+      break;
+      default:
+        throw new Error("Unexpected mode: " + this.mode);
+    }
+
+    final Semaphore inFlight = new Semaphore(this.slowCallsInFlight);
+    this.loadGenerator = new Thread(() -> {
+      while (!Thread.currentThread().isInterrupted()) {
+        try {
+          inFlight.acquire();
+          this.taskExecutor.execute(() -> {
+            try {
+              sleep(this.slowCallMs);
+            } finally {
+              inFlight.release();
+            }
+          });
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+          inFlight.release();
+          break;
+        }
+      }
+    }, "bench-load-generator");
+    this.loadGenerator.setDaemon(true);
+    this.loadGenerator.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    this.loadGenerator.interrupt();
+    this.loadGenerator.join(1000L);
+    this.scheduler.shutdownNow();
+    this.taskExecutor.shutdownNow();
+  }
+
+  /**
+   * Short periodic action like collecting of timeout files.
+   */
+  @Benchmark
+  public Object timerAction() throws InterruptedException, ExecutionException {
+    return this.scheduler.schedule(() -> Boolean.TRUE, 0L, TimeUnit.MILLISECONDS).get();
+  }
+
+  /**
+   * Short blocking call like fast KODI JSON-RPC request.
+   */
+  @Benchmark
+  public Object blockingCall() throws InterruptedException, ExecutionException {
+    return this.taskExecutor.submit(() -> {
+      sleep(1L);
+      return Boolean.TRUE;
+    }).get();
+  }
+}
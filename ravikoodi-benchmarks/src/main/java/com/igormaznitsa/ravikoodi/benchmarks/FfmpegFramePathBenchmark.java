@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.benchmarks;
+
+import com.igormaznitsa.ravikoodi.screencast.FfmpegWrapper;
+import com.igormaznitsa.ravikoodi.screencast.FrameChangeDetector;
+import com.igormaznitsa.ravikoodi.screencast.screensrc.FfmpegScreenSource;
+import com.igormaznitsa.ravikoodi.screencast.screensrc.RgbFrameAssembler;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per frame work of FfmpegScreenSource: collecting of raw RGB stream chunks
+ * (as consumeInData does) and drawing of mouse pointer, plus conversion of INT
+ * RGB image in FfmpegWrapper and change detection in ScreenGrabber. One
+ * operation is one frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FfmpegFramePathBenchmark {
+
+  @Param({"1920"})
+  public int width;
+
+  @Param({"1080"})
+  public int height;
+
+  /**
+   * Size of chunk read from FFmpeg, LoopbackTcpReader uses 64 KB buffer.
+   */
+  @Param({"65536"})
+  public int chunkSize;
+
+  @Param({"64"})
+  public int pointerSize;
+
+  private byte[] chunk;
+  private int chunksPerFrame;
+  private RgbFrameAssembler assembler;
+  private Blackhole blackhole;
+  private byte[] frame;
+  private int[] pointer;
+  private Point pointerPosition;
+  private BufferedImage intRgbImage;
+  private FrameChangeDetector changeDetector;
+
+  @Setup(Level.Trial)
+  public void setup(final Blackhole blackhole) {
+    this.blackhole = blackhole;
+    final Random rnd = new Random(12345L);
+    this.chunk = new byte[this.chunkSize];
+    rnd.nextBytes(this.chunk);
+    final int frameSize = this.width * this.height * 3;
+    this.chunksPerFrame = (frameSize + this.chunkSize - 1) / this.chunkSize;
+    // frame size is not multiple of chunk so that chunks are split between frames
+    this.assembler = new RgbFrameAssembler(frameSize, x -> this.blackhole.consume(x));
+
+    this.frame = new byte[frameSize];
+    rnd.nextBytes(this.frame);
+    this.pointer = new int[this.pointerSize * this.pointerSize];
+    for (int i = 0; i < this.pointer.length; i++) {
+      // about half of pointer pixels are transparent
+      this.pointer[i] = rnd.nextBoolean() ? 0 : rnd.nextInt() | 0xFF000000;
+    }
+    this.pointerPosition = new Point(this.width / 2, this.height / 2);
+    this.changeDetector = new FrameChangeDetector(this.width, this.height, 64);
+    this.intRgbImage = RgbConversionBenchmark.makeRandomImage(this.width, this.height, BufferedImage.TYPE_INT_RGB, 12345L);
+  }
+
+  @Benchmark
+  public void consumeInData() {
+    for (int i = 0; i < this.chunksPerFrame; i++) {
+      this.assembler.accept(this.chunk.length, this.chunk);
+    }
+  }
+
+  @Benchmark
+  public byte[] drawPointer() {
+    FfmpegScreenSource.drawPointer(this.pointer, this.pointerSize, this.pointerSize,
+            this.width, this.height, this.pointerPosition, this.frame);
+    return this.frame;
+  }
+
+  @Benchmark
+  public byte[] extractRgb() {
+    return FfmpegWrapper.extractRgb(this.intRgbImage);
+  }
+
+  @Benchmark
+  public boolean detectChanges() {
+    return this.changeDetector.update(this.frame);
+  }
+}
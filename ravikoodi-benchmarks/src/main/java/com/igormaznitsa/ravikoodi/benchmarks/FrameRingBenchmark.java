@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.benchmarks;
+
+import com.igormaznitsa.ravikoodi.screencast.PooledFrameRing;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Producer and consumer working concurrently on the frame ring used by
+ * LoopbackTcpWriter (it replaced PreemptiveBuffer). Frame size 6220800 is
+ * 1080p RGB frame, 4096 is sound chunk.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameRingBenchmark {
+
+  @Param({"4096", "6220800"})
+  public int frameSize;
+
+  @Param({"3"})
+  public int capacity;
+
+  private PooledFrameRing ring;
+  private byte[] frame;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ConsumerCounters {
+
+    public long taken;
+    public long empty;
+  }
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    this.frame = new byte[this.frameSize];
+    this.ring = new PooledFrameRing(this.capacity, this.frameSize);
+    this.ring.start();
+  }
+
+  @Benchmark
+  @Group("ring")
+  @GroupThreads(1)
+  public void put() {
+    this.ring.put(this.frame, 0, this.frame.length);
+  }
+
+  @Benchmark
+  @Group("ring")
+  @GroupThreads(1)
+  public int take(final ConsumerCounters counters) throws InterruptedException {
+    final PooledFrameRing.Frame taken = this.ring.take(10L, TimeUnit.MILLISECONDS);
+    if (taken == null) {
+      counters.empty++;
+      return 0;
+    } else {
+      try {
+        counters.taken++;
+        return taken.getLength();
+      } finally {
+        this.ring.release(taken);
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.benchmarks;
+
+import com.igormaznitsa.ravikoodi.screencast.screensrc.ParallelRgbConverter;
+import com.igormaznitsa.ravikoodi.screencast.screensrc.RgbConverters;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scalar and parallel conversion of INT_RGB frame into RGB24.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelRgbConversionBenchmark {
+
+  @Param({"1920x1080", "3840x2160"})
+  public String resolution;
+
+  private BufferedImage image;
+  private int[] pixels;
+  private byte[] target;
+  private ParallelRgbConverter parallelConverter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final String[] size = this.resolution.split("x");
+    final int width = Integer.parseInt(size[0]);
+    final int height = Integer.parseInt(size[1]);
+    this.image = RgbConversionBenchmark.makeRandomImage(width, height, BufferedImage.TYPE_INT_RGB, 12345L);
+    this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+    this.target = new byte[RgbConverters.rgbLength(this.image)];
+    this.parallelConverter = new ParallelRgbConverter(0, Runtime.getRuntime().availableProcessors());
+
+    final byte[] expected = new byte[this.target.length];
+    RgbConverters.intRgbToRgb(this.pixels, 0, this.pixels.length, expected);
+    this.parallelConverter.convert(this.image, this.target);
+    if (!Arrays.equals(expected, this.target)) {
+      throw new IllegalStateException("Parallel result is wrong");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.parallelConverter.shutdown();
+  }
+
+  @Benchmark
+  public byte[] scalar() {
+    RgbConverters.intRgbToRgb(this.pixels, 0, this.pixels.length, this.target);
+    return this.target;
+  }
+
+  @Benchmark
+  public byte[] parallel() {
+    this.parallelConverter.convert(this.image, this.target);
+    return this.target;
+  }
+}
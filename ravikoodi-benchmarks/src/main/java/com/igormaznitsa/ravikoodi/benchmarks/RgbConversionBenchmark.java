@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Igor Maznitsa.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.igormaznitsa.ravikoodi.benchmarks;
+
+import com.igormaznitsa.ravikoodi.screencast.screensrc.RgbConverters;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of images grabbed by RobotScreenSource into packed RGB frames,
+ * in-place conversion into reused buffer and conversion with new buffer for
+ * every frame. Images
+ * are synthetic and filled by random pixels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RgbConversionBenchmark {
+
+  public enum ImageType {
+    INT_RGB(BufferedImage.TYPE_INT_RGB),
+    INT_BGR(BufferedImage.TYPE_INT_BGR),
+    BYTE_3BGR(BufferedImage.TYPE_3BYTE_BGR),
+    USHORT_565(BufferedImage.TYPE_USHORT_565_RGB);
+
+    private final int type;
+
+    ImageType(final int type) {
+      this.type = type;
+    }
+
+    public int getType() {
+      return this.type;
+    }
+  }
+
+  @Param({"INT_RGB", "INT_BGR", "BYTE_3BGR", "USHORT_565"})
+  public ImageType imageType;
+
+  @Param({"1920"})
+  public int width;
+
+  @Param({"1080"})
+  public int height;
+
+  private BufferedImage image;
+  private byte[] target;
+
+  static BufferedImage makeRandomImage(final int width, final int height, final int type, final long seed) {
+    final BufferedImage result = new BufferedImage(width, height, type);
+    final Random rnd = new Random(seed);
+    final int[] line = new int[width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        line[x] = rnd.nextInt();
+      }
+      result.setRGB(0, y, width, 1, line, 0, width);
+    }
+    return result;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.image = makeRandomImage(this.width, this.height, this.imageType.getType(), 12345L);
+    this.target = new byte[RgbConverters.rgbLength(this.image)];
+  }
+
+  @Benchmark
+  public byte[] convertInPlace() {
+    RgbConverters.convert(this.image, this.target);
+    return this.target;
+  }
+
+  @Benchmark
+  public byte[] convertNewBuffer() {
+    final byte[] result = new byte[RgbConverters.rgbLength(this.image)];
+    RgbConverters.convert(this.image, result);
+    return result;
+  }
+}